@@ -0,0 +1,43 @@
+--
+-- V10: Indexes matched to the repository predicates
+--
+-- The original schema indexed is_settled and status on their own. Those columns
+-- hold two to four values, so each such index selects a large share of its table
+-- and the planner ignores it, while the queries that filter on them always filter
+-- on a group, an expense or an email first. Each index added here matches the
+-- WHERE clause of a repository query, and QueryPlanRegressionTest checks that no
+-- custom query falls back to a sequential scan.
+--
+
+BEGIN;
+
+-- Unsettled splits of an expense (settlement streams and marking expenses settled)
+CREATE INDEX IF NOT EXISTS idx_expense_splits_expense_unsettled
+    ON public.expense_splits (expense_id)
+    WHERE is_settled = false;
+
+-- Last activity of a group on the group list
+CREATE INDEX IF NOT EXISTS idx_expenses_group_updated_at
+    ON public.expenses (group_id, updated_at);
+
+-- Pending invitations for the signed-in user's email
+CREATE INDEX IF NOT EXISTS idx_invitations_email_status
+    ON public.invitations (invited_email, status);
+
+-- Most recent active link of a group, and the links created within the rate limit window
+CREATE INDEX IF NOT EXISTS idx_invitation_links_group_created_at
+    ON public.invitation_links (group_id, created_at DESC);
+
+-- Low selectivity, no query filters on these columns alone
+DROP INDEX IF EXISTS public.idx_expense_splits_is_settled;
+DROP INDEX IF EXISTS public.idx_expenses_is_settled;
+DROP INDEX IF EXISTS public.idx_expenses_expense_date;
+DROP INDEX IF EXISTS public.idx_invitation_links_status;
+DROP INDEX IF EXISTS public.idx_settlements_currency;
+
+-- Covered by the leading columns of another index
+DROP INDEX IF EXISTS public.idx_expense_splits_expense_id;   -- unique_user_per_expense (expense_id, user_id)
+DROP INDEX IF EXISTS public.idx_invitation_links_group_id;   -- idx_invitation_links_group_created_at
+DROP INDEX IF EXISTS public.idx_invitation_links_token;      -- invitation_links_token_key (token)
+
+COMMIT;
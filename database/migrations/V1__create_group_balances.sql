@@ -0,0 +1,48 @@
+--
+-- V1: Per-member balance ledger
+--
+-- Holds the running net balance of every member of a group per currency:
+--   positive = the member is owed money, negative = the member owes money.
+-- Maintained by expense creation/edits/deletion, and settlement subtracts the
+-- balances it settled, so balance reads no longer need to scan every unsettled
+-- expense split.
+--
+
+BEGIN;
+
+CREATE TABLE public.group_balances (
+    group_id uuid NOT NULL,
+    user_id uuid NOT NULL,
+    currency text NOT NULL,
+    net_amount numeric(12,2) DEFAULT 0 NOT NULL,
+    updated_at timestamp with time zone DEFAULT now() NOT NULL
+);
+
+ALTER TABLE ONLY public.group_balances
+    ADD CONSTRAINT group_balances_pkey PRIMARY KEY (group_id, user_id, currency);
+
+ALTER TABLE ONLY public.group_balances
+    ADD CONSTRAINT group_balances_group_id_fkey FOREIGN KEY (group_id) REFERENCES public.groups(id) ON DELETE CASCADE;
+
+ALTER TABLE ONLY public.group_balances
+    ADD CONSTRAINT group_balances_user_id_fkey FOREIGN KEY (user_id) REFERENCES public.users(id);
+
+ALTER TABLE public.group_balances ENABLE ROW LEVEL SECURITY;
+
+-- Backfill from the currently unsettled splits (debtor is debited, payer is credited)
+INSERT INTO public.group_balances (group_id, user_id, currency, net_amount)
+SELECT d.group_id, d.user_id, d.currency, SUM(d.delta)
+FROM (
+    SELECT e.group_id, es.user_id, e.currency, -es.amount_owed AS delta
+    FROM public.expense_splits es
+    JOIN public.expenses e ON e.id = es.expense_id
+    WHERE es.is_settled = false
+    UNION ALL
+    SELECT e.group_id, e.paid_by_user_id, e.currency, es.amount_owed AS delta
+    FROM public.expense_splits es
+    JOIN public.expenses e ON e.id = es.expense_id
+    WHERE es.is_settled = false
+) d
+GROUP BY d.group_id, d.user_id, d.currency;
+
+COMMIT;
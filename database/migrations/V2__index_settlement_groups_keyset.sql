@@ -0,0 +1,17 @@
+--
+-- V2: Keyset index for settlement history
+--
+-- Settlement history is paged newest first on (settled_at, id) within a group.
+-- This index serves both the filter and the ordering so each page is a short
+-- index range scan, no matter how deep into the history the client is.
+-- It has group_id as its leading column, so the old single-column index is redundant.
+--
+
+BEGIN;
+
+CREATE INDEX IF NOT EXISTS idx_settlement_groups_group_settled_at
+    ON public.settlement_groups (group_id, settled_at DESC, id DESC);
+
+DROP INDEX IF EXISTS public.idx_settlement_groups_group_id;
+
+COMMIT;
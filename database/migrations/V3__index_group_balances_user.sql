@@ -0,0 +1,15 @@
+--
+-- V3: Per-user lookup on the balance ledger
+--
+-- The primary key leads with group_id, so reading one user's balances across
+-- all of their groups (GET /api/users/me/balances) would scan the whole table.
+-- Settled-up rows are never read by that query, so they are left out of the index.
+--
+
+BEGIN;
+
+CREATE INDEX IF NOT EXISTS idx_group_balances_user_outstanding
+    ON public.group_balances (user_id)
+    WHERE net_amount <> 0;
+
+COMMIT;
@@ -0,0 +1,15 @@
+--
+-- V4: Date-bounded partial settlement
+--
+-- A partial settlement reads the unsettled expenses of a group up to a cutoff
+-- date. Settled expenses are never read by that query, so the index only covers
+-- unsettled rows and stays small as history grows.
+--
+
+BEGIN;
+
+CREATE INDEX IF NOT EXISTS idx_expenses_group_unsettled_date
+    ON public.expenses (group_id, expense_date)
+    WHERE is_settled = false;
+
+COMMIT;
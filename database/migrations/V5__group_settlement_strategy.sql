@@ -0,0 +1,23 @@
+--
+-- V5: Per-group settlement strategy
+--
+-- Groups can pick the algorithm used to settle their balances, and for the hub
+-- strategy the member every payment goes through. Both are nullable, null means
+-- the application default and the group owner respectively.
+--
+
+BEGIN;
+
+ALTER TABLE public.groups
+    ADD COLUMN IF NOT EXISTS settlement_strategy VARCHAR(20),
+    ADD COLUMN IF NOT EXISTS settlement_hub_id UUID
+        REFERENCES public.users (id) ON DELETE SET NULL;
+
+ALTER TABLE public.groups
+    DROP CONSTRAINT IF EXISTS chk_groups_settlement_strategy;
+
+ALTER TABLE public.groups
+    ADD CONSTRAINT chk_groups_settlement_strategy
+        CHECK (settlement_strategy IN ('GREEDY', 'EXACT', 'HUB'));
+
+COMMIT;
@@ -0,0 +1,14 @@
+--
+-- V6: Optimistic locking for expense edits
+--
+-- Expenses can now be edited in place. Every edit bumps the version, and an
+-- edit based on an older version is rejected instead of silently overwriting
+-- someone else's change.
+--
+
+BEGIN;
+
+ALTER TABLE public.expenses
+    ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+COMMIT;
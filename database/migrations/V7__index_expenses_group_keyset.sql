@@ -0,0 +1,17 @@
+--
+-- V7: Keyset index for the group expense list
+--
+-- The expense list is paged newest first on (expense_date, id) within a group.
+-- This index serves both the filter and the ordering so each page is a short
+-- index range scan, no matter how deep into the list the client is.
+-- It has group_id as its leading column, so the old single-column index is redundant.
+--
+
+BEGIN;
+
+CREATE INDEX IF NOT EXISTS idx_expenses_group_expense_date
+    ON public.expenses (group_id, expense_date DESC, id DESC);
+
+DROP INDEX IF EXISTS public.idx_expenses_group_id;
+
+COMMIT;
@@ -0,0 +1,15 @@
+--
+-- V8: Index group memberships by user
+--
+-- The group list is driven from the caller's rows in group_members, and the
+-- membership cache loads all groups of a user the same way. The primary key
+-- leads with group_id, so looking up by user_id scanned the whole table.
+-- Including group_id makes both lookups index-only.
+--
+
+BEGIN;
+
+CREATE INDEX IF NOT EXISTS idx_group_members_user_group
+    ON public.group_members (user_id, group_id);
+
+COMMIT;
@@ -0,0 +1,22 @@
+--
+-- V9: Denormalized member and unsettled expense counters on groups
+--
+-- The group list and the unsettled badge counted group_members and expenses on
+-- every read. The counters are kept in step by relative updates in the same
+-- transaction as the change (join/leave, expense create/delete, settlement),
+-- and a scheduled reconciliation repairs any drift.
+--
+
+BEGIN;
+
+ALTER TABLE public.groups
+    ADD COLUMN IF NOT EXISTS member_count integer NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS unsettled_expense_count integer NOT NULL DEFAULT 0;
+
+-- Backfill from the current rows
+UPDATE public.groups g
+SET member_count = (SELECT count(*) FROM public.group_members gm WHERE gm.group_id = g.id),
+    unsettled_expense_count = (SELECT count(*) FROM public.expenses e
+                               WHERE e.group_id = g.id AND e.is_settled = false);
+
+COMMIT;
@@ -0,0 +1,23 @@
+package com.jlgs.howmuchah.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.membership-cache")
+public class GroupMembershipCacheProperties {
+
+    /**
+     * How long a user's cached group memberships may be trusted before they are reloaded
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /**
+     * Maximum number of users whose group memberships are kept in memory
+     */
+    private long maxSize = 50_000;
+}
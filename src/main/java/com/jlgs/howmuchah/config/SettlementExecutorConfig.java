@@ -0,0 +1,27 @@
+package com.jlgs.howmuchah.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class SettlementExecutorConfig {
+
+    /**
+     * Bounded pool for background settlements
+     * Kept small on purpose, the Hikari pool only has 3 connections and HTTP requests need them too.
+     * Not a default candidate, so Boot still creates its applicationTaskExecutor for everything else
+     * and only injection points qualified with "settlementExecutor" get this pool.
+     */
+    @Bean(defaultCandidate = false)
+    public ThreadPoolTaskExecutor settlementExecutor(SettlementProperties settlementProperties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(settlementProperties.getAsyncConcurrency());
+        executor.setMaxPoolSize(settlementProperties.getAsyncConcurrency());
+        executor.setQueueCapacity(settlementProperties.getAsyncQueueCapacity());
+        executor.setThreadNamePrefix("settlement-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
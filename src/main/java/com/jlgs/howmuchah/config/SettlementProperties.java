@@ -0,0 +1,79 @@
+package com.jlgs.howmuchah.config;
+
+import com.jlgs.howmuchah.enums.SettlementSolverMode;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Data
+@Component
+@Validated
+@ConfigurationProperties(prefix = "app.settlement")
+public class SettlementProperties {
+
+    /**
+     * Algorithm used to minimize settlement transactions
+     */
+    private SettlementSolverMode solver = SettlementSolverMode.GREEDY;
+
+    /**
+     * CPU time the exact solver may spend per currency before falling back to greedy
+     * Previews run on the request thread, so the budget is capped at a few seconds.
+     */
+    @Min(1)
+    @Max(5_000)
+    private long exactTimeBudgetMs = 200;
+
+    /**
+     * Largest number of non-zero balances the exact solver will attempt
+     * The solver allocates 9 bytes per subset of members, 24 members is already about 150 MB.
+     */
+    @Min(1)
+    @Max(24)
+    private int exactMaxMembers = 20;
+
+    /**
+     * How long a computed settlement preview may be served before it is recomputed
+     */
+    private Duration previewCacheTtl = Duration.ofMinutes(10);
+
+    /**
+     * Maximum number of groups with a cached settlement preview
+     */
+    private long previewCacheMaxSize = 10_000;
+
+    /**
+     * Maximum number of serialized settlement details kept in memory, they never change once created
+     */
+    private long detailCacheMaxSize = 5_000;
+
+    /**
+     * Settlements that may run in the background at once, each holds a database connection
+     */
+    private int asyncConcurrency = 1;
+
+    /**
+     * Background settlements that may wait for a free worker before new ones are rejected
+     */
+    private int asyncQueueCapacity = 20;
+
+    /**
+     * How long a finished settlement job can still be polled
+     */
+    private Duration asyncJobRetention = Duration.ofHours(1);
+
+    /**
+     * Settlement CSV exports that may stream at once, each holds a database connection until it finishes
+     */
+    private int exportConcurrency = 1;
+
+    /**
+     * How long the export query may run before the database cancels it
+     */
+    private Duration exportQueryTimeout = Duration.ofSeconds(30);
+}
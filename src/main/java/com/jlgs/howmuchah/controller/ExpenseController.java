@@ -1,10 +1,15 @@
 package com.jlgs.howmuchah.controller;
 
+import com.jlgs.howmuchah.dto.request.ExpenseBatchRequest;
 import com.jlgs.howmuchah.dto.request.ExpenseCreationRequest;
 import com.jlgs.howmuchah.dto.request.ExpenseUpdateRequest;
+import com.jlgs.howmuchah.dto.response.CursorPage;
+import com.jlgs.howmuchah.dto.response.ExpenseBatchResponse;
 import com.jlgs.howmuchah.dto.response.ExpenseDetailResponse;
 import com.jlgs.howmuchah.dto.response.ExpenseResponse;
+import com.jlgs.howmuchah.service.ExpenseImportService;
 import com.jlgs.howmuchah.service.ExpenseService;
+import com.jlgs.howmuchah.util.CsvUtils;
 import com.jlgs.howmuchah.util.JwtUtil;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -15,11 +20,15 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -28,8 +37,16 @@ import java.util.UUID;
 @Slf4j
 public class ExpenseController {
 
+    // Fields the expense list may be sorted by, anything else would be an unindexed (or invalid) sort
+    private static final Set<String> SORTABLE_FIELDS =
+            Set.of("expenseDate", "createdAt", "updatedAt", "totalAmount", "description", "category");
+
+    // Far more than a full batch of rows needs, bigger uploads are refused before anything is parsed
+    private static final int MAX_CSV_BYTES = 1024 * 1024;
+
     private final JwtUtil jwtUtil;
     private final ExpenseService expenseService;
+    private final ExpenseImportService expenseImportService;
 
     @PostMapping
     public ResponseEntity<ExpenseDetailResponse> createExpense(
@@ -46,6 +63,40 @@ public class ExpenseController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ExpenseBatchResponse> importExpenses(
+            @AuthenticationPrincipal Jwt jwt,
+            @Valid @RequestBody ExpenseBatchRequest request) {
+
+        UUID userId = jwtUtil.extractUserId(jwt);
+        log.info("User {} importing {} expenses into group: {}", Encode.forJava(jwtUtil.extractEmail(jwt)),
+                request.getExpenses().size(), request.getGroupId());
+
+        ExpenseBatchResponse response =
+                expenseImportService.importExpenses(userId, request.getGroupId(), request.getExpenses());
+        log.info("User {} successfully imported {} expenses into group: {}",
+                Encode.forJava(jwtUtil.extractEmail(jwt)), response.getImportedCount(), request.getGroupId());
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @PostMapping(value = "/batch", consumes = "text/csv")
+    public ResponseEntity<ExpenseBatchResponse> importExpensesCsv(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam UUID groupId,
+            InputStream body) throws IOException {
+
+        UUID userId = jwtUtil.extractUserId(jwt);
+        log.info("User {} importing expenses from CSV into group: {}", Encode.forJava(jwtUtil.extractEmail(jwt)), groupId);
+
+        String csv = CsvUtils.read(body, MAX_CSV_BYTES);
+        ExpenseBatchResponse response = expenseImportService.importExpensesCsv(userId, groupId, csv);
+        log.info("User {} successfully imported {} expenses into group: {}",
+                Encode.forJava(jwtUtil.extractEmail(jwt)), response.getImportedCount(), groupId);
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
     @GetMapping
     public ResponseEntity<Page<ExpenseResponse>> getExpensesByGroup(
             @AuthenticationPrincipal Jwt jwt,
@@ -62,6 +113,9 @@ public class ExpenseController {
                 ? Sort.Direction.ASC
                 : Sort.Direction.DESC;
         String sortBy = sort.length > 0 ? sort[0] : "expenseDate";
+        if (!SORTABLE_FIELDS.contains(sortBy)) {
+            throw new IllegalArgumentException("Cannot sort expenses by " + sortBy);
+        }
 
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
         Page<ExpenseResponse> expenses = expenseService.getExpensesByGroup(userId, groupId, pageable);
@@ -69,6 +123,20 @@ public class ExpenseController {
         return ResponseEntity.ok(expenses);
     }
 
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<ExpenseResponse>> getExpensesByGroupPage(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam UUID groupId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        UUID userId = jwtUtil.extractUserId(jwt);
+        log.info("User {} fetching expense page for group: {}", Encode.forJava(jwtUtil.extractEmail(jwt)), groupId);
+
+        CursorPage<ExpenseResponse> page = expenseService.getExpensesByGroupPage(userId, groupId, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/{expenseId}")
     public ResponseEntity<ExpenseDetailResponse> getExpenseDetail(
             @AuthenticationPrincipal Jwt jwt,
@@ -84,6 +152,21 @@ public class ExpenseController {
         return ResponseEntity.ok(response);
     }
 
+    @PutMapping("/{expenseId}")
+    public ResponseEntity<ExpenseDetailResponse> updateExpense(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable UUID expenseId,
+            @Valid @RequestBody ExpenseUpdateRequest request) {
+
+        UUID userId = jwtUtil.extractUserId(jwt);
+        log.info("User {} updating expense: {}", Encode.forJava(jwtUtil.extractEmail(jwt)), expenseId);
+
+        ExpenseDetailResponse response = expenseService.updateExpense(userId, expenseId, request);
+        log.info("User {} successfully updated expense: {}", Encode.forJava(jwtUtil.extractEmail(jwt)), expenseId);
+
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/{groupId}/unsettled")
     public ResponseEntity<Long> getUnsettledExpensesCount(
             @AuthenticationPrincipal Jwt jwt,
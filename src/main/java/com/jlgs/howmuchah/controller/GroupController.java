@@ -52,18 +52,16 @@ public class GroupController {
 
     @GetMapping
     public ResponseEntity<List<GroupResponse>> getAllGroups(
-            @AuthenticationPrincipal Jwt jwt) {
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
 
         UUID userId = jwtUtil.extractUserId(jwt);
         log.info("Getting all groups for {}", Encode.forJava(jwtUtil.extractEmail(jwt)));
 
-        List<Group> groups = groupService.getAllGroupsForUser(userId);
-
-        List<GroupResponse> groupResponses = groups.stream()
-                .map(GroupResponse::fromGroup)
-                .collect(Collectors.toList());
+        List<GroupResponse> groups = groupService.getAllGroupsForUser(userId, page, size);
 
-        return ResponseEntity.ok(groupResponses);
+        return ResponseEntity.ok(groups);
     }
 
     @DeleteMapping("/{groupId}")
@@ -1,21 +1,41 @@
 package com.jlgs.howmuchah.controller;
 
+import com.jlgs.howmuchah.dto.request.SettlementRequest;
+import com.jlgs.howmuchah.dto.response.CursorPage;
 import com.jlgs.howmuchah.dto.response.SettlementDetailResponse;
+import com.jlgs.howmuchah.dto.response.SettlementJobResponse;
+import com.jlgs.howmuchah.dto.response.SettlementPreviewResponse;
 import com.jlgs.howmuchah.dto.response.SettlementSummaryResponse;
+import com.jlgs.howmuchah.security.GroupAccessGuard;
+import com.jlgs.howmuchah.service.SettlementJobService;
+import com.jlgs.howmuchah.settlement.SettlementDetailCache;
+import com.jlgs.howmuchah.settlement.SettlementExportLimiter;
 import com.jlgs.howmuchah.service.SettlementService;
 import com.jlgs.howmuchah.util.JwtUtil;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.owasp.encoder.Encode;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Callable;
 
 @RestController
 @RequestMapping("/api/settlements")
@@ -25,6 +45,9 @@ public class SettlementController {
 
     private final JwtUtil jwtUtil;
     private final SettlementService settlementService;
+    private final SettlementJobService settlementJobService;
+    private final GroupAccessGuard groupAccessGuard;
+    private final SettlementExportLimiter settlementExportLimiter;
 
     @GetMapping("/{groupId}/history")
     public ResponseEntity<List<SettlementSummaryResponse>> getSettlementHistory(
@@ -39,8 +62,93 @@ public class SettlementController {
         return ResponseEntity.ok(history);
     }
 
+    @GetMapping("/{groupId}/history/page")
+    public ResponseEntity<CursorPage<SettlementSummaryResponse>> getSettlementHistoryPage(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable UUID groupId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        UUID userId = jwtUtil.extractUserId(jwt);
+        log.info("User {} getting settlement history page for group {}",
+                Encode.forJava(jwtUtil.extractEmail(jwt)), Encode.forJava(String.valueOf(groupId)));
+
+        CursorPage<SettlementSummaryResponse> page =
+                settlementService.getSettlementHistoryPage(userId, groupId, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/{groupId}/export.csv")
+    public ResponseEntity<StreamingResponseBody> exportSettlements(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable UUID groupId,
+            NativeWebRequest webRequest) {
+
+        UUID userId = jwtUtil.extractUserId(jwt);
+        log.info("User {} exporting settlements for group {}",
+                Encode.forJava(jwtUtil.extractEmail(jwt)), Encode.forJava(String.valueOf(groupId)));
+
+        // Checked before the response is committed, errors while streaming can no longer become a 400
+        groupAccessGuard.requireMember(groupId, userId, "Only group members can export settlements", false);
+
+        // Released when streaming ends, or when the async request completes if the body never ran
+        // (task rejected, request timed out or abandoned before it started)
+        SettlementExportLimiter.Permit permit = settlementExportLimiter.acquire();
+        WebAsyncUtils.getAsyncManager(webRequest).registerCallableInterceptor(permit, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+                permit.release();
+            }
+        });
+
+        StreamingResponseBody body = outputStream -> {
+            try {
+                settlementService.writeSettlementsCsv(userId, groupId, outputStream);
+            } finally {
+                permit.release();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("settlements-" + groupId + ".csv")
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @GetMapping("/{groupId}/preview")
+    public ResponseEntity<SettlementPreviewResponse> getSettlementPreview(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable UUID groupId) {
+
+        UUID userId = jwtUtil.extractUserId(jwt);
+        log.info("User {} previewing settlement for group {}",
+                Encode.forJava(jwtUtil.extractEmail(jwt)), Encode.forJava(String.valueOf(groupId)));
+
+        SettlementPreviewResponse preview = settlementService.getSettlementPreview(userId, groupId);
+        return ResponseEntity.ok(preview);
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<SettlementJobResponse> getSettlementJob(
+            @AuthenticationPrincipal Jwt jwt,
+            @PathVariable UUID jobId) {
+
+        UUID userId = jwtUtil.extractUserId(jwt);
+        log.info("User {} polling settlement job {}",
+                Encode.forJava(jwtUtil.extractEmail(jwt)), Encode.forJava(String.valueOf(jobId)));
+
+        SettlementJobResponse job = settlementJobService.getJob(userId, jobId);
+        return ResponseEntity.ok(job);
+    }
+
+    /**
+     * Settlements never change once executed, so the response carries a strong ETag and may be
+     * cached by the client indefinitely. Revalidation with If-None-Match is answered with 304.
+     */
     @GetMapping("/{settlementGroupId}")
-    public ResponseEntity<SettlementDetailResponse> getSettlementDetail(
+    public ResponseEntity<byte[]> getSettlementDetail(
             @AuthenticationPrincipal Jwt jwt,
             @PathVariable UUID settlementGroupId) {
 
@@ -48,20 +156,31 @@ public class SettlementController {
         log.info("User {} getting settlement details for settlement {}",
                 Encode.forJava(jwtUtil.extractEmail(jwt)), Encode.forJava(String.valueOf(settlementGroupId)));
 
-        SettlementDetailResponse detail = settlementService.getSettlementDetail(userId, settlementGroupId);
-        return ResponseEntity.ok(detail);
+        SettlementDetailCache.Entry detail = settlementService.getSettlementDetail(userId, settlementGroupId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(detail.etag())
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable())
+                .body(detail.body());
     }
 
     @PostMapping("/{groupId}/settle")
-    public ResponseEntity<SettlementDetailResponse> executeSettlement(
+    public ResponseEntity<?> executeSettlement(
             @AuthenticationPrincipal Jwt jwt,
-            @PathVariable UUID groupId) {
+            @PathVariable UUID groupId,
+            @RequestParam(defaultValue = "false") boolean async,
+            @Valid @RequestBody(required = false) SettlementRequest request) {
 
         UUID userId = jwtUtil.extractUserId(jwt);
-        log.info("User {} settling expenses for group {}",
-                Encode.forJava(jwtUtil.extractEmail(jwt)), Encode.forJava(String.valueOf(groupId)));
+        log.info("User {} settling expenses for group {} (async={})",
+                Encode.forJava(jwtUtil.extractEmail(jwt)), Encode.forJava(String.valueOf(groupId)), async);
+
+        if (async) {
+            SettlementJobResponse job = settlementJobService.submitSettlement(userId, groupId, request);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        }
 
-        SettlementDetailResponse result = settlementService.executeSettlement(userId, groupId);
+        SettlementDetailResponse result = settlementService.executeSettlement(userId, groupId, request);
         return ResponseEntity.status(HttpStatus.CREATED).body(result);
     }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.jlgs.howmuchah.controller;
+
+import com.jlgs.howmuchah.dto.response.UserBalancesResponse;
+import com.jlgs.howmuchah.service.GroupBalanceService;
+import com.jlgs.howmuchah.util.JwtUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.owasp.encoder.Encode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+@Slf4j
+public class UserController {
+
+    private final JwtUtil jwtUtil;
+    private final GroupBalanceService groupBalanceService;
+
+    @GetMapping("/me/balances")
+    public ResponseEntity<UserBalancesResponse> getMyBalances(
+            @AuthenticationPrincipal Jwt jwt) {
+
+        UUID userId = jwtUtil.extractUserId(jwt);
+        log.info("Getting balances across all groups for {}", Encode.forJava(jwtUtil.extractEmail(jwt)));
+
+        UserBalancesResponse balances = groupBalanceService.getBalancesForUser(userId);
+        return ResponseEntity.ok(balances);
+    }
+}
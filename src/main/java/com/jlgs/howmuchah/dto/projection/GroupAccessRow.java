@@ -0,0 +1,8 @@
+package com.jlgs.howmuchah.dto.projection;
+
+import java.util.UUID;
+
+/**
+ * What an authorization check needs to know about a group and its caller
+ */
+public record GroupAccessRow(UUID ownerId, boolean member) {}
@@ -0,0 +1,10 @@
+package com.jlgs.howmuchah.dto.projection;
+
+import com.jlgs.howmuchah.enums.SettlementSolverMode;
+
+import java.util.UUID;
+
+/**
+ * Per-group settlement defaults, strategy and hub are null when the group never set them
+ */
+public record GroupSettlementSettingsRow(SettlementSolverMode strategy, UUID hubUserId, UUID ownerId) {}
@@ -0,0 +1,14 @@
+package com.jlgs.howmuchah.dto.projection;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Number of transactions and amount settled in one currency for one settlement event
+ */
+public record SettlementCurrencyTotalRow(
+        UUID settlementGroupId,
+        String currency,
+        Long transactionCount,
+        BigDecimal totalAmount
+) {}
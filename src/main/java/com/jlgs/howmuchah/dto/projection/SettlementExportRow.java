@@ -0,0 +1,17 @@
+package com.jlgs.howmuchah.dto.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One settlement transaction as written to the CSV export
+ */
+public record SettlementExportRow(
+        LocalDateTime settledAt,
+        String payerName,
+        String payerEmail,
+        String payeeName,
+        String payeeEmail,
+        String currency,
+        BigDecimal amount
+) {}
@@ -0,0 +1,9 @@
+package com.jlgs.howmuchah.dto.projection;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Settlement event header, without its settlements
+ */
+public record SettlementGroupRow(UUID id, LocalDateTime settledAt) {}
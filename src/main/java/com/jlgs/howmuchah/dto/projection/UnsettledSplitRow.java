@@ -0,0 +1,15 @@
+package com.jlgs.howmuchah.dto.projection;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Flat view of one unsettled split, read without hydrating Expense/ExpenseSplit entities
+ */
+public record UnsettledSplitRow(
+        UUID expenseId,
+        UUID payerId,
+        UUID debtorId,
+        String currency,
+        BigDecimal amountOwed
+) {}
@@ -0,0 +1,9 @@
+package com.jlgs.howmuchah.dto.projection;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * A user's net balance in one currency within one of their groups
+ */
+public record UserGroupBalanceRow(UUID groupId, String groupName, String currency, BigDecimal netAmount) {}
@@ -0,0 +1,46 @@
+package com.jlgs.howmuchah.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One expense of a batch import, the group comes from the enclosing request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseBatchItem {
+
+    @NotBlank(message = "Description is required")
+    @Size(max = 100, message = "Description must be less than 100 characters")
+    private String description;
+
+    @NotNull(message = "Total amount is required")
+    @Positive(message = "Total amount must be positive")
+    private BigDecimal totalAmount;
+
+    @NotBlank(message = "Currency is required")
+    private String currency;
+
+    @NotNull(message = "Paid by user ID is required")
+    private UUID paidByUserId;
+
+    @NotBlank(message = "Category is required")
+    private String category;
+
+    private LocalDate expenseDate;
+
+    @NotEmpty(message = "At least one split is required")
+    @Valid
+    private List<ExpenseSplitDto> splits;
+}
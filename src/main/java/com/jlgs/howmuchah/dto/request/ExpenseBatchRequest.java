@@ -0,0 +1,26 @@
+package com.jlgs.howmuchah.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Expenses imported into one group at once
+ * Rows are validated individually by the service so every invalid row can be reported together.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseBatchRequest {
+
+    @NotNull(message = "Group ID is required")
+    private UUID groupId;
+
+    @NotEmpty(message = "At least one expense is required")
+    private List<ExpenseBatchItem> expenses;
+}
@@ -39,4 +39,7 @@ public class ExpenseUpdateRequest {
     @NotEmpty(message = "At least one split is required")
     @Valid
     private List<ExpenseSplitDto> splits;
+
+    // Version the client last read, the edit is rejected if the expense has changed since
+    private Long version;
 }
@@ -1,10 +1,13 @@
 package com.jlgs.howmuchah.dto.request;
 
+import com.jlgs.howmuchah.enums.SettlementSolverMode;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.UUID;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -15,4 +18,24 @@ public class GroupUpdateRequest {
 
     @Size(max = 150, message = "Description must not exceed 150 characters")
     private String description;
+
+    // Default strategy for this group's settlements
+    private SettlementSolverMode settlementStrategy;
+
+    // Member every payment goes through with the hub strategy
+    private UUID settlementHubId;
+
+    // Null fields are left unchanged, these reset the group back to the defaults
+    private boolean clearSettlementStrategy;
+
+    private boolean clearSettlementHub;
+
+    public GroupUpdateRequest(String name, String description) {
+        this(name, description, null, null);
+    }
+
+    public GroupUpdateRequest(String name, String description,
+                              SettlementSolverMode settlementStrategy, UUID settlementHubId) {
+        this(name, description, settlementStrategy, settlementHubId, false, false);
+    }
 }
@@ -0,0 +1,39 @@
+package com.jlgs.howmuchah.dto.request;
+
+import com.jlgs.howmuchah.enums.SettlementSolverMode;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Optional scope and strategy for a settlement
+ * Settles every unsettled expense when neither a date cutoff nor expense ids are given,
+ * and uses the group's strategy when no strategy is given.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementRequest {
+
+    // Only settle unsettled expenses dated on or before this day
+    private LocalDate expenseDateUpTo;
+
+    // Only settle these expenses
+    @Size(min = 1, max = 500, message = "Between 1 and 500 expenses can be settled at once")
+    private List<UUID> expenseIds;
+
+    // Override the group's settlement strategy for this settlement only
+    private SettlementSolverMode strategy;
+
+    // Member every payment goes through with the hub strategy, defaults to the group's hub
+    private UUID hubUserId;
+
+    public SettlementRequest(LocalDate expenseDateUpTo, List<UUID> expenseIds) {
+        this(expenseDateUpTo, expenseIds, null, null);
+    }
+}
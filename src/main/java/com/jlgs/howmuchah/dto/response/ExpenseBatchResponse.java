@@ -0,0 +1,20 @@
+package com.jlgs.howmuchah.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Result of a batch import, expense ids are in the same order as the submitted rows
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseBatchResponse {
+    private UUID groupId;
+    private int importedCount;
+    private List<UUID> expenseIds;
+}
@@ -36,6 +36,9 @@ public class ExpenseDetailResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // Send back with an edit to detect concurrent changes
+    private long version;
+
     public static ExpenseDetailResponse from(Expense expense, List<ExpenseSplit> splits) {
         List<ExpenseSplitResponse> splitResponses = splits.stream()
                 .map(ExpenseSplitResponse::from)
@@ -52,7 +55,8 @@ public class ExpenseDetailResponse {
                 UserSummary.from(expense.getPaidBy()),
                 splitResponses,
                 expense.getCreatedAt(),
-                expense.getUpdatedAt()
+                expense.getUpdatedAt(),
+                expense.getVersion()
         );
     }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.jlgs.howmuchah.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Net balance per currency within a group, positive = owed money, negative = owes money
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupBalanceResponse {
+    private UUID groupId;
+    private String groupName;
+    private Map<String, BigDecimal> balances;
+}
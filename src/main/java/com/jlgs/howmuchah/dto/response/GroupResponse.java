@@ -1,6 +1,7 @@
 package com.jlgs.howmuchah.dto.response;
 
 import com.jlgs.howmuchah.entity.Group;
+import com.jlgs.howmuchah.enums.SettlementSolverMode;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,9 +20,16 @@ public class GroupResponse {
     private String description;
     private UUID ownerId;
     private String ownerName;
+    private SettlementSolverMode settlementStrategy;
+    private UUID settlementHubId;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
+    // List view only, null elsewhere
+    private Integer memberCount;
+    private Integer unsettledExpenseCount;
+    private LocalDateTime lastActivityAt;
+
     public static GroupResponse fromGroup(Group group) {
         return GroupResponse.builder()
                 .id(group.getId())
@@ -29,6 +37,8 @@ public class GroupResponse {
                 .description(group.getDescription())
                 .ownerId(group.getOwner().getId())
                 .ownerName(group.getOwner().getName())
+                .settlementStrategy(group.getSettlementStrategy())
+                .settlementHubId(group.getSettlementHub() != null ? group.getSettlementHub().getId() : null)
                 .createdAt(group.getCreatedAt())
                 .updatedAt(group.getUpdatedAt())
                 .build();
@@ -0,0 +1,25 @@
+package com.jlgs.howmuchah.dto.response;
+
+import com.jlgs.howmuchah.enums.SettlementJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementJobResponse {
+
+    private UUID jobId;
+    private UUID groupId;
+    private SettlementJobStatus status;
+    private SettlementDetailResponse result;
+    private String error;
+    private LocalDateTime submittedAt;
+    private LocalDateTime completedAt;
+}
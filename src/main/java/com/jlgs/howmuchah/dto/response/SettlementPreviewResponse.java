@@ -0,0 +1,17 @@
+package com.jlgs.howmuchah.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SettlementPreviewResponse {
+
+    private UUID groupId;
+    private List<SettlementTransaction> transactions;
+}
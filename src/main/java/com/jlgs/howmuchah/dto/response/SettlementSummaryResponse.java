@@ -1,11 +1,16 @@
 package com.jlgs.howmuchah.dto.response;
 
-import com.jlgs.howmuchah.entity.SettlementGroup;
+import com.jlgs.howmuchah.dto.projection.SettlementCurrencyTotalRow;
+import com.jlgs.howmuchah.dto.projection.SettlementGroupRow;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
 
 @Data
@@ -16,12 +21,30 @@ public class SettlementSummaryResponse {
     private UUID id;
     private LocalDateTime settledAt;
     private int transactionCount;
+    private Map<String, BigDecimal> totalsByCurrency;
+
+    public SettlementSummaryResponse(UUID id, LocalDateTime settledAt, int transactionCount) {
+        this(id, settledAt, transactionCount, null);
+    }
+
+    /**
+     * Builds the summary from SQL aggregates, rows may be empty for a perfect wash
+     */
+    public static SettlementSummaryResponse from(SettlementGroupRow settlementGroup,
+                                                 List<SettlementCurrencyTotalRow> totals) {
+        Map<String, BigDecimal> totalsByCurrency = new TreeMap<>();
+        int transactionCount = 0;
+
+        for (SettlementCurrencyTotalRow total : totals) {
+            totalsByCurrency.put(total.currency(), total.totalAmount());
+            transactionCount += total.transactionCount().intValue();
+        }
 
-    public static SettlementSummaryResponse from(SettlementGroup settlementGroup) {
         return new SettlementSummaryResponse(
-                settlementGroup.getId(),
-                settlementGroup.getSettledAt(),
-                settlementGroup.getSettlements().size()
+                settlementGroup.id(),
+                settlementGroup.settledAt(),
+                transactionCount,
+                totalsByCurrency
         );
     }
 }
\ No newline at end of file
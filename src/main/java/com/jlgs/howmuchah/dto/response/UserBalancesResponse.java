@@ -0,0 +1,49 @@
+package com.jlgs.howmuchah.dto.response;
+
+import com.jlgs.howmuchah.dto.projection.UserGroupBalanceRow;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * A user's outstanding balances across all of their groups
+ * Groups where the user is settled up are omitted.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBalancesResponse {
+    private List<GroupBalanceResponse> groups;
+    private Map<String, BigDecimal> totalsByCurrency;
+
+    // Rows must be ordered by group so each group's currencies are adjacent
+    public static UserBalancesResponse fromRows(List<UserGroupBalanceRow> rows) {
+        Map<UUID, GroupBalanceResponse> groups = new LinkedHashMap<>();
+        Map<String, BigDecimal> totalsByCurrency = new TreeMap<>();
+
+        for (UserGroupBalanceRow row : rows) {
+            groups.computeIfAbsent(row.groupId(), id -> GroupBalanceResponse.builder()
+                            .groupId(id)
+                            .groupName(row.groupName())
+                            .balances(new TreeMap<>())
+                            .build())
+                    .getBalances().put(row.currency(), row.netAmount());
+            totalsByCurrency.merge(row.currency(), row.netAmount(), BigDecimal::add);
+        }
+
+        return UserBalancesResponse.builder()
+                .groups(new ArrayList<>(groups.values()))
+                .totalsByCurrency(totalsByCurrency)
+                .build();
+    }
+}
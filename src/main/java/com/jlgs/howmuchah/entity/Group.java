@@ -1,5 +1,6 @@
 package com.jlgs.howmuchah.entity;
 
+import com.jlgs.howmuchah.enums.SettlementSolverMode;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -34,6 +35,24 @@ public class Group {
     @JoinColumn(name = "owner_id", nullable = false)
     private User owner;
 
+    // Null means the application default
+    @Enumerated(EnumType.STRING)
+    @Column(name = "settlement_strategy")
+    private SettlementSolverMode settlementStrategy;
+
+    // Member that collects and pays out under the hub strategy, null means the owner
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "settlement_hub_id")
+    private User settlementHub;
+
+    // Counters are only changed by relative updates in GroupRepository, never written from the entity,
+    // so a group loaded before a concurrent change cannot overwrite it on flush
+    @Column(name = "member_count", nullable = false, insertable = false, updatable = false)
+    private int memberCount;
+
+    @Column(name = "unsettled_expense_count", nullable = false, insertable = false, updatable = false)
+    private int unsettledExpenseCount;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
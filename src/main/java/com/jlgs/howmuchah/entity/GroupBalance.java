@@ -0,0 +1,45 @@
+package com.jlgs.howmuchah.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Running net balance of a member within a group for a single currency.
+ * Positive = member is owed money, negative = member owes money.
+ */
+@Entity
+@Table(name = "group_balances", schema = "public")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@IdClass(GroupBalanceId.class)
+public class GroupBalance {
+
+    @Id
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "group_id", nullable = false)
+    private Group group;
+
+    @Id
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Id
+    @Column(name = "currency", nullable = false)
+    private String currency;
+
+    @Column(name = "net_amount", precision = 12, scale = 2, nullable = false)
+    @Builder.Default
+    private BigDecimal netAmount = BigDecimal.ZERO;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,18 @@
+package com.jlgs.howmuchah.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GroupBalanceId implements Serializable {
+
+    private UUID group;
+    private UUID user;
+    private String currency;
+}
@@ -31,7 +31,9 @@ public class SettlementGroup {
     @Column(name = "settled_at", nullable = false, updatable = false)
     private LocalDateTime settledAt;
 
+    // Fixed order so the same settlement always serializes (and hashes to an ETag) the same way
     @OneToMany(mappedBy = "settlementGroup", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("currency ASC, id ASC")
     @Builder.Default
     private List<Settlement> settlements = new ArrayList<>();
 }
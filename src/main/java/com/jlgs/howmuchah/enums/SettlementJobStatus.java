@@ -0,0 +1,8 @@
+package com.jlgs.howmuchah.enums;
+
+public enum SettlementJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,7 @@
+package com.jlgs.howmuchah.enums;
+
+public enum SettlementSolverMode {
+    GREEDY,
+    EXACT,
+    HUB
+}
@@ -0,0 +1,7 @@
+package com.jlgs.howmuchah.exception;
+
+public class CsvTooLargeException extends RuntimeException {
+    public CsvTooLargeException(int maxBytes) {
+        super("CSV must be at most " + maxBytes + " bytes");
+    }
+}
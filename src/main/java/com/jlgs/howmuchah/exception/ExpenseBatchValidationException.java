@@ -0,0 +1,20 @@
+package com.jlgs.howmuchah.exception;
+
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * Thrown when any row of a batch import is invalid, nothing is imported
+ * Errors are keyed by 1-based row number ("row 3") in submission order.
+ */
+@Getter
+public class ExpenseBatchValidationException extends RuntimeException {
+
+    private final Map<String, String> rowErrors;
+
+    public ExpenseBatchValidationException(int rowCount, Map<String, String> rowErrors) {
+        super(rowErrors.size() + " of " + rowCount + " rows are invalid, no expenses were imported");
+        this.rowErrors = rowErrors;
+    }
+}
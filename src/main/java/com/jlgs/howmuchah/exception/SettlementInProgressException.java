@@ -0,0 +1,7 @@
+package com.jlgs.howmuchah.exception;
+
+public class SettlementInProgressException extends RuntimeException {
+    public SettlementInProgressException() {
+        super("A settlement is already in progress for this group. Please try again shortly.");
+    }
+}
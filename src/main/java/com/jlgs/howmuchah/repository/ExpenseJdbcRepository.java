@@ -0,0 +1,74 @@
+package com.jlgs.howmuchah.repository;
+
+import com.jlgs.howmuchah.entity.Expense;
+import com.jlgs.howmuchah.entity.ExpenseSplit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Plain JDBC write path for bulk expense imports
+ *
+ * Ids are generated by the caller so splits can reference their expense without a round trip,
+ * and timestamps come from the column defaults. Runs inside the caller's JPA transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ExpenseJdbcRepository {
+
+    private static final String INSERT_EXPENSE =
+            "INSERT INTO public.expenses " +
+            "(id, group_id, description, total_amount, currency, paid_by_user_id, category, expense_date) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_EXPENSE_SPLIT =
+            "INSERT INTO public.expense_splits (id, expense_id, user_id, amount_owed) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Single JDBC batch, rewritten into one multi-row INSERT by pgjdbc (reWriteBatchedInserts)
+    public void insertExpenses(List<Expense> expenses) {
+        jdbcTemplate.batchUpdate(INSERT_EXPENSE, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Expense expense = expenses.get(i);
+                ps.setObject(1, expense.getId());
+                ps.setObject(2, expense.getGroup().getId());
+                ps.setString(3, expense.getDescription());
+                ps.setBigDecimal(4, expense.getTotalAmount());
+                ps.setString(5, expense.getCurrency());
+                ps.setObject(6, expense.getPaidBy().getId());
+                ps.setString(7, expense.getCategory());
+                ps.setObject(8, expense.getExpenseDate());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return expenses.size();
+            }
+        });
+    }
+
+    public void insertSplits(List<ExpenseSplit> splits) {
+        jdbcTemplate.batchUpdate(INSERT_EXPENSE_SPLIT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ExpenseSplit split = splits.get(i);
+                ps.setObject(1, split.getId());
+                ps.setObject(2, split.getExpense().getId());
+                ps.setObject(3, split.getUser().getId());
+                ps.setBigDecimal(4, split.getAmountOwed());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return splits.size();
+            }
+        });
+    }
+}
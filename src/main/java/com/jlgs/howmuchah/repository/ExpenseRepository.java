@@ -1,28 +1,55 @@
 package com.jlgs.howmuchah.repository;
 
+import com.jlgs.howmuchah.dto.response.ExpenseResponse;
 import com.jlgs.howmuchah.entity.Expense;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface ExpenseRepository extends JpaRepository<Expense, UUID> {
 
-    // Get all expenses for a group (with pagination)
-    Page<Expense> findByGroupId(UUID groupId, Pageable pageable);
+    // Constructor expression for list rows, no entities are loaded into the persistence context
+    String EXPENSE_RESPONSE = "new com.jlgs.howmuchah.dto.response.ExpenseResponse(" +
+            "e.id, e.description, e.totalAmount, e.currency, e.category, e.expenseDate, " +
+            "u.id, u.name, e.createdAt, e.updatedAt, e.isSettled)";
 
-    // Mark all pending expenses as settled
-    @Modifying
-    @Query("UPDATE Expense e SET e.isSettled = true " +
-            "WHERE e.group.id = :groupId AND e.isSettled = false")
-    void markAllAsSettledByGroupId(@Param("groupId") UUID groupId);
+    // List rows for a group (with pagination), mapped straight into the response with the payer joined once
+    @Query(value = "SELECT " + EXPENSE_RESPONSE + " " +
+            "FROM Expense e " +
+            "JOIN e.paidBy u " +
+            "WHERE e.group.id = :groupId",
+            countQuery = "SELECT COUNT(e) FROM Expense e WHERE e.group.id = :groupId")
+    Page<ExpenseResponse> findResponsesByGroupId(@Param("groupId") UUID groupId, Pageable pageable);
 
-    // Get number of unsettled expenses for a group
-    Long countByGroupIdAndIsSettled(UUID groupId, boolean isSettled);
+    // Keyset first page: most recent expenses of a group as list rows
+    @Query("SELECT " + EXPENSE_RESPONSE + " " +
+            "FROM Expense e " +
+            "JOIN e.paidBy u " +
+            "WHERE e.group.id = :groupId " +
+            "ORDER BY e.expenseDate DESC, e.id DESC")
+    List<ExpenseResponse> findPageByGroupId(@Param("groupId") UUID groupId, Limit limit);
+
+    // Keyset page: expenses strictly older than the cursor position
+    @Query("SELECT " + EXPENSE_RESPONSE + " " +
+            "FROM Expense e " +
+            "JOIN e.paidBy u " +
+            "WHERE e.group.id = :groupId " +
+            "AND (e.expenseDate < :expenseDate OR (e.expenseDate = :expenseDate AND e.id < :id)) " +
+            "ORDER BY e.expenseDate DESC, e.id DESC")
+    List<ExpenseResponse> findPageByGroupIdBefore(@Param("groupId") UUID groupId,
+                                                  @Param("expenseDate") LocalDate expenseDate,
+                                                  @Param("id") UUID id,
+                                                  Limit limit);
+
+    // Whether the group has anything left to settle, stops at the first unsettled expense
+    boolean existsByGroupIdAndIsSettledFalse(UUID groupId);
 }
\ No newline at end of file
@@ -1,14 +1,21 @@
 package com.jlgs.howmuchah.repository;
 
+import com.jlgs.howmuchah.dto.projection.UnsettledSplitRow;
 import com.jlgs.howmuchah.entity.ExpenseSplit;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface ExpenseSplitRepository extends JpaRepository<ExpenseSplit, UUID> {
@@ -21,15 +28,32 @@ public interface ExpenseSplitRepository extends JpaRepository<ExpenseSplit, UUID
     @Query("DELETE FROM ExpenseSplit es WHERE es.expense.id = :expenseId")
     void deleteByExpenseId(@Param("expenseId") UUID expenseId);
 
-    // Find all unsettled splits for an expense group
-    @Query("SELECT es FROM ExpenseSplit es " +
+    // Stream all unsettled splits for an expense group as flat rows (must be closed, needs a transaction)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.jlgs.howmuchah.dto.projection.UnsettledSplitRow(" +
+            "e.id, e.paidBy.id, es.user.id, e.currency, es.amountOwed) " +
+            "FROM ExpenseSplit es " +
             "JOIN es.expense e " +
             "WHERE e.group.id = :groupId AND es.isSettled = false")
-    List<ExpenseSplit> findUnsettledByGroupId(@Param("groupId") UUID groupId);
+    Stream<UnsettledSplitRow> streamUnsettledByGroupId(@Param("groupId") UUID groupId);
 
-    // Mark all pending expenses as settled
-    @Modifying
-    @Query("UPDATE ExpenseSplit es SET es.isSettled = true " +
-            "WHERE es.expense.group.id = :groupId AND es.isSettled = false")
-    void markAllAsSettledByGroupId(@Param("groupId") UUID groupId);
+    // Same as above, limited to expenses dated on or before the cutoff (partial settlement)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.jlgs.howmuchah.dto.projection.UnsettledSplitRow(" +
+            "e.id, e.paidBy.id, es.user.id, e.currency, es.amountOwed) " +
+            "FROM ExpenseSplit es " +
+            "JOIN es.expense e " +
+            "WHERE e.group.id = :groupId AND es.isSettled = false AND e.expenseDate <= :expenseDateUpTo")
+    Stream<UnsettledSplitRow> streamUnsettledByGroupIdUpTo(@Param("groupId") UUID groupId,
+                                                           @Param("expenseDateUpTo") LocalDate expenseDateUpTo);
+
+    // Same as above, limited to the given expenses (partial settlement)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.jlgs.howmuchah.dto.projection.UnsettledSplitRow(" +
+            "e.id, e.paidBy.id, es.user.id, e.currency, es.amountOwed) " +
+            "FROM ExpenseSplit es " +
+            "JOIN es.expense e " +
+            "WHERE e.group.id = :groupId AND es.isSettled = false AND e.id IN :expenseIds")
+    Stream<UnsettledSplitRow> streamUnsettledByExpenseIds(@Param("groupId") UUID groupId,
+                                                          @Param("expenseIds") Collection<UUID> expenseIds);
 }
\ No newline at end of file
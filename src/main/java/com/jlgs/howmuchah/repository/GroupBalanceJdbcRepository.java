@@ -0,0 +1,56 @@
+package com.jlgs.howmuchah.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Plain JDBC write path for the balance ledger (group_balances)
+ *
+ * Every change to the ledger is one upsert statement no matter how many members and currencies
+ * it touches. Runs inside the caller's JPA transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class GroupBalanceJdbcRepository {
+
+    // Add each delta to its member's balance, creating the rows that do not exist yet.
+    // Rows are upserted in key order so concurrent writers to one group lock them in the same order
+    private static final String ADD_TO_BALANCES =
+            "INSERT INTO public.group_balances (group_id, user_id, currency, net_amount) " +
+            "SELECT ?, d.user_id, d.currency, d.delta " +
+            "FROM unnest(?, ?, ?) AS d(user_id, currency, delta) " +
+            "ORDER BY d.currency, d.user_id " +
+            "ON CONFLICT (group_id, user_id, currency) " +
+            "DO UPDATE SET net_amount = group_balances.net_amount + EXCLUDED.net_amount, updated_at = now()";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Apply deltas keyed by currency, then member
+     * The rows are bound as three parallel arrays, so the statement text does not depend on their count.
+     */
+    public void addToBalances(UUID groupId, Map<String, Map<UUID, BigDecimal>> deltasByCurrency) {
+        List<UUID> userIds = new ArrayList<>();
+        List<String> currencies = new ArrayList<>();
+        List<BigDecimal> deltas = new ArrayList<>();
+        deltasByCurrency.forEach((currency, memberDeltas) -> memberDeltas.forEach((userId, delta) -> {
+            userIds.add(userId);
+            currencies.add(currency);
+            deltas.add(delta);
+        }));
+
+        jdbcTemplate.update(ADD_TO_BALANCES, ps -> {
+            ps.setObject(1, groupId);
+            ps.setArray(2, ps.getConnection().createArrayOf("uuid", userIds.toArray()));
+            ps.setArray(3, ps.getConnection().createArrayOf("text", currencies.toArray()));
+            ps.setArray(4, ps.getConnection().createArrayOf("numeric", deltas.toArray()));
+        });
+    }
+}
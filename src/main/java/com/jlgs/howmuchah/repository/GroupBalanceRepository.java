@@ -0,0 +1,32 @@
+package com.jlgs.howmuchah.repository;
+
+import com.jlgs.howmuchah.dto.projection.UserGroupBalanceRow;
+import com.jlgs.howmuchah.entity.GroupBalance;
+import com.jlgs.howmuchah.entity.GroupBalanceId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface GroupBalanceRepository extends JpaRepository<GroupBalance, GroupBalanceId> {
+
+    // Get all non-zero balances for a group (one row per member per currency), in a stable order
+    @Query("SELECT gb FROM GroupBalance gb " +
+            "WHERE gb.group.id = :groupId AND gb.netAmount <> 0 " +
+            "ORDER BY gb.currency, gb.user.id")
+    List<GroupBalance> findOutstandingByGroupId(@Param("groupId") UUID groupId);
+
+    // A user's non-zero balances across every group they are still a member of
+    @Query("SELECT new com.jlgs.howmuchah.dto.projection.UserGroupBalanceRow(" +
+            "g.id, g.name, gb.currency, gb.netAmount) " +
+            "FROM GroupBalance gb " +
+            "JOIN gb.group g " +
+            "JOIN GroupMember gm ON gm.group.id = g.id AND gm.user.id = gb.user.id " +
+            "WHERE gb.user.id = :userId AND gb.netAmount <> 0 " +
+            "ORDER BY g.name, g.id, gb.currency")
+    List<UserGroupBalanceRow> findOutstandingByUserId(@Param("userId") UUID userId);
+}
@@ -0,0 +1,53 @@
+package com.jlgs.howmuchah.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Plain JDBC checks and repairs for the denormalized group counters
+ *
+ * The counters are kept in step by relative updates next to every change, this is the
+ * safety net that recounts a group whose stored values no longer match its rows.
+ */
+@Repository
+@RequiredArgsConstructor
+public class GroupCounterJdbcRepository {
+
+    // Groups whose stored counters differ from a fresh count
+    private static final String SELECT_DRIFTED_GROUPS =
+            "SELECT g.id FROM public.groups g " +
+            "WHERE g.member_count <> (SELECT count(*) FROM public.group_members gm WHERE gm.group_id = g.id) " +
+            "   OR g.unsettled_expense_count <> (SELECT count(*) FROM public.expenses e " +
+            "                                    WHERE e.group_id = g.id AND e.is_settled = false)";
+
+    // Waits for in-flight counter updates on the group, which hold the row lock until they commit
+    private static final String LOCK_GROUP =
+            "SELECT id FROM public.groups WHERE id = ? FOR UPDATE";
+
+    private static final String RECOUNT_GROUP =
+            "UPDATE public.groups g " +
+            "SET member_count = (SELECT count(*) FROM public.group_members gm WHERE gm.group_id = g.id), " +
+            "    unsettled_expense_count = (SELECT count(*) FROM public.expenses e " +
+            "                               WHERE e.group_id = g.id AND e.is_settled = false) " +
+            "WHERE g.id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<UUID> findGroupsWithCounterDrift() {
+        return jdbcTemplate.queryForList(SELECT_DRIFTED_GROUPS, UUID.class);
+    }
+
+    /**
+     * Overwrite the group's counters with a fresh count
+     * Needs a transaction. The recount is a separate statement after the lock, so under READ COMMITTED
+     * it sees every change committed while waiting instead of the snapshot taken before it.
+     */
+    public void recountGroup(UUID groupId) {
+        jdbcTemplate.queryForList(LOCK_GROUP, UUID.class, groupId);
+        jdbcTemplate.update(RECOUNT_GROUP, groupId);
+    }
+}
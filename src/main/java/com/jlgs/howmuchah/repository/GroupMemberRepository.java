@@ -19,6 +19,14 @@ public interface GroupMemberRepository extends JpaRepository<GroupMember, GroupM
             "WHERE gm.group.id = :groupId")
     List<GroupMember> findByGroupId(@Param("groupId") UUID groupId);
 
+    // Ids of every group a user belongs to (loads the membership cache)
+    @Query("SELECT gm.group.id FROM GroupMember gm WHERE gm.user.id = :userId")
+    List<UUID> findGroupIdsByUserId(@Param("userId") UUID userId);
+
+    // Ids of every member of a group
+    @Query("SELECT gm.user.id FROM GroupMember gm WHERE gm.group.id = :groupId")
+    List<UUID> findUserIdsByGroupId(@Param("groupId") UUID groupId);
+
     // Count members in a group
     long countByGroupId(UUID groupId);
 
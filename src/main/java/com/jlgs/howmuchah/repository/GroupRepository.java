@@ -1,9 +1,12 @@
 package com.jlgs.howmuchah.repository;
 
+import com.jlgs.howmuchah.dto.projection.GroupAccessRow;
+import com.jlgs.howmuchah.dto.projection.GroupSettlementSettingsRow;
+import com.jlgs.howmuchah.dto.response.GroupResponse;
 import com.jlgs.howmuchah.entity.Group;
-import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -15,12 +18,18 @@ import java.util.UUID;
 @Repository
 public interface GroupRepository extends JpaRepository<Group, UUID> {
 
-    // Find all groups that user belongs to
-    @Query("SELECT DISTINCT g FROM Group g " +
-            "LEFT JOIN FETCH g.owner " +
-            "LEFT JOIN GroupMember gm ON g.id = gm.group.id " +
-            "WHERE g.owner.id = :userId OR gm.user.id = :userId")
-    List<Group> findAllGroupsForUser(@Param("userId") UUID userId);
+    // Groups the user belongs to (the owner is always a member) with their counters and last activity,
+    // driven from the user's memberships
+    @Query("SELECT new com.jlgs.howmuchah.dto.response.GroupResponse(" +
+            "g.id, g.name, g.description, o.id, o.name, g.settlementStrategy, g.settlementHub.id, g.createdAt, g.updatedAt, " +
+            "g.memberCount, g.unsettledExpenseCount, " +
+            "COALESCE((SELECT MAX(le.updatedAt) FROM Expense le WHERE le.group.id = g.id), g.updatedAt)) " +
+            "FROM GroupMember me " +
+            "JOIN me.group g " +
+            "JOIN g.owner o " +
+            "WHERE me.user.id = :userId " +
+            "ORDER BY g.createdAt DESC, g.id DESC")
+    List<GroupResponse> findSummariesForUser(@Param("userId") UUID userId, Pageable pageable);
 
     // Single group fetch with owner
     @Query("SELECT g FROM Group g " +
@@ -28,9 +37,62 @@ public interface GroupRepository extends JpaRepository<Group, UUID> {
             "WHERE g.id = :groupId")
     Optional<Group> findByIdWithOwner(@Param("groupId") UUID groupId);
 
+    // Settlement defaults of a group without loading the entity
+    @Query("SELECT new com.jlgs.howmuchah.dto.projection.GroupSettlementSettingsRow(" +
+            "g.settlementStrategy, h.id, g.owner.id) " +
+            "FROM Group g " +
+            "LEFT JOIN g.settlementHub h " +
+            "WHERE g.id = :groupId")
+    Optional<GroupSettlementSettingsRow> findSettlementSettingsById(@Param("groupId") UUID groupId);
+
+    // Group existence, owner and the caller's membership in one round trip (empty when the group does not exist)
+    @Query("SELECT new com.jlgs.howmuchah.dto.projection.GroupAccessRow(g.owner.id, " +
+            "CASE WHEN EXISTS (SELECT 1 FROM GroupMember gm WHERE gm.group.id = g.id AND gm.user.id = :userId) " +
+            "THEN true ELSE false END) " +
+            "FROM Group g " +
+            "WHERE g.id = :groupId")
+    Optional<GroupAccessRow> findAccessById(@Param("groupId") UUID groupId, @Param("userId") UUID userId);
+
     boolean existsByNameAndOwnerId(String name, UUID ownerId);
 
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("SELECT g FROM Group g WHERE g.id = :groupId")
-    Optional<Group> findByIdWithLock(@Param("groupId") UUID groupId);
+    boolean existsByIdAndOwnerId(UUID id, UUID ownerId);
+
+    // Delete without loading the group, the database cascades to its members, expenses, settlements and invitations
+    @Modifying
+    @Query("DELETE FROM Group g WHERE g.id = :groupId")
+    void deleteGroupById(@Param("groupId") UUID groupId);
+
+    // Read the denormalized counter instead of counting expenses
+    @Query("SELECT g.unsettledExpenseCount FROM Group g WHERE g.id = :groupId")
+    Optional<Integer> findUnsettledExpenseCountById(@Param("groupId") UUID groupId);
+
+    // Drops the settlement hub when that member leaves, so settlements fall back to the owner
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Group g SET g.settlementHub = null WHERE g.id = :groupId AND g.settlementHub.id = :userId")
+    int clearSettlementHub(@Param("groupId") UUID groupId, @Param("userId") UUID userId);
+
+    // Relative counter updates, so concurrent changes add up instead of overwriting each other.
+    // Flushed first so a group saved earlier in the transaction is already inserted
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Group g SET g.memberCount = g.memberCount + :delta WHERE g.id = :groupId")
+    void adjustMemberCount(@Param("groupId") UUID groupId, @Param("delta") int delta);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Group g SET g.unsettledExpenseCount = g.unsettledExpenseCount + :delta WHERE g.id = :groupId")
+    void adjustUnsettledExpenseCount(@Param("groupId") UUID groupId, @Param("delta") int delta);
+
+    // Serialize settlements per group without locking the groups row, released on commit/rollback
+    @Query(value = "SELECT pg_try_advisory_xact_lock(hashtextextended(CAST(:groupId AS text), 0))",
+            nativeQuery = true)
+    boolean tryLockForSettlement(@Param("groupId") UUID groupId);
+
+    // Expense writers hold the group's ledger lock shared and a settlement holds it exclusively, so a settlement
+    // never reads the ledger or marks expenses while an expense write is in flight. Released on commit/rollback
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock_shared(hashtextextended(CAST(:groupId AS text), 1))",
+            nativeQuery = true)
+    int lockLedgerShared(@Param("groupId") UUID groupId);
+
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtextextended(CAST(:groupId AS text), 1))",
+            nativeQuery = true)
+    int lockLedgerExclusive(@Param("groupId") UUID groupId);
 }
@@ -1,11 +1,14 @@
 package com.jlgs.howmuchah.repository;
 
+import com.jlgs.howmuchah.dto.projection.SettlementGroupRow;
 import com.jlgs.howmuchah.entity.SettlementGroup;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,10 +16,29 @@ import java.util.UUID;
 @Repository
 public interface SettlementGroupRepository extends JpaRepository<SettlementGroup, UUID> {
 
-    // Find all settlement events for a group, ordered by most recent first
-    @Query("SELECT sg FROM SettlementGroup sg " +
-            "LEFT JOIN FETCH sg.settlements " +
+    // Load a settlement event with its settlements and both parties in one query
+    @Query("SELECT DISTINCT sg FROM SettlementGroup sg " +
+            "LEFT JOIN FETCH sg.settlements s " +
+            "LEFT JOIN FETCH s.payer " +
+            "LEFT JOIN FETCH s.payee " +
+            "WHERE sg.id = :id")
+    Optional<SettlementGroup> findDetailById(@Param("id") UUID id);
+
+    // Find settlement events for a group, most recent first (headers only, no settlements)
+    @Query("SELECT new com.jlgs.howmuchah.dto.projection.SettlementGroupRow(sg.id, sg.settledAt) " +
+            "FROM SettlementGroup sg " +
+            "WHERE sg.group.id = :groupId " +
+            "ORDER BY sg.settledAt DESC, sg.id DESC")
+    List<SettlementGroupRow> findRowsByGroupId(@Param("groupId") UUID groupId, Limit limit);
+
+    // Keyset page: settlement events strictly older than the cursor position
+    @Query("SELECT new com.jlgs.howmuchah.dto.projection.SettlementGroupRow(sg.id, sg.settledAt) " +
+            "FROM SettlementGroup sg " +
             "WHERE sg.group.id = :groupId " +
-            "ORDER BY sg.settledAt DESC")
-    List<SettlementGroup> findByGroupIdOrderBySettledAtDesc(@Param("groupId") UUID groupId);
+            "AND (sg.settledAt < :settledAt OR (sg.settledAt = :settledAt AND sg.id < :id)) " +
+            "ORDER BY sg.settledAt DESC, sg.id DESC")
+    List<SettlementGroupRow> findRowsByGroupIdBefore(@Param("groupId") UUID groupId,
+                                                     @Param("settledAt") LocalDateTime settledAt,
+                                                     @Param("id") UUID id,
+                                                     Limit limit);
 }
\ No newline at end of file
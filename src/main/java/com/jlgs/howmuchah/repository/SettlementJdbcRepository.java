@@ -0,0 +1,149 @@
+package com.jlgs.howmuchah.repository;
+
+import com.jlgs.howmuchah.dto.projection.SettlementExportRow;
+import com.jlgs.howmuchah.entity.Settlement;
+import com.jlgs.howmuchah.entity.SettlementGroup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC write path and export cursor for settlements
+ *
+ * Ids are generated by the caller, so every write here is a fixed number of round trips
+ * no matter how many transactions a settlement produces. Runs inside the caller's
+ * JPA transaction (JpaTransactionManager shares its connection with JdbcTemplate).
+ */
+@Repository
+@RequiredArgsConstructor
+public class SettlementJdbcRepository {
+
+    private static final String INSERT_SETTLEMENT_GROUP =
+            "INSERT INTO public.settlement_groups (id, group_id, settled_at) VALUES (?, ?, ?)";
+
+    private static final String INSERT_SETTLEMENT =
+            "INSERT INTO public.settlements " +
+            "(id, settlement_group_id, payer_user_id, payee_user_id, currency, amount, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // Flip expenses and their splits and take them off the group's unsettled counter in one statement.
+    // Bumps the version so an edit or delete loaded before the settlement fails its optimistic lock check
+    private static final String MARK_GROUP_SETTLED =
+            "WITH settled_expenses AS (" +
+            "    UPDATE public.expenses SET is_settled = true, version = version + 1 " +
+            "    WHERE group_id = ? AND is_settled = false " +
+            "    RETURNING id" +
+            "), settled_splits AS (" +
+            "    UPDATE public.expense_splits SET is_settled = true " +
+            "    WHERE expense_id IN (SELECT id FROM settled_expenses) AND is_settled = false" +
+            ") " +
+            "UPDATE public.groups " +
+            "SET unsettled_expense_count = unsettled_expense_count - (SELECT count(*) FROM settled_expenses) " +
+            "WHERE id = ?";
+
+    // Same as above, restricted to the expenses a partial settlement selected
+    private static final String MARK_EXPENSES_SETTLED =
+            "WITH settled_expenses AS (" +
+            "    UPDATE public.expenses SET is_settled = true, version = version + 1 " +
+            "    WHERE group_id = ? AND id = ANY(?) AND is_settled = false " +
+            "    RETURNING id" +
+            "), settled_splits AS (" +
+            "    UPDATE public.expense_splits SET is_settled = true " +
+            "    WHERE expense_id IN (SELECT id FROM settled_expenses) AND is_settled = false" +
+            ") " +
+            "UPDATE public.groups " +
+            "SET unsettled_expense_count = unsettled_expense_count - (SELECT count(*) FROM settled_expenses) " +
+            "WHERE id = ?";
+
+    // Every settlement transaction of a group, oldest settlement first
+    private static final String SELECT_SETTLEMENTS_FOR_EXPORT =
+            "SELECT sg.settled_at, payer.name AS payer_name, payer.email AS payer_email, " +
+            "       payee.name AS payee_name, payee.email AS payee_email, s.currency, s.amount " +
+            "FROM public.settlements s " +
+            "JOIN public.settlement_groups sg ON sg.id = s.settlement_group_id " +
+            "JOIN public.users payer ON payer.id = s.payer_user_id " +
+            "JOIN public.users payee ON payee.id = s.payee_user_id " +
+            "WHERE sg.group_id = ? " +
+            "ORDER BY sg.settled_at, sg.id, s.currency, s.id";
+
+    private static final int EXPORT_FETCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insertSettlementGroup(SettlementGroup settlementGroup) {
+        jdbcTemplate.update(INSERT_SETTLEMENT_GROUP,
+                settlementGroup.getId(),
+                settlementGroup.getGroup().getId(),
+                settlementGroup.getSettledAt());
+    }
+
+    // Single JDBC batch, rewritten into one multi-row INSERT by pgjdbc (reWriteBatchedInserts)
+    public void insertSettlements(List<Settlement> settlements) {
+        jdbcTemplate.batchUpdate(INSERT_SETTLEMENT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Settlement settlement = settlements.get(i);
+                ps.setObject(1, settlement.getId());
+                ps.setObject(2, settlement.getSettlementGroup().getId());
+                ps.setObject(3, settlement.getPayer().getId());
+                ps.setObject(4, settlement.getPayee().getId());
+                ps.setString(5, settlement.getCurrency());
+                ps.setBigDecimal(6, settlement.getAmount());
+                ps.setObject(7, settlement.getCreatedAt());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return settlements.size();
+            }
+        });
+    }
+
+    public void markGroupSettled(UUID groupId) {
+        jdbcTemplate.update(MARK_GROUP_SETTLED, groupId, groupId);
+    }
+
+    /**
+     * Hand each settlement transaction of the group to the consumer as it is read
+     * Forward-only cursor with a fetch size, so pgjdbc holds one batch of rows at a time.
+     * Needs a transaction, pgjdbc only uses a server-side cursor when autocommit is off.
+     */
+    public void streamSettlementsForExport(UUID groupId, Duration queryTimeout, Consumer<SettlementExportRow> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_SETTLEMENTS_FOR_EXPORT,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(EXPORT_FETCH_SIZE);
+            ps.setQueryTimeout(Math.toIntExact(queryTimeout.toSeconds()));
+            ps.setObject(1, groupId);
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(new SettlementExportRow(
+                rs.getObject("settled_at", LocalDateTime.class),
+                rs.getString("payer_name"),
+                rs.getString("payer_email"),
+                rs.getString("payee_name"),
+                rs.getString("payee_email"),
+                rs.getString("currency"),
+                rs.getBigDecimal("amount"))));
+    }
+
+    // Expense ids are bound as a single uuid[] so the statement text does not depend on the count
+    public void markExpensesSettled(UUID groupId, Collection<UUID> expenseIds) {
+        jdbcTemplate.update(MARK_EXPENSES_SETTLED, ps -> {
+            ps.setObject(1, groupId);
+            ps.setArray(2, ps.getConnection().createArrayOf("uuid", expenseIds.toArray()));
+            ps.setObject(3, groupId);
+        });
+    }
+}
@@ -1,9 +1,13 @@
 package com.jlgs.howmuchah.repository;
 
+import com.jlgs.howmuchah.dto.projection.SettlementCurrencyTotalRow;
 import com.jlgs.howmuchah.entity.Settlement;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -12,4 +16,13 @@ public interface SettlementRepository extends JpaRepository<Settlement, UUID> {
 
     // Find all transactions for a specific settlement event
     List<Settlement> findBySettlementGroupId(UUID settlementGroupId);
+
+    // Transaction count and amount per currency for each settlement event, computed in SQL
+    @Query("SELECT new com.jlgs.howmuchah.dto.projection.SettlementCurrencyTotalRow(" +
+            "s.settlementGroup.id, s.currency, COUNT(s), SUM(s.amount)) " +
+            "FROM Settlement s " +
+            "WHERE s.settlementGroup.id IN :settlementGroupIds " +
+            "GROUP BY s.settlementGroup.id, s.currency")
+    List<SettlementCurrencyTotalRow> sumBySettlementGroupIds(
+            @Param("settlementGroupIds") Collection<UUID> settlementGroupIds);
 }
\ No newline at end of file
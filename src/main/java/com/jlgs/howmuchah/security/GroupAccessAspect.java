@@ -0,0 +1,75 @@
+package com.jlgs.howmuchah.security;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Applies {@link RequireGroupMember} and {@link RequireGroupOwner} before the annotated method runs
+ * Ordered ahead of @Transactional (lowest precedence) so rejected calls never open a transaction,
+ * but after Spring's ExposeInvocationInterceptor which the join point depends on.
+ */
+@Aspect
+@Component
+@Order(0)
+@RequiredArgsConstructor
+public class GroupAccessAspect {
+
+    private static final ParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+
+    private final GroupAccessGuard groupAccessGuard;
+
+    // Parameter positions per method and parameter name, resolved once
+    private final Map<Method, Map<String, Integer>> parameterIndexes = new ConcurrentHashMap<>();
+
+    @Before("@annotation(requireGroupMember)")
+    public void checkMember(JoinPoint joinPoint, RequireGroupMember requireGroupMember) {
+        groupAccessGuard.requireMember(
+                argument(joinPoint, requireGroupMember.groupId()),
+                argument(joinPoint, requireGroupMember.userId()),
+                requireGroupMember.message(),
+                requireGroupMember.forbidden());
+    }
+
+    @Before("@annotation(requireGroupOwner)")
+    public void checkOwner(JoinPoint joinPoint, RequireGroupOwner requireGroupOwner) {
+        groupAccessGuard.requireOwner(
+                argument(joinPoint, requireGroupOwner.groupId()),
+                argument(joinPoint, requireGroupOwner.userId()),
+                requireGroupOwner.message(),
+                requireGroupOwner.forbidden());
+    }
+
+    private UUID argument(JoinPoint joinPoint, String name) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Integer index = parameterIndexes.computeIfAbsent(method, GroupAccessAspect::indexParameters).get(name);
+        if (index == null) {
+            throw new IllegalStateException("No parameter named " + name + " on " + method);
+        }
+        return (UUID) joinPoint.getArgs()[index];
+    }
+
+    static Map<String, Integer> indexParameters(Method method) {
+        String[] names = PARAMETER_NAMES.getParameterNames(method);
+        if (names == null) {
+            throw new IllegalStateException("Parameter names of " + method + " are not available, compile with -parameters");
+        }
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            indexes.put(names[i], i);
+        }
+        return Map.copyOf(indexes);
+    }
+}
@@ -0,0 +1,64 @@
+package com.jlgs.howmuchah.security;
+
+import com.jlgs.howmuchah.dto.projection.GroupAccessRow;
+import com.jlgs.howmuchah.repository.GroupRepository;
+import com.jlgs.howmuchah.service.GroupMembershipCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.owasp.encoder.Encode;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Group authorization in at most one query
+ *
+ * Replaces loading the group, checking membership and reading its owner as separate round trips.
+ * A member found in {@link GroupMembershipCache} needs no query at all, since a membership
+ * implies the group exists. Everything else is answered by a single query returning the
+ * group's existence, owner and the caller's membership together.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GroupAccessGuard {
+
+    private final GroupRepository groupRepository;
+    private final GroupMembershipCache groupMembershipCache;
+
+    public void requireMember(UUID groupId, UUID userId, String message, boolean forbidden) {
+        if (groupMembershipCache.isMember(groupId, userId)) {
+            return;
+        }
+
+        GroupAccessRow access = load(groupId, userId);
+        if (!access.member()) {
+            deny(groupId, userId, message, forbidden);
+        }
+    }
+
+    public void requireOwner(UUID groupId, UUID userId, String message, boolean forbidden) {
+        GroupAccessRow access = load(groupId, userId);
+        if (userId == null || !userId.equals(access.ownerId())) {
+            deny(groupId, userId, message, forbidden);
+        }
+    }
+
+    private GroupAccessRow load(UUID groupId, UUID userId) {
+        if (groupId == null) {
+            throw new IllegalArgumentException("Group not found");
+        }
+        return groupRepository.findAccessById(groupId, userId)
+                .orElseThrow(() -> new IllegalArgumentException("Group not found"));
+    }
+
+    private static void deny(UUID groupId, UUID userId, String message, boolean forbidden) {
+        log.warn("User {} was denied access to group {}: {}",
+                Encode.forJava(String.valueOf(userId)), Encode.forJava(String.valueOf(groupId)), message);
+        if (forbidden) {
+            throw new AccessDeniedException(message);
+        }
+        throw new IllegalArgumentException(message);
+    }
+}
@@ -0,0 +1,37 @@
+package com.jlgs.howmuchah.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Only lets the group owner through, checked by {@link GroupAccessGuard} before the method runs
+ * A missing group is rejected with "Group not found", anyone else with {@link #message()}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RequireGroupOwner {
+
+    /**
+     * Message of the exception thrown for anyone but the owner
+     */
+    String message();
+
+    /**
+     * Name of the parameter holding the group id
+     */
+    String groupId() default "groupId";
+
+    /**
+     * Name of the parameter holding the calling user's id
+     */
+    String userId() default "requester";
+
+    /**
+     * Reject with AccessDeniedException (403) instead of IllegalArgumentException (400)
+     */
+    boolean forbidden() default false;
+}
@@ -0,0 +1,324 @@
+package com.jlgs.howmuchah.service;
+
+import com.jlgs.howmuchah.dto.request.ExpenseBatchItem;
+import com.jlgs.howmuchah.dto.request.ExpenseSplitDto;
+import com.jlgs.howmuchah.dto.response.ExpenseBatchResponse;
+import com.jlgs.howmuchah.entity.Expense;
+import com.jlgs.howmuchah.entity.ExpenseSplit;
+import com.jlgs.howmuchah.entity.Group;
+import com.jlgs.howmuchah.entity.GroupMember;
+import com.jlgs.howmuchah.entity.User;
+import com.jlgs.howmuchah.exception.ExpenseBatchValidationException;
+import com.jlgs.howmuchah.repository.ExpenseJdbcRepository;
+import com.jlgs.howmuchah.repository.GroupMemberRepository;
+import com.jlgs.howmuchah.repository.GroupRepository;
+import com.jlgs.howmuchah.settlement.SettlementPreviewCache;
+import com.jlgs.howmuchah.util.CsvUtils;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.owasp.encoder.Encode;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk expense import, e.g. when a group moves over from a spreadsheet
+ *
+ * Group membership is loaded once, every row is validated in memory, and the import is
+ * all-or-nothing: either every row is inserted with JDBC batches in one transaction, or
+ * nothing is and all invalid rows are reported together.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExpenseImportService {
+
+    static final int MAX_BATCH_SIZE = 500;
+
+    // Split column format: "email:amount;email:amount"
+    private static final String SPLIT_SEPARATOR = ";";
+    private static final String SPLIT_AMOUNT_SEPARATOR = ":";
+
+    private static final List<String> REQUIRED_CSV_COLUMNS =
+            List.of("description", "total_amount", "currency", "paid_by", "category", "splits");
+
+    private final GroupRepository groupRepository;
+    private final GroupMemberRepository groupMemberRepository;
+    private final ExpenseJdbcRepository expenseJdbcRepository;
+    private final GroupBalanceService groupBalanceService;
+    private final SettlementPreviewCache settlementPreviewCache;
+    private final Validator validator;
+
+    @Transactional
+    public ExpenseBatchResponse importExpenses(UUID requester, UUID groupId, List<ExpenseBatchItem> items) {
+        Map<UUID, User> members = loadMembers(requester, groupId);
+        return importRows(groupId, members, items, new TreeMap<>());
+    }
+
+    /**
+     * Import expenses from CSV with a header row
+     * Columns: expense_date (optional), description, category, currency, total_amount,
+     * paid_by (member email) and splits ("email:amount;email:amount"), in any order.
+     */
+    @Transactional
+    public ExpenseBatchResponse importExpensesCsv(UUID requester, UUID groupId, String csv) {
+        Map<UUID, User> members = loadMembers(requester, groupId);
+        Map<String, UUID> memberIdsByEmail = members.values().stream()
+                .collect(Collectors.toMap(user -> user.getEmail().toLowerCase(Locale.ROOT), User::getId,
+                        (first, second) -> first));
+
+        List<List<String>> records = CsvUtils.parse(csv);
+        if (records.size() < 2) {
+            throw new IllegalArgumentException("CSV must have a header row and at least one expense");
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> header = records.get(0);
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String column : REQUIRED_CSV_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                throw new IllegalArgumentException("CSV is missing column: " + column);
+            }
+        }
+
+        List<List<String>> rows = records.subList(1, records.size());
+        checkBatchSize(rows.size());
+
+        // Rows that cannot even be parsed are reported alongside validation errors
+        Map<Integer, String> rowErrors = new TreeMap<>();
+        List<ExpenseBatchItem> items = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            try {
+                items.add(parseCsvRow(rows.get(i), columns, memberIdsByEmail));
+            } catch (IllegalArgumentException e) {
+                rowErrors.put(i + 1, e.getMessage());
+                items.add(null);
+            }
+        }
+
+        return importRows(groupId, members, items, rowErrors);
+    }
+
+    private Map<UUID, User> loadMembers(UUID requester, UUID groupId) {
+        if (!groupRepository.existsById(groupId)) {
+            throw new IllegalArgumentException("Group not found");
+        }
+
+        // One query for every membership check of the batch
+        Map<UUID, User> members = groupMemberRepository.findByGroupId(groupId).stream()
+                .map(GroupMember::getUser)
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        // Check if requester is part of the group
+        if (!members.containsKey(requester)) {
+            log.warn("User {} attempted to maliciously import expenses into group {}",
+                    Encode.forJava(String.valueOf(requester)), Encode.forJava(String.valueOf(groupId)));
+            throw new IllegalArgumentException("Only group members can add expenses for the group");
+        }
+
+        return members;
+    }
+
+    private ExpenseBatchResponse importRows(UUID groupId, Map<UUID, User> members,
+                                            List<ExpenseBatchItem> items, Map<Integer, String> rowErrors) {
+        checkBatchSize(items.size());
+
+        for (int i = 0; i < items.size(); i++) {
+            ExpenseBatchItem item = items.get(i);
+            if (item == null) {
+                // CSV rows that failed to parse already have their error
+                rowErrors.putIfAbsent(i + 1, "Expense is required");
+                continue;
+            }
+            String error = validateRow(item, members);
+            if (error != null) {
+                rowErrors.put(i + 1, error);
+            }
+        }
+
+        if (!rowErrors.isEmpty()) {
+            // Row numbers are 1-based, keys keep row order
+            Map<String, String> errors = new LinkedHashMap<>();
+            rowErrors.forEach((row, error) -> errors.put("row " + row, error));
+            throw new ExpenseBatchValidationException(items.size(), errors);
+        }
+
+        // Ids are generated here so splits can reference their expense inside the same batch
+        Group group = groupRepository.getReferenceById(groupId);
+        LocalDate today = LocalDate.now();
+        List<Expense> expenses = new ArrayList<>(items.size());
+        List<ExpenseSplit> splits = new ArrayList<>();
+        Map<Expense, List<ExpenseSplit>> splitsByExpense = new LinkedHashMap<>();
+
+        for (ExpenseBatchItem item : items) {
+            Expense expense = Expense.builder()
+                    .id(UUID.randomUUID())
+                    .group(group)
+                    .description(item.getDescription().trim())
+                    .totalAmount(item.getTotalAmount())
+                    .currency(item.getCurrency().trim())
+                    .paidBy(members.get(item.getPaidByUserId()))
+                    .category(item.getCategory().trim())
+                    .expenseDate(item.getExpenseDate() != null ? item.getExpenseDate() : today)
+                    .build();
+            expenses.add(expense);
+
+            List<ExpenseSplit> expenseSplits = item.getSplits().stream()
+                    .map(splitDto -> ExpenseSplit.builder()
+                            .id(UUID.randomUUID())
+                            .expense(expense)
+                            .user(members.get(splitDto.getUserId()))
+                            .amountOwed(splitDto.getAmountOwed())
+                            .isSettled(false)
+                            .build())
+                    .collect(Collectors.toList());
+            splits.addAll(expenseSplits);
+            splitsByExpense.put(expense, expenseSplits);
+        }
+
+        // Settlements wait for the import instead of reading the ledger halfway through it
+        groupRepository.lockLedgerShared(groupId);
+        expenseJdbcRepository.insertExpenses(expenses);
+        expenseJdbcRepository.insertSplits(splits);
+        groupRepository.adjustUnsettledExpenseCount(groupId, expenses.size());
+
+        // Keep the group's balance ledger in sync
+        groupBalanceService.applyExpenses(groupId, splitsByExpense);
+        settlementPreviewCache.evictAfterCommit(groupId);
+
+        log.info("Imported {} expenses into group {}", expenses.size(), groupId);
+
+        return new ExpenseBatchResponse(groupId, expenses.size(),
+                expenses.stream().map(Expense::getId).collect(Collectors.toList()));
+    }
+
+    /**
+     * Same rules as a single expense, returns the first problem found or null when the row is valid
+     */
+    private String validateRow(ExpenseBatchItem item, Map<UUID, User> members) {
+        Set<ConstraintViolation<ExpenseBatchItem>> violations = validator.validate(item);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+
+        // Check if payer is part of the group
+        if (!members.containsKey(item.getPaidByUserId())) {
+            return "Payer must be a current group member";
+        }
+
+        // Check if all participants are group members
+        if (!item.getSplits().stream().map(ExpenseSplitDto::getUserId).allMatch(members::containsKey)) {
+            return "All expense participants must be current group members";
+        }
+
+        // Each participant owes one amount per expense
+        Set<UUID> participants = new HashSet<>();
+        if (!item.getSplits().stream().map(ExpenseSplitDto::getUserId).allMatch(participants::add)) {
+            return "Each expense participant can only appear once in the splits";
+        }
+
+        // Ensure split adds up to expense total
+        try {
+            ExpenseService.validateSplitAmounts(item.getTotalAmount(), item.getSplits());
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+
+        return null;
+    }
+
+    private ExpenseBatchItem parseCsvRow(List<String> row, Map<String, Integer> columns,
+                                         Map<String, UUID> memberIdsByEmail) {
+        String expenseDate = field(row, columns, "expense_date");
+        String paidBy = field(row, columns, "paid_by");
+
+        return ExpenseBatchItem.builder()
+                .description(field(row, columns, "description"))
+                .totalAmount(parseAmount(field(row, columns, "total_amount"), "total_amount"))
+                .currency(field(row, columns, "currency"))
+                .paidByUserId(paidBy == null ? null : memberId(paidBy, memberIdsByEmail))
+                .category(field(row, columns, "category"))
+                .expenseDate(parseDate(expenseDate))
+                .splits(parseSplits(field(row, columns, "splits"), memberIdsByEmail))
+                .build();
+    }
+
+    private static List<ExpenseSplitDto> parseSplits(String value, Map<String, UUID> memberIdsByEmail) {
+        if (value == null) {
+            return List.of();
+        }
+
+        List<ExpenseSplitDto> splits = new ArrayList<>();
+        for (String part : value.split(SPLIT_SEPARATOR)) {
+            if (part.isBlank()) {
+                continue;
+            }
+            int separator = part.lastIndexOf(SPLIT_AMOUNT_SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("splits: expected email:amount but got '" + part.trim() + "'");
+            }
+            splits.add(new ExpenseSplitDto(
+                    memberId(part.substring(0, separator), memberIdsByEmail),
+                    parseAmount(part.substring(separator + 1), "splits")));
+        }
+        return splits;
+    }
+
+    private static UUID memberId(String email, Map<String, UUID> memberIdsByEmail) {
+        UUID userId = memberIdsByEmail.get(email.trim().toLowerCase(Locale.ROOT));
+        if (userId == null) {
+            throw new IllegalArgumentException("No group member with email " + email.trim());
+        }
+        return userId;
+    }
+
+    private static BigDecimal parseAmount(String value, String column) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + ": '" + value.trim() + "' is not a valid amount");
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("expense_date: '" + value.trim() + "' is not a valid date (yyyy-MM-dd)");
+        }
+    }
+
+    // Blank cells and missing trailing cells read as null so validation reports them as required
+    private static String field(List<String> row, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= row.size() || row.get(index).isBlank()) {
+            return null;
+        }
+        return row.get(index);
+    }
+
+    private static void checkBatchSize(int size) {
+        if (size > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " expenses can be imported at once");
+        }
+    }
+}
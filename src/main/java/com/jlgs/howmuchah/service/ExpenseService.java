@@ -3,20 +3,26 @@ package com.jlgs.howmuchah.service;
 import com.jlgs.howmuchah.dto.request.ExpenseCreationRequest;
 import com.jlgs.howmuchah.dto.request.ExpenseSplitDto;
 import com.jlgs.howmuchah.dto.request.ExpenseUpdateRequest;
+import com.jlgs.howmuchah.dto.response.CursorPage;
 import com.jlgs.howmuchah.dto.response.ExpenseDetailResponse;
 import com.jlgs.howmuchah.dto.response.ExpenseResponse;
 import com.jlgs.howmuchah.entity.Expense;
 import com.jlgs.howmuchah.entity.ExpenseSplit;
 import com.jlgs.howmuchah.entity.Group;
+import com.jlgs.howmuchah.entity.GroupMember;
 import com.jlgs.howmuchah.entity.User;
 import com.jlgs.howmuchah.repository.ExpenseRepository;
 import com.jlgs.howmuchah.repository.ExpenseSplitRepository;
 import com.jlgs.howmuchah.repository.GroupMemberRepository;
 import com.jlgs.howmuchah.repository.GroupRepository;
-import com.jlgs.howmuchah.repository.UserRepository;
+import com.jlgs.howmuchah.security.RequireGroupMember;
+import com.jlgs.howmuchah.settlement.SettlementPreviewCache;
+import com.jlgs.howmuchah.util.CursorCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.owasp.encoder.Encode;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -24,9 +30,14 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,11 +45,15 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ExpenseService {
 
+    static final int MAX_PAGE_SIZE = 100;
+
     private final ExpenseRepository expenseRepository;
     private final ExpenseSplitRepository expenseSplitRepository;
     private final GroupRepository groupRepository;
     private final GroupMemberRepository groupMemberRepository;
-    private final UserRepository userRepository;
+    private final GroupMembershipCache groupMembershipCache;
+    private final GroupBalanceService groupBalanceService;
+    private final SettlementPreviewCache settlementPreviewCache;
 
     @Transactional
     public ExpenseDetailResponse createExpense(UUID requester, ExpenseCreationRequest request) {
@@ -46,15 +61,22 @@ public class ExpenseService {
         Group group = groupRepository.findById(request.getGroupId())
                 .orElseThrow(() -> new RuntimeException("Group not found"));
 
+        // One query serves every membership check below and supplies the payer and split users
+        Map<UUID, User> members = groupMemberRepository.findByGroupId(group.getId())
+                .stream()
+                .map(GroupMember::getUser)
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
         // Check if requester is part of the group
-        if (!groupMemberRepository.existsByGroupIdAndUserId(group.getId(), requester)) {
+        if (!members.containsKey(requester)) {
             log.warn("User {} attempted to maliciously create expense for group {}",
                     Encode.forJava(String.valueOf(requester)), Encode.forJava(String.valueOf(group.getId())));
             throw new IllegalArgumentException("Only group members can add expenses for the group");
         }
 
         // Check if payer is part of the group
-        if (!groupMemberRepository.existsByGroupIdAndUserId(request.getGroupId(), request.getPaidByUserId())) {
+        User paidBy = members.get(request.getPaidByUserId());
+        if (paidBy == null) {
             throw new IllegalArgumentException("Payer must be a current group member");
         }
 
@@ -62,22 +84,14 @@ public class ExpenseService {
                 .map(ExpenseSplitDto::getUserId)
                 .collect(Collectors.toSet());
 
-        Set<UUID> memberIds = groupMemberRepository.findByGroupId(request.getGroupId())
-                .stream()
-                .map(gm -> gm.getUser().getId())
-                .collect(Collectors.toSet());
-
         // Check if all participants are group members
-        if (!memberIds.containsAll(splitUserIds)) {
+        if (!members.keySet().containsAll(splitUserIds)) {
             throw new IllegalArgumentException("All expense participants must be current group members");
         }
 
         // Ensure split adds up to expense total
         validateSplitAmounts(request.getTotalAmount(), request.getSplits());
 
-        User paidBy = userRepository.findById(request.getPaidByUserId())
-                .orElseThrow(() -> new RuntimeException("Payer user not found"));
-
         Expense expense = Expense.builder()
                 .group(group)
                 .description(request.getDescription())
@@ -88,29 +102,154 @@ public class ExpenseService {
                 .expenseDate(request.getExpenseDate() != null ? request.getExpenseDate() : LocalDate.now())
                 .build();
 
+        // Settlements wait for this write instead of reading the ledger halfway through it
+        groupRepository.lockLedgerShared(group.getId());
+
         expense = expenseRepository.save(expense);
+        groupRepository.adjustUnsettledExpenseCount(group.getId(), 1);
 
         // Generate splits
-        List<ExpenseSplit> splits = createExpenseSplits(expense, request.getSplits());
+        List<ExpenseSplit> splits = createExpenseSplits(expense, request.getSplits(), members);
+
+        // Keep the group's balance ledger in sync
+        groupBalanceService.applyExpense(expense, splits);
+        settlementPreviewCache.evictAfterCommit(group.getId());
+
+        return ExpenseDetailResponse.from(expense, splits);
+    }
+
+    /**
+     * Edit an unsettled expense in place
+     * The incoming splits are diffed against the stored ones so only changed amounts are updated,
+     * new participants inserted and dropped participants deleted. The ledger only receives each
+     * member's net difference, and the version check rejects edits made on a stale copy.
+     */
+    @Transactional
+    public ExpenseDetailResponse updateExpense(UUID requester, UUID expenseId, ExpenseUpdateRequest request) {
+        Expense expense = expenseRepository.findById(expenseId)
+                .orElseThrow(() -> new RuntimeException("Expense not found"));
+
+        UUID groupId = expense.getGroup().getId();
+        Map<UUID, User> members = groupMemberRepository.findByGroupId(groupId)
+                .stream()
+                .map(GroupMember::getUser)
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        // Check if requester is part of the group
+        if (!members.containsKey(requester)) {
+            log.warn("User {} attempted to maliciously edit expense {}",
+                    Encode.forJava(String.valueOf(requester)), Encode.forJava(String.valueOf(expenseId)));
+            throw new IllegalArgumentException("Only group members can edit this expense");
+        }
+
+        if (expense.isSettled()) {
+            throw new IllegalArgumentException("Cannot edit settled expense.");
+        }
+
+        // Someone else edited the expense after the client loaded it
+        if (request.getVersion() != null && request.getVersion() != expense.getVersion()) {
+            throw new ObjectOptimisticLockingFailureException(Expense.class, expenseId);
+        }
+
+        // Check if payer is part of the group
+        User paidBy = members.get(request.getPaidByUserId());
+        if (paidBy == null) {
+            throw new IllegalArgumentException("Payer must be a current group member");
+        }
+
+        Set<UUID> splitUserIds = request.getSplits().stream()
+                .map(ExpenseSplitDto::getUserId)
+                .collect(Collectors.toSet());
+
+        // Splits are matched to stored ones by user, so each user may only appear once
+        if (splitUserIds.size() != request.getSplits().size()) {
+            throw new IllegalArgumentException("Each participant can only appear once in the splits");
+        }
+
+        // Check if all participants are group members
+        if (!members.keySet().containsAll(splitUserIds)) {
+            throw new IllegalArgumentException("All expense participants must be current group members");
+        }
+
+        // Ensure split adds up to expense total
+        validateSplitAmounts(request.getTotalAmount(), request.getSplits());
+
+        // Settlements wait for this write, one that settled the expense since it was loaded fails the version check
+        groupRepository.lockLedgerShared(groupId);
+
+        // Capture the ledger effect of the stored expense before anything changes
+        List<ExpenseSplit> storedSplits = expenseSplitRepository.findByExpenseId(expenseId);
+        String previousCurrency = expense.getCurrency();
+        Map<UUID, BigDecimal> previousDeltas = GroupBalanceService.calculateDeltas(expense, storedSplits);
+
+        List<ExpenseSplit> splits = diffExpenseSplits(expense, storedSplits, request.getSplits(), members);
+
+        expense.setDescription(request.getDescription());
+        expense.setTotalAmount(request.getTotalAmount());
+        expense.setCurrency(request.getCurrency());
+        expense.setPaidBy(paidBy);
+        expense.setCategory(request.getCategory());
+        expense.setExpenseDate(request.getExpenseDate());
+        // Always dirty so the version is bumped even when only splits changed
+        expense.setUpdatedAt(LocalDateTime.now());
+
+        // Flush now so a concurrent edit fails here and the response carries the new version
+        expense = expenseRepository.saveAndFlush(expense);
+
+        // Keep the group's balance ledger in sync
+        groupBalanceService.replaceExpense(previousCurrency, previousDeltas, expense, splits);
+        settlementPreviewCache.evictAfterCommit(groupId);
 
         return ExpenseDetailResponse.from(expense, splits);
     }
 
     @Transactional(readOnly = true)
+    @RequireGroupMember(message = "Only group members can access expenses for the group")
     public Page<ExpenseResponse> getExpensesByGroup(UUID requester, UUID groupId, Pageable pageable) {
-        if (!groupRepository.existsById(groupId)) {
-            throw new RuntimeException("Group not found");
+        // Projected in the query, the payer's name comes from the same join instead of a lazy load per row
+        return expenseRepository.findResponsesByGroupId(groupId, pageable);
+    }
+
+    /**
+     * One page of a group's expenses, most recent first
+     * Keyset pagination on (expense_date, id) so every page costs the same regardless of depth,
+     * and no count query is issued - hasMore comes from fetching one extra row.
+     */
+    @Transactional(readOnly = true)
+    @RequireGroupMember(message = "Only group members can access expenses for the group")
+    public CursorPage<ExpenseResponse> getExpensesByGroupPage(UUID requester, UUID groupId, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
         }
 
-        if (!groupMemberRepository.existsByGroupIdAndUserId(groupId, requester)) {
-            log.warn("User {} attempted to maliciously access expenses for group {}",
-                    Encode.forJava(String.valueOf(requester)), Encode.forJava(String.valueOf(groupId)));
-            throw new IllegalArgumentException("Only group members can access expenses for the group");
+        // Fetch one extra row to know whether another page exists
+        Limit limit = Limit.of(size + 1);
+        List<ExpenseResponse> expenses;
+        if (cursor == null || cursor.isBlank()) {
+            expenses = expenseRepository.findPageByGroupId(groupId, limit);
+        } else {
+            CursorCodec.Cursor position = CursorCodec.decode(cursor);
+            LocalDate expenseDate;
+            try {
+                expenseDate = LocalDate.parse(position.sortValue());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            expenses = expenseRepository.findPageByGroupIdBefore(groupId, expenseDate, position.id(), limit);
         }
 
-        Page<Expense> expenses = expenseRepository.findByGroupId(groupId, pageable);
+        boolean hasMore = expenses.size() > size;
+        if (hasMore) {
+            expenses = expenses.subList(0, size);
+        }
 
-        return expenses.map(ExpenseResponse::from);
+        String nextCursor = null;
+        if (hasMore) {
+            ExpenseResponse last = expenses.get(expenses.size() - 1);
+            nextCursor = CursorCodec.encode(last.getExpenseDate().toString(), last.getId());
+        }
+
+        return new CursorPage<>(expenses, nextCursor, hasMore);
     }
 
     @Transactional(readOnly = true)
@@ -119,7 +258,7 @@ public class ExpenseService {
                 .orElseThrow(() -> new RuntimeException("Expense not found"));
 
         UUID groupId = expense.getGroup().getId();
-        if (!groupMemberRepository.existsByGroupIdAndUserId(groupId, requester)) {
+        if (!groupMembershipCache.isMember(groupId, requester)) {
             log.warn("User {} attempted to maliciously access expense details for {}",
                     Encode.forJava(String.valueOf(requester)), Encode.forJava(String.valueOf(expenseId)));
             throw new IllegalArgumentException("Only group members can access information for this expense");
@@ -131,15 +270,11 @@ public class ExpenseService {
     }
 
     @Transactional(readOnly = true)
+    @RequireGroupMember(message = "Only group members can access this information")
     public Long getUnsettledExpensesCount(UUID requester, UUID groupId) {
-        // Verify user is member of group
-        if (!groupMemberRepository.existsByGroupIdAndUserId(groupId, requester)) {
-            log.warn("User {} attempted to maliciously access unsettled expense counts for group {}",
-                    Encode.forJava(String.valueOf(requester)), Encode.forJava(String.valueOf(groupId)));
-            throw new IllegalArgumentException("Only group members can access this information");
-        }
-
-        return expenseRepository.countByGroupIdAndIsSettled(groupId, false);
+        return groupRepository.findUnsettledExpenseCountById(groupId)
+                .map(Long::valueOf)
+                .orElse(0L);
     }
 
     @Transactional
@@ -148,7 +283,7 @@ public class ExpenseService {
                 .orElseThrow(() -> new RuntimeException("Expense not found"));
 
         UUID groupId = expense.getGroup().getId();
-        if (!groupMemberRepository.existsByGroupIdAndUserId(groupId, requester)) {
+        if (!groupMembershipCache.isMember(groupId, requester)) {
             log.warn("User {} attempted to maliciously delete expense {}",
                     Encode.forJava(String.valueOf(requester)), Encode.forJava(String.valueOf(expenseId)));
             throw new IllegalArgumentException("Only group members can delete this expense");
@@ -158,14 +293,23 @@ public class ExpenseService {
             throw new IllegalArgumentException("Cannot delete settled expense.");
         }
 
+        // Settlements wait for this write, one that settled the expense since it was loaded fails the version check
+        groupRepository.lockLedgerShared(groupId);
+
+        // Take the expense back out of the group's balance ledger
+        List<ExpenseSplit> splits = expenseSplitRepository.findByExpenseId(expenseId);
+        groupBalanceService.revertExpense(expense, splits);
+        settlementPreviewCache.evictAfterCommit(groupId);
+
         expenseRepository.delete(expense);
+        groupRepository.adjustUnsettledExpenseCount(groupId, -1);
     }
 
     /**
      * Helper functions
      */
 
-    private void validateSplitAmounts(BigDecimal totalAmount, List<ExpenseSplitDto> splits) {
+    static void validateSplitAmounts(BigDecimal totalAmount, List<ExpenseSplitDto> splits) {
         if (splits.isEmpty()) {
             throw new IllegalArgumentException("Expense must have at least one split");
         }
@@ -185,19 +329,53 @@ public class ExpenseService {
         }
     }
 
-    private List<ExpenseSplit> createExpenseSplits(Expense expense, List<ExpenseSplitDto> splitDtos) {
+    /**
+     * Bring the stored splits in line with the requested ones using the fewest writes
+     * Changed amounts are updated through dirty checking, new participants are inserted as one
+     * batch and dropped participants deleted with a single statement. Returns the resulting splits.
+     */
+    private List<ExpenseSplit> diffExpenseSplits(Expense expense, List<ExpenseSplit> storedSplits,
+                                                 List<ExpenseSplitDto> splitDtos, Map<UUID, User> members) {
+        Map<UUID, ExpenseSplit> storedByUser = storedSplits.stream()
+                .collect(Collectors.toMap(split -> split.getUser().getId(), Function.identity()));
+
+        List<ExpenseSplit> splits = new ArrayList<>(splitDtos.size());
+        List<ExpenseSplitDto> added = new ArrayList<>();
+
+        for (ExpenseSplitDto splitDto : splitDtos) {
+            ExpenseSplit stored = storedByUser.remove(splitDto.getUserId());
+            if (stored == null) {
+                added.add(splitDto);
+                continue;
+            }
+            // compareTo so 10.0 and 10.00 do not count as a change
+            if (stored.getAmountOwed().compareTo(splitDto.getAmountOwed()) != 0) {
+                stored.setAmountOwed(splitDto.getAmountOwed());
+            }
+            splits.add(stored);
+        }
+
+        // Whatever is left was not in the request
+        if (!storedByUser.isEmpty()) {
+            expenseSplitRepository.deleteAllInBatch(new ArrayList<>(storedByUser.values()));
+        }
+        if (!added.isEmpty()) {
+            splits.addAll(createExpenseSplits(expense, added, members));
+        }
+
+        return splits;
+    }
+
+    // Users come from the already loaded member map, the inserts go out as one JDBC batch (hibernate.jdbc.batch_size)
+    private List<ExpenseSplit> createExpenseSplits(Expense expense, List<ExpenseSplitDto> splitDtos,
+                                                   Map<UUID, User> members) {
         List<ExpenseSplit> splits = splitDtos.stream()
-                .map(splitDto -> {
-                    User user = userRepository.findById(splitDto.getUserId())
-                            .orElseThrow(() -> new RuntimeException("User not found: " + splitDto.getUserId()));
-
-                    return ExpenseSplit.builder()
-                            .expense(expense)
-                            .user(user)
-                            .amountOwed(splitDto.getAmountOwed())
-                            .isSettled(false)
-                            .build();
-                })
+                .map(splitDto -> ExpenseSplit.builder()
+                        .expense(expense)
+                        .user(members.get(splitDto.getUserId()))
+                        .amountOwed(splitDto.getAmountOwed())
+                        .isSettled(false)
+                        .build())
                 .collect(Collectors.toList());
 
         return expenseSplitRepository.saveAll(splits);
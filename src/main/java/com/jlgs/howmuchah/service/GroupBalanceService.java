@@ -0,0 +1,206 @@
+package com.jlgs.howmuchah.service;
+
+import com.jlgs.howmuchah.dto.projection.UnsettledSplitRow;
+import com.jlgs.howmuchah.dto.response.UserBalancesResponse;
+import com.jlgs.howmuchah.entity.Expense;
+import com.jlgs.howmuchah.entity.ExpenseSplit;
+import com.jlgs.howmuchah.entity.GroupBalance;
+import com.jlgs.howmuchah.repository.ExpenseSplitRepository;
+import com.jlgs.howmuchah.repository.GroupBalanceJdbcRepository;
+import com.jlgs.howmuchah.repository.GroupBalanceRepository;
+import com.jlgs.howmuchah.settlement.BalanceSheet;
+import com.jlgs.howmuchah.settlement.SettlementSelection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Maintains the per-member balance ledger (group_balances).
+ *
+ * Every expense write applies its net effect to the ledger in the same transaction,
+ * so settlement and balance reads cost O(members) instead of O(unsettled splits).
+ * Each write is a single upsert statement, however many members and currencies it touches.
+ */
+@Service
+@RequiredArgsConstructor
+public class GroupBalanceService {
+
+    private final GroupBalanceRepository groupBalanceRepository;
+    private final GroupBalanceJdbcRepository groupBalanceJdbcRepository;
+    private final ExpenseSplitRepository expenseSplitRepository;
+
+    @Transactional
+    public void applyExpense(Expense expense, List<ExpenseSplit> splits) {
+        applyCurrencyDeltas(expense.getGroup().getId(), Map.of(expense.getCurrency(), calculateDeltas(expense, splits)));
+    }
+
+    /**
+     * Apply many expenses of one group at once
+     * Deltas are summed per member and currency first, so the ledger sees one row per
+     * (member, currency) no matter how many expenses are imported.
+     */
+    @Transactional
+    public void applyExpenses(UUID groupId, Map<Expense, List<ExpenseSplit>> splitsByExpense) {
+        Map<String, Map<UUID, BigDecimal>> deltasByCurrency = new TreeMap<>();
+        splitsByExpense.forEach((expense, splits) -> calculateDeltas(expense, splits).forEach((userId, delta) ->
+                deltasByCurrency.computeIfAbsent(expense.getCurrency(), currency -> new LinkedHashMap<>())
+                        .merge(userId, delta, BigDecimal::add)));
+
+        applyCurrencyDeltas(groupId, deltasByCurrency);
+    }
+
+    /**
+     * Move an edited expense from its previous effect on the ledger to its current one
+     * Only the difference is written, members whose net share did not change are not touched.
+     */
+    @Transactional
+    public void replaceExpense(String previousCurrency, Map<UUID, BigDecimal> previousDeltas,
+                               Expense expense, List<ExpenseSplit> splits) {
+        Map<String, Map<UUID, BigDecimal>> deltasByCurrency = new TreeMap<>();
+        previousDeltas.forEach((userId, delta) ->
+                deltasByCurrency.computeIfAbsent(previousCurrency, currency -> new LinkedHashMap<>())
+                        .merge(userId, delta.negate(), BigDecimal::add));
+        calculateDeltas(expense, splits).forEach((userId, delta) ->
+                deltasByCurrency.computeIfAbsent(expense.getCurrency(), currency -> new LinkedHashMap<>())
+                        .merge(userId, delta, BigDecimal::add));
+
+        applyCurrencyDeltas(expense.getGroup().getId(), deltasByCurrency);
+    }
+
+    @Transactional
+    public void revertExpense(Expense expense, List<ExpenseSplit> splits) {
+        Map<UUID, BigDecimal> deltas = calculateDeltas(expense, splits);
+        deltas.replaceAll((userId, delta) -> delta.negate());
+        applyCurrencyDeltas(expense.getGroup().getId(), Map.of(expense.getCurrency(), deltas));
+    }
+
+    @Transactional(readOnly = true)
+    public List<GroupBalance> getOutstandingBalances(UUID groupId) {
+        return groupBalanceRepository.findOutstandingByGroupId(groupId);
+    }
+
+    /**
+     * The user's outstanding balance in every group, read from the ledger in a single query
+     */
+    @Transactional(readOnly = true)
+    public UserBalancesResponse getBalancesForUser(UUID userId) {
+        return UserBalancesResponse.fromRows(groupBalanceRepository.findOutstandingByUserId(userId));
+    }
+
+    /**
+     * Recompute per-currency balances straight from the group's unsettled splits
+     * Only used when the ledger is found out of sync, rows are streamed so memory
+     * stays constant regardless of how many splits the group has.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, BalanceSheet> replayUnsettledSplits(UUID groupId) {
+        try (Stream<UnsettledSplitRow> rows = expenseSplitRepository.streamUnsettledByGroupId(groupId)) {
+            return accumulate(rows, null);
+        }
+    }
+
+    /**
+     * Balances contributed by unsettled expenses dated on or before the cutoff
+     */
+    @Transactional(readOnly = true)
+    public SettlementSelection selectUnsettledUpTo(UUID groupId, LocalDate expenseDateUpTo) {
+        try (Stream<UnsettledSplitRow> rows =
+                     expenseSplitRepository.streamUnsettledByGroupIdUpTo(groupId, expenseDateUpTo)) {
+            Set<UUID> expenseIds = new HashSet<>();
+            return new SettlementSelection(accumulate(rows, expenseIds), expenseIds);
+        }
+    }
+
+    /**
+     * Balances contributed by the given unsettled expenses
+     */
+    @Transactional(readOnly = true)
+    public SettlementSelection selectUnsettled(UUID groupId, Collection<UUID> expenseIds) {
+        try (Stream<UnsettledSplitRow> rows =
+                     expenseSplitRepository.streamUnsettledByExpenseIds(groupId, expenseIds)) {
+            Set<UUID> foundExpenseIds = new HashSet<>();
+            return new SettlementSelection(accumulate(rows, foundExpenseIds), foundExpenseIds);
+        }
+    }
+
+    /**
+     * Remove a settlement's balances from the ledger, leaving what the remaining
+     * unsettled expenses owe - one upsert of O(members) rows instead of a ledger rebuild
+     */
+    @Transactional
+    public void subtractSettled(UUID groupId, Map<String, BalanceSheet> settledSheets) {
+        Map<String, Map<UUID, BigDecimal>> deltasByCurrency = new TreeMap<>();
+        settledSheets.forEach((currency, sheet) -> {
+            Map<UUID, BigDecimal> deltas = deltasByCurrency.computeIfAbsent(currency, c -> new LinkedHashMap<>());
+            for (int i = 0; i < sheet.size(); i++) {
+                deltas.put(sheet.userId(i), BalanceSheet.fromCents(-sheet.cents(i)));
+            }
+        });
+
+        applyCurrencyDeltas(groupId, deltasByCurrency);
+    }
+
+    // Fold split rows into per-currency balances, also collecting their expense ids when a set is given
+    private static Map<String, BalanceSheet> accumulate(Stream<UnsettledSplitRow> rows, Set<UUID> expenseIds) {
+        Map<String, BalanceSheet.Builder> builders = new LinkedHashMap<>();
+
+        rows.forEach(row -> {
+            long cents = BalanceSheet.toCents(row.amountOwed());
+            builders.computeIfAbsent(row.currency(), currency -> BalanceSheet.builder())
+                    .add(row.debtorId(), -cents)
+                    .add(row.payerId(), cents);
+            if (expenseIds != null) {
+                expenseIds.add(row.expenseId());
+            }
+        });
+
+        Map<String, BalanceSheet> sheets = new LinkedHashMap<>();
+        builders.forEach((currency, builder) -> sheets.put(currency, builder.build()));
+        return sheets;
+    }
+
+    /**
+     * Net effect of an expense on each participant
+     * Debtors are debited their share, the payer is credited the sum of all shares
+     * (not the expense total) which solves the phantom penny problem.
+     */
+    static Map<UUID, BigDecimal> calculateDeltas(Expense expense, List<ExpenseSplit> splits) {
+        Map<UUID, BigDecimal> deltas = new LinkedHashMap<>();
+        BigDecimal sumOfSplits = BigDecimal.ZERO;
+
+        for (ExpenseSplit split : splits) {
+            deltas.merge(split.getUser().getId(), split.getAmountOwed().negate(), BigDecimal::add);
+            sumOfSplits = sumOfSplits.add(split.getAmountOwed());
+        }
+
+        deltas.merge(expense.getPaidBy().getId(), sumOfSplits, BigDecimal::add);
+
+        return deltas;
+    }
+
+    private void applyCurrencyDeltas(UUID groupId, Map<String, Map<UUID, BigDecimal>> deltasByCurrency) {
+        // Shares that cancel out (payer paying for themselves, unchanged members) leave their row alone
+        Map<String, Map<UUID, BigDecimal>> changes = new TreeMap<>();
+        deltasByCurrency.forEach((currency, deltas) -> deltas.forEach((userId, delta) -> {
+            if (delta.signum() != 0) {
+                changes.computeIfAbsent(currency, c -> new LinkedHashMap<>()).put(userId, delta);
+            }
+        }));
+
+        if (!changes.isEmpty()) {
+            groupBalanceJdbcRepository.addToBalances(groupId, changes);
+        }
+    }
+}
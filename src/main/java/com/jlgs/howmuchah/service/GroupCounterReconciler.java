@@ -0,0 +1,44 @@
+package com.jlgs.howmuchah.service;
+
+import com.jlgs.howmuchah.repository.GroupCounterJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repairs group counters that drifted from the rows they count
+ *
+ * Every change already adjusts the counters in its own transaction, drift only comes from
+ * writes made outside the application (manual fixes, restores). Each group is recounted in
+ * its own short transaction so the row lock is never held across groups.
+ */
+@Slf4j
+@Lazy(false)
+@Component
+public class GroupCounterReconciler {
+
+    private final GroupCounterJdbcRepository groupCounterJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public GroupCounterReconciler(GroupCounterJdbcRepository groupCounterJdbcRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.groupCounterJdbcRepository = groupCounterJdbcRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${app.group-counters.reconcile-cron:0 30 3 * * *}")
+    public int reconcile() {
+        List<UUID> drifted = groupCounterJdbcRepository.findGroupsWithCounterDrift();
+        for (UUID groupId : drifted) {
+            transactionTemplate.executeWithoutResult(status -> groupCounterJdbcRepository.recountGroup(groupId));
+            log.warn("Repaired drifted counters for group {}", groupId);
+        }
+        return drifted.size();
+    }
+}
@@ -0,0 +1,77 @@
+package com.jlgs.howmuchah.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jlgs.howmuchah.config.GroupMembershipCacheProperties;
+import com.jlgs.howmuchah.repository.GroupMemberRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Per-user cache of group memberships for authorization checks
+ *
+ * A miss loads all of the user's groups in one query, so every later check for that user is
+ * answered from memory. Anything that adds or removes a membership must call
+ * {@link #invalidate(UUID)} so the next check sees the change.
+ * Hit and miss counts are published as the "groupMembership" cache metrics.
+ */
+@Component
+public class GroupMembershipCache {
+
+    static final String CACHE_NAME = "groupMembership";
+
+    private final GroupMemberRepository groupMemberRepository;
+    private final Cache<UUID, Set<UUID>> cache;
+
+    public GroupMembershipCache(GroupMemberRepository groupMemberRepository,
+                                GroupMembershipCacheProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.groupMemberRepository = groupMemberRepository;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getTtl())
+                .maximumSize(properties.getMaxSize())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public boolean isMember(UUID groupId, UUID userId) {
+        if (groupId == null || userId == null) {
+            return false;
+        }
+        return cache.get(userId, id -> Set.copyOf(groupMemberRepository.findGroupIdsByUserId(id)))
+                .contains(groupId);
+    }
+
+    public void invalidate(UUID userId) {
+        invalidateAll(List.of(userId));
+    }
+
+    /**
+     * Evicts right away and again once the surrounding transaction commits.
+     * A check running before the commit could otherwise re-cache the old memberships.
+     */
+    public void invalidateAll(Collection<UUID> userIds) {
+        cache.invalidateAll(userIds);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        List<UUID> pending = List.copyOf(userIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.invalidateAll(pending);
+            }
+        });
+    }
+}
@@ -2,6 +2,7 @@ package com.jlgs.howmuchah.service;
 
 import com.jlgs.howmuchah.dto.request.GroupCreationRequest;
 import com.jlgs.howmuchah.dto.request.GroupUpdateRequest;
+import com.jlgs.howmuchah.dto.response.GroupResponse;
 import com.jlgs.howmuchah.entity.Group;
 import com.jlgs.howmuchah.entity.GroupMember;
 import com.jlgs.howmuchah.entity.GroupMemberId;
@@ -9,10 +10,14 @@ import com.jlgs.howmuchah.entity.User;
 import com.jlgs.howmuchah.repository.GroupMemberRepository;
 import com.jlgs.howmuchah.repository.GroupRepository;
 import com.jlgs.howmuchah.repository.UserRepository;
+import com.jlgs.howmuchah.security.RequireGroupMember;
+import com.jlgs.howmuchah.security.RequireGroupOwner;
+import com.jlgs.howmuchah.settlement.SettlementPreviewCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.owasp.encoder.Encode;
-import org.springframework.security.access.AccessDeniedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,9 +29,14 @@ import java.util.UUID;
 @Slf4j
 public class GroupService {
 
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
     private final GroupRepository groupRepository;
     private final UserRepository userRepository;
     private final GroupMemberRepository groupMemberRepository;
+    private final GroupMembershipCache groupMembershipCache;
+    private final SettlementPreviewCache settlementPreviewCache;
 
     @Transactional
     public Group createGroup(UUID ownerId, GroupCreationRequest request) {
@@ -53,28 +63,41 @@ public class GroupService {
                 .build();
 
         groupMemberRepository.save(ownerMember);
+        groupRepository.adjustMemberCount(savedGroup.getId(), 1);
+        groupMembershipCache.invalidate(ownerId);
 
         return savedGroup;
     }
 
+    /**
+     * Groups of the user for the home screen, with the counts it shows per group
+     * Unpaged unless a page or size is given, a missing page is the first and a missing size is 20.
+     */
     @Transactional(readOnly = true)
-    public List<Group> getAllGroupsForUser(UUID userId) {
-        return groupRepository.findAllGroupsForUser(userId);
+    public List<GroupResponse> getAllGroupsForUser(UUID userId, Integer page, Integer size) {
+        Pageable pageable = Pageable.unpaged();
+        if (page != null || size != null) {
+            int pageSize = size != null ? size : DEFAULT_PAGE_SIZE;
+            if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+                throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+            }
+            int pageNumber = page != null ? page : 0;
+            if (pageNumber < 0) {
+                throw new IllegalArgumentException("Page number must not be negative");
+            }
+            pageable = PageRequest.of(pageNumber, pageSize);
+        }
+
+        return groupRepository.findSummariesForUser(userId, pageable);
     }
 
     @Transactional
+    @RequireGroupOwner(userId = "userId", message = "Only the group owner can delete this group")
     public void deleteGroup(UUID groupId, UUID userId) {
-        // Fetch the group
-        Group group = groupRepository.findById(groupId)
-                .orElseThrow(() -> new IllegalArgumentException("Group not found"));
-
-        // Check if the user is the owner
-        if (!group.getOwner().getId().equals(userId)) {
-            log.warn("User {} attempted to maliciously delete group {}", Encode.forJava(String.valueOf(userId)), Encode.forJava(String.valueOf(groupId)));
-            throw new IllegalArgumentException("Only the group owner can delete this group");
-        }
-
-        groupRepository.delete(group);
+        // Members are gone with the group, collect them before the cascade
+        List<UUID> memberIds = groupMemberRepository.findUserIdsByGroupId(groupId);
+        groupRepository.deleteGroupById(groupId);
+        groupMembershipCache.invalidateAll(memberIds);
     }
 
     @Transactional
@@ -83,10 +106,19 @@ public class GroupService {
         Group group = groupRepository.findByIdWithOwner(groupId)
                 .orElseThrow(() -> new IllegalArgumentException("Group not found"));
 
-        if (request.getName() == null && request.getDescription() == null) {
+        if (request.getName() == null && request.getDescription() == null
+                && request.getSettlementStrategy() == null && request.getSettlementHubId() == null
+                && !request.isClearSettlementStrategy() && !request.isClearSettlementHub()) {
             throw new IllegalArgumentException("At least one field must be provided for update");
         }
 
+        if (request.isClearSettlementStrategy() && request.getSettlementStrategy() != null) {
+            throw new IllegalArgumentException("Cannot set and clear the settlement strategy at the same time");
+        }
+        if (request.isClearSettlementHub() && request.getSettlementHubId() != null) {
+            throw new IllegalArgumentException("Cannot set and clear the settlement hub at the same time");
+        }
+
         // Check if the user is the owner
         if (!group.getOwner().getId().equals(userId)) {
             log.warn("User {} attempted to maliciously update group {} details", Encode.forJava(String.valueOf(userId)), Encode.forJava(String.valueOf(groupId)));
@@ -104,37 +136,43 @@ public class GroupService {
             group.setDescription(request.getDescription().trim());
         }
 
+        if (request.getSettlementStrategy() != null) {
+            group.setSettlementStrategy(request.getSettlementStrategy());
+        } else if (request.isClearSettlementStrategy()) {
+            // Back to the app default
+            group.setSettlementStrategy(null);
+        }
+
+        if (request.getSettlementHubId() != null) {
+            if (!groupMembershipCache.isMember(groupId, request.getSettlementHubId())) {
+                throw new IllegalArgumentException("The settlement hub must be a member of the group");
+            }
+            group.setSettlementHub(userRepository.getReferenceById(request.getSettlementHubId()));
+        } else if (request.isClearSettlementHub()) {
+            // Back to the group owner
+            group.setSettlementHub(null);
+        }
+
+        // Cached previews were computed with the previous strategy
+        if (request.getSettlementStrategy() != null || request.getSettlementHubId() != null
+                || request.isClearSettlementStrategy() || request.isClearSettlementHub()) {
+            settlementPreviewCache.evictAfterCommit(groupId);
+        }
+
         return groupRepository.save(group);
     }
 
     @Transactional(readOnly = true)
+    @RequireGroupMember(userId = "requestingUserId", message = "You don't have access to this group", forbidden = true)
     public List<GroupMember> getGroupMembers(UUID groupId, UUID requestingUserId) {
-        Group group = groupRepository.findById(groupId)
-                .orElseThrow(() -> new IllegalArgumentException("Group not found"));
-
-        // Verify the user is a member or owner
-        boolean isMember = groupMemberRepository.existsByGroupIdAndUserId(groupId, requestingUserId);
-        boolean isOwner = group.getOwner().getId().equals(requestingUserId);
-
-        if (!isMember && !isOwner) {
-            throw new AccessDeniedException("You don't have access to this group");
-        }
-
         return groupMemberRepository.findByGroupId(groupId);
     }
 
     @Transactional
+    @RequireGroupOwner(userId = "requestingUserId", message = "Only the group owner can remove members", forbidden = true)
     public void removeMember(UUID groupId, UUID userIdToRemove, UUID requestingUserId) {
-        Group group = groupRepository.findById(groupId)
-                .orElseThrow(() -> new IllegalArgumentException("Group not found"));
-
-        // Only owner can remove members
-        if (!group.getOwner().getId().equals(requestingUserId)) {
-            throw new AccessDeniedException("Only the group owner can remove members");
-        }
-
-        // Can't remove the owner
-        if (group.getOwner().getId().equals(userIdToRemove)) {
+        // The requester is the owner, so removing themselves means removing the owner
+        if (requestingUserId.equals(userIdToRemove)) {
             throw new IllegalArgumentException("Cannot remove the group owner");
         }
 
@@ -145,24 +183,30 @@ public class GroupService {
         }
 
         groupMemberRepository.deleteById(memberId);
+        groupRepository.adjustMemberCount(groupId, -1);
+        groupMembershipCache.invalidate(userIdToRemove);
+        clearDepartedHub(groupId, userIdToRemove);
     }
 
     @Transactional
+    @RequireGroupMember(userId = "userId", message = "You are not a member of this group")
     public void leaveGroup(UUID groupId, UUID userId) {
-        Group group = groupRepository.findById(groupId)
-                .orElseThrow(() -> new IllegalArgumentException("Group not found"));
-
         // Owner can't leave
-        if (group.getOwner().getId().equals(userId)) {
+        if (groupRepository.existsByIdAndOwnerId(groupId, userId)) {
             throw new IllegalArgumentException("Group owner cannot leave. Delete the group instead.");
         }
 
-        // Check if user is a member
         GroupMemberId memberId = new GroupMemberId(groupId, userId);
-        if (!groupMemberRepository.existsById(memberId)) {
-            throw new IllegalArgumentException("You are not a member of this group");
-        }
-
         groupMemberRepository.deleteById(memberId);
+        groupRepository.adjustMemberCount(groupId, -1);
+        groupMembershipCache.invalidate(userId);
+        clearDepartedHub(groupId, userId);
+    }
+
+    // A hub that left can no longer receive payments, cached previews were routed through it
+    private void clearDepartedHub(UUID groupId, UUID userId) {
+        if (groupRepository.clearSettlementHub(groupId, userId) > 0) {
+            settlementPreviewCache.evictAfterCommit(groupId);
+        }
     }
 }
@@ -11,11 +11,11 @@ import com.jlgs.howmuchah.enums.InvitationLinkStatus;
 import com.jlgs.howmuchah.enums.InvitationStatus;
 import com.jlgs.howmuchah.exception.InvalidInvitationLinkException;
 import com.jlgs.howmuchah.repository.*;
+import com.jlgs.howmuchah.security.RequireGroupMember;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.owasp.encoder.Encode;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -42,18 +42,8 @@ public class InvitationLinkService {
     private final BaseUrlProperties baseUrlProperties;
 
     @Transactional
+    @RequireGroupMember(message = "Only group members can generate invitation links")
     public InvitationLinkResponse getCurrentOrGenerateLink(UUID requester, UUID groupId, UUID userId) {
-        // Validate group exists
-        Group group = groupRepository.findById(groupId)
-                .orElseThrow(() -> new RuntimeException("Group not found"));
-
-        // Check if requester is part of the group
-        if (!groupMemberRepository.existsByGroupIdAndUserId(group.getId(), requester)) {
-            log.warn("User {} attempted to maliciously get/generate invitation link for group {}",
-                    Encode.forJava(String.valueOf(requester)), Encode.forJava(String.valueOf(group.getId())));
-            throw new IllegalArgumentException("Only group members can generate invitation links");
-        }
-
         // Find current active link
         Optional<InvitationLink> activeLink = invitationLinkRepository
                 .findFirstByGroup_IdAndStatusOrderByCreatedAtDesc(
@@ -86,18 +76,8 @@ public class InvitationLinkService {
     }
 
     @Transactional
+    @RequireGroupMember(message = "Only group members can regenerate invitation links")
     public InvitationLinkResponse regenerateLink(UUID requester, UUID groupId, UUID userId) {
-        // Validate group exists
-        Group group = groupRepository.findById(groupId)
-                .orElseThrow(() -> new RuntimeException("Group not found"));
-
-        // Check if requester is part of the group
-        if (!groupMemberRepository.existsByGroupIdAndUserId(group.getId(), requester)) {
-            log.warn("User {} attempted to maliciously regenerate invitation link for group {}",
-                    Encode.forJava(String.valueOf(requester)), Encode.forJava(String.valueOf(group.getId())));
-            throw new IllegalArgumentException("Only group members can regenerate invitation links");
-        }
-
         // Mark any existing active link as expired
         Optional<InvitationLink> activeLink = invitationLinkRepository
                 .findFirstByGroup_IdAndStatusOrderByCreatedAtDesc(
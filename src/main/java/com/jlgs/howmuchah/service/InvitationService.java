@@ -1,7 +1,6 @@
 package com.jlgs.howmuchah.service;
 
 import com.jlgs.howmuchah.dto.request.InvitationRequest;
-import com.jlgs.howmuchah.entity.Group;
 import com.jlgs.howmuchah.entity.GroupMember;
 import com.jlgs.howmuchah.entity.Invitation;
 import com.jlgs.howmuchah.entity.User;
@@ -10,6 +9,7 @@ import com.jlgs.howmuchah.repository.GroupMemberRepository;
 import com.jlgs.howmuchah.repository.GroupRepository;
 import com.jlgs.howmuchah.repository.InvitationRepository;
 import com.jlgs.howmuchah.repository.UserRepository;
+import com.jlgs.howmuchah.security.RequireGroupOwner;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.owasp.encoder.Encode;
@@ -28,20 +28,12 @@ public class InvitationService {
     private final GroupRepository groupRepository;
     private final UserRepository userRepository;
     private final GroupMemberRepository groupMemberRepository;
+    private final GroupMembershipCache groupMembershipCache;
     private final NotificationService notificationService;
 
     @Transactional
+    @RequireGroupOwner(userId = "userId", message = "Only the group owner can send invitations")
     public Invitation sendInvitation(UUID groupId, UUID userId, InvitationRequest request) {
-        // Fetch the group
-        Group group = groupRepository.findById(groupId)
-                .orElseThrow(() -> new IllegalArgumentException("Group not found"));
-
-        // Check if user is the group owner
-        if (!group.getOwner().getId().equals(userId)) {
-            log.warn("User {} attempted to maliciously invite to group {}", Encode.forJava(String.valueOf(userId)), Encode.forJava(String.valueOf(groupId)));
-            throw new IllegalArgumentException("Only the group owner can send invitations");
-        }
-
         // Fetch the inviting user
         User invitedBy = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
@@ -61,7 +53,7 @@ public class InvitationService {
 
         // Create and save invitation
         Invitation invitation = Invitation.builder()
-                .group(group)
+                .group(groupRepository.getReferenceById(groupId))
                 .invitedEmail(request.getInvitedEmail())
                 .invitedBy(invitedBy)
                 .status(InvitationStatus.PENDING)
@@ -80,35 +72,15 @@ public class InvitationService {
     }
 
     @Transactional(readOnly = true)
+    @RequireGroupOwner(userId = "userId", message = "Only the group owner can view invitations")
     public List<Invitation> getAllInvitationsForGroup(UUID groupId, UUID userId) {
-        // Fetch the group
-        Group group = groupRepository.findById(groupId)
-                .orElseThrow(() -> new IllegalArgumentException("Group not found"));
-
-        // Check if user is the group owner
-        if (!group.getOwner().getId().equals(userId)) {
-            log.warn("User {} attempted to maliciously fetch all invitations to group {}",
-                    Encode.forJava(String.valueOf(userId)), Encode.forJava(String.valueOf(groupId)));
-            throw new IllegalArgumentException("Only the group owner can view invitations");
-        }
-
         // Fetch all invitations with details (using JOIN FETCH to avoid N+1 queries)
         return invitationRepository.findByGroupIdWithDetails(groupId);
     }
 
     @Transactional
+    @RequireGroupOwner(userId = "userId", message = "Only the group owner can revoke invitations")
     public void revokeInvitation(UUID groupId, UUID invitationId, UUID userId) {
-        // Fetch the group
-        Group group = groupRepository.findById(groupId)
-                .orElseThrow(() -> new IllegalArgumentException("Group not found"));
-
-        // Check if user is the group owner
-        if (!group.getOwner().getId().equals(userId)) {
-            log.warn("User {} attempted to maliciously revoke invitations to group {}",
-                    Encode.forJava(String.valueOf(userId)), Encode.forJava(String.valueOf(groupId)));
-            throw new IllegalArgumentException("Only the group owner can revoke invitations");
-        }
-
         // Fetch the invitation
         Invitation invitation = invitationRepository.findById(invitationId)
                 .orElseThrow(() -> new IllegalArgumentException("Invitation not found"));
@@ -175,6 +147,8 @@ public class InvitationService {
                 .build();
 
         groupMemberRepository.save(member);
+        groupRepository.adjustMemberCount(invitation.getGroup().getId(), 1);
+        groupMembershipCache.invalidate(userId);
 
         // Update invitation status
         invitation.setStatus(InvitationStatus.ACCEPTED);
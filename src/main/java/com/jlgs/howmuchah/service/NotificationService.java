@@ -1,5 +1,6 @@
 package com.jlgs.howmuchah.service;
 
+import com.jlgs.howmuchah.dto.response.SettlementJobResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
@@ -22,5 +23,13 @@ public class NotificationService {
         );
     }
 
+    public void notifySettlementJobUpdate(UUID userId, SettlementJobResponse job) {
+        messagingTemplate.convertAndSendToUser(
+                userId.toString(),
+                "/settlements",
+                job
+        );
+    }
+
     public record InvitationNotification(String type) {}
 }
\ No newline at end of file
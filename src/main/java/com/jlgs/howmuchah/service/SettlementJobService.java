@@ -0,0 +1,117 @@
+package com.jlgs.howmuchah.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jlgs.howmuchah.config.SettlementProperties;
+import com.jlgs.howmuchah.dto.request.SettlementRequest;
+import com.jlgs.howmuchah.dto.response.SettlementDetailResponse;
+import com.jlgs.howmuchah.dto.response.SettlementJobResponse;
+import com.jlgs.howmuchah.enums.SettlementJobStatus;
+import com.jlgs.howmuchah.exception.SettlementInProgressException;
+import com.jlgs.howmuchah.security.RequireGroupMember;
+import lombok.extern.slf4j.Slf4j;
+import org.owasp.encoder.Encode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Runs settlements in the background for groups too large to settle within a request
+ *
+ * Jobs are kept in memory for a limited time, a restart loses pending jobs (the
+ * settlement itself is transactional so nothing is left half-settled).
+ */
+@Slf4j
+@Service
+public class SettlementJobService {
+
+    private final SettlementService settlementService;
+    private final NotificationService notificationService;
+    private final GroupMembershipCache groupMembershipCache;
+    private final TaskExecutor settlementExecutor;
+    private final Cache<UUID, SettlementJobResponse> jobs;
+
+    public SettlementJobService(SettlementService settlementService,
+                                NotificationService notificationService,
+                                GroupMembershipCache groupMembershipCache,
+                                @Qualifier("settlementExecutor") TaskExecutor settlementExecutor,
+                                SettlementProperties settlementProperties) {
+        this.settlementService = settlementService;
+        this.notificationService = notificationService;
+        this.groupMembershipCache = groupMembershipCache;
+        this.settlementExecutor = settlementExecutor;
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(settlementProperties.getAsyncJobRetention())
+                .build();
+    }
+
+    @RequireGroupMember(message = "Only group members can settle expenses")
+    public SettlementJobResponse submitSettlement(UUID requester, UUID groupId, SettlementRequest request) {
+        SettlementJobResponse job = SettlementJobResponse.builder()
+                .jobId(UUID.randomUUID())
+                .groupId(groupId)
+                .status(SettlementJobStatus.PENDING)
+                .submittedAt(LocalDateTime.now())
+                .build();
+        jobs.put(job.getJobId(), job);
+
+        // Throws TaskRejectedException when the queue is full
+        try {
+            settlementExecutor.execute(() -> runSettlement(requester, job, request));
+        } catch (RuntimeException e) {
+            jobs.invalidate(job.getJobId());
+            throw e;
+        }
+
+        return job;
+    }
+
+    public SettlementJobResponse getJob(UUID requester, UUID jobId) {
+        SettlementJobResponse job = jobs.getIfPresent(jobId);
+        if (job == null) {
+            throw new IllegalArgumentException("Settlement job not found");
+        }
+
+        // Check if requester is part of the group
+        if (!groupMembershipCache.isMember(job.getGroupId(), requester)) {
+            log.warn("User {} attempted to maliciously access settlement job {}",
+                    Encode.forJava(String.valueOf(requester)), Encode.forJava(String.valueOf(jobId)));
+            throw new IllegalArgumentException("Only group members can view this settlement job");
+        }
+
+        return job;
+    }
+
+    private void runSettlement(UUID requester, SettlementJobResponse job, SettlementRequest request) {
+        jobs.put(job.getJobId(), job.toBuilder().status(SettlementJobStatus.RUNNING).build());
+
+        SettlementJobResponse finished;
+        try {
+            SettlementDetailResponse result = settlementService.executeSettlement(requester, job.getGroupId(), request);
+            finished = job.toBuilder()
+                    .status(SettlementJobStatus.COMPLETED)
+                    .result(result)
+                    .completedAt(LocalDateTime.now())
+                    .build();
+        } catch (IllegalArgumentException | SettlementInProgressException e) {
+            finished = job.toBuilder()
+                    .status(SettlementJobStatus.FAILED)
+                    .error(e.getMessage())
+                    .completedAt(LocalDateTime.now())
+                    .build();
+        } catch (RuntimeException e) {
+            log.error("Settlement job {} for group {} failed", job.getJobId(), job.getGroupId(), e);
+            finished = job.toBuilder()
+                    .status(SettlementJobStatus.FAILED)
+                    .error("Settlement failed, please try again")
+                    .completedAt(LocalDateTime.now())
+                    .build();
+        }
+
+        jobs.put(finished.getJobId(), finished);
+        notificationService.notifySettlementJobUpdate(requester, finished);
+    }
+}
@@ -1,17 +1,49 @@
 package com.jlgs.howmuchah.service;
 
+import com.jlgs.howmuchah.config.SettlementProperties;
+import com.jlgs.howmuchah.dto.projection.GroupSettlementSettingsRow;
+import com.jlgs.howmuchah.dto.projection.SettlementCurrencyTotalRow;
+import com.jlgs.howmuchah.dto.projection.SettlementGroupRow;
+import com.jlgs.howmuchah.dto.request.SettlementRequest;
+import com.jlgs.howmuchah.dto.response.CursorPage;
 import com.jlgs.howmuchah.dto.response.SettlementDetailResponse;
+import com.jlgs.howmuchah.dto.response.SettlementPreviewResponse;
 import com.jlgs.howmuchah.dto.response.SettlementSummaryResponse;
+import com.jlgs.howmuchah.dto.response.SettlementTransaction;
 import com.jlgs.howmuchah.entity.*;
+import com.jlgs.howmuchah.enums.SettlementSolverMode;
+import com.jlgs.howmuchah.exception.SettlementInProgressException;
 import com.jlgs.howmuchah.repository.*;
+import com.jlgs.howmuchah.security.RequireGroupMember;
+import com.jlgs.howmuchah.settlement.BalanceSheet;
+import com.jlgs.howmuchah.settlement.SettlementContext;
+import com.jlgs.howmuchah.settlement.SettlementDetailCache;
+import com.jlgs.howmuchah.settlement.SettlementPreviewCache;
+import com.jlgs.howmuchah.settlement.SettlementSelection;
+import com.jlgs.howmuchah.settlement.SettlementStrategy;
+import com.jlgs.howmuchah.settlement.SettlementStrategyRegistry;
+import com.jlgs.howmuchah.settlement.Transfer;
+import com.jlgs.howmuchah.util.CsvUtils;
+import com.jlgs.howmuchah.util.CursorCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.owasp.encoder.Encode;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
-
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -21,257 +53,404 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class SettlementService {
 
+    static final int MAX_HISTORY_PAGE_SIZE = 100;
+
+    static final String CSV_HEADER =
+            "settled_at,payer_name,payer_email,payee_name,payee_email,currency,amount\r\n";
+
     private final SettlementGroupRepository settlementGroupRepository;
     private final SettlementRepository settlementRepository;
-    private final ExpenseSplitRepository expenseSplitRepository;
+    private final SettlementJdbcRepository settlementJdbcRepository;
     private final ExpenseRepository expenseRepository;
     private final GroupRepository groupRepository;
     private final UserRepository userRepository;
-    private final GroupMemberRepository groupMemberRepository;
+    private final GroupMembershipCache groupMembershipCache;
+    private final GroupBalanceService groupBalanceService;
+    private final SettlementStrategyRegistry settlementStrategyRegistry;
+    private final SettlementProperties settlementProperties;
+    private final SettlementPreviewCache settlementPreviewCache;
+    private final SettlementDetailCache settlementDetailCache;
+    private final PlatformTransactionManager transactionManager;
 
     @Transactional(readOnly = true)
+    @RequireGroupMember(message = "Only group members can view the settlement history")
     public List<SettlementSummaryResponse> getSettlementHistory(UUID requester, UUID groupId) {
-        // Validate group exists
-        Group group = groupRepository.findById(groupId)
-                .orElseThrow(() -> new RuntimeException("Group not found"));
+        return summarize(settlementGroupRepository.findRowsByGroupId(groupId, Limit.unlimited()));
+    }
 
-        // Check if requester is part of the group
-        if (!groupMemberRepository.existsByGroupIdAndUserId(group.getId(), requester)) {
-            log.warn("User {} attempted to maliciously read the settlement history for group {}",
-                    Encode.forJava(String.valueOf(requester)), Encode.forJava(String.valueOf(group.getId())));
-            throw new IllegalArgumentException("Only group members can view the settlement history");
+    /**
+     * One page of settlement history, most recent first
+     * Keyset pagination on (settled_at, id) so every page costs the same regardless of depth,
+     * and summaries are built from SQL aggregates without loading individual settlements.
+     */
+    @Transactional(readOnly = true)
+    @RequireGroupMember(message = "Only group members can view the settlement history")
+    public CursorPage<SettlementSummaryResponse> getSettlementHistoryPage(UUID requester, UUID groupId,
+                                                                         String cursor, int size) {
+        if (size < 1 || size > MAX_HISTORY_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_HISTORY_PAGE_SIZE);
         }
 
-        List<SettlementGroup> settlementGroups =
-                settlementGroupRepository.findByGroupIdOrderBySettledAtDesc(groupId);
+        // Fetch one extra row to know whether another page exists
+        Limit limit = Limit.of(size + 1);
+        List<SettlementGroupRow> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = settlementGroupRepository.findRowsByGroupId(groupId, limit);
+        } else {
+            CursorCodec.Cursor position = CursorCodec.decode(cursor);
+            LocalDateTime settledAt;
+            try {
+                settledAt = LocalDateTime.parse(position.sortValue());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            rows = settlementGroupRepository.findRowsByGroupIdBefore(groupId, settledAt, position.id(), limit);
+        }
 
-        return settlementGroups.stream()
-                .map(SettlementSummaryResponse::from)
-                .collect(Collectors.toList());
-    }
+        boolean hasMore = rows.size() > size;
+        if (hasMore) {
+            rows = rows.subList(0, size);
+        }
 
-    @Transactional(readOnly = true)
-    public SettlementDetailResponse getSettlementDetail(UUID requester, UUID settlementGroupId) {
-        SettlementGroup settlementGroup = settlementGroupRepository.findById(settlementGroupId)
-                .orElseThrow(() -> new IllegalArgumentException("Settlement not found"));
+        String nextCursor = null;
+        if (hasMore) {
+            SettlementGroupRow last = rows.get(rows.size() - 1);
+            nextCursor = CursorCodec.encode(last.settledAt().toString(), last.id());
+        }
 
-        UUID groupId = settlementGroup.getGroup().getId();
+        return new CursorPage<>(summarize(rows), nextCursor, hasMore);
+    }
+
+    /**
+     * Serialized settlement details, served from memory after the first read
+     * Settlements are immutable, only the membership check touches the database on a cache hit.
+     * Only a cache miss runs in a read-only transaction, a hit no longer holds a connection for the whole call.
+     */
+    public SettlementDetailCache.Entry getSettlementDetail(UUID requester, UUID settlementGroupId) {
+        SettlementDetailCache.Entry detail = settlementDetailCache.get(settlementGroupId,
+                () -> loadSettlementDetail(settlementGroupId));
 
         // Check if requester is part of the group
-        if (!groupMemberRepository.existsByGroupIdAndUserId(groupId, requester)) {
+        if (!groupMembershipCache.isMember(detail.groupId(), requester)) {
             log.warn("User {} attempted to maliciously access settlement details for {}",
                     Encode.forJava(String.valueOf(requester)), Encode.forJava(String.valueOf(settlementGroupId)));
             throw new IllegalArgumentException("Only group members can view the settlement details");
         }
 
-        return SettlementDetailResponse.from(settlementGroup);
+        return detail;
+    }
+
+    // Settlement with its transactions and both parties, fetched in one query inside its own transaction
+    private SettlementGroup loadSettlementDetail(UUID settlementGroupId) {
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        return readOnlyTransaction.execute(status -> settlementGroupRepository.findDetailById(settlementGroupId)
+                .orElseThrow(() -> new IllegalArgumentException("Settlement not found")));
+    }
+
+    /**
+     * Write every settlement transaction of the group as CSV
+     * Rows go straight from the JDBC cursor to the output stream, so heap use does not grow
+     * with the length of the history.
+     */
+    @Transactional(readOnly = true)
+    @RequireGroupMember(message = "Only group members can export settlements")
+    public void writeSettlementsCsv(UUID requester, UUID groupId, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+
+        Duration queryTimeout = settlementProperties.getExportQueryTimeout();
+        try {
+            settlementJdbcRepository.streamSettlementsForExport(groupId, queryTimeout, row -> {
+                try {
+                    writer.write(String.join(",",
+                            row.settledAt().toString(),
+                            CsvUtils.escape(row.payerName()),
+                            CsvUtils.escape(row.payerEmail()),
+                            CsvUtils.escape(row.payeeName()),
+                            CsvUtils.escape(row.payeeEmail()),
+                            CsvUtils.escape(row.currency()),
+                            row.amount().toPlainString()));
+                    writer.write("\r\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        writer.flush();
+    }
+
+    /**
+     * Attach per-currency counts and totals to settlement headers with a single GROUP BY query
+     */
+    private List<SettlementSummaryResponse> summarize(List<SettlementGroupRow> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, List<SettlementCurrencyTotalRow>> totalsBySettlementGroup = settlementRepository
+                .sumBySettlementGroupIds(rows.stream().map(SettlementGroupRow::id).toList())
+                .stream()
+                .collect(Collectors.groupingBy(SettlementCurrencyTotalRow::settlementGroupId));
+
+        return rows.stream()
+                .map(row -> SettlementSummaryResponse.from(row,
+                        totalsBySettlementGroup.getOrDefault(row.id(), List.of())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Preview who owes whom without settling
+     * Runs the same algorithm as executeSettlement on a read-only transaction, without
+     * locking the group. The result is cached per group until its balances change.
+     */
+    @Transactional(readOnly = true)
+    @RequireGroupMember(message = "Only group members can preview the settlement")
+    public SettlementPreviewResponse getSettlementPreview(UUID requester, UUID groupId) {
+        // Preview always uses the group's own strategy so it matches a settlement without overrides
+        List<SettlementTransaction> transactions = settlementPreviewCache.get(groupId,
+                () -> calculateSettlements(replayIfDrifted(groupId, readLedger(groupId)), null,
+                        resolveContext(groupId, null)).stream()
+                        .map(SettlementTransaction::from)
+                        .collect(Collectors.toList()));
+
+        return new SettlementPreviewResponse(groupId, transactions);
+    }
+
+    /**
+     * Settle every unsettled expense of the group
+     */
+    @Transactional
+    @RequireGroupMember(message = "Only group members can settle expenses")
+    public SettlementDetailResponse executeSettlement(UUID requester, UUID groupId) {
+        return executeSettlement(requester, groupId, null);
     }
 
     /**
      * Execute settlement for a group
-     * 1. Get all unsettled expenses
+     * 1. Read net balances from the group's balance ledger, or from the selected expenses' splits
      * 2. Group by currency
      * 3. Calculate settlements per currency
      * 4. Save settlements
-     * 5. Mark expenses as settled
+     * 5. Mark expenses as settled and subtract the settled balances from the ledger
+     *
+     * A request limited by date or expense ids settles incrementally, so the work and lock
+     * duration scale with the selection rather than the whole backlog.
      */
     @Transactional
-    public SettlementDetailResponse executeSettlement(UUID requester, UUID groupId) {
-        // 1. Validate group exists - Uses a lock to prevent race condition (two people settle at once)
-        Group group = groupRepository.findByIdWithLock(groupId)
-                .orElseThrow(() -> new IllegalArgumentException("Group not found"));
-
-        // Check if requester is part of the group
-        if (!groupMemberRepository.existsByGroupIdAndUserId(groupId, requester)) {
-            log.warn("User {} attempted to maliciously settle expenses for group {}",
-                    Encode.forJava(String.valueOf(requester)), Encode.forJava(String.valueOf(groupId)));
-            throw new IllegalArgumentException("Only group members can settle expenses");
+    @RequireGroupMember(message = "Only group members can settle expenses")
+    public SettlementDetailResponse executeSettlement(UUID requester, UUID groupId, SettlementRequest request) {
+        boolean partial = request != null && (request.getExpenseDateUpTo() != null || request.getExpenseIds() != null);
+        if (partial && request.getExpenseDateUpTo() != null && request.getExpenseIds() != null) {
+            throw new IllegalArgumentException("Specify either an expense date cutoff or expense ids, not both");
         }
 
-        // 2. Get all unsettled expense splits for this group
-        List<ExpenseSplit> unsettledSplits = expenseSplitRepository.findUnsettledByGroupId(groupId);
-
-        if (unsettledSplits.isEmpty()) {
-            throw new IllegalArgumentException("No unsettled expenses to settle");
+        // Only one settlement per group at a time (two people settle at once) - an advisory lock
+        // leaves the groups row free, so group edits and reads never queue behind a settlement
+        if (!groupRepository.tryLockForSettlement(groupId)) {
+            throw new SettlementInProgressException();
+        }
+        // Waits for expense writes already in flight and holds off new ones until commit, so every
+        // delta in the ledger read below belongs to an expense the mark statement settles
+        groupRepository.lockLedgerExclusive(groupId);
+
+        SettlementContext context = resolveContext(groupId, request);
+
+        // Balances taken off the ledger once the expenses are marked settled
+        Map<String, BalanceSheet> settledSheets;
+        Map<String, BalanceSheet> sheets;
+        SettlementSelection selection = null;
+        if (partial) {
+            selection = selectExpenses(groupId, request);
+            settledSheets = selection.sheets();
+            sheets = new TreeMap<>(settledSheets);
+        } else {
+            // Checks the expenses the mark statement settles, not the denormalized counter which can drift
+            if (!expenseRepository.existsByGroupIdAndIsSettledFalse(groupId)) {
+                throw new IllegalArgumentException("No unsettled expenses to settle");
+            }
+            // The rows as read, so a drifted ledger still ends up at zero
+            settledSheets = readLedger(groupId);
+            sheets = replayIfDrifted(groupId, settledSheets);
         }
 
-        // 3. Group splits by currency
-        Map<String, List<ExpenseSplit>> splitsByCurrency = unsettledSplits.stream()
-                .collect(Collectors.groupingBy(split -> split.getExpense().getCurrency()));
-
-        // 4. Create settlement group (parent record)
+        // 2. Create settlement group (parent record) - ids are generated up front so rows can be batch inserted
         SettlementGroup settlementGroup = SettlementGroup.builder()
-                .group(group)
+                .id(UUID.randomUUID())
+                .group(groupRepository.getReferenceById(groupId))
+                .settledAt(LocalDateTime.now())
                 .build();
-        settlementGroup = settlementGroupRepository.save(settlementGroup);
-
-        // 5. Calculate settlements per currency
-        List<Settlement> allSettlements = new ArrayList<>();
+        settlementJdbcRepository.insertSettlementGroup(settlementGroup);
 
-        for (Map.Entry<String, List<ExpenseSplit>> entry : splitsByCurrency.entrySet()) {
-            String currency = entry.getKey();
-            List<ExpenseSplit> currencySplits = entry.getValue();
-
-            // Calculate net balances for this currency
-            Map<UUID, BigDecimal> balances = calculateBalances(currencySplits);
-
-            // Run Splitwise algorithm to minimize transactions
-            List<Settlement> currencySettlements = minimizeTransactions(
-                    balances,
-                    currency,
-                    settlementGroup
-            );
-
-            allSettlements.addAll(currencySettlements);
-        }
+        // 3. Calculate settlements per currency
+        List<Settlement> allSettlements = calculateSettlements(sheets, settlementGroup, context);
 
         if (allSettlements.isEmpty()) {
             log.info("Settlement created with zero transactions (perfect wash) for group {}", groupId);
         }
 
-        // 6. Save all settlement transactions
+        // 4. Save all settlement transactions in one batch
         if (!allSettlements.isEmpty()) {
-            settlementRepository.saveAll(allSettlements);
+            LocalDateTime createdAt = settlementGroup.getSettledAt();
+            allSettlements.forEach(settlement -> {
+                settlement.setId(UUID.randomUUID());
+                settlement.setCreatedAt(createdAt);
+            });
+            settlementJdbcRepository.insertSettlements(allSettlements);
             settlementGroup.setSettlements(allSettlements);
         }
 
-        // 7. Mark all expense splits and expenses as settled
-        expenseSplitRepository.markAllAsSettledByGroupId(groupId);
-        expenseRepository.markAllAsSettledByGroupId(groupId);
+        // 5. Mark expenses and their splits as settled in one statement, then take exactly the
+        // balances that were read off the ledger
+        if (partial) {
+            settlementJdbcRepository.markExpensesSettled(groupId, selection.expenseIds());
+        } else {
+            settlementJdbcRepository.markGroupSettled(groupId);
+        }
+        groupBalanceService.subtractSettled(groupId, settledSheets);
+        settlementPreviewCache.evictAfterCommit(groupId);
 
         return SettlementDetailResponse.from(settlementGroup);
     }
 
     /**
-     * Calculate net balance for each user in a specific currency
-     * Net balance = (total paid) - (total owed)
-     * Positive = creditor (owed money)
-     * Negative = debtor (owes money)
+     * Balances of the expenses a partial settlement covers, read from their unsettled splits
      */
-    private Map<UUID, BigDecimal> calculateBalances(List<ExpenseSplit> splits) {
-        Map<UUID, BigDecimal> balances = new HashMap<>();
-
-        // Group splits by expense to process each expense once
-        Map<Expense, List<ExpenseSplit>> splitsByExpense = splits.stream()
-                .collect(Collectors.groupingBy(ExpenseSplit::getExpense));
-
-        for (Map.Entry<Expense, List<ExpenseSplit>> entry : splitsByExpense.entrySet()) {
-            Expense expense = entry.getKey();
-            List<ExpenseSplit> expenseSplits = entry.getValue();
-            UUID payerId = expense.getPaidBy().getId();
-
-            BigDecimal sumOfSplits = BigDecimal.ZERO;
-
-            for (ExpenseSplit split : expenseSplits) {
-                UUID debtorId = split.getUser().getId();
-                BigDecimal amount = split.getAmountOwed();
-
-                // Debit the debtor
-                balances.merge(debtorId, amount.negate(), BigDecimal::add);
-
-                sumOfSplits = sumOfSplits.add(amount);
+    private SettlementSelection selectExpenses(UUID groupId, SettlementRequest request) {
+        if (request.getExpenseDateUpTo() != null) {
+            SettlementSelection selection =
+                    groupBalanceService.selectUnsettledUpTo(groupId, request.getExpenseDateUpTo());
+            if (selection.expenseIds().isEmpty()) {
+                throw new IllegalArgumentException("No unsettled expenses to settle");
             }
-
-            // Solves phantom penny problem
-            balances.merge(payerId, sumOfSplits, BigDecimal::add);
+            return selection;
         }
 
-        return balances;
+        Set<UUID> expenseIds = new HashSet<>(request.getExpenseIds());
+        SettlementSelection selection = groupBalanceService.selectUnsettled(groupId, expenseIds);
+        if (selection.expenseIds().size() != expenseIds.size()) {
+            throw new IllegalArgumentException("Some expenses are already settled or do not belong to this group");
+        }
+        return selection;
     }
 
     /**
-     * Splitwise greedy algorithm to minimize number of transactions
-     *
-     * Algorithm:
-     * 1. Separate users into creditors (positive balance) and debtors (negative balance)
-     * 2. Sort creditors descending (largest first)
-     * 3. Sort debtors ascending (most negative first)
-     * 4. Match largest creditor with largest debtor
-     * 5. Create transaction for min(creditor_balance, abs(debtor_balance))
-     * 6. Update balances and repeat until all settled
+     * Read the group's net balances per member and currency - O(members) instead of O(splits)
+     * Sorted by currency so output order does not depend on which currency finishes first.
      */
-    private List<Settlement> minimizeTransactions(
-            Map<UUID, BigDecimal> balances,
-            String currency,
-            SettlementGroup settlementGroup) {
-
-        List<Settlement> settlements = new ArrayList<>();
+    private Map<String, BalanceSheet> readLedger(UUID groupId) {
+        List<GroupBalance> outstandingBalances = groupBalanceService.getOutstandingBalances(groupId);
+
+        // Accumulate balances per currency into long cents
+        Map<String, BalanceSheet.Builder> sheetBuilders = new LinkedHashMap<>();
+        for (GroupBalance balance : outstandingBalances) {
+            sheetBuilders.computeIfAbsent(balance.getCurrency(), currency -> BalanceSheet.builder())
+                    .add(balance.getUser().getId(), BalanceSheet.toCents(balance.getNetAmount()));
+        }
 
-        // Fetch users at the start to prevent N+1 query problem
-        Set<UUID> userIds = balances.keySet();
-        Map<UUID, User> userMap = userRepository.findAllById(userIds).stream()
-                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<String, BalanceSheet> sheets = new TreeMap<>();
+        for (Map.Entry<String, BalanceSheet.Builder> entry : sheetBuilders.entrySet()) {
+            sheets.put(entry.getKey(), entry.getValue().build());
+        }
 
-        // Separate creditors and debtors
-        List<UserBalance> creditors = new ArrayList<>();
-        List<UserBalance> debtors = new ArrayList<>();
+        return sheets;
+    }
 
-        // Use threshold to handle rounding errors - Solves phantom penny problem
-        BigDecimal threshold = new BigDecimal("0.005");
+    /**
+     * Every currency must net to zero, otherwise the ledger has drifted from the splits
+     * and the balances are replayed from the unsettled splits instead.
+     */
+    private Map<String, BalanceSheet> replayIfDrifted(UUID groupId, Map<String, BalanceSheet> ledgerSheets) {
+        if (ledgerSheets.values().stream().allMatch(sheet -> sheet.total() == 0)) {
+            return ledgerSheets;
+        }
+        log.warn("Balance ledger for group {} does not net to zero, replaying unsettled splits", groupId);
+        return new TreeMap<>(groupBalanceService.replayUnsettledSplits(groupId));
+    }
 
-        for (Map.Entry<UUID, BigDecimal> entry : balances.entrySet()) {
-            BigDecimal balance = entry.getValue();
+    /**
+     * Strategy for a settlement: the request's override, else the group's choice, else the app default
+     * The hub strategy pays through the requested hub, else the group's hub, else the group owner,
+     * and that member must still belong to the group. A stored hub that has since left falls back to the owner.
+     */
+    private SettlementContext resolveContext(UUID groupId, SettlementRequest request) {
+        GroupSettlementSettingsRow settings = groupRepository.findSettlementSettingsById(groupId)
+                .orElse(new GroupSettlementSettingsRow(null, null, null));
 
-            // Skip near-zero balances
-            if (balance.abs().compareTo(threshold) < 0) {
-                continue;
-            }
+        SettlementSolverMode strategy = request != null && request.getStrategy() != null
+                ? request.getStrategy()
+                : Objects.requireNonNullElse(settings.strategy(), settlementProperties.getSolver());
 
-            if (balance.signum() > 0) {
-                creditors.add(new UserBalance(entry.getKey(), balance));
-            } else {
-                debtors.add(new UserBalance(entry.getKey(), balance.abs()));
+        if (strategy != SettlementSolverMode.HUB) {
+            if (request != null && request.getHubUserId() != null) {
+                throw new IllegalArgumentException("A hub member can only be given with the HUB strategy");
             }
+            return SettlementContext.of(strategy);
         }
 
-        // Sort descending
-        creditors.sort((a, b) -> b.balance.compareTo(a.balance));
-        debtors.sort((a, b) -> b.balance.compareTo(a.balance));
-
-        int i = 0;
-        int j = 0;
-
-        while (i < creditors.size() && j < debtors.size()) {
-            UserBalance creditor = creditors.get(i);
-            UserBalance debtor = debtors.get(j);
-
-            BigDecimal amount = creditor.balance.min(debtor.balance)
-                    .setScale(2, RoundingMode.HALF_UP);
-
-            Settlement settlement = Settlement.builder()
-                    .payer(userMap.get(debtor.userId))
-                    .payee(userMap.get(creditor.userId))
-                    .amount(amount)
-                    .currency(currency)
-                    .settlementGroup(settlementGroup)
-                    .build();
-
-            settlements.add(settlement);
-
-            creditor.balance = creditor.balance.subtract(amount);
-            debtor.balance = debtor.balance.subtract(amount);
+        UUID hubUserId;
+        if (request != null && request.getHubUserId() != null) {
+            hubUserId = request.getHubUserId();
+        } else if (settings.hubUserId() != null && groupMembershipCache.isMember(groupId, settings.hubUserId())) {
+            hubUserId = settings.hubUserId();
+        } else {
+            hubUserId = settings.ownerId();
+        }
 
-            if (creditor.balance.abs().compareTo(threshold) < 0) {
-                i++;
-            }
-            if (debtor.balance.abs().compareTo(threshold) < 0) {
-                j++;
-            }
+        if (hubUserId == null || !groupMembershipCache.isMember(groupId, hubUserId)) {
+            throw new IllegalArgumentException("The settlement hub must be a member of the group");
         }
 
-        return settlements;
+        return new SettlementContext(strategy, hubUserId);
     }
 
     /**
-     * Helper class to track user balances during algorithm
+     * Minimize transactions for each currency and turn the transfers into settlement entities
      */
-    private static class UserBalance {
-        UUID userId;
-        BigDecimal balance;
+    private List<Settlement> calculateSettlements(Map<String, BalanceSheet> sheets, SettlementGroup settlementGroup,
+                                                  SettlementContext context) {
+        // Currencies are independent, solve them in parallel (CPU only, no database access)
+        SettlementStrategy strategy = settlementStrategyRegistry.get(context.strategy());
+        List<Map.Entry<String, BalanceSheet>> entries = new ArrayList<>(sheets.entrySet());
+        List<List<Transfer>> transfersPerCurrency = (entries.size() > 1 ? entries.parallelStream() : entries.stream())
+                .map(entry -> entry.getValue().size() == 0
+                        ? List.<Transfer>of()
+                        : strategy.settle(entry.getValue(), context))
+                .toList();
+
+        // Fetch every involved user once, across all currencies, to prevent N+1 query problem
+        // Taken from the transfers since a hub may have no balance of its own
+        Set<UUID> userIds = new HashSet<>();
+        for (List<Transfer> transfers : transfersPerCurrency) {
+            for (Transfer transfer : transfers) {
+                userIds.add(transfer.payerId());
+                userIds.add(transfer.payeeId());
+            }
+        }
+        if (userIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<UUID, User> userMap = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
 
-        UserBalance(UUID userId, BigDecimal balance) {
-            this.userId = userId;
-            this.balance = balance;
+        // Merge in currency order
+        List<Settlement> allSettlements = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            String currency = entries.get(i).getKey();
+            for (Transfer transfer : transfersPerCurrency.get(i)) {
+                allSettlements.add(Settlement.builder()
+                        .payer(userMap.get(transfer.payerId()))
+                        .payee(userMap.get(transfer.payeeId()))
+                        .amount(BalanceSheet.fromCents(transfer.amountCents()))
+                        .currency(currency)
+                        .settlementGroup(settlementGroup)
+                        .build());
+            }
         }
+
+        return allSettlements;
     }
-}
\ No newline at end of file
+}
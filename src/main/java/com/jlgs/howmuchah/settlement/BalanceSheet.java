@@ -0,0 +1,119 @@
+package com.jlgs.howmuchah.settlement;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+
+/**
+ * Net balances of one currency, held as long cents against dense int member indices
+ *
+ * Amounts are stored as numeric(12,2) so cents fit comfortably in a long and all
+ * accumulation and matching is exact integer arithmetic. Only non-zero balances are kept.
+ */
+public final class BalanceSheet {
+
+    private final UUID[] userIds;
+    private final long[] cents;
+
+    private BalanceSheet(UUID[] userIds, long[] cents) {
+        this.userIds = userIds;
+        this.cents = cents;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static BalanceSheet of(Map<UUID, BigDecimal> balances) {
+        Builder builder = builder();
+        balances.forEach((userId, amount) -> builder.add(userId, toCents(amount)));
+        return builder.build();
+    }
+
+    /**
+     * Rounds half up to the nearest cent, sub-cent dust becomes zero
+     */
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromCents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    public int size() {
+        return cents.length;
+    }
+
+    public UUID userId(int index) {
+        return userIds[index];
+    }
+
+    public long cents(int index) {
+        return cents[index];
+    }
+
+    public List<UUID> userIds() {
+        return Arrays.asList(userIds);
+    }
+
+    public long total() {
+        long total = 0;
+        for (long c : cents) {
+            total += c;
+        }
+        return total;
+    }
+
+    public static final class Builder {
+
+        private final Map<UUID, Integer> indexByUser = new HashMap<>();
+        private UUID[] userIds = new UUID[8];
+        private long[] cents = new long[8];
+        private int size;
+
+        private Builder() {
+        }
+
+        public Builder add(UUID userId, long amountCents) {
+            Integer index = indexByUser.get(userId);
+
+            if (index == null) {
+                if (size == cents.length) {
+                    userIds = Arrays.copyOf(userIds, size * 2);
+                    cents = Arrays.copyOf(cents, size * 2);
+                }
+                index = size++;
+                indexByUser.put(userId, index);
+                userIds[index] = userId;
+            }
+
+            cents[index] += amountCents;
+            return this;
+        }
+
+        public BalanceSheet build() {
+            // Drop members who net to exactly zero
+            int nonZero = 0;
+            for (int i = 0; i < size; i++) {
+                if (cents[i] != 0) {
+                    nonZero++;
+                }
+            }
+
+            UUID[] compactIds = new UUID[nonZero];
+            long[] compactCents = new long[nonZero];
+            int next = 0;
+
+            for (int i = 0; i < size; i++) {
+                if (cents[i] != 0) {
+                    compactIds[next] = userIds[i];
+                    compactCents[next] = cents[i];
+                    next++;
+                }
+            }
+
+            return new BalanceSheet(compactIds, compactCents);
+        }
+    }
+}
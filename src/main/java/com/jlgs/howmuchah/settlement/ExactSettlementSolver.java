@@ -0,0 +1,133 @@
+package com.jlgs.howmuchah.settlement;
+
+import com.jlgs.howmuchah.config.SettlementProperties;
+import com.jlgs.howmuchah.enums.SettlementSolverMode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exact minimum-transaction solver
+ *
+ * A set of n non-zero balances that splits into k zero-sum subsets can always be settled
+ * with n - k transfers, and never fewer. Maximizing k therefore minimizes the transfer count.
+ *
+ * Algorithm (bitmask DP over balances in cents):
+ * 1. sum[mask] = total balance of the members in mask
+ * 2. dp[mask]  = max over members i in mask of dp[mask without i], plus 1 if sum[mask] == 0
+ * 3. dp[full] is the maximum number of zero-sum subsets; walk the DP back to recover them
+ * 4. Settle each subset independently with the greedy match (size - 1 transfers each)
+ *
+ * O(n * 2^n) time and O(2^n) memory, so it is capped by member count and a CPU time budget.
+ * Returns empty when either limit is hit, as a strategy it then falls back to the greedy solver.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExactSettlementSolver implements SettlementStrategy {
+
+    // How many masks to evaluate between budget checks (must be a power of two)
+    private static final int BUDGET_CHECK_INTERVAL = 1 << 14;
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private final SettlementProperties settlementProperties;
+    private final GreedySettlementSolver greedySettlementSolver;
+
+    @Override
+    public SettlementSolverMode mode() {
+        return SettlementSolverMode.EXACT;
+    }
+
+    @Override
+    public List<Transfer> settle(BalanceSheet sheet, SettlementContext context) {
+        return solve(sheet).orElseGet(() -> greedySettlementSolver.solve(sheet));
+    }
+
+    public Optional<List<Transfer>> solve(BalanceSheet sheet) {
+        int n = sheet.size();
+
+        if (n == 0) {
+            return Optional.of(List.of());
+        }
+
+        if (n > settlementProperties.getExactMaxMembers()) {
+            log.debug("Exact solver skipped: {} non-zero balances exceeds limit of {}",
+                    n, settlementProperties.getExactMaxMembers());
+            return Optional.empty();
+        }
+
+        // Ledger should always net to zero, anything else cannot be partitioned exactly
+        long total = sheet.total();
+        if (total != 0) {
+            log.warn("Exact solver skipped: balances do not net to zero ({} cents)", total);
+            return Optional.empty();
+        }
+
+        int full = (1 << n) - 1;
+        long[] sum = new long[full + 1];
+        byte[] dp = new byte[full + 1];
+
+        long deadline = cpuTimeNanos() + TimeUnit.MILLISECONDS.toNanos(settlementProperties.getExactTimeBudgetMs());
+
+        for (int mask = 1; mask <= full; mask++) {
+            if ((mask & (BUDGET_CHECK_INTERVAL - 1)) == 0 && cpuTimeNanos() > deadline) {
+                log.debug("Exact solver exceeded time budget of {}ms for {} balances",
+                        settlementProperties.getExactTimeBudgetMs(), n);
+                return Optional.empty();
+            }
+
+            sum[mask] = sum[mask & (mask - 1)] + sheet.cents(Integer.numberOfTrailingZeros(mask));
+
+            int best = 0;
+            for (int rest = mask; rest != 0; rest &= rest - 1) {
+                best = Math.max(best, dp[mask ^ (rest & -rest)]);
+            }
+            dp[mask] = (byte) (sum[mask] == 0 ? best + 1 : best);
+        }
+
+        // Walk back from the full set; every time the remaining set nets to zero,
+        // the members removed since the previous boundary form one zero-sum subset
+        List<Transfer> transfers = new ArrayList<>();
+        int[] members = new int[n];
+        int mask = full;
+        int subset = 0;
+
+        while (mask != 0) {
+            int target = sum[mask] == 0 ? dp[mask] - 1 : dp[mask];
+
+            for (int rest = mask; rest != 0; rest &= rest - 1) {
+                int bit = rest & -rest;
+                if (dp[mask ^ bit] == target) {
+                    subset |= bit;
+                    mask ^= bit;
+                    break;
+                }
+            }
+
+            if (sum[mask] == 0) {
+                int count = 0;
+                for (int rest = subset; rest != 0; rest &= rest - 1) {
+                    members[count++] = Integer.numberOfTrailingZeros(rest);
+                }
+                GreedySettlementSolver.match(sheet, members, count, transfers);
+                subset = 0;
+            }
+        }
+
+        return Optional.of(transfers);
+    }
+
+    private static long cpuTimeNanos() {
+        return THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported()
+                ? THREAD_MX_BEAN.getCurrentThreadCpuTime()
+                : System.nanoTime();
+    }
+}
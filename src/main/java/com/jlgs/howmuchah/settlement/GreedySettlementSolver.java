@@ -0,0 +1,131 @@
+package com.jlgs.howmuchah.settlement;
+
+import com.jlgs.howmuchah.enums.SettlementSolverMode;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Splitwise greedy algorithm to minimize number of transactions
+ *
+ * Algorithm:
+ * 1. Separate users into creditors (positive balance) and debtors (negative balance)
+ * 2. Sort creditors descending (largest first)
+ * 3. Sort debtors descending by amount owed (most negative first)
+ * 4. Match largest creditor with largest debtor
+ * 5. Create transaction for min(creditor_balance, abs(debtor_balance))
+ * 6. Update balances and repeat until all settled
+ *
+ * Runs in O(n log n) but never looks for zero-sum subgroups, so it can produce
+ * more transfers than the minimum (see {@link ExactSettlementSolver}).
+ */
+@Component
+public class GreedySettlementSolver implements SettlementStrategy {
+
+    // Sort keys pack (amount << INDEX_BITS | index) into one long
+    private static final int INDEX_BITS = 20;
+    private static final long MAX_PACKED_AMOUNT = Long.MAX_VALUE >> INDEX_BITS;
+
+    @Override
+    public SettlementSolverMode mode() {
+        return SettlementSolverMode.GREEDY;
+    }
+
+    @Override
+    public List<Transfer> settle(BalanceSheet sheet, SettlementContext context) {
+        return solve(sheet);
+    }
+
+    public List<Transfer> solve(BalanceSheet sheet) {
+        int n = sheet.size();
+        int[] members = new int[n];
+        for (int i = 0; i < n; i++) {
+            members[i] = i;
+        }
+
+        List<Transfer> transfers = new ArrayList<>();
+        match(sheet, members, n, transfers);
+        return transfers;
+    }
+
+    /**
+     * Greedy match over the first {@code count} entries of {@code members}
+     * A zero-sum set of k members is always settled in at most k - 1 transfers.
+     */
+    static void match(BalanceSheet sheet, int[] members, int count, List<Transfer> transfers) {
+        long[] remaining = new long[count];
+        int[] creditors = new int[count];
+        int[] debtors = new int[count];
+        int creditorCount = 0;
+        int debtorCount = 0;
+
+        // Positions into members/remaining, not sheet indices
+        for (int p = 0; p < count; p++) {
+            long cents = sheet.cents(members[p]);
+            remaining[p] = Math.abs(cents);
+            if (cents > 0) {
+                creditors[creditorCount++] = p;
+            } else if (cents < 0) {
+                debtors[debtorCount++] = p;
+            }
+        }
+
+        sortByAmountDescending(creditors, creditorCount, remaining);
+        sortByAmountDescending(debtors, debtorCount, remaining);
+
+        int i = 0;
+        int j = 0;
+
+        while (i < creditorCount && j < debtorCount) {
+            int creditor = creditors[i];
+            int debtor = debtors[j];
+            long amount = Math.min(remaining[creditor], remaining[debtor]);
+
+            transfers.add(new Transfer(
+                    sheet.userId(members[debtor]), sheet.userId(members[creditor]), amount));
+
+            remaining[creditor] -= amount;
+            remaining[debtor] -= amount;
+
+            if (remaining[creditor] == 0) {
+                i++;
+            }
+            if (remaining[debtor] == 0) {
+                j++;
+            }
+        }
+    }
+
+    private static void sortByAmountDescending(int[] positions, int count, long[] amounts) {
+        long[] keys = new long[count];
+
+        for (int k = 0; k < count; k++) {
+            long amount = amounts[positions[k]];
+            if (amount > MAX_PACKED_AMOUNT || count >= (1 << INDEX_BITS)) {
+                sortBoxed(positions, count, amounts);
+                return;
+            }
+            // Negate so an ascending sort yields largest amounts first
+            keys[k] = -((amount << INDEX_BITS) | positions[k]);
+        }
+
+        Arrays.sort(keys);
+
+        for (int k = 0; k < count; k++) {
+            positions[k] = (int) (-keys[k] & ((1 << INDEX_BITS) - 1));
+        }
+    }
+
+    private static void sortBoxed(int[] positions, int count, long[] amounts) {
+        Integer[] boxed = new Integer[count];
+        for (int k = 0; k < count; k++) {
+            boxed[k] = positions[k];
+        }
+        Arrays.sort(boxed, (a, b) -> Long.compare(amounts[b], amounts[a]));
+        for (int k = 0; k < count; k++) {
+            positions[k] = boxed[k];
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.jlgs.howmuchah.settlement;
+
+import com.jlgs.howmuchah.enums.SettlementSolverMode;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Treasurer settlement: every debtor pays the hub, the hub pays every creditor
+ *
+ * A single O(n) pass with no sorting. Uses up to n - 1 transfers (n when the hub has no
+ * balance of its own), more than the greedy match in general, but each member only ever
+ * deals with one person, which is how groups with a designated treasurer already settle.
+ */
+@Component
+public class HubSettlementStrategy implements SettlementStrategy {
+
+    @Override
+    public SettlementSolverMode mode() {
+        return SettlementSolverMode.HUB;
+    }
+
+    @Override
+    public List<Transfer> settle(BalanceSheet sheet, SettlementContext context) {
+        UUID hub = context.hubUserId();
+        if (hub == null) {
+            throw new IllegalArgumentException("A hub member is required for the hub settlement strategy");
+        }
+
+        List<Transfer> transfers = new ArrayList<>(sheet.size());
+        for (int i = 0; i < sheet.size(); i++) {
+            UUID userId = sheet.userId(i);
+            long cents = sheet.cents(i);
+
+            // The hub's own balance is whatever is left after everyone else is settled
+            if (userId.equals(hub)) {
+                continue;
+            }
+
+            if (cents < 0) {
+                transfers.add(new Transfer(userId, hub, -cents));
+            } else if (cents > 0) {
+                transfers.add(new Transfer(hub, userId, cents));
+            }
+        }
+        return transfers;
+    }
+}
@@ -0,0 +1,18 @@
+package com.jlgs.howmuchah.settlement;
+
+import com.jlgs.howmuchah.enums.SettlementSolverMode;
+
+import java.util.UUID;
+
+/**
+ * Strategy chosen for one settlement, resolved from the request, the group and the app default
+ *
+ * @param strategy  algorithm used for every currency of the settlement
+ * @param hubUserId member every payment goes through, only used by the hub strategy
+ */
+public record SettlementContext(SettlementSolverMode strategy, UUID hubUserId) {
+
+    public static SettlementContext of(SettlementSolverMode strategy) {
+        return new SettlementContext(strategy, null);
+    }
+}
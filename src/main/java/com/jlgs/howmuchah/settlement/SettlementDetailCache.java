@@ -0,0 +1,51 @@
+package com.jlgs.howmuchah.settlement;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jlgs.howmuchah.config.SettlementProperties;
+import com.jlgs.howmuchah.dto.response.SettlementDetailResponse;
+import com.jlgs.howmuchah.entity.SettlementGroup;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Serialized settlement details keyed by settlement group id
+ *
+ * Settlements are never modified after they are executed, so entries need no invalidation
+ * and are only bounded by size. Each entry keeps the owning group id for access checks
+ * and a strong ETag computed from the exact bytes served.
+ */
+@Component
+public class SettlementDetailCache {
+
+    private final Cache<UUID, Entry> cache;
+    private final ObjectMapper objectMapper;
+
+    public SettlementDetailCache(SettlementProperties settlementProperties, ObjectMapper objectMapper) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(settlementProperties.getDetailCacheMaxSize())
+                .build();
+        this.objectMapper = objectMapper;
+    }
+
+    public Entry get(UUID settlementGroupId, Supplier<SettlementGroup> loader) {
+        return cache.get(settlementGroupId, id -> serialize(loader.get()));
+    }
+
+    private Entry serialize(SettlementGroup settlementGroup) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(SettlementDetailResponse.from(settlementGroup));
+            String etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+            return new Entry(settlementGroup.getGroup().getId(), body, etag);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize settlement " + settlementGroup.getId(), e);
+        }
+    }
+
+    public record Entry(UUID groupId, byte[] body, String etag) {}
+}
@@ -0,0 +1,49 @@
+package com.jlgs.howmuchah.settlement;
+
+import com.jlgs.howmuchah.config.SettlementProperties;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps the number of settlement CSV exports streaming at once
+ *
+ * Each export holds a database connection until the client has read the last row, which can take
+ * as long as the async request timeout. Exports beyond the limit are rejected straight away
+ * instead of waiting for a connection the rest of the application needs.
+ */
+@Component
+public class SettlementExportLimiter {
+
+    private final Semaphore permits;
+
+    public SettlementExportLimiter(SettlementProperties settlementProperties) {
+        this.permits = new Semaphore(settlementProperties.getExportConcurrency());
+    }
+
+    /**
+     * Take a slot for one export, returned by the first {@link Permit#release()}
+     */
+    public Permit acquire() {
+        if (!permits.tryAcquire()) {
+            throw new TaskRejectedException("Settlement export limit reached");
+        }
+        return new Permit();
+    }
+
+    /**
+     * One export's slot, safe to release from every path that can end the export
+     */
+    public class Permit {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.jlgs.howmuchah.settlement;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jlgs.howmuchah.config.SettlementProperties;
+import com.jlgs.howmuchah.dto.response.SettlementTransaction;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Per-group cache of proposed settlement transfers
+ *
+ * Anything that changes a group's balance ledger must call {@link #evictAfterCommit(UUID)}
+ * so the next preview is recomputed from committed data.
+ */
+@Component
+public class SettlementPreviewCache {
+
+    private final Cache<UUID, List<SettlementTransaction>> cache;
+
+    public SettlementPreviewCache(SettlementProperties settlementProperties) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(settlementProperties.getPreviewCacheTtl())
+                .maximumSize(settlementProperties.getPreviewCacheMaxSize())
+                .build();
+    }
+
+    public List<SettlementTransaction> get(UUID groupId, Supplier<List<SettlementTransaction>> loader) {
+        return cache.get(groupId, id -> List.copyOf(loader.get()));
+    }
+
+    /**
+     * Evicts once the surrounding transaction commits, or immediately when there is none.
+     * Evicting before commit would let a concurrent preview re-cache the old balances.
+     */
+    public void evictAfterCommit(UUID groupId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.invalidate(groupId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.invalidate(groupId);
+            }
+        });
+    }
+}
@@ -0,0 +1,13 @@
+package com.jlgs.howmuchah.settlement;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Subset of a group's unsettled expenses chosen for a partial settlement
+ *
+ * @param sheets     net balances per currency contributed by the selected expenses only
+ * @param expenseIds the expenses whose splits were read, exactly these get marked settled
+ */
+public record SettlementSelection(Map<String, BalanceSheet> sheets, Set<UUID> expenseIds) {}
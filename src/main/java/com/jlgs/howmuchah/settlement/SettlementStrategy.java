@@ -0,0 +1,19 @@
+package com.jlgs.howmuchah.settlement;
+
+import com.jlgs.howmuchah.enums.SettlementSolverMode;
+
+import java.util.List;
+
+/**
+ * Turns one currency's net balances into the transfers that settle them
+ *
+ * Implementations are Spring components picked up by {@link SettlementStrategyRegistry}.
+ * Every strategy must return positive transfers between distinct users that bring
+ * every balance of a zero-sum sheet back to zero.
+ */
+public interface SettlementStrategy {
+
+    SettlementSolverMode mode();
+
+    List<Transfer> settle(BalanceSheet sheet, SettlementContext context);
+}
@@ -0,0 +1,34 @@
+package com.jlgs.howmuchah.settlement;
+
+import com.jlgs.howmuchah.enums.SettlementSolverMode;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Looks up the settlement strategy bean for a {@link SettlementSolverMode}
+ */
+@Component
+public class SettlementStrategyRegistry {
+
+    private final Map<SettlementSolverMode, SettlementStrategy> strategies =
+            new EnumMap<>(SettlementSolverMode.class);
+
+    public SettlementStrategyRegistry(List<SettlementStrategy> strategies) {
+        for (SettlementStrategy strategy : strategies) {
+            if (this.strategies.put(strategy.mode(), strategy) != null) {
+                throw new IllegalStateException("Duplicate settlement strategy for " + strategy.mode());
+            }
+        }
+    }
+
+    public SettlementStrategy get(SettlementSolverMode mode) {
+        SettlementStrategy strategy = strategies.get(mode);
+        if (strategy == null) {
+            throw new IllegalArgumentException("Unsupported settlement strategy: " + mode);
+        }
+        return strategy;
+    }
+}
@@ -0,0 +1,8 @@
+package com.jlgs.howmuchah.settlement;
+
+import java.util.UUID;
+
+/**
+ * A single proposed payment from a debtor to a creditor, amount in cents
+ */
+public record Transfer(UUID payerId, UUID payeeId, long amountCents) {}
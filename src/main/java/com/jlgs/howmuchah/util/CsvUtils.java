@@ -0,0 +1,119 @@
+package com.jlgs.howmuchah.util;
+
+import com.jlgs.howmuchah.exception.CsvTooLargeException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 reader and writer helpers
+ */
+public final class CsvUtils {
+
+    private static final String BYTE_ORDER_MARK = "\uFEFF";
+
+    private CsvUtils() {
+    }
+
+    /**
+     * Quote a field when needed and neutralize spreadsheet formulas
+     * User-controlled text starting with =, +, -, @, tab or carriage return is prefixed with a
+     * single quote so spreadsheet apps show it as text instead of evaluating it.
+     */
+    public static String escape(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r') {
+            value = "'" + value;
+        }
+
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    /**
+     * Read an uploaded CSV as UTF-8 text, never buffering more than one byte past the limit
+     * Throws CsvTooLargeException as soon as the body turns out to be larger than maxBytes.
+     */
+    public static String read(InputStream in, int maxBytes) throws IOException {
+        byte[] bytes = in.readNBytes(maxBytes + 1);
+        if (bytes.length > maxBytes) {
+            throw new CsvTooLargeException(maxBytes);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Split CSV text into records of fields
+     * Handles quoted fields with embedded commas, quotes and line breaks, and both LF and CRLF
+     * line endings. Blank lines are skipped, and a leading byte order mark (Excel's "CSV UTF-8")
+     * is dropped so it does not end up in the first header cell.
+     */
+    public static List<List<String>> parse(String text) {
+        List<List<String>> records = new ArrayList<>();
+        List<String> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStarted = false;
+
+        int start = text.startsWith(BYTE_ORDER_MARK) ? BYTE_ORDER_MARK.length() : 0;
+        for (int i = start; i < text.length(); i++) {
+            char c = text.charAt(i);
+
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+                continue;
+            }
+
+            if (c == '"' && field.isEmpty()) {
+                quoted = true;
+                fieldStarted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+                fieldStarted = true;
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r' && i + 1 < text.length() && text.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                if (fieldStarted || !field.isEmpty()) {
+                    record.add(field.toString());
+                    records.add(record);
+                }
+                record = new ArrayList<>();
+                field.setLength(0);
+                fieldStarted = false;
+            } else {
+                field.append(c);
+                fieldStarted = true;
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field in CSV");
+        }
+        if (fieldStarted || !field.isEmpty()) {
+            record.add(field.toString());
+            records.add(record);
+        }
+        return records;
+    }
+}
@@ -0,0 +1,58 @@
+package com.jlgs.howmuchah.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SettlementExecutorConfig Tests")
+class SettlementExecutorConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(TaskExecutionAutoConfiguration.class))
+            .withUserConfiguration(SettlementExecutorConfig.class, SettlementProperties.class, Consumers.class);
+
+    // ==================== settlementExecutor Tests ====================
+
+    @Test
+    @DisplayName("settlementExecutor - Should leave Boot's applicationTaskExecutor in place")
+    void settlementExecutor_ShouldNotReplaceApplicationTaskExecutor() {
+        contextRunner.run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(context).hasBean("applicationTaskExecutor");
+            assertThat(context).hasBean("settlementExecutor");
+        });
+    }
+
+    @Test
+    @DisplayName("settlementExecutor - Should only be injected where it is asked for by name")
+    void settlementExecutor_ShouldOnlyBeInjectedWhenQualified() {
+        contextRunner.run(context -> {
+            Consumers consumers = context.getBean(Consumers.class);
+            Executor settlementExecutor = context.getBean("settlementExecutor", Executor.class);
+
+            assertThat(consumers.qualified).isSameAs(settlementExecutor);
+            assertThat(consumers.unqualified).isSameAs(context.getBean("applicationTaskExecutor"));
+            assertThat(((ThreadPoolTaskExecutor) settlementExecutor).getThreadNamePrefix()).isEqualTo("settlement-");
+        });
+    }
+
+    static class Consumers {
+
+        @Autowired
+        @Qualifier("settlementExecutor")
+        TaskExecutor qualified;
+
+        @Autowired
+        TaskExecutor unqualified;
+    }
+}
@@ -0,0 +1,53 @@
+package com.jlgs.howmuchah.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.ConfigurationPropertiesAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.context.properties.bind.validation.BindValidationException;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SettlementProperties Tests")
+class SettlementPropertiesTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(
+                    ConfigurationPropertiesAutoConfiguration.class, ValidationAutoConfiguration.class))
+            .withUserConfiguration(SettlementProperties.class);
+
+    // ==================== Binding Tests ====================
+
+    @Test
+    @DisplayName("binding - Should accept the exact solver limits at their upper bounds")
+    void binding_WithLimitsInRange_ShouldStart() {
+        contextRunner
+                .withPropertyValues("app.settlement.exact-max-members=24", "app.settlement.exact-time-budget-ms=5000")
+                .run(context -> {
+                    assertThat(context).hasNotFailed();
+                    assertThat(context.getBean(SettlementProperties.class).getExactMaxMembers()).isEqualTo(24);
+                });
+    }
+
+    @ParameterizedTest(name = "exact-max-members={0}")
+    @ValueSource(ints = {0, 25, 31})
+    @DisplayName("binding - Should refuse to start with an exact solver member limit outside 1..24")
+    void binding_WithExactMaxMembersOutOfRange_ShouldFail(int exactMaxMembers) {
+        contextRunner
+                .withPropertyValues("app.settlement.exact-max-members=" + exactMaxMembers)
+                .run(context -> assertThat(context).getFailure().hasRootCauseInstanceOf(BindValidationException.class));
+    }
+
+    @ParameterizedTest(name = "exact-time-budget-ms={0}")
+    @ValueSource(longs = {0, -1, 5001})
+    @DisplayName("binding - Should refuse to start with an exact solver time budget outside 1..5000 ms")
+    void binding_WithExactTimeBudgetOutOfRange_ShouldFail(long exactTimeBudgetMs) {
+        contextRunner
+                .withPropertyValues("app.settlement.exact-time-budget-ms=" + exactTimeBudgetMs)
+                .run(context -> assertThat(context).getFailure().hasRootCauseInstanceOf(BindValidationException.class));
+    }
+}
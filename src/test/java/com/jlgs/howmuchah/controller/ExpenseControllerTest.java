@@ -4,12 +4,18 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jlgs.howmuchah.config.RateLimitFilter;
 import com.jlgs.howmuchah.config.TestSecurityConfig;
 import com.jlgs.howmuchah.dto.UserSummary;
+import com.jlgs.howmuchah.dto.request.ExpenseBatchItem;
+import com.jlgs.howmuchah.dto.request.ExpenseBatchRequest;
 import com.jlgs.howmuchah.dto.request.ExpenseCreationRequest;
 import com.jlgs.howmuchah.dto.request.ExpenseSplitDto;
 import com.jlgs.howmuchah.dto.request.ExpenseUpdateRequest;
+import com.jlgs.howmuchah.dto.response.CursorPage;
+import com.jlgs.howmuchah.dto.response.ExpenseBatchResponse;
 import com.jlgs.howmuchah.dto.response.ExpenseDetailResponse;
 import com.jlgs.howmuchah.dto.response.ExpenseResponse;
 import com.jlgs.howmuchah.dto.response.ExpenseSplitResponse;
+import com.jlgs.howmuchah.exception.ExpenseBatchValidationException;
+import com.jlgs.howmuchah.service.ExpenseImportService;
 import com.jlgs.howmuchah.service.ExpenseService;
 import com.jlgs.howmuchah.util.JwtUtil;
 import org.junit.jupiter.api.BeforeEach;
@@ -25,6 +31,7 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -33,7 +40,9 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -65,6 +74,9 @@ class ExpenseControllerTest {
     @MockitoBean
     private ExpenseService expenseService;
 
+    @MockitoBean
+    private ExpenseImportService expenseImportService;
+
     private UUID userId;
     private UUID groupId;
     private UUID expenseId;
@@ -123,7 +135,8 @@ class ExpenseControllerTest {
                 paidBy,
                 splitResponses,
                 LocalDateTime.now(),
-                LocalDateTime.now()
+                LocalDateTime.now(),
+                0L
         );
 
         when(expenseService.createExpense(eq(userId), any(ExpenseCreationRequest.class)))
@@ -232,6 +245,115 @@ class ExpenseControllerTest {
         verify(expenseService, times(1)).createExpense(eq(userId), any(ExpenseCreationRequest.class));
     }
 
+    // ==================== importExpenses Tests ====================
+
+    @Test
+    @DisplayName("POST /api/expenses/batch - Should import JSON expenses and return 201")
+    void importExpenses_WhenValidJson_ShouldReturn201() throws Exception {
+        // Arrange
+        ExpenseBatchItem item = ExpenseBatchItem.builder()
+                .description("Dinner")
+                .totalAmount(new BigDecimal("50.00"))
+                .currency("SGD")
+                .paidByUserId(userId)
+                .category("food")
+                .splits(List.of(new ExpenseSplitDto(userId, new BigDecimal("50.00"))))
+                .build();
+        ExpenseBatchRequest request = new ExpenseBatchRequest(groupId, List.of(item, item));
+
+        when(expenseImportService.importExpenses(eq(userId), eq(groupId), any()))
+                .thenReturn(new ExpenseBatchResponse(groupId, 2, List.of(UUID.randomUUID(), UUID.randomUUID())));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/expenses/batch")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.importedCount").value(2))
+                .andExpect(jsonPath("$.expenseIds.length()").value(2));
+
+        verify(expenseImportService, times(1)).importExpenses(eq(userId), eq(groupId), any());
+    }
+
+    @Test
+    @DisplayName("POST /api/expenses/batch - Should import CSV expenses and return 201")
+    void importExpenses_WhenValidCsv_ShouldReturn201() throws Exception {
+        // Arrange
+        String csv = "description,category,currency,total_amount,paid_by,splits\r\n" +
+                "Dinner,food,SGD,50.00,test@example.com,test@example.com:50.00\r\n";
+
+        when(expenseImportService.importExpensesCsv(userId, groupId, csv))
+                .thenReturn(new ExpenseBatchResponse(groupId, 1, List.of(UUID.randomUUID())));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/expenses/batch")
+                        .param("groupId", groupId.toString())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN)
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.importedCount").value(1));
+
+        verify(expenseImportService, times(1)).importExpensesCsv(userId, groupId, csv);
+    }
+
+    @Test
+    @DisplayName("POST /api/expenses/batch - Should return 413 for a CSV over the size limit without importing")
+    void importExpenses_WhenCsvTooLarge_ShouldReturn413() throws Exception {
+        // Arrange
+        String csv = "description,category,currency,total_amount,paid_by,splits\r\n" +
+                "Dinner,food,SGD,50.00,test@example.com,test@example.com:50.00\r\n".repeat(20_000);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/expenses/batch")
+                        .param("groupId", groupId.toString())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN)
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(jsonPath("$.message").value("CSV must be at most 1048576 bytes"));
+
+        verify(expenseImportService, never()).importExpensesCsv(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("POST /api/expenses/batch - Should return 400 with per-row errors")
+    void importExpenses_WhenRowsInvalid_ShouldReturn400WithRowErrors() throws Exception {
+        // Arrange
+        ExpenseBatchRequest request = new ExpenseBatchRequest(groupId, List.of(new ExpenseBatchItem()));
+        Map<String, String> rowErrors = new LinkedHashMap<>();
+        rowErrors.put("row 1", "Payer must be a current group member");
+
+        when(expenseImportService.importExpenses(eq(userId), eq(groupId), any()))
+                .thenThrow(new ExpenseBatchValidationException(1, rowErrors));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/expenses/batch")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("1 of 1 rows are invalid, no expenses were imported"))
+                .andExpect(jsonPath("$.validationErrors['row 1']").value("Payer must be a current group member"));
+    }
+
+    @Test
+    @DisplayName("POST /api/expenses/batch - Should return 400 when expenses are missing")
+    void importExpenses_WhenEmpty_ShouldReturn400() throws Exception {
+        // Arrange
+        ExpenseBatchRequest request = new ExpenseBatchRequest(groupId, List.of());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/expenses/batch")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verify(expenseImportService, never()).importExpenses(any(), any(), any());
+    }
+
     // ==================== getExpensesByGroup Tests ====================
 
     @Test
@@ -321,6 +443,61 @@ class ExpenseControllerTest {
         verify(expenseService, times(1)).getExpensesByGroup(eq(userId), eq(groupId), any());
     }
 
+    @Test
+    @DisplayName("GET /api/expenses - Should return 400 when sorting by a field that is not allowed")
+    void getExpensesByGroup_WhenSortFieldNotAllowed_ShouldReturn400() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/expenses")
+                        .param("groupId", groupId.toString())
+                        .param("sort", "paidBy.password", "asc")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN))
+                .andExpect(status().isBadRequest());
+
+        verify(expenseService, never()).getExpensesByGroup(any(), any(), any());
+    }
+
+    // ==================== getExpensesByGroupPage Tests ====================
+
+    @Test
+    @DisplayName("GET /api/expenses/cursor - Should return a page of expenses with the next cursor")
+    void getExpensesByGroupPage_WhenUserIsGroupMember_ShouldReturn200() throws Exception {
+        // Arrange
+        ExpenseResponse expense = new ExpenseResponse(UUID.randomUUID(), "Dinner", new BigDecimal("100.00"),
+                "SGD", "food", LocalDate.now(), userId, "Test User", LocalDateTime.now(), LocalDateTime.now(), false);
+        CursorPage<ExpenseResponse> page = new CursorPage<>(List.of(expense), "next-cursor", true);
+
+        when(expenseService.getExpensesByGroupPage(userId, groupId, "abc", 1)).thenReturn(page);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/expenses/cursor")
+                        .param("groupId", groupId.toString())
+                        .param("cursor", "abc")
+                        .param("size", "1")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].description").value("Dinner"))
+                .andExpect(jsonPath("$.nextCursor").value("next-cursor"))
+                .andExpect(jsonPath("$.hasMore").value(true));
+
+        verify(expenseService, times(1)).getExpensesByGroupPage(userId, groupId, "abc", 1);
+    }
+
+    @Test
+    @DisplayName("GET /api/expenses/cursor - Should return 400 when cursor is invalid")
+    void getExpensesByGroupPage_WhenCursorInvalid_ShouldReturn400() throws Exception {
+        // Arrange
+        when(expenseService.getExpensesByGroupPage(userId, groupId, "garbage", 20))
+                .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/expenses/cursor")
+                        .param("groupId", groupId.toString())
+                        .param("cursor", "garbage")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN))
+                .andExpect(status().isBadRequest());
+    }
+
     // ==================== getExpenseDetail Tests ====================
 
     @Test
@@ -339,7 +516,8 @@ class ExpenseControllerTest {
                 paidBy,
                 List.of(),
                 LocalDateTime.now(),
-                LocalDateTime.now()
+                LocalDateTime.now(),
+                0L
         );
 
         when(expenseService.getExpenseDetail(userId, expenseId)).thenReturn(response);
@@ -385,6 +563,73 @@ class ExpenseControllerTest {
         verify(expenseService, times(1)).getExpenseDetail(userId, expenseId);
     }
 
+    // ==================== updateExpense Tests ====================
+
+    @Test
+    @DisplayName("PUT /api/expenses/{expenseId} - Should update expense and return 200 with the new version")
+    void updateExpense_WhenValidRequest_ShouldReturn200() throws Exception {
+        // Arrange
+        ExpenseUpdateRequest request = new ExpenseUpdateRequest("Dinner at Restaurant", new BigDecimal("100.00"),
+                "SGD", userId, "food", LocalDate.now(),
+                List.of(new ExpenseSplitDto(userId, new BigDecimal("100.00"))), 1L);
+        UserSummary paidBy = new UserSummary(userId, "Test User", email);
+        ExpenseDetailResponse response = new ExpenseDetailResponse(expenseId, groupId, "Dinner at Restaurant",
+                new BigDecimal("100.00"), "SGD", "food", LocalDate.now(), paidBy, List.of(),
+                LocalDateTime.now(), LocalDateTime.now(), 2L);
+
+        when(expenseService.updateExpense(eq(userId), eq(expenseId), any(ExpenseUpdateRequest.class)))
+                .thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(put("/api/expenses/{expenseId}", expenseId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(expenseId.toString()))
+                .andExpect(jsonPath("$.version").value(2));
+
+        verify(expenseService, times(1)).updateExpense(eq(userId), eq(expenseId), any(ExpenseUpdateRequest.class));
+    }
+
+    @Test
+    @DisplayName("PUT /api/expenses/{expenseId} - Should return 409 when the expense was changed concurrently")
+    void updateExpense_WhenVersionConflict_ShouldReturn409() throws Exception {
+        // Arrange
+        ExpenseUpdateRequest request = new ExpenseUpdateRequest("Dinner at Restaurant", new BigDecimal("100.00"),
+                "SGD", userId, "food", LocalDate.now(),
+                List.of(new ExpenseSplitDto(userId, new BigDecimal("100.00"))), 1L);
+
+        when(expenseService.updateExpense(eq(userId), eq(expenseId), any(ExpenseUpdateRequest.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(ExpenseDetailResponse.class, expenseId));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/expenses/{expenseId}", expenseId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Conflict"));
+    }
+
+    @Test
+    @DisplayName("PUT /api/expenses/{expenseId} - Should return 400 when expense date is missing")
+    void updateExpense_WhenExpenseDateMissing_ShouldReturn400() throws Exception {
+        // Arrange
+        ExpenseUpdateRequest request = new ExpenseUpdateRequest("Dinner at Restaurant", new BigDecimal("100.00"),
+                "SGD", userId, "food", null,
+                List.of(new ExpenseSplitDto(userId, new BigDecimal("100.00"))), null);
+
+        // Act & Assert
+        mockMvc.perform(put("/api/expenses/{expenseId}", expenseId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verify(expenseService, never()).updateExpense(any(), any(), any());
+    }
+
     // ==================== getUnsettledExpensesCount Tests ====================
 
     @Test
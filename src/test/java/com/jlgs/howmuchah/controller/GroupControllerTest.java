@@ -5,6 +5,7 @@ import com.jlgs.howmuchah.config.TestSecurityConfig;
 import com.jlgs.howmuchah.dto.request.GroupCreationRequest;
 import com.jlgs.howmuchah.dto.request.GroupUpdateRequest;
 import com.jlgs.howmuchah.dto.request.InvitationRequest;
+import com.jlgs.howmuchah.dto.response.GroupResponse;
 import com.jlgs.howmuchah.entity.Group;
 import com.jlgs.howmuchah.entity.GroupMember;
 import com.jlgs.howmuchah.entity.Invitation;
@@ -29,6 +30,7 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
@@ -138,32 +140,29 @@ class GroupControllerTest {
     // ==================== getAllGroups Tests ====================
 
     @Test
-    @DisplayName("GET /api/groups - Should return all groups for user")
+    @DisplayName("GET /api/groups - Should return all groups for user with their counts")
     void getAllGroups_WhenUserHasGroups_ShouldReturn200() throws Exception {
         // Arrange
-        User owner1 = new User();
-        owner1.setId(userId);
-        owner1.setEmail("owner1@example.com");
-
-        User owner2 = new User();
-        owner2.setId(UUID.randomUUID());
-        owner2.setEmail("owner2@example.com");
-
-        Group group1 = Group.builder()
+        LocalDateTime lastActivity = LocalDateTime.of(2026, 3, 1, 18, 30);
+        GroupResponse group1 = GroupResponse.builder()
                 .id(UUID.randomUUID())
                 .name("Group 1")
                 .description("Description 1")
-                .owner(owner1)  // Add owner
+                .ownerId(userId)
+                .memberCount(4)
+                .unsettledExpenseCount(7)
+                .lastActivityAt(lastActivity)
                 .build();
-        Group group2 = Group.builder()
+        GroupResponse group2 = GroupResponse.builder()
                 .id(UUID.randomUUID())
                 .name("Group 2")
                 .description("Description 2")
-                .owner(owner2)  // Add owner
+                .ownerId(UUID.randomUUID())
+                .memberCount(2)
+                .unsettledExpenseCount(0)
                 .build();
-        List<Group> groups = Arrays.asList(group1, group2);
 
-        when(groupService.getAllGroupsForUser(userId)).thenReturn(groups);
+        when(groupService.getAllGroupsForUser(userId, null, null)).thenReturn(List.of(group1, group2));
 
         // Act & Assert
         mockMvc.perform(get("/api/groups")
@@ -171,16 +170,19 @@ class GroupControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(2))
                 .andExpect(jsonPath("$[0].name").value("Group 1"))
+                .andExpect(jsonPath("$[0].memberCount").value(4))
+                .andExpect(jsonPath("$[0].unsettledExpenseCount").value(7))
+                .andExpect(jsonPath("$[0].lastActivityAt").value("2026-03-01T18:30:00"))
                 .andExpect(jsonPath("$[1].name").value("Group 2"));
 
-        verify(groupService, times(1)).getAllGroupsForUser(userId);
+        verify(groupService, times(1)).getAllGroupsForUser(userId, null, null);
     }
 
     @Test
     @DisplayName("GET /api/groups - Should return empty list when user has no groups")
     void getAllGroups_WhenUserHasNoGroups_ShouldReturnEmptyList() throws Exception {
         // Arrange
-        when(groupService.getAllGroupsForUser(userId)).thenReturn(List.of());
+        when(groupService.getAllGroupsForUser(userId, null, null)).thenReturn(List.of());
 
         // Act & Assert
         mockMvc.perform(get("/api/groups")
@@ -188,7 +190,37 @@ class GroupControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(0));
 
-        verify(groupService, times(1)).getAllGroupsForUser(userId);
+        verify(groupService, times(1)).getAllGroupsForUser(userId, null, null);
+    }
+
+    @Test
+    @DisplayName("GET /api/groups - Should pass optional page and size to the service")
+    void getAllGroups_WithPagination_ShouldPassPageAndSize() throws Exception {
+        // Arrange
+        when(groupService.getAllGroupsForUser(userId, 1, 10)).thenReturn(List.of());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/groups")
+                        .param("page", "1")
+                        .param("size", "10")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN))
+                .andExpect(status().isOk());
+
+        verify(groupService, times(1)).getAllGroupsForUser(userId, 1, 10);
+    }
+
+    @Test
+    @DisplayName("GET /api/groups - Should return 400 when page size is out of range")
+    void getAllGroups_WhenSizeOutOfRange_ShouldReturn400() throws Exception {
+        // Arrange
+        when(groupService.getAllGroupsForUser(userId, null, 500))
+                .thenThrow(new IllegalArgumentException("Page size must be between 1 and 100"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/groups")
+                        .param("size", "500")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN))
+                .andExpect(status().isBadRequest());
     }
 
     // ==================== deleteGroup Tests ====================
@@ -1,12 +1,23 @@
 package com.jlgs.howmuchah.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jlgs.howmuchah.config.RateLimitFilter;
+import com.jlgs.howmuchah.config.SettlementProperties;
 import com.jlgs.howmuchah.config.TestSecurityConfig;
+import com.jlgs.howmuchah.dto.response.CursorPage;
 import com.jlgs.howmuchah.dto.response.SettlementDetailResponse;
+import com.jlgs.howmuchah.dto.response.SettlementJobResponse;
+import com.jlgs.howmuchah.dto.response.SettlementPreviewResponse;
 import com.jlgs.howmuchah.dto.response.SettlementSummaryResponse;
 import com.jlgs.howmuchah.dto.response.SettlementTransaction;
 import com.jlgs.howmuchah.dto.UserSummary;
+import com.jlgs.howmuchah.enums.SettlementJobStatus;
+import com.jlgs.howmuchah.exception.SettlementInProgressException;
+import com.jlgs.howmuchah.security.GroupAccessGuard;
+import com.jlgs.howmuchah.service.SettlementJobService;
 import com.jlgs.howmuchah.service.SettlementService;
+import com.jlgs.howmuchah.settlement.SettlementDetailCache;
+import com.jlgs.howmuchah.settlement.SettlementExportLimiter;
 import com.jlgs.howmuchah.util.JwtUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -16,17 +27,28 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.util.DigestUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -40,19 +62,31 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
                 classes = RateLimitFilter.class
         )
 )
-@Import(TestSecurityConfig.class)
+@Import({TestSecurityConfig.class, SettlementExportLimiter.class, SettlementProperties.class})
 @DisplayName("SettlementController Integration Tests")
 class SettlementControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @MockitoBean
     private JwtUtil jwtUtil;
 
     @MockitoBean
     private SettlementService settlementService;
 
+    @MockitoBean
+    private SettlementJobService settlementJobService;
+
+    @MockitoBean
+    private GroupAccessGuard groupAccessGuard;
+
+    @Autowired
+    private SettlementExportLimiter settlementExportLimiter;
+
     private UUID userId;
     private UUID groupId;
     private String email;
@@ -148,6 +182,221 @@ class SettlementControllerTest {
         verify(settlementService, times(1)).getSettlementHistory(userId, groupId);
     }
 
+    // ==================== getSettlementHistoryPage Tests ====================
+
+    @Test
+    @DisplayName("GET /api/settlements/{groupId}/history/page - Should return page with totals and next cursor")
+    void getSettlementHistoryPage_ShouldReturnPage() throws Exception {
+        // Arrange
+        SettlementSummaryResponse summary = new SettlementSummaryResponse(
+                UUID.randomUUID(),
+                LocalDateTime.now(),
+                2,
+                Map.of("SGD", new BigDecimal("42.50"))
+        );
+
+        when(settlementService.getSettlementHistoryPage(userId, groupId, "abc", 1))
+                .thenReturn(new CursorPage<>(List.of(summary), "def", true));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/settlements/{groupId}/history/page", groupId)
+                        .param("cursor", "abc")
+                        .param("size", "1")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].transactionCount").value(2))
+                .andExpect(jsonPath("$.items[0].totalsByCurrency.SGD").value(42.50))
+                .andExpect(jsonPath("$.nextCursor").value("def"))
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    @DisplayName("GET /api/settlements/{groupId}/history/page - Should default to first page of 20")
+    void getSettlementHistoryPage_WithoutParams_ShouldUseDefaults() throws Exception {
+        // Arrange
+        when(settlementService.getSettlementHistoryPage(userId, groupId, null, 20))
+                .thenReturn(new CursorPage<>(List.of(), null, false));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/settlements/{groupId}/history/page", groupId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(0))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist())
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+        verify(settlementService, times(1)).getSettlementHistoryPage(userId, groupId, null, 20);
+    }
+
+    @Test
+    @DisplayName("GET /api/settlements/{groupId}/history/page - Should return 400 for invalid cursor")
+    void getSettlementHistoryPage_WithInvalidCursor_ShouldReturn400() throws Exception {
+        // Arrange
+        when(settlementService.getSettlementHistoryPage(userId, groupId, "bad", 20))
+                .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/settlements/{groupId}/history/page", groupId)
+                        .param("cursor", "bad")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN))
+                .andExpect(status().isBadRequest());
+    }
+
+    // ==================== exportSettlements Tests ====================
+
+    @Test
+    @DisplayName("GET /api/settlements/{groupId}/export.csv - Should stream CSV as an attachment")
+    void exportSettlements_ShouldStreamCsv() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2).write("settled_at\r\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(settlementService).writeSettlementsCsv(eq(userId), eq(groupId), any());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/settlements/{groupId}/export.csv", groupId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv;charset=UTF-8"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"settlements-" + groupId + ".csv\""))
+                .andExpect(content().string("settled_at\r\n"));
+
+        verify(groupAccessGuard).requireMember(groupId, userId, "Only group members can export settlements", false);
+        assertExportSlotFree();
+    }
+
+    @Test
+    @DisplayName("GET /api/settlements/{groupId}/export.csv - Should return 400 before streaming when not a member")
+    void exportSettlements_WhenUserNotMember_ShouldReturn400() throws Exception {
+        // Arrange
+        doThrow(new IllegalArgumentException("Only group members can export settlements"))
+                .when(groupAccessGuard).requireMember(groupId, userId, "Only group members can export settlements", false);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/settlements/{groupId}/export.csv", groupId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN))
+                .andExpect(status().isBadRequest());
+
+        verify(settlementService, never()).writeSettlementsCsv(any(), any(), any());
+        assertExportSlotFree();
+    }
+
+    @Test
+    @DisplayName("GET /api/settlements/{groupId}/export.csv - Should return 503 when every export slot is taken")
+    void exportSettlements_WhenLimitReached_ShouldReturn503() throws Exception {
+        // Arrange
+        SettlementExportLimiter.Permit running = settlementExportLimiter.acquire();
+
+        // Act & Assert
+        try {
+            mockMvc.perform(get("/api/settlements/{groupId}/export.csv", groupId)
+                            .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN))
+                    .andExpect(status().isServiceUnavailable());
+        } finally {
+            running.release();
+        }
+
+        verify(settlementService, never()).writeSettlementsCsv(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/settlements/{groupId}/export.csv - Should free the export slot when streaming fails")
+    void exportSettlements_WhenStreamingFails_ShouldReleaseSlot() throws Exception {
+        // Arrange
+        doThrow(new IOException("Client went away"))
+                .when(settlementService).writeSettlementsCsv(eq(userId), eq(groupId), any());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/settlements/{groupId}/export.csv", groupId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult();
+
+        // Assert
+        assertExportSlotFree();
+    }
+
+    @Test
+    @DisplayName("GET /api/settlements/{groupId}/export.csv - Should free the export slot when the request ends before streaming does")
+    void exportSettlements_WhenRequestCompletesFirst_ShouldReleaseSlot() throws Exception {
+        // Arrange
+        CountDownLatch streaming = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            streaming.countDown();
+            finish.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(settlementService).writeSettlementsCsv(eq(userId), eq(groupId), any());
+
+        MvcResult result = mockMvc.perform(get("/api/settlements/{groupId}/export.csv", groupId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(streaming.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // Act
+        // What the container does on a timeout or disconnect, the body has not released its slot
+        result.getRequest().getAsyncContext().complete();
+
+        // Assert
+        try {
+            assertExportSlotFree();
+        } finally {
+            finish.countDown();
+        }
+    }
+
+    // ==================== getSettlementPreview Tests ====================
+
+    @Test
+    @DisplayName("GET /api/settlements/{groupId}/preview - Should return proposed transactions")
+    void getSettlementPreview_ShouldReturnTransactions() throws Exception {
+        // Arrange
+        UserSummary payer = new UserSummary(UUID.randomUUID(), "Alice", "alice@example.com");
+        UserSummary payee = new UserSummary(UUID.randomUUID(), "Bob", "bob@example.com");
+
+        SettlementPreviewResponse preview = new SettlementPreviewResponse(
+                groupId,
+                List.of(new SettlementTransaction(payer, payee, new BigDecimal("25.50"), "SGD"))
+        );
+
+        when(settlementService.getSettlementPreview(eq(userId), eq(groupId))).thenReturn(preview);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/settlements/{groupId}/preview", groupId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.groupId").value(groupId.toString()))
+                .andExpect(jsonPath("$.transactions.length()").value(1))
+                .andExpect(jsonPath("$.transactions[0].payer.name").value("Alice"))
+                .andExpect(jsonPath("$.transactions[0].amount").value(25.50));
+
+        verify(settlementService, times(1)).getSettlementPreview(userId, groupId);
+        verify(settlementService, never()).executeSettlement(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/settlements/{groupId}/preview - Should return 400 when user is not a member")
+    void getSettlementPreview_WhenUserNotMember_ShouldReturn400() throws Exception {
+        // Arrange
+        when(settlementService.getSettlementPreview(eq(userId), eq(groupId)))
+                .thenThrow(new IllegalArgumentException("Only group members can preview the settlement"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/settlements/{groupId}/preview", groupId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN))
+                .andExpect(status().isBadRequest());
+    }
+
     // ==================== getSettlementDetail Tests ====================
 
     @Test
@@ -173,7 +422,7 @@ class SettlementControllerTest {
         );
 
         when(settlementService.getSettlementDetail(eq(userId), eq(settlementGroupId)))
-                .thenReturn(detail);
+                .thenReturn(toCacheEntry(detail));
 
         // Act & Assert
         mockMvc.perform(get("/api/settlements/{settlementGroupId}", settlementGroupId)
@@ -202,7 +451,7 @@ class SettlementControllerTest {
         );
 
         when(settlementService.getSettlementDetail(eq(userId), eq(settlementGroupId)))
-                .thenReturn(detail);
+                .thenReturn(toCacheEntry(detail));
 
         // Act & Assert
         mockMvc.perform(get("/api/settlements/{settlementGroupId}", settlementGroupId)
@@ -246,6 +495,43 @@ class SettlementControllerTest {
         verify(settlementService, times(1)).getSettlementDetail(userId, settlementGroupId);
     }
 
+    @Test
+    @DisplayName("GET /api/settlements/{settlementGroupId} - Should send strong ETag and immutable caching headers")
+    void getSettlementDetail_ShouldSendCachingHeaders() throws Exception {
+        // Arrange
+        UUID settlementGroupId = UUID.randomUUID();
+        SettlementDetailCache.Entry entry = toCacheEntry(
+                new SettlementDetailResponse(settlementGroupId, LocalDateTime.now(), List.of()));
+
+        when(settlementService.getSettlementDetail(eq(userId), eq(settlementGroupId))).thenReturn(entry);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/settlements/{settlementGroupId}", settlementGroupId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, entry.etag()))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, private, immutable"));
+    }
+
+    @Test
+    @DisplayName("GET /api/settlements/{settlementGroupId} - Should return 304 when If-None-Match matches")
+    void getSettlementDetail_WhenETagMatches_ShouldReturn304() throws Exception {
+        // Arrange
+        UUID settlementGroupId = UUID.randomUUID();
+        SettlementDetailCache.Entry entry = toCacheEntry(
+                new SettlementDetailResponse(settlementGroupId, LocalDateTime.now(), List.of()));
+
+        when(settlementService.getSettlementDetail(eq(userId), eq(settlementGroupId))).thenReturn(entry);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/settlements/{settlementGroupId}", settlementGroupId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN)
+                        .header(HttpHeaders.IF_NONE_MATCH, entry.etag()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, entry.etag()))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
     // ==================== executeSettlement Tests ====================
 
     @Test
@@ -270,7 +556,7 @@ class SettlementControllerTest {
                 List.of(transaction)
         );
 
-        when(settlementService.executeSettlement(eq(userId), eq(groupId)))
+        when(settlementService.executeSettlement(eq(userId), eq(groupId), isNull()))
                 .thenReturn(result);
 
         // Act & Assert
@@ -284,14 +570,14 @@ class SettlementControllerTest {
                 .andExpect(jsonPath("$.transactions[0].payee.name").value("Alice"))
                 .andExpect(jsonPath("$.transactions[0].amount").value(75.00));
 
-        verify(settlementService, times(1)).executeSettlement(userId, groupId);
+        verify(settlementService, times(1)).executeSettlement(userId, groupId, null);
     }
 
     @Test
     @DisplayName("POST /api/settlements/{groupId}/settle - Should return 400 when no unsettled expenses")
     void executeSettlement_WhenNoExpenses_ShouldReturn400() throws Exception {
         // Arrange
-        when(settlementService.executeSettlement(eq(userId), eq(groupId)))
+        when(settlementService.executeSettlement(eq(userId), eq(groupId), isNull()))
                 .thenThrow(new IllegalArgumentException("No unsettled expenses to settle"));
 
         // Act & Assert
@@ -299,14 +585,14 @@ class SettlementControllerTest {
                         .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN))
                 .andExpect(status().isBadRequest());
 
-        verify(settlementService, times(1)).executeSettlement(userId, groupId);
+        verify(settlementService, times(1)).executeSettlement(userId, groupId, null);
     }
 
     @Test
     @DisplayName("POST /api/settlements/{groupId}/settle - Should return 400 when group not found")
     void executeSettlement_WhenGroupNotFound_ShouldReturn400() throws Exception {
         // Arrange
-        when(settlementService.executeSettlement(eq(userId), eq(groupId)))
+        when(settlementService.executeSettlement(eq(userId), eq(groupId), isNull()))
                 .thenThrow(new IllegalArgumentException("Group not found"));
 
         // Act & Assert
@@ -314,7 +600,7 @@ class SettlementControllerTest {
                         .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN))
                 .andExpect(status().isBadRequest());
 
-        verify(settlementService, times(1)).executeSettlement(userId, groupId);
+        verify(settlementService, times(1)).executeSettlement(userId, groupId, null);
     }
 
     @Test
@@ -329,7 +615,7 @@ class SettlementControllerTest {
                 List.of()
         );
 
-        when(settlementService.executeSettlement(eq(userId), eq(groupId)))
+        when(settlementService.executeSettlement(eq(userId), eq(groupId), isNull()))
                 .thenReturn(result);
 
         // Act & Assert
@@ -339,14 +625,14 @@ class SettlementControllerTest {
                 .andExpect(jsonPath("$.transactions").isArray())
                 .andExpect(jsonPath("$.transactions.length()").value(0));
 
-        verify(settlementService, times(1)).executeSettlement(userId, groupId);
+        verify(settlementService, times(1)).executeSettlement(userId, groupId, null);
     }
 
     @Test
     @DisplayName("POST /api/settlements/{groupId}/settle - Should return 400 when user is not a member")
     void executeSettlement_WhenUserNotMember_ShouldReturn400() throws Exception {
         // Arrange
-        when(settlementService.executeSettlement(eq(userId), eq(groupId)))
+        when(settlementService.executeSettlement(eq(userId), eq(groupId), isNull()))
                 .thenThrow(new IllegalArgumentException("Only group members can settle expenses"));
 
         // Act & Assert
@@ -354,6 +640,148 @@ class SettlementControllerTest {
                         .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN))
                 .andExpect(status().isBadRequest());
 
-        verify(settlementService, times(1)).executeSettlement(userId, groupId);
+        verify(settlementService, times(1)).executeSettlement(userId, groupId, null);
+    }
+
+    @Test
+    @DisplayName("POST /api/settlements/{groupId}/settle - Should return 409 when a settlement is already running")
+    void executeSettlement_WhenSettlementInProgress_ShouldReturn409() throws Exception {
+        // Arrange
+        when(settlementService.executeSettlement(eq(userId), eq(groupId), isNull()))
+                .thenThrow(new SettlementInProgressException());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/settlements/{groupId}/settle", groupId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message")
+                        .value("A settlement is already in progress for this group. Please try again shortly."));
+    }
+
+    @Test
+    @DisplayName("POST /api/settlements/{groupId}/settle - Should pass a date cutoff to a partial settlement")
+    void executeSettlement_WithDateCutoff_ShouldPassRequest() throws Exception {
+        // Arrange
+        SettlementDetailResponse detail = new SettlementDetailResponse(UUID.randomUUID(), LocalDateTime.now(), List.of());
+        when(settlementService.executeSettlement(eq(userId), eq(groupId),
+                argThat(request -> LocalDate.of(2026, 1, 31).equals(request.getExpenseDateUpTo()))))
+                .thenReturn(detail);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/settlements/{groupId}/settle", groupId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"expenseDateUpTo\": \"2026-01-31\"}"))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @DisplayName("POST /api/settlements/{groupId}/settle - Should return 400 for an empty expense id list")
+    void executeSettlement_WithEmptyExpenseIds_ShouldReturn400() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/settlements/{groupId}/settle", groupId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"expenseIds\": []}"))
+                .andExpect(status().isBadRequest());
+
+        verify(settlementService, never()).executeSettlement(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("POST /api/settlements/{groupId}/settle?async=true - Should return 202 with a job id")
+    void executeSettlement_Async_ShouldReturnAccepted() throws Exception {
+        // Arrange
+        SettlementJobResponse job = SettlementJobResponse.builder()
+                .jobId(UUID.randomUUID())
+                .groupId(groupId)
+                .status(SettlementJobStatus.PENDING)
+                .submittedAt(LocalDateTime.now())
+                .build();
+
+        when(settlementJobService.submitSettlement(eq(userId), eq(groupId), isNull())).thenReturn(job);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/settlements/{groupId}/settle", groupId)
+                        .param("async", "true")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.jobId").value(job.getJobId().toString()))
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andExpect(jsonPath("$.result").doesNotExist());
+
+        verify(settlementService, never()).executeSettlement(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("POST /api/settlements/{groupId}/settle?async=true - Should return 503 when the job queue is full")
+    void executeSettlement_AsyncQueueFull_ShouldReturn503() throws Exception {
+        // Arrange
+        when(settlementJobService.submitSettlement(eq(userId), eq(groupId), isNull()))
+                .thenThrow(new TaskRejectedException("Queue full"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/settlements/{groupId}/settle", groupId)
+                        .param("async", "true")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    // ==================== getSettlementJob Tests ====================
+
+    @Test
+    @DisplayName("GET /api/settlements/jobs/{jobId} - Should return job status and result")
+    void getSettlementJob_ShouldReturnJob() throws Exception {
+        // Arrange
+        UUID jobId = UUID.randomUUID();
+        SettlementDetailResponse result = new SettlementDetailResponse(
+                UUID.randomUUID(),
+                LocalDateTime.now(),
+                List.of()
+        );
+
+        SettlementJobResponse job = SettlementJobResponse.builder()
+                .jobId(jobId)
+                .groupId(groupId)
+                .status(SettlementJobStatus.COMPLETED)
+                .result(result)
+                .build();
+
+        when(settlementJobService.getJob(eq(userId), eq(jobId))).thenReturn(job);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/settlements/jobs/{jobId}", jobId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.result.id").value(result.getId().toString()));
+
+        verify(settlementService, never()).getSettlementDetail(any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/settlements/jobs/{jobId} - Should return 400 when job not found")
+    void getSettlementJob_WhenNotFound_ShouldReturn400() throws Exception {
+        // Arrange
+        UUID jobId = UUID.randomUUID();
+        when(settlementJobService.getJob(eq(userId), eq(jobId)))
+                .thenThrow(new IllegalArgumentException("Settlement job not found"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/settlements/jobs/{jobId}", jobId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN))
+                .andExpect(status().isBadRequest());
+    }
+
+    // ==================== Helper Methods ====================
+
+    // The default single export slot can be taken, i.e. nothing is still holding it
+    private void assertExportSlotFree() {
+        settlementExportLimiter.acquire().release();
+    }
+
+    private SettlementDetailCache.Entry toCacheEntry(SettlementDetailResponse detail) throws Exception {
+        byte[] body = objectMapper.writeValueAsBytes(detail);
+        return new SettlementDetailCache.Entry(groupId, body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,103 @@
+package com.jlgs.howmuchah.controller;
+
+import com.jlgs.howmuchah.config.RateLimitFilter;
+import com.jlgs.howmuchah.config.TestSecurityConfig;
+import com.jlgs.howmuchah.dto.response.GroupBalanceResponse;
+import com.jlgs.howmuchah.dto.response.UserBalancesResponse;
+import com.jlgs.howmuchah.service.GroupBalanceService;
+import com.jlgs.howmuchah.util.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(
+        controllers = UserController.class,
+        excludeFilters = @ComponentScan.Filter(
+                type = FilterType.ASSIGNABLE_TYPE,
+                classes = RateLimitFilter.class
+        )
+)
+@Import(TestSecurityConfig.class)
+@DisplayName("UserController Integration Tests")
+class UserControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private JwtUtil jwtUtil;
+
+    @MockitoBean
+    private GroupBalanceService groupBalanceService;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+
+        when(jwtUtil.extractUserId(any(Jwt.class))).thenReturn(userId);
+        when(jwtUtil.extractEmail(any(Jwt.class))).thenReturn("test@example.com");
+    }
+
+    // ==================== getMyBalances Tests ====================
+
+    @Test
+    @DisplayName("GET /api/users/me/balances - Should return balances per group and totals per currency")
+    void getMyBalances_ShouldReturnBalances() throws Exception {
+        // Arrange
+        UUID groupId = UUID.randomUUID();
+        UserBalancesResponse balances = UserBalancesResponse.builder()
+                .groups(List.of(GroupBalanceResponse.builder()
+                        .groupId(groupId)
+                        .groupName("Trip")
+                        .balances(Map.of("SGD", new BigDecimal("-12.50")))
+                        .build()))
+                .totalsByCurrency(Map.of("SGD", new BigDecimal("-12.50")))
+                .build();
+
+        when(groupBalanceService.getBalancesForUser(userId)).thenReturn(balances);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/me/balances")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + TestSecurityConfig.TEST_TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.groups.length()").value(1))
+                .andExpect(jsonPath("$.groups[0].groupId").value(groupId.toString()))
+                .andExpect(jsonPath("$.groups[0].balances.SGD").value(-12.50))
+                .andExpect(jsonPath("$.totalsByCurrency.SGD").value(-12.50));
+
+        verify(groupBalanceService, times(1)).getBalancesForUser(userId);
+    }
+
+    @Test
+    @DisplayName("GET /api/users/me/balances - Should return 401 without a token")
+    void getMyBalances_WithoutToken_ShouldReturn401() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/users/me/balances"))
+                .andExpect(status().isUnauthorized());
+
+        verify(groupBalanceService, never()).getBalancesForUser(any());
+    }
+}
@@ -0,0 +1,105 @@
+package com.jlgs.howmuchah.repository;
+
+import com.jlgs.howmuchah.entity.Expense;
+import jakarta.persistence.OptimisticLockException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A settlement committing between the load and the save of an expense edit or delete
+ *
+ * The edit runs in the test transaction, the settlement on its own autocommit connection, so the
+ * settlement is committed by the time the edit flushes. Skipped unless QUERY_PLAN_DB_URL is set.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfEnvironmentVariable(named = SeededPostgres.URL_VARIABLE, matches = "jdbc:postgresql:.+")
+@DisplayName("Expense Settlement Concurrency Tests")
+class ExpenseSettlementConcurrencyTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @DynamicPropertySource
+    static void databaseProperties(DynamicPropertyRegistry registry) {
+        SeededPostgres.registerDataSource(registry);
+    }
+
+    @BeforeAll
+    static void loadSchemaAndSeed() throws IOException, SQLException {
+        SeededPostgres.load();
+    }
+
+    // ==================== Settle During Edit Tests ====================
+
+    @Test
+    @DisplayName("markExpensesSettled - Should make an edit loaded before the settlement fail its version check")
+    void markExpensesSettled_BetweenLoadAndSave_ShouldRejectStaleEdit() throws SQLException {
+        // Arrange
+        UUID groupId = SeededPostgres.seededId("group1");
+        UUID expenseId = SeededPostgres.seededId("expense1-40");
+        Expense expense = entityManager.find(Expense.class, expenseId);
+        assertThat(expense.isSettled()).isFalse();
+
+        // Act
+        settleOnOwnConnection(repository -> repository.markExpensesSettled(groupId, List.of(expenseId)));
+        expense.setDescription("Edited after the settlement");
+
+        // Assert
+        assertThatThrownBy(() -> entityManager.flush()).isInstanceOf(OptimisticLockException.class);
+        assertThat(isSettled(expenseId)).isTrue();
+    }
+
+    @Test
+    @DisplayName("markGroupSettled - Should make a delete loaded before the settlement fail its version check")
+    void markGroupSettled_BetweenLoadAndDelete_ShouldRejectStaleDelete() throws SQLException {
+        // Arrange
+        UUID groupId = SeededPostgres.seededId("group2");
+        UUID expenseId = SeededPostgres.seededId("expense2-40");
+        Expense expense = entityManager.find(Expense.class, expenseId);
+        assertThat(expense.isSettled()).isFalse();
+
+        // Act
+        settleOnOwnConnection(repository -> repository.markGroupSettled(groupId));
+        entityManager.remove(expense);
+
+        // Assert
+        assertThatThrownBy(() -> entityManager.flush()).isInstanceOf(OptimisticLockException.class);
+        assertThat(isSettled(expenseId)).isTrue();
+    }
+
+    // ==================== Helper Methods ====================
+
+    private static void settleOnOwnConnection(Consumer<SettlementJdbcRepository> settle) throws SQLException {
+        try (Connection connection = SeededPostgres.connect(false)) {
+            settle.accept(new SettlementJdbcRepository(new JdbcTemplate(new SingleConnectionDataSource(connection, true))));
+        }
+    }
+
+    private static boolean isSettled(UUID expenseId) throws SQLException {
+        try (Connection connection = SeededPostgres.connect(false)) {
+            return Boolean.TRUE.equals(new JdbcTemplate(new SingleConnectionDataSource(connection, true))
+                    .queryForObject("SELECT is_settled FROM public.expenses WHERE id = ?", Boolean.class, expenseId));
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.jlgs.howmuchah.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Plan regression tests for every custom repository query
+ *
+ * Runs each {@link Query} method against the seeded scratch database ({@link SeededPostgres}), records
+ * the SQL Hibernate sends and checks that its generic plan, the one a prepared statement settles on,
+ * does not sequentially scan any table. Skipped unless QUERY_PLAN_DB_URL is set.
+ *
+ * QUERY_PLAN_DB_URL=jdbc:postgresql://localhost:5432/howmuchah_plans mvn test -Dtest=QueryPlanRegressionTest
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfEnvironmentVariable(named = SeededPostgres.URL_VARIABLE, matches = "jdbc:postgresql:.+")
+@DisplayName("Query Plan Regression Tests")
+class QueryPlanRegressionTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @DynamicPropertySource
+    static void databaseProperties(DynamicPropertyRegistry registry) {
+        SeededPostgres.registerDataSource(registry);
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                RecordingStatementInspector.class::getName);
+    }
+
+    @BeforeAll
+    static void loadSchemaAndSeed() throws IOException, SQLException {
+        SeededPostgres.load();
+    }
+
+    // ==================== Query Plan Tests ====================
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("customQueries")
+    @DisplayName("Custom queries - Should not sequentially scan any table")
+    void customQuery_ShouldNotUseSequentialScan(Method method) throws Exception {
+        // Arrange
+        Object repository = applicationContext.getBean(method.getDeclaringClass());
+        Object[] arguments = Arrays.stream(method.getParameters()).map(QueryPlanRegressionTest::argumentFor).toArray();
+        RecordingStatementInspector.statements.clear();
+
+        // Act
+        invoke(repository, method, arguments);
+        List<String> statements = List.copyOf(RecordingStatementInspector.statements);
+
+        // Assert
+        assertThat(statements).as("SQL sent by %s", method.getName()).isNotEmpty();
+        for (String sql : statements) {
+            assertThat(sequentialScans(explain(sql))).as("Sequential scans in %s", sql).isEmpty();
+        }
+    }
+
+    // ==================== Helper Methods ====================
+
+    static Stream<Arguments> customQueries() {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition definition) {
+                return definition.getMetadata().isInterface();
+            }
+        };
+        scanner.addIncludeFilter(new AssignableTypeFilter(Repository.class));
+
+        return scanner.findCandidateComponents(QueryPlanRegressionTest.class.getPackageName()).stream()
+                .map(BeanDefinition::getBeanClassName)
+                .map(name -> ClassUtils.resolveClassName(name, QueryPlanRegressionTest.class.getClassLoader()))
+                .flatMap(repository -> Arrays.stream(repository.getDeclaredMethods()))
+                .filter(method -> method.isAnnotationPresent(Query.class))
+                .sorted(Comparator.comparing((Method method) -> method.getDeclaringClass().getSimpleName())
+                        .thenComparing(Method::getName))
+                .map(method -> Arguments.of(Named.of(
+                        method.getDeclaringClass().getSimpleName() + "." + method.getName(), method)));
+    }
+
+    // Values that hit seeded rows where the name says which row, any valid value otherwise
+    private static Object argumentFor(Parameter parameter) {
+        Class<?> type = parameter.getType();
+        String name = parameter.getName();
+
+        if (type == UUID.class) {
+            return switch (name) {
+                case "groupId" -> SeededPostgres.seededId("group1");
+                case "userId" -> SeededPostgres.seededId("user1");
+                case "expenseId" -> SeededPostgres.seededId("expense1-40");
+                case "settlementGroupId" -> SeededPostgres.seededId("settlement1-5");
+                default -> UUID.randomUUID();
+            };
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            return name.equals("settlementGroupIds")
+                    ? IntStream.rangeClosed(1, 5).mapToObj(s -> SeededPostgres.seededId("settlement1-" + s)).toList()
+                    : IntStream.rangeClosed(21, 40).mapToObj(x -> SeededPostgres.seededId("expense1-" + x)).toList();
+        }
+        if (type == String.class) {
+            return name.equals("email") ? "user2001@example.com" : "SGD";
+        }
+        if (type.isEnum()) {
+            return type.getEnumConstants()[0];
+        }
+        if (type == LocalDate.class) {
+            return LocalDate.now();
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.now();
+        }
+        if (type == BigDecimal.class) {
+            return BigDecimal.ONE;
+        }
+        if (type == int.class || type == Integer.class) {
+            return 1;
+        }
+        if (type == Pageable.class) {
+            return PageRequest.of(1, 20);
+        }
+        if (type == Limit.class) {
+            return Limit.of(20);
+        }
+        throw new IllegalStateException("No test value for " + parameter + " of " + parameter.getDeclaringExecutable());
+    }
+
+    private static void invoke(Object repository, Method method, Object[] arguments) throws Exception {
+        try {
+            Object result = method.invoke(repository, arguments);
+            // Streams only run their query once consumed
+            if (result instanceof Stream<?> rows) {
+                try (rows) {
+                    rows.count();
+                }
+            }
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    // Generic plan of the statement as Hibernate prepared it, with its ? placeholders as $n
+    private static JsonNode explain(String sql) throws SQLException, IOException {
+        try (Connection connection = SeededPostgres.connect(true);
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "EXPLAIN (GENERIC_PLAN, FORMAT JSON) " + numberPlaceholders(sql))) {
+            resultSet.next();
+            return objectMapper.readTree(resultSet.getString(1)).get(0).get("Plan");
+        }
+    }
+
+    private static List<String> sequentialScans(JsonNode plan) {
+        List<String> relations = new ArrayList<>();
+        if ("Seq Scan".equals(plan.path("Node Type").asText())) {
+            relations.add(plan.path("Relation Name").asText());
+        }
+        for (JsonNode child : plan.path("Plans")) {
+            relations.addAll(sequentialScans(child));
+        }
+        return relations;
+    }
+
+    private static String numberPlaceholders(String sql) {
+        StringBuilder numbered = new StringBuilder(sql.length() + 16);
+        boolean inLiteral = false;
+        int index = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '\'') {
+                inLiteral = !inLiteral;
+            }
+            if (c == '?' && !inLiteral) {
+                numbered.append('$').append(++index);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+
+    /**
+     * Keeps the SQL of every statement Hibernate prepares, registered through the session factory properties
+     */
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
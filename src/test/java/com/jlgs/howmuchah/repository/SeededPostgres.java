@@ -0,0 +1,106 @@
+package com.jlgs.howmuchah.repository;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Scratch PostgreSQL (16 or newer) for the tests that need the real database
+ *
+ * Tests using it are skipped unless QUERY_PLAN_DB_URL is set. {@link #load()} drops the public and
+ * auth schemas of that database and rebuilds them from database/ plus the seed data, so never point
+ * it at a database you want to keep.
+ */
+public final class SeededPostgres {
+
+    public static final String URL_VARIABLE = "QUERY_PLAN_DB_URL";
+
+    private static final Path SCHEMA = Path.of("database", "howmuchah-schema-180126.sql");
+    private static final Path MIGRATIONS = Path.of("database", "migrations");
+
+    private SeededPostgres() {
+    }
+
+    public static void registerDataSource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv(URL_VARIABLE));
+        registry.add("spring.datasource.username", SeededPostgres::username);
+        registry.add("spring.datasource.password", SeededPostgres::password);
+    }
+
+    public static void load() throws IOException, SQLException {
+        List<Path> migrations;
+        try (Stream<Path> files = Files.list(MIGRATIONS)) {
+            migrations = files.sorted(Comparator.comparingInt(SeededPostgres::migrationVersion)).toList();
+        }
+
+        try (Connection connection = connect(true);
+             Statement statement = connection.createStatement()) {
+            statement.execute(resource("query-plan/supabase-stubs.sql"));
+            statement.execute(Files.readString(SCHEMA));
+            for (Path migration : migrations) {
+                statement.execute(Files.readString(migration));
+            }
+            statement.execute(resource("query-plan/seed.sql"));
+        }
+    }
+
+    // Simple query mode sends each script as is (the migrations' own BEGIN/COMMIT apply) and leaves $n to EXPLAIN
+    public static Connection connect(boolean simpleQueryMode) throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", username());
+        properties.setProperty("password", password());
+        if (simpleQueryMode) {
+            properties.setProperty("preferQueryMode", "simple");
+        }
+        return DriverManager.getConnection(System.getenv(URL_VARIABLE), properties);
+    }
+
+    // Same id the seed script derives with md5(key)::uuid
+    public static UUID seededId(String key) {
+        try {
+            ByteBuffer digest = ByteBuffer.wrap(MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8)));
+            return new UUID(digest.getLong(), digest.getLong());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int migrationVersion(Path migration) {
+        String fileName = migration.getFileName().toString();
+        return Integer.parseInt(fileName.substring(1, fileName.indexOf("__")));
+    }
+
+    private static String resource(String name) throws IOException {
+        try (var stream = SeededPostgres.class.getClassLoader().getResourceAsStream(name)) {
+            if (stream == null) {
+                throw new IOException("Missing test resource " + name);
+            }
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String username() {
+        String username = System.getenv("QUERY_PLAN_DB_USERNAME");
+        return username != null ? username : "postgres";
+    }
+
+    private static String password() {
+        String password = System.getenv("QUERY_PLAN_DB_PASSWORD");
+        return password != null ? password : "";
+    }
+}
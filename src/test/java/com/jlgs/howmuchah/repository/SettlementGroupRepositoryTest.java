@@ -0,0 +1,82 @@
+package com.jlgs.howmuchah.repository;
+
+import com.jlgs.howmuchah.entity.Settlement;
+import com.jlgs.howmuchah.entity.SettlementGroup;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Settlement detail reads against the seeded database. Skipped unless QUERY_PLAN_DB_URL is set.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfEnvironmentVariable(named = SeededPostgres.URL_VARIABLE, matches = "jdbc:postgresql:.+")
+@DisplayName("SettlementGroupRepository Tests")
+class SettlementGroupRepositoryTest {
+
+    @Autowired
+    private SettlementGroupRepository settlementGroupRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void databaseProperties(DynamicPropertyRegistry registry) {
+        SeededPostgres.registerDataSource(registry);
+    }
+
+    @BeforeAll
+    static void loadSchemaAndSeed() throws IOException, SQLException {
+        SeededPostgres.load();
+    }
+
+    // ==================== findDetailById Tests ====================
+
+    @Test
+    @DisplayName("findDetailById - Should return settlements by currency then id whatever order they were written in")
+    void findDetailById_ShouldOrderSettlementsByCurrencyThenId() {
+        // Arrange
+        UUID settlementGroupId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO public.settlement_groups (id, group_id, settled_at) VALUES (?, ?, now())",
+                settlementGroupId, SeededPostgres.seededId("group1"));
+        insertSettlement(settlementGroupId, "00000000-0000-0000-0000-000000000004", "SGD");
+        insertSettlement(settlementGroupId, "00000000-0000-0000-0000-000000000001", "USD");
+        insertSettlement(settlementGroupId, "00000000-0000-0000-0000-000000000003", "EUR");
+        insertSettlement(settlementGroupId, "00000000-0000-0000-0000-000000000002", "SGD");
+
+        // Act
+        SettlementGroup settlementGroup = settlementGroupRepository.findDetailById(settlementGroupId).orElseThrow();
+
+        // Assert
+        assertThat(settlementGroup.getSettlements())
+                .extracting(Settlement::getCurrency, settlement -> settlement.getId().toString())
+                .containsExactly(
+                        tuple("EUR", "00000000-0000-0000-0000-000000000003"),
+                        tuple("SGD", "00000000-0000-0000-0000-000000000002"),
+                        tuple("SGD", "00000000-0000-0000-0000-000000000004"),
+                        tuple("USD", "00000000-0000-0000-0000-000000000001"));
+    }
+
+    private void insertSettlement(UUID settlementGroupId, String id, String currency) {
+        jdbcTemplate.update("INSERT INTO public.settlements " +
+                        "(id, settlement_group_id, payer_user_id, payee_user_id, currency, amount) " +
+                        "VALUES (?, ?, ?, ?, ?, 10.00)",
+                UUID.fromString(id), settlementGroupId,
+                SeededPostgres.seededId("user2"), SeededPostgres.seededId("user1"), currency);
+    }
+}
@@ -0,0 +1,180 @@
+package com.jlgs.howmuchah.repository;
+
+import com.jlgs.howmuchah.dto.projection.SettlementExportRow;
+import com.jlgs.howmuchah.entity.Group;
+import com.jlgs.howmuchah.entity.Settlement;
+import com.jlgs.howmuchah.entity.SettlementGroup;
+import com.jlgs.howmuchah.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Counts statements at the JDBC driver boundary (mocked Connection), so the assertion
+ * covers what JdbcTemplate actually sends rather than which repository methods were called.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SettlementJdbcRepository Unit Tests")
+class SettlementJdbcRepositoryTest {
+
+    @Mock
+    private DataSource dataSource;
+    @Mock
+    private Connection connection;
+    @Mock
+    private DatabaseMetaData metaData;
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    private SettlementJdbcRepository settlementJdbcRepository;
+
+    private Group group;
+    private User payer;
+    private User payee;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(dataSource.getConnection()).thenReturn(connection);
+        lenient().when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        lenient().when(preparedStatement.getConnection()).thenReturn(connection);
+        lenient().when(connection.getMetaData()).thenReturn(metaData);
+        lenient().when(metaData.supportsBatchUpdates()).thenReturn(true);
+        lenient().when(preparedStatement.executeUpdate()).thenReturn(1);
+        lenient().when(preparedStatement.executeBatch()).thenAnswer(invocation -> new int[0]);
+
+        settlementJdbcRepository = new SettlementJdbcRepository(new JdbcTemplate(dataSource));
+
+        group = Group.builder().id(UUID.randomUUID()).name("Trip").build();
+        payer = new User();
+        payer.setId(UUID.randomUUID());
+        payee = new User();
+        payee.setId(UUID.randomUUID());
+    }
+
+    @ParameterizedTest(name = "{0} transactions")
+    @ValueSource(ints = {1, 7, 250})
+    @DisplayName("settlement write path - Should issue three statements regardless of transaction count")
+    void settlementWritePath_ShouldUseConstantStatementCount(int transactionCount) throws SQLException {
+        // Arrange
+        SettlementGroup settlementGroup = SettlementGroup.builder()
+                .id(UUID.randomUUID())
+                .group(group)
+                .settledAt(LocalDateTime.now())
+                .build();
+
+        List<Settlement> settlements = new ArrayList<>();
+        for (int i = 0; i < transactionCount; i++) {
+            settlements.add(Settlement.builder()
+                    .id(UUID.randomUUID())
+                    .settlementGroup(settlementGroup)
+                    .payer(payer)
+                    .payee(payee)
+                    .currency("SGD")
+                    .amount(new BigDecimal("1.00"))
+                    .createdAt(settlementGroup.getSettledAt())
+                    .build());
+        }
+
+        // Act
+        settlementJdbcRepository.insertSettlementGroup(settlementGroup);
+        settlementJdbcRepository.insertSettlements(settlements);
+        settlementJdbcRepository.markGroupSettled(group.getId());
+
+        // Assert
+        verify(connection, times(3)).prepareStatement(anyString());
+        verify(preparedStatement, times(2)).executeUpdate();
+        verify(preparedStatement, times(1)).executeBatch();
+        verify(preparedStatement, times(transactionCount)).addBatch();
+    }
+
+    @ParameterizedTest(name = "{0} expenses")
+    @ValueSource(ints = {1, 500})
+    @DisplayName("markExpensesSettled - Should bind the selection as one array in a single statement")
+    void markExpensesSettled_ShouldUseSingleArrayParameter(int expenseCount) throws SQLException {
+        // Arrange
+        List<UUID> expenseIds = new ArrayList<>();
+        for (int i = 0; i < expenseCount; i++) {
+            expenseIds.add(UUID.randomUUID());
+        }
+        Array array = mock(Array.class);
+        when(connection.createArrayOf(eq("uuid"), any())).thenReturn(array);
+
+        // Act
+        settlementJdbcRepository.markExpensesSettled(group.getId(), expenseIds);
+
+        // Assert
+        verify(connection, times(1)).prepareStatement(argThat((String sql) -> sql.contains("version = version + 1")));
+        verify(connection).createArrayOf(eq("uuid"), argThat(ids -> ids.length == expenseCount));
+        verify(preparedStatement).setObject(1, group.getId());
+        verify(preparedStatement).setArray(2, array);
+        verify(preparedStatement).setObject(3, group.getId());
+        verify(preparedStatement, times(1)).executeUpdate();
+    }
+
+    @Test
+    @DisplayName("markGroupSettled - Should flip expenses, splits and the group counter in a single statement")
+    void markGroupSettled_ShouldUpdateCounterInSameStatement() throws SQLException {
+        // Act
+        settlementJdbcRepository.markGroupSettled(group.getId());
+
+        // Assert
+        verify(connection, times(1)).prepareStatement(argThat((String sql) ->
+                sql.contains("version = version + 1")
+                        && sql.contains("UPDATE public.expense_splits")
+                        && sql.contains("UPDATE public.groups")));
+        verify(preparedStatement).setObject(1, group.getId());
+        verify(preparedStatement).setObject(2, group.getId());
+        verify(preparedStatement, times(1)).executeUpdate();
+    }
+
+    @Test
+    @DisplayName("streamSettlementsForExport - Should read through a forward-only cursor with a fetch size and timeout")
+    void streamSettlementsForExport_ShouldUseForwardOnlyCursor() throws SQLException {
+        // Arrange
+        ResultSet resultSet = mock(ResultSet.class);
+        when(connection.prepareStatement(anyString(), eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY)))
+                .thenReturn(preparedStatement);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getObject("settled_at", LocalDateTime.class)).thenReturn(LocalDateTime.now());
+        when(resultSet.getBigDecimal("amount")).thenReturn(new BigDecimal("5.00"));
+        List<SettlementExportRow> rows = new ArrayList<>();
+
+        // Act
+        settlementJdbcRepository.streamSettlementsForExport(group.getId(), Duration.ofSeconds(30), rows::add);
+
+        // Assert
+        verify(preparedStatement).setFetchSize(500);
+        verify(preparedStatement).setQueryTimeout(30);
+        verify(preparedStatement).setObject(1, group.getId());
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).amount()).isEqualByComparingTo("5.00");
+    }
+}
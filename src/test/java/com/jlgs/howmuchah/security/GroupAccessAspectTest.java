@@ -0,0 +1,273 @@
+package com.jlgs.howmuchah.security;
+
+import com.jlgs.howmuchah.config.SettlementProperties;
+import com.jlgs.howmuchah.dto.projection.GroupAccessRow;
+import com.jlgs.howmuchah.repository.GroupRepository;
+import com.jlgs.howmuchah.service.ExpenseService;
+import com.jlgs.howmuchah.service.GroupMembershipCache;
+import com.jlgs.howmuchah.service.GroupService;
+import com.jlgs.howmuchah.service.InvitationLinkService;
+import com.jlgs.howmuchah.service.InvitationService;
+import com.jlgs.howmuchah.service.SettlementJobService;
+import com.jlgs.howmuchah.service.SettlementService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GroupAccessAspect Unit Tests")
+class GroupAccessAspectTest {
+
+    @Mock
+    private GroupAccessGuard groupAccessGuard;
+
+    private GuardedTarget target;
+    private GuardedTarget proxy;
+    private UUID groupId;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        target = new GuardedTarget();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new GroupAccessAspect(groupAccessGuard));
+        proxy = factory.getProxy();
+
+        groupId = UUID.randomUUID();
+        userId = UUID.randomUUID();
+    }
+
+    // ==================== RequireGroupMember Tests ====================
+
+    @Test
+    @DisplayName("RequireGroupMember - Should check the named parameters before running the method")
+    void requireGroupMember_ShouldPassArgumentsByName() {
+        // Act
+        proxy.memberOnly(userId, groupId);
+
+        // Assert
+        verify(groupAccessGuard, times(1)).requireMember(groupId, userId, "members only", false);
+        assertThat(target.calls).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("RequireGroupMember - Should not run the method when the guard rejects the caller")
+    void requireGroupMember_WhenRejected_ShouldNotInvokeMethod() {
+        // Arrange
+        doThrow(new IllegalArgumentException("members only"))
+                .when(groupAccessGuard).requireMember(groupId, userId, "members only", false);
+
+        // Act & Assert
+        assertThatThrownBy(() -> proxy.memberOnly(userId, groupId))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("members only");
+
+        assertThat(target.calls).isZero();
+    }
+
+    @Test
+    @DisplayName("RequireGroupMember - Should fail loudly when the annotation names a missing parameter")
+    void requireGroupMember_WhenParameterMissing_ShouldThrow() {
+        // Act & Assert
+        assertThatThrownBy(() -> proxy.misnamed(userId, groupId))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("No parameter named requester");
+
+        verify(groupAccessGuard, never()).requireMember(any(), any(), anyString(), anyBoolean());
+        assertThat(target.calls).isZero();
+    }
+
+    // ==================== RequireGroupOwner Tests ====================
+
+    @Test
+    @DisplayName("RequireGroupOwner - Should check the configured user parameter as owner")
+    void requireGroupOwner_ShouldPassArgumentsByName() {
+        // Act
+        proxy.ownerOnly(groupId, UUID.randomUUID(), userId);
+
+        // Assert
+        verify(groupAccessGuard, times(1)).requireOwner(groupId, userId, "owner only", true);
+        verify(groupAccessGuard, never()).requireMember(any(), any(), anyString(), anyBoolean());
+        assertThat(target.calls).isEqualTo(1);
+    }
+
+    // ==================== Annotated Service Tests ====================
+
+    @Test
+    @DisplayName("Annotated services - Should name existing UUID parameters on every guarded method")
+    void annotatedServices_ShouldReferenceExistingParameters() {
+        // Act
+        List<Method> guarded = guardedServiceMethods().toList();
+
+        // Assert
+        assertThat(guarded).isNotEmpty();
+        for (Method method : guarded) {
+            Map<String, Integer> indexes = GroupAccessAspect.indexParameters(method);
+            for (String name : List.of(groupParameter(method), userParameter(method))) {
+                assertThat(indexes).as("%s on %s", name, method).containsKey(name);
+                assertThat(method.getParameterTypes()[indexes.get(name)]).as("%s on %s", name, method)
+                        .isEqualTo(UUID.class);
+            }
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("guardedServiceMethodsByName")
+    @DisplayName("Annotated services - Should reject an outsider before the method body runs")
+    void annotatedServices_WhenCalledByOutsider_ShouldRejectBeforeInvoking(Method method) throws Exception {
+        // Arrange
+        // The real guard, seeing a group that exists and a caller who is neither member nor owner
+        GroupRepository guardRepository = mock(GroupRepository.class);
+        GroupMembershipCache guardCache = mock(GroupMembershipCache.class);
+        lenient().when(guardCache.isMember(any(), any())).thenReturn(false);
+        lenient().when(guardRepository.findAccessById(any(), any()))
+                .thenReturn(Optional.of(new GroupAccessRow(UUID.randomUUID(), false)));
+
+        List<Object> dependencies = new ArrayList<>();
+        Object service = newService(method.getDeclaringClass(), dependencies);
+        AspectJProxyFactory factory = new AspectJProxyFactory(service);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new GroupAccessAspect(new GroupAccessGuard(guardRepository, guardCache)));
+        Object guardedService = factory.getProxy();
+
+        RequireGroupMember member = method.getAnnotation(RequireGroupMember.class);
+        RequireGroupOwner owner = method.getAnnotation(RequireGroupOwner.class);
+        boolean forbidden = member != null ? member.forbidden() : owner.forbidden();
+        String message = member != null ? member.message() : owner.message();
+
+        // Act
+        Throwable thrown = catchThrowable(() -> invoke(guardedService, method, outsiderArguments(method)));
+
+        // Assert
+        assertThat(thrown).isInstanceOf(forbidden ? AccessDeniedException.class : IllegalArgumentException.class)
+                .hasMessage(message);
+        verifyNoInteractions(dependencies.toArray());
+    }
+
+    // ==================== Helper Methods ====================
+
+    private static Stream<Method> guardedServiceMethods() {
+        return Stream.of(ExpenseService.class, GroupService.class, InvitationService.class,
+                        InvitationLinkService.class, SettlementService.class, SettlementJobService.class)
+                .flatMap(service -> Arrays.stream(service.getDeclaredMethods()))
+                .filter(method -> method.isAnnotationPresent(RequireGroupMember.class)
+                        || method.isAnnotationPresent(RequireGroupOwner.class))
+                .sorted(Comparator.comparing((Method method) -> method.getDeclaringClass().getSimpleName())
+                        .thenComparing(Method::getName)
+                        .thenComparingInt(Method::getParameterCount));
+    }
+
+    static Stream<Named<Method>> guardedServiceMethodsByName() {
+        return guardedServiceMethods().map(method -> Named.of(
+                method.getDeclaringClass().getSimpleName() + "." + method.getName()
+                        + "/" + method.getParameterCount(), method));
+    }
+
+    private static String groupParameter(Method method) {
+        RequireGroupMember member = method.getAnnotation(RequireGroupMember.class);
+        return member != null ? member.groupId() : method.getAnnotation(RequireGroupOwner.class).groupId();
+    }
+
+    private static String userParameter(Method method) {
+        RequireGroupMember member = method.getAnnotation(RequireGroupMember.class);
+        return member != null ? member.userId() : method.getAnnotation(RequireGroupOwner.class).userId();
+    }
+
+    // Service built from mocks, which are collected so the test can check none of them was used
+    private static Object newService(Class<?> type, List<Object> dependencies) throws ReflectiveOperationException {
+        Constructor<?> constructor = type.getDeclaredConstructors()[0];
+        Object[] arguments = new Object[constructor.getParameterCount()];
+        for (int i = 0; i < arguments.length; i++) {
+            Class<?> parameterType = constructor.getParameterTypes()[i];
+            if (parameterType == SettlementProperties.class) {
+                // Read while constructing, so it has to hold real defaults
+                arguments[i] = new SettlementProperties();
+            } else {
+                arguments[i] = mock(parameterType);
+                dependencies.add(arguments[i]);
+            }
+        }
+        return constructor.newInstance(arguments);
+    }
+
+    // A group id and an outsider for the guarded parameters, nulls and zeros for everything else
+    private static Object[] outsiderArguments(Method method) {
+        String groupParameter = groupParameter(method);
+        UUID outsider = UUID.randomUUID();
+        Parameter[] parameters = method.getParameters();
+        Object[] arguments = new Object[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            Class<?> type = parameters[i].getType();
+            if (type == UUID.class) {
+                arguments[i] = parameters[i].getName().equals(groupParameter) ? UUID.randomUUID() : outsider;
+            } else if (type == boolean.class) {
+                arguments[i] = false;
+            } else if (type == int.class) {
+                arguments[i] = 0;
+            } else if (type == long.class) {
+                arguments[i] = 0L;
+            }
+        }
+        return arguments;
+    }
+
+    private static void invoke(Object target, Method method, Object[] arguments) throws Throwable {
+        try {
+            method.invoke(target, arguments);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    // ==================== Helper Classes ====================
+
+    public static class GuardedTarget {
+
+        int calls;
+
+        @RequireGroupMember(message = "members only")
+        public void memberOnly(UUID requester, UUID groupId) {
+            calls++;
+        }
+
+        @RequireGroupMember(message = "members only")
+        public void misnamed(UUID userId, UUID groupId) {
+            calls++;
+        }
+
+        @RequireGroupOwner(userId = "userId", message = "owner only", forbidden = true)
+        public void ownerOnly(UUID groupId, UUID otherUserId, UUID userId) {
+            calls++;
+        }
+    }
+}
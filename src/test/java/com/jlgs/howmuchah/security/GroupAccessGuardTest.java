@@ -0,0 +1,182 @@
+package com.jlgs.howmuchah.security;
+
+import com.jlgs.howmuchah.dto.projection.GroupAccessRow;
+import com.jlgs.howmuchah.repository.GroupRepository;
+import com.jlgs.howmuchah.service.GroupMembershipCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GroupAccessGuard Unit Tests")
+class GroupAccessGuardTest {
+
+    @Mock
+    private GroupRepository groupRepository;
+
+    @Mock
+    private GroupMembershipCache groupMembershipCache;
+
+    @InjectMocks
+    private GroupAccessGuard groupAccessGuard;
+
+    private UUID groupId;
+    private UUID userId;
+    private UUID ownerId;
+
+    @BeforeEach
+    void setUp() {
+        groupId = UUID.randomUUID();
+        userId = UUID.randomUUID();
+        ownerId = UUID.randomUUID();
+    }
+
+    // ==================== requireMember Tests ====================
+
+    @Test
+    @DisplayName("requireMember - Should let a cached member through without querying")
+    void requireMember_WhenCachedMember_ShouldNotQuery() {
+        // Arrange
+        when(groupMembershipCache.isMember(groupId, userId)).thenReturn(true);
+
+        // Act & Assert
+        assertThatCode(() -> groupAccessGuard.requireMember(groupId, userId, "denied", false))
+                .doesNotThrowAnyException();
+
+        verifyNoInteractions(groupRepository);
+    }
+
+    @Test
+    @DisplayName("requireMember - Should reject a non-member with the given message")
+    void requireMember_WhenNotMember_ShouldThrow() {
+        // Arrange
+        when(groupMembershipCache.isMember(groupId, userId)).thenReturn(false);
+        when(groupRepository.findAccessById(groupId, userId))
+                .thenReturn(Optional.of(new GroupAccessRow(ownerId, false)));
+
+        // Act & Assert
+        assertThatThrownBy(() -> groupAccessGuard.requireMember(groupId, userId, "Only group members can settle expenses", false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Only group members can settle expenses");
+
+        verify(groupRepository, times(1)).findAccessById(groupId, userId);
+    }
+
+    @Test
+    @DisplayName("requireMember - Should reject a missing group as not found")
+    void requireMember_WhenGroupNotFound_ShouldThrow() {
+        // Arrange
+        when(groupMembershipCache.isMember(groupId, userId)).thenReturn(false);
+        when(groupRepository.findAccessById(groupId, userId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> groupAccessGuard.requireMember(groupId, userId, "denied", false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Group not found");
+    }
+
+    @Test
+    @DisplayName("requireMember - Should let a member missed by the cache through after one query")
+    void requireMember_WhenCacheStale_ShouldTrustQuery() {
+        // Arrange
+        when(groupMembershipCache.isMember(groupId, userId)).thenReturn(false);
+        when(groupRepository.findAccessById(groupId, userId))
+                .thenReturn(Optional.of(new GroupAccessRow(ownerId, true)));
+
+        // Act & Assert
+        assertThatCode(() -> groupAccessGuard.requireMember(groupId, userId, "denied", false))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("requireMember - Should reject with AccessDeniedException when forbidden")
+    void requireMember_WhenForbidden_ShouldThrowAccessDenied() {
+        // Arrange
+        when(groupMembershipCache.isMember(groupId, userId)).thenReturn(false);
+        when(groupRepository.findAccessById(groupId, userId))
+                .thenReturn(Optional.of(new GroupAccessRow(ownerId, false)));
+
+        // Act & Assert
+        assertThatThrownBy(() -> groupAccessGuard.requireMember(groupId, userId, "You don't have access to this group", true))
+                .isInstanceOf(AccessDeniedException.class)
+                .hasMessage("You don't have access to this group");
+    }
+
+    @Test
+    @DisplayName("requireMember - Should reject a missing group id without querying")
+    void requireMember_WhenGroupIdNull_ShouldThrow() {
+        // Act & Assert
+        assertThatThrownBy(() -> groupAccessGuard.requireMember(null, userId, "denied", false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Group not found");
+
+        verify(groupRepository, never()).findAccessById(any(), any());
+    }
+
+    // ==================== requireOwner Tests ====================
+
+    @Test
+    @DisplayName("requireOwner - Should let the owner through after one query")
+    void requireOwner_WhenOwner_ShouldPass() {
+        // Arrange
+        when(groupRepository.findAccessById(groupId, ownerId))
+                .thenReturn(Optional.of(new GroupAccessRow(ownerId, true)));
+
+        // Act & Assert
+        assertThatCode(() -> groupAccessGuard.requireOwner(groupId, ownerId, "denied", false))
+                .doesNotThrowAnyException();
+
+        verifyNoInteractions(groupMembershipCache);
+    }
+
+    @Test
+    @DisplayName("requireOwner - Should reject a member who is not the owner")
+    void requireOwner_WhenNotOwner_ShouldThrow() {
+        // Arrange
+        when(groupRepository.findAccessById(groupId, userId))
+                .thenReturn(Optional.of(new GroupAccessRow(ownerId, true)));
+
+        // Act & Assert
+        assertThatThrownBy(() -> groupAccessGuard.requireOwner(groupId, userId, "Only the group owner can send invitations", false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Only the group owner can send invitations");
+    }
+
+    @Test
+    @DisplayName("requireOwner - Should reject with AccessDeniedException when forbidden")
+    void requireOwner_WhenForbidden_ShouldThrowAccessDenied() {
+        // Arrange
+        when(groupRepository.findAccessById(groupId, userId))
+                .thenReturn(Optional.of(new GroupAccessRow(ownerId, true)));
+
+        // Act & Assert
+        assertThatThrownBy(() -> groupAccessGuard.requireOwner(groupId, userId, "Only the group owner can remove members", true))
+                .isInstanceOf(AccessDeniedException.class)
+                .hasMessage("Only the group owner can remove members");
+    }
+
+    @Test
+    @DisplayName("requireOwner - Should reject a missing group as not found")
+    void requireOwner_WhenGroupNotFound_ShouldThrow() {
+        // Arrange
+        when(groupRepository.findAccessById(groupId, ownerId)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> groupAccessGuard.requireOwner(groupId, ownerId, "denied", false))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Group not found");
+    }
+}
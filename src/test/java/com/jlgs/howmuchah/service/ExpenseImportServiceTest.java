@@ -0,0 +1,316 @@
+package com.jlgs.howmuchah.service;
+
+import com.jlgs.howmuchah.dto.request.ExpenseBatchItem;
+import com.jlgs.howmuchah.dto.request.ExpenseSplitDto;
+import com.jlgs.howmuchah.dto.response.ExpenseBatchResponse;
+import com.jlgs.howmuchah.entity.*;
+import com.jlgs.howmuchah.exception.ExpenseBatchValidationException;
+import com.jlgs.howmuchah.repository.ExpenseJdbcRepository;
+import com.jlgs.howmuchah.repository.GroupMemberRepository;
+import com.jlgs.howmuchah.repository.GroupRepository;
+import com.jlgs.howmuchah.settlement.SettlementPreviewCache;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExpenseImportService Unit Tests")
+class ExpenseImportServiceTest {
+
+    @Mock
+    private GroupRepository groupRepository;
+
+    @Mock
+    private GroupMemberRepository groupMemberRepository;
+
+    @Mock
+    private ExpenseJdbcRepository expenseJdbcRepository;
+
+    @Mock
+    private GroupBalanceService groupBalanceService;
+
+    @Mock
+    private SettlementPreviewCache settlementPreviewCache;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @InjectMocks
+    private ExpenseImportService expenseImportService;
+
+    @Captor
+    private ArgumentCaptor<List<Expense>> expensesCaptor;
+
+    @Captor
+    private ArgumentCaptor<List<ExpenseSplit>> splitsCaptor;
+
+    @Captor
+    private ArgumentCaptor<Map<Expense, List<ExpenseSplit>>> splitsByExpenseCaptor;
+
+    private UUID groupId;
+    private User alice;
+    private User bob;
+    private Group testGroup;
+
+    @BeforeEach
+    void setUp() {
+        groupId = UUID.randomUUID();
+        alice = createUser("Alice");
+        bob = createUser("Bob");
+        testGroup = Group.builder().id(groupId).name("Trip").owner(alice).build();
+
+        lenient().when(groupRepository.existsById(groupId)).thenReturn(true);
+        lenient().when(groupRepository.getReferenceById(groupId)).thenReturn(testGroup);
+        lenient().when(groupMemberRepository.findByGroupId(groupId)).thenReturn(List.of(
+                GroupMember.builder().group(testGroup).user(alice).build(),
+                GroupMember.builder().group(testGroup).user(bob).build()));
+    }
+
+    // ==================== importExpenses Tests ====================
+
+    @Test
+    @DisplayName("importExpenses - Should insert every expense and split in one batch each")
+    void importExpenses_ValidRows_ShouldBatchInsert() {
+        // Arrange
+        List<ExpenseBatchItem> items = List.of(
+                item("Dinner", "60.00", alice, split(alice, "30.00"), split(bob, "30.00")),
+                item("Taxi", "20.00", bob, split(alice, "20.00")));
+
+        // Act
+        ExpenseBatchResponse response = expenseImportService.importExpenses(alice.getId(), groupId, items);
+
+        // Assert
+        verify(expenseJdbcRepository).insertExpenses(expensesCaptor.capture());
+        verify(expenseJdbcRepository).insertSplits(splitsCaptor.capture());
+        verify(groupRepository).lockLedgerShared(groupId);
+        verify(groupRepository).adjustUnsettledExpenseCount(groupId, 2);
+        List<Expense> expenses = expensesCaptor.getValue();
+
+        assertThat(expenses).extracting(Expense::getDescription).containsExactly("Dinner", "Taxi");
+        assertThat(expenses).allSatisfy(expense -> {
+            assertThat(expense.getId()).isNotNull();
+            assertThat(expense.getExpenseDate()).isEqualTo(LocalDate.now());
+        });
+        assertThat(splitsCaptor.getValue()).hasSize(3)
+                .allSatisfy(split -> assertThat(expenses).contains(split.getExpense()));
+        assertThat(response.getImportedCount()).isEqualTo(2);
+        assertThat(response.getExpenseIds()).containsExactlyElementsOf(
+                expenses.stream().map(Expense::getId).toList());
+
+        // One membership query for the whole batch, one ledger update
+        verify(groupMemberRepository, times(1)).findByGroupId(groupId);
+        verify(groupMemberRepository, never()).existsByGroupIdAndUserId(any(), any());
+        verify(groupBalanceService).applyExpenses(eq(groupId), splitsByExpenseCaptor.capture());
+        assertThat(splitsByExpenseCaptor.getValue()).hasSize(2);
+        verify(settlementPreviewCache).evictAfterCommit(groupId);
+    }
+
+    @Test
+    @DisplayName("importExpenses - Should report every invalid row and import nothing")
+    void importExpenses_InvalidRows_ShouldReportAllAndImportNothing() {
+        // Arrange
+        User outsider = createUser("Mallory");
+        List<ExpenseBatchItem> items = List.of(
+                item("Dinner", "60.00", alice, split(alice, "30.00"), split(bob, "30.00")),
+                item("Hotel", "100.00", alice, split(bob, "90.00")),
+                item("Taxi", "20.00", outsider, split(alice, "20.00")),
+                item("", "-5.00", alice, split(alice, "5.00")));
+
+        // Act & Assert
+        assertThatThrownBy(() -> expenseImportService.importExpenses(alice.getId(), groupId, items))
+                .isInstanceOf(ExpenseBatchValidationException.class)
+                .hasMessage("3 of 4 rows are invalid, no expenses were imported")
+                .satisfies(ex -> {
+                    Map<String, String> errors = ((ExpenseBatchValidationException) ex).getRowErrors();
+                    assertThat(errors).containsOnlyKeys("row 2", "row 3", "row 4");
+                    assertThat(errors.get("row 2")).startsWith("Split amounts (90.00) must equal total amount");
+                    assertThat(errors.get("row 3")).isEqualTo("Payer must be a current group member");
+                    assertThat(errors.get("row 4"))
+                            .contains("description: Description is required")
+                            .contains("totalAmount: Total amount must be positive");
+                });
+
+        verifyNoInteractions(expenseJdbcRepository, groupBalanceService, settlementPreviewCache);
+    }
+
+    @Test
+    @DisplayName("importExpenses - Should reject a row that splits to the same member twice")
+    void importExpenses_DuplicateSplitUser_ShouldReportRow() {
+        // Arrange
+        List<ExpenseBatchItem> items = List.of(
+                item("Dinner", "60.00", alice, split(alice, "30.00"), split(bob, "30.00")),
+                item("Taxi", "20.00", bob, split(alice, "10.00"), split(alice, "10.00")));
+
+        // Act & Assert
+        assertThatThrownBy(() -> expenseImportService.importExpenses(alice.getId(), groupId, items))
+                .isInstanceOf(ExpenseBatchValidationException.class)
+                .satisfies(ex -> assertThat(((ExpenseBatchValidationException) ex).getRowErrors())
+                        .containsExactly(
+                                Map.entry("row 2", "Each expense participant can only appear once in the splits")));
+
+        verifyNoInteractions(expenseJdbcRepository, groupBalanceService, settlementPreviewCache);
+    }
+
+    @Test
+    @DisplayName("importExpenses - Should throw exception when requester is not a group member")
+    void importExpenses_RequesterNotMember_ShouldThrowException() {
+        // Arrange
+        List<ExpenseBatchItem> items = List.of(item("Dinner", "10.00", alice, split(alice, "10.00")));
+
+        // Act & Assert
+        assertThatThrownBy(() -> expenseImportService.importExpenses(UUID.randomUUID(), groupId, items))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Only group members can add expenses for the group");
+
+        verifyNoInteractions(expenseJdbcRepository);
+    }
+
+    @Test
+    @DisplayName("importExpenses - Should reject batches over the size limit")
+    void importExpenses_TooManyRows_ShouldThrowException() {
+        // Arrange
+        List<ExpenseBatchItem> items = Collections.nCopies(ExpenseImportService.MAX_BATCH_SIZE + 1,
+                item("Dinner", "10.00", alice, split(alice, "10.00")));
+
+        // Act & Assert
+        assertThatThrownBy(() -> expenseImportService.importExpenses(alice.getId(), groupId, items))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("At most 500 expenses can be imported at once");
+    }
+
+    // ==================== importExpensesCsv Tests ====================
+
+    @Test
+    @DisplayName("importExpensesCsv - Should resolve members by email and import every row")
+    void importExpensesCsv_ValidCsv_ShouldImport() {
+        // Arrange
+        String csv = "expense_date,description,category,currency,total_amount,paid_by,splits\r\n" +
+                "2026-01-05,\"Dinner, seafood\",food,SGD,60.00,ALICE@example.com," +
+                "alice@example.com:30.00;bob@example.com:30.00\r\n" +
+                ",Taxi,transport,SGD,20,bob@example.com,alice@example.com:20\r\n";
+
+        // Act
+        ExpenseBatchResponse response = expenseImportService.importExpensesCsv(alice.getId(), groupId, csv);
+
+        // Assert
+        verify(expenseJdbcRepository).insertExpenses(expensesCaptor.capture());
+        List<Expense> expenses = expensesCaptor.getValue();
+
+        assertThat(response.getImportedCount()).isEqualTo(2);
+        assertThat(expenses.get(0).getDescription()).isEqualTo("Dinner, seafood");
+        assertThat(expenses.get(0).getExpenseDate()).isEqualTo(LocalDate.of(2026, 1, 5));
+        assertThat(expenses.get(0).getPaidBy()).isSameAs(alice);
+        assertThat(expenses.get(1).getPaidBy()).isSameAs(bob);
+        assertThat(expenses.get(1).getExpenseDate()).isEqualTo(LocalDate.now());
+    }
+
+    @Test
+    @DisplayName("importExpensesCsv - Should read a header that starts with a byte order mark")
+    void importExpensesCsv_ByteOrderMark_ShouldImport() {
+        // Arrange
+        String csv = "\uFEFFdescription,category,currency,total_amount,paid_by,splits\r\n" +
+                "Dinner,food,SGD,10.00,alice@example.com,bob@example.com:10.00\r\n";
+
+        // Act
+        ExpenseBatchResponse response = expenseImportService.importExpensesCsv(alice.getId(), groupId, csv);
+
+        // Assert
+        verify(expenseJdbcRepository).insertExpenses(expensesCaptor.capture());
+        assertThat(response.getImportedCount()).isEqualTo(1);
+        assertThat(expensesCaptor.getValue().get(0).getDescription()).isEqualTo("Dinner");
+    }
+
+    @Test
+    @DisplayName("importExpensesCsv - Should report a row that lists the same member twice in its splits")
+    void importExpensesCsv_DuplicateSplitUser_ShouldReportRow() {
+        // Arrange
+        String csv = "description,category,currency,total_amount,paid_by,splits\n" +
+                "Dinner,food,SGD,20.00,alice@example.com,bob@example.com:10.00;BOB@example.com:10.00\n";
+
+        // Act & Assert
+        assertThatThrownBy(() -> expenseImportService.importExpensesCsv(alice.getId(), groupId, csv))
+                .isInstanceOf(ExpenseBatchValidationException.class)
+                .satisfies(ex -> assertThat(((ExpenseBatchValidationException) ex).getRowErrors())
+                        .containsExactly(
+                                Map.entry("row 1", "Each expense participant can only appear once in the splits")));
+
+        verifyNoInteractions(expenseJdbcRepository);
+    }
+
+    @Test
+    @DisplayName("importExpensesCsv - Should report parse and validation errors together in row order")
+    void importExpensesCsv_InvalidRows_ShouldReportInRowOrder() {
+        // Arrange
+        String csv = "description,category,currency,total_amount,paid_by,splits\n" +
+                "Dinner,food,SGD,60.00,alice@example.com,alice@example.com:50.00\n" +
+                "Taxi,transport,SGD,abc,alice@example.com,alice@example.com:20\n" +
+                "Hotel,stay,SGD,20,nobody@example.com,alice@example.com:20\n";
+
+        // Act & Assert
+        assertThatThrownBy(() -> expenseImportService.importExpensesCsv(alice.getId(), groupId, csv))
+                .isInstanceOf(ExpenseBatchValidationException.class)
+                .satisfies(ex -> assertThat(((ExpenseBatchValidationException) ex).getRowErrors())
+                        .containsExactly(
+                                Map.entry("row 1", "Split amounts (50.00) must equal total amount (60.00)"),
+                                Map.entry("row 2", "total_amount: 'abc' is not a valid amount"),
+                                Map.entry("row 3", "No group member with email nobody@example.com")));
+
+        verifyNoInteractions(expenseJdbcRepository);
+    }
+
+    @Test
+    @DisplayName("importExpensesCsv - Should throw exception when a required column is missing")
+    void importExpensesCsv_MissingColumn_ShouldThrowException() {
+        // Arrange
+        String csv = "description,category,currency,total_amount,paid_by\nDinner,food,SGD,10,alice@example.com\n";
+
+        // Act & Assert
+        assertThatThrownBy(() -> expenseImportService.importExpensesCsv(alice.getId(), groupId, csv))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("CSV is missing column: splits");
+    }
+
+    // ==================== Helper Methods ====================
+
+    private User createUser(String name) {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setName(name);
+        user.setEmail(name.toLowerCase() + "@example.com");
+        return user;
+    }
+
+    private ExpenseSplitDto split(User user, String amount) {
+        return new ExpenseSplitDto(user.getId(), new BigDecimal(amount));
+    }
+
+    private ExpenseBatchItem item(String description, String total, User paidBy, ExpenseSplitDto... splits) {
+        return ExpenseBatchItem.builder()
+                .description(description)
+                .totalAmount(new BigDecimal(total))
+                .currency("SGD")
+                .paidByUserId(paidBy.getId())
+                .category("food")
+                .splits(List.of(splits))
+                .build();
+    }
+}
@@ -3,6 +3,7 @@ package com.jlgs.howmuchah.service;
 import com.jlgs.howmuchah.dto.request.ExpenseCreationRequest;
 import com.jlgs.howmuchah.dto.request.ExpenseSplitDto;
 import com.jlgs.howmuchah.dto.request.ExpenseUpdateRequest;
+import com.jlgs.howmuchah.dto.response.CursorPage;
 import com.jlgs.howmuchah.dto.response.ExpenseDetailResponse;
 import com.jlgs.howmuchah.dto.response.ExpenseResponse;
 import com.jlgs.howmuchah.entity.*;
@@ -10,18 +11,24 @@ import com.jlgs.howmuchah.repository.ExpenseRepository;
 import com.jlgs.howmuchah.repository.ExpenseSplitRepository;
 import com.jlgs.howmuchah.repository.GroupMemberRepository;
 import com.jlgs.howmuchah.repository.GroupRepository;
-import com.jlgs.howmuchah.repository.UserRepository;
+import com.jlgs.howmuchah.settlement.SettlementPreviewCache;
+import com.jlgs.howmuchah.util.CursorCodec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -33,6 +40,7 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -52,7 +60,13 @@ class ExpenseServiceTest {
     private GroupMemberRepository groupMemberRepository;
 
     @Mock
-    private UserRepository userRepository;
+    private GroupMembershipCache groupMembershipCache;
+
+    @Mock
+    private GroupBalanceService groupBalanceService;
+
+    @Mock
+    private SettlementPreviewCache settlementPreviewCache;
 
     @InjectMocks
     private ExpenseService expenseService;
@@ -134,13 +148,10 @@ class ExpenseServiceTest {
         );
 
         when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, userId1)).thenReturn(true);
         when(groupMemberRepository.findByGroupId(groupId)).thenReturn(Arrays.asList(
                 createGroupMember(user1),
                 createGroupMember(user2)
         ));
-        when(userRepository.findById(userId1)).thenReturn(Optional.of(user1));
-        when(userRepository.findById(userId2)).thenReturn(Optional.of(user2));
         when(expenseRepository.save(any(Expense.class))).thenReturn(testExpense);
         when(expenseSplitRepository.saveAll(any())).thenReturn(Arrays.asList(
                 createExpenseSplit(user1, new BigDecimal("50.00")),
@@ -156,9 +167,13 @@ class ExpenseServiceTest {
         assertThat(result.getTotalAmount()).isEqualByComparingTo("100.00");
 
         verify(groupRepository, times(1)).findById(groupId);
-        verify(groupMemberRepository, times(2)).existsByGroupIdAndUserId(groupId, userId1);
+        verify(groupMemberRepository, times(1)).findByGroupId(groupId);
+        verify(groupMembershipCache, never()).isMember(any(), any());
+        verify(groupRepository, times(1)).lockLedgerShared(groupId);
         verify(expenseRepository, times(1)).save(any(Expense.class));
         verify(expenseSplitRepository, times(1)).saveAll(any());
+        verify(groupBalanceService, times(1)).applyExpense(eq(testExpense), any());
+        verify(settlementPreviewCache, times(1)).evictAfterCommit(groupId);
     }
 
     @Test
@@ -182,7 +197,9 @@ class ExpenseServiceTest {
         );
 
         when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, maliciousUserId)).thenReturn(false);
+        when(groupMemberRepository.findByGroupId(groupId)).thenReturn(List.of(
+                createGroupMember(user1)
+        ));
 
         // Act & Assert
         assertThatThrownBy(() -> expenseService.createExpense(maliciousUserId, request))
@@ -190,7 +207,7 @@ class ExpenseServiceTest {
                 .hasMessage("Only group members can add expenses for the group");
 
         verify(groupRepository, times(1)).findById(groupId);
-        verify(groupMemberRepository, times(1)).existsByGroupIdAndUserId(groupId, maliciousUserId);
+        verify(groupMemberRepository, times(1)).findByGroupId(groupId);
         verify(expenseRepository, never()).save(any());
     }
 
@@ -215,8 +232,9 @@ class ExpenseServiceTest {
         );
 
         when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, userId1)).thenReturn(true);
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, nonMemberPayerId)).thenReturn(false);
+        when(groupMemberRepository.findByGroupId(groupId)).thenReturn(List.of(
+                createGroupMember(user1)
+        ));
 
         // Act & Assert
         assertThatThrownBy(() -> expenseService.createExpense(userId1, request))
@@ -248,7 +266,6 @@ class ExpenseServiceTest {
         );
 
         when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, userId1)).thenReturn(true);
         when(groupMemberRepository.findByGroupId(groupId)).thenReturn(List.of(
                 createGroupMember(user1)
         ));
@@ -282,7 +299,6 @@ class ExpenseServiceTest {
         );
 
         when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, userId1)).thenReturn(true);
         when(groupMemberRepository.findByGroupId(groupId)).thenReturn(Arrays.asList(
                 createGroupMember(user1),
                 createGroupMember(user2)
@@ -313,7 +329,6 @@ class ExpenseServiceTest {
         );
 
         when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, userId1)).thenReturn(true);
         when(groupMemberRepository.findByGroupId(groupId)).thenReturn(List.of(
                 createGroupMember(user1)
         ));
@@ -358,11 +373,9 @@ class ExpenseServiceTest {
     void getExpensesByGroup_WhenUserIsGroupMember_ShouldReturnExpenses() {
         // Arrange
         Pageable pageable = PageRequest.of(0, 20);
-        Page<Expense> expensePage = new PageImpl<>(List.of(testExpense));
+        Page<ExpenseResponse> expensePage = new PageImpl<>(List.of(ExpenseResponse.from(testExpense)));
 
-        when(groupRepository.existsById(groupId)).thenReturn(true);
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, userId1)).thenReturn(true);
-        when(expenseRepository.findByGroupId(groupId, pageable)).thenReturn(expensePage);
+        when(expenseRepository.findResponsesByGroupId(groupId, pageable)).thenReturn(expensePage);
 
         // Act
         Page<ExpenseResponse> result = expenseService.getExpensesByGroup(userId1, groupId, pageable);
@@ -371,45 +384,76 @@ class ExpenseServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getContent()).hasSize(1);
 
-        verify(groupRepository, times(1)).existsById(groupId);
-        verify(groupMemberRepository, times(1)).existsByGroupIdAndUserId(groupId, userId1);
-        verify(expenseRepository, times(1)).findByGroupId(groupId, pageable);
+        verify(expenseRepository, times(1)).findResponsesByGroupId(groupId, pageable);
+        verify(expenseRepository, never()).findAll(any(Pageable.class));
     }
 
+    // ==================== getExpensesByGroupPage Tests ====================
+
     @Test
-    @DisplayName("getExpensesByGroup - Should throw exception when user not part of group")
-    void getExpensesByGroup_WhenUserNotPartOfGroup_ShouldThrowException() {
+    @DisplayName("getExpensesByGroupPage - Should return a cursor to the next page without a count query")
+    void getExpensesByGroupPage_WhenMoreRows_ShouldReturnNextCursor() {
         // Arrange
-        UUID maliciousUserId = UUID.randomUUID();
-        Pageable pageable = PageRequest.of(0, 20);
+        ExpenseResponse newer = expenseOn(LocalDate.of(2026, 3, 2));
+        ExpenseResponse older = expenseOn(LocalDate.of(2026, 3, 1));
+        ExpenseResponse oldest = expenseOn(LocalDate.of(2026, 2, 28));
 
-        when(groupRepository.existsById(groupId)).thenReturn(true);
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, maliciousUserId)).thenReturn(false);
+        when(expenseRepository.findPageByGroupId(groupId, Limit.of(3))).thenReturn(List.of(newer, older, oldest));
 
-        // Act & Assert
-        assertThatThrownBy(() -> expenseService.getExpensesByGroup(maliciousUserId, groupId, pageable))
-                .isInstanceOf(IllegalArgumentException.class)
-                .hasMessage("Only group members can access expenses for the group");
+        // Act
+        CursorPage<ExpenseResponse> page = expenseService.getExpensesByGroupPage(userId1, groupId, null, 2);
 
-        verify(groupRepository, times(1)).existsById(groupId);
-        verify(groupMemberRepository, times(1)).existsByGroupIdAndUserId(groupId, maliciousUserId);
-        verify(expenseRepository, never()).findByGroupId(any(), any());
+        // Assert
+        assertThat(page.getItems()).extracting(ExpenseResponse::getId).containsExactly(newer.getId(), older.getId());
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(CursorCodec.decode(page.getNextCursor()))
+                .isEqualTo(new CursorCodec.Cursor("2026-03-01", older.getId()));
+        verify(expenseRepository, never()).findResponsesByGroupId(any(), any());
+        verify(expenseRepository, never()).count();
     }
 
     @Test
-    @DisplayName("getExpensesByGroup - Should throw exception when group not found")
-    void getExpensesByGroup_WhenGroupNotFound_ShouldThrowException() {
+    @DisplayName("getExpensesByGroupPage - Should continue after the cursor position and end without a cursor")
+    void getExpensesByGroupPage_WithCursor_ShouldReadAfterPosition() {
         // Arrange
-        Pageable pageable = PageRequest.of(0, 20);
-        when(groupRepository.existsById(groupId)).thenReturn(false);
+        ExpenseResponse last = expenseOn(LocalDate.of(2026, 2, 28));
+        UUID cursorId = UUID.randomUUID();
+        String cursor = CursorCodec.encode("2026-03-01", cursorId);
+
+        when(expenseRepository.findPageByGroupIdBefore(groupId, LocalDate.of(2026, 3, 1), cursorId, Limit.of(3)))
+                .thenReturn(List.of(last));
+
+        // Act
+        CursorPage<ExpenseResponse> page = expenseService.getExpensesByGroupPage(userId1, groupId, cursor, 2);
+
+        // Assert
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("getExpensesByGroupPage - Should throw exception when cursor is not a date position")
+    void getExpensesByGroupPage_WhenCursorInvalid_ShouldThrowException() {
+        // Arrange
+        String cursor = CursorCodec.encode("yesterday", UUID.randomUUID());
 
         // Act & Assert
-        assertThatThrownBy(() -> expenseService.getExpensesByGroup(userId1, groupId, pageable))
-                .isInstanceOf(RuntimeException.class)
-                .hasMessage("Group not found");
+        assertThatThrownBy(() -> expenseService.getExpensesByGroupPage(userId1, groupId, cursor, 20))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 101})
+    @DisplayName("getExpensesByGroupPage - Should reject page sizes out of range")
+    void getExpensesByGroupPage_WhenSizeOutOfRange_ShouldThrowException(int size) {
+        // Act & Assert
+        assertThatThrownBy(() -> expenseService.getExpensesByGroupPage(userId1, groupId, null, size))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Page size must be between 1 and 100");
 
-        verify(groupRepository, times(1)).existsById(groupId);
-        verify(expenseRepository, never()).findByGroupId(any(), any());
+        verifyNoInteractions(expenseRepository);
     }
 
     // ==================== getExpenseDetail Tests ====================
@@ -424,7 +468,7 @@ class ExpenseServiceTest {
         );
 
         when(expenseRepository.findById(expenseId)).thenReturn(Optional.of(testExpense));
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, userId1)).thenReturn(true);
+        when(groupMembershipCache.isMember(groupId, userId1)).thenReturn(true);
         when(expenseSplitRepository.findByExpenseId(expenseId)).thenReturn(splits);
 
         // Act
@@ -435,7 +479,7 @@ class ExpenseServiceTest {
         assertThat(result.getSplits()).hasSize(2);
 
         verify(expenseRepository, times(1)).findById(expenseId);
-        verify(groupMemberRepository, times(1)).existsByGroupIdAndUserId(groupId, userId1);
+        verify(groupMembershipCache, times(1)).isMember(groupId, userId1);
         verify(expenseSplitRepository, times(1)).findByExpenseId(expenseId);
     }
 
@@ -446,7 +490,7 @@ class ExpenseServiceTest {
         UUID maliciousUserId = UUID.randomUUID();
 
         when(expenseRepository.findById(expenseId)).thenReturn(Optional.of(testExpense));
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, maliciousUserId)).thenReturn(false);
+        when(groupMembershipCache.isMember(groupId, maliciousUserId)).thenReturn(false);
 
         // Act & Assert
         assertThatThrownBy(() -> expenseService.getExpenseDetail(maliciousUserId, expenseId))
@@ -454,7 +498,7 @@ class ExpenseServiceTest {
                 .hasMessage("Only group members can access information for this expense");
 
         verify(expenseRepository, times(1)).findById(expenseId);
-        verify(groupMemberRepository, times(1)).existsByGroupIdAndUserId(groupId, maliciousUserId);
+        verify(groupMembershipCache, times(1)).isMember(groupId, maliciousUserId);
         verify(expenseSplitRepository, never()).findByExpenseId(any());
     }
 
@@ -479,47 +523,30 @@ class ExpenseServiceTest {
     @DisplayName("getUnsettledExpensesCount - Should return count when user is group member")
     void getUnsettledExpensesCount_WhenUserIsGroupMember_ShouldReturnCount() {
         // Arrange
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, userId1)).thenReturn(true);
-        when(expenseRepository.countByGroupIdAndIsSettled(groupId, false)).thenReturn(5L);
+        when(groupRepository.findUnsettledExpenseCountById(groupId)).thenReturn(Optional.of(5));
 
         // Act
         Long count = expenseService.getUnsettledExpensesCount(userId1, groupId);
 
         // Assert
         assertThat(count).isEqualTo(5);
-        verify(groupMemberRepository, times(1)).existsByGroupIdAndUserId(groupId, userId1);
-        verify(expenseRepository, times(1)).countByGroupIdAndIsSettled(groupId, false);
+        verify(groupRepository, times(1)).findUnsettledExpenseCountById(groupId);
+        verifyNoInteractions(expenseRepository);
     }
 
     @Test
     @DisplayName("getUnsettledExpensesCount - Should return zero when no unsettled expenses")
     void getUnsettledExpensesCount_WhenNoUnsettledExpenses_ShouldReturnZero() {
         // Arrange
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, userId1)).thenReturn(true);
-        when(expenseRepository.countByGroupIdAndIsSettled(groupId, false)).thenReturn(0L);
+        when(groupRepository.findUnsettledExpenseCountById(groupId)).thenReturn(Optional.of(0));
 
         // Act
         Long count = expenseService.getUnsettledExpensesCount(userId1, groupId);
 
         // Assert
         assertThat(count).isEqualTo(0);
-        verify(groupMemberRepository, times(1)).existsByGroupIdAndUserId(groupId, userId1);
-        verify(expenseRepository, times(1)).countByGroupIdAndIsSettled(groupId, false);
-    }
-
-    @Test
-    @DisplayName("getUnsettledExpensesCount - Should throw exception when user not group member")
-    void getUnsettledExpensesCount_WhenUserNotGroupMember_ShouldThrowException() {
-        // Arrange
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, userId1)).thenReturn(false);
-
-        // Act & Assert
-        assertThatThrownBy(() -> expenseService.getUnsettledExpensesCount(userId1, groupId))
-                .isInstanceOf(IllegalArgumentException.class)
-                .hasMessage("Only group members can access this information");
-
-        verify(groupMemberRepository, times(1)).existsByGroupIdAndUserId(groupId, userId1);
-        verify(expenseRepository, never()).countByGroupIdAndIsSettled(any(), anyBoolean());
+        verify(groupRepository, times(1)).findUnsettledExpenseCountById(groupId);
+        verifyNoInteractions(expenseRepository);
     }
 
     // ==================== deleteExpense Tests ====================
@@ -528,16 +555,23 @@ class ExpenseServiceTest {
     @DisplayName("deleteExpense - Should delete expense when user is group member")
     void deleteExpense_WhenUserIsGroupMember_ShouldDeleteExpense() {
         // Arrange
+        List<ExpenseSplit> splits = List.of(createExpenseSplit(user2, new BigDecimal("100.00")));
+
         when(expenseRepository.findById(expenseId)).thenReturn(Optional.of(testExpense));
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, userId1)).thenReturn(true);
+        when(groupMembershipCache.isMember(groupId, userId1)).thenReturn(true);
+        when(expenseSplitRepository.findByExpenseId(expenseId)).thenReturn(splits);
 
         // Act
         expenseService.deleteExpense(userId1, expenseId);
 
         // Assert
         verify(expenseRepository, times(1)).findById(expenseId);
-        verify(groupMemberRepository, times(1)).existsByGroupIdAndUserId(groupId, userId1);
+        verify(groupMembershipCache, times(1)).isMember(groupId, userId1);
+        verify(groupRepository, times(1)).lockLedgerShared(groupId);
+        verify(groupBalanceService, times(1)).revertExpense(testExpense, splits);
+        verify(settlementPreviewCache, times(1)).evictAfterCommit(groupId);
         verify(expenseRepository, times(1)).delete(testExpense);
+        verify(groupRepository, times(1)).adjustUnsettledExpenseCount(groupId, -1);
     }
 
     @Test
@@ -547,7 +581,7 @@ class ExpenseServiceTest {
         UUID maliciousUserId = UUID.randomUUID();
 
         when(expenseRepository.findById(expenseId)).thenReturn(Optional.of(testExpense));
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, maliciousUserId)).thenReturn(false);
+        when(groupMembershipCache.isMember(groupId, maliciousUserId)).thenReturn(false);
 
         // Act & Assert
         assertThatThrownBy(() -> expenseService.deleteExpense(maliciousUserId, expenseId))
@@ -555,8 +589,9 @@ class ExpenseServiceTest {
                 .hasMessage("Only group members can delete this expense");
 
         verify(expenseRepository, times(1)).findById(expenseId);
-        verify(groupMemberRepository, times(1)).existsByGroupIdAndUserId(groupId, maliciousUserId);
+        verify(groupMembershipCache, times(1)).isMember(groupId, maliciousUserId);
         verify(expenseRepository, never()).delete(any());
+        verify(groupRepository, never()).adjustUnsettledExpenseCount(any(), anyInt());
     }
 
     @Test
@@ -566,7 +601,7 @@ class ExpenseServiceTest {
         testExpense.setSettled(true);
 
         when(expenseRepository.findById(expenseId)).thenReturn(Optional.of(testExpense));
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, userId1)).thenReturn(true);
+        when(groupMembershipCache.isMember(groupId, userId1)).thenReturn(true);
 
         // Act & Assert
         assertThatThrownBy(() -> expenseService.deleteExpense(userId1, expenseId))
@@ -574,7 +609,9 @@ class ExpenseServiceTest {
                 .hasMessage("Cannot delete settled expense.");
 
         verify(expenseRepository, times(1)).findById(expenseId);
+        verify(groupBalanceService, never()).revertExpense(any(), any());
         verify(expenseRepository, never()).delete(any());
+        verify(groupRepository, never()).adjustUnsettledExpenseCount(any(), anyInt());
     }
 
     @Test
@@ -590,6 +627,154 @@ class ExpenseServiceTest {
 
         verify(expenseRepository, times(1)).findById(expenseId);
         verify(expenseRepository, never()).delete(any());
+        verify(groupRepository, never()).adjustUnsettledExpenseCount(any(), anyInt());
+    }
+
+    // ==================== updateExpense Tests ====================
+
+    @Test
+    @DisplayName("updateExpense - Should only write the splits that changed")
+    @SuppressWarnings("unchecked")
+    void updateExpense_WhenSplitsChanged_ShouldApplyMinimalDiff() {
+        // Arrange
+        ExpenseSplit unchanged = createExpenseSplit(user1, new BigDecimal("50.00"));
+        ExpenseSplit changed = createExpenseSplit(user2, new BigDecimal("50.00"));
+        ExpenseSplit removed = createExpenseSplit(user3, new BigDecimal("0.00"));
+        User user4 = new User();
+        user4.setId(UUID.randomUUID());
+
+        ExpenseUpdateRequest request = updateRequest(new BigDecimal("100.00"), List.of(
+                new ExpenseSplitDto(userId1, new BigDecimal("50.0")),
+                new ExpenseSplitDto(userId2, new BigDecimal("30.00")),
+                new ExpenseSplitDto(user4.getId(), new BigDecimal("20.00"))));
+
+        when(expenseRepository.findById(expenseId)).thenReturn(Optional.of(testExpense));
+        when(groupMemberRepository.findByGroupId(groupId)).thenReturn(List.of(
+                createGroupMember(user1), createGroupMember(user2), createGroupMember(user3), createGroupMember(user4)));
+        when(expenseSplitRepository.findByExpenseId(expenseId)).thenReturn(List.of(unchanged, changed, removed));
+        when(expenseSplitRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(expenseRepository.saveAndFlush(testExpense)).thenReturn(testExpense);
+
+        // Act
+        ExpenseDetailResponse response = expenseService.updateExpense(userId1, expenseId, request);
+
+        // Assert
+        assertThat(unchanged.getAmountOwed()).isEqualByComparingTo("50.00");
+        assertThat(changed.getAmountOwed()).isEqualByComparingTo("30.00");
+
+        ArgumentCaptor<List<ExpenseSplit>> insertedCaptor = ArgumentCaptor.forClass(List.class);
+        verify(expenseSplitRepository, times(1)).saveAll(insertedCaptor.capture());
+        assertThat(insertedCaptor.getValue()).singleElement()
+                .satisfies(split -> assertThat(split.getUser()).isSameAs(user4));
+        verify(expenseSplitRepository, times(1)).deleteAllInBatch(List.of(removed));
+        verify(expenseSplitRepository, never()).deleteByExpenseId(any());
+
+        assertThat(testExpense.getDescription()).isEqualTo("Updated Dinner");
+        assertThat(testExpense.getUpdatedAt()).isNotNull();
+        assertThat(response.getSplits()).hasSize(3);
+        verify(groupRepository, times(1)).lockLedgerShared(groupId);
+        verify(groupBalanceService, times(1)).replaceExpense(eq("SGD"), anyMap(), eq(testExpense), anyList());
+        verify(settlementPreviewCache, times(1)).evictAfterCommit(groupId);
+    }
+
+    @Test
+    @DisplayName("updateExpense - Should not write any split when only the expense changed")
+    void updateExpense_WhenSplitsUnchanged_ShouldNotWriteSplits() {
+        // Arrange
+        ExpenseSplit split = createExpenseSplit(user2, new BigDecimal("100.00"));
+        ExpenseUpdateRequest request = updateRequest(new BigDecimal("100.00"),
+                List.of(new ExpenseSplitDto(userId2, new BigDecimal("100.00"))));
+
+        when(expenseRepository.findById(expenseId)).thenReturn(Optional.of(testExpense));
+        when(groupMemberRepository.findByGroupId(groupId)).thenReturn(List.of(
+                createGroupMember(user1), createGroupMember(user2)));
+        when(expenseSplitRepository.findByExpenseId(expenseId)).thenReturn(List.of(split));
+        when(expenseRepository.saveAndFlush(testExpense)).thenReturn(testExpense);
+
+        // Act
+        expenseService.updateExpense(userId1, expenseId, request);
+
+        // Assert
+        verify(expenseSplitRepository, never()).saveAll(anyList());
+        verify(expenseSplitRepository, never()).deleteAllInBatch(any());
+        verify(expenseRepository, times(1)).saveAndFlush(testExpense);
+    }
+
+    @Test
+    @DisplayName("updateExpense - Should reject edits on a stale version")
+    void updateExpense_WhenVersionStale_ShouldThrowConflict() {
+        // Arrange
+        testExpense.setVersion(3);
+        ExpenseUpdateRequest request = updateRequest(new BigDecimal("100.00"),
+                List.of(new ExpenseSplitDto(userId2, new BigDecimal("100.00"))));
+        request.setVersion(2L);
+
+        when(expenseRepository.findById(expenseId)).thenReturn(Optional.of(testExpense));
+        when(groupMemberRepository.findByGroupId(groupId)).thenReturn(List.of(
+                createGroupMember(user1), createGroupMember(user2)));
+
+        // Act & Assert
+        assertThatThrownBy(() -> expenseService.updateExpense(userId1, expenseId, request))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        verify(expenseRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(expenseSplitRepository, groupBalanceService);
+    }
+
+    @Test
+    @DisplayName("updateExpense - Should throw exception when expense is settled")
+    void updateExpense_WhenExpenseSettled_ShouldThrowException() {
+        // Arrange
+        testExpense.setSettled(true);
+        ExpenseUpdateRequest request = updateRequest(new BigDecimal("100.00"),
+                List.of(new ExpenseSplitDto(userId2, new BigDecimal("100.00"))));
+
+        when(expenseRepository.findById(expenseId)).thenReturn(Optional.of(testExpense));
+        when(groupMemberRepository.findByGroupId(groupId)).thenReturn(List.of(createGroupMember(user1)));
+
+        // Act & Assert
+        assertThatThrownBy(() -> expenseService.updateExpense(userId1, expenseId, request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Cannot edit settled expense.");
+
+        verify(expenseRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(groupBalanceService);
+    }
+
+    @Test
+    @DisplayName("updateExpense - Should throw exception when user not part of group")
+    void updateExpense_WhenUserNotPartOfGroup_ShouldThrowException() {
+        // Arrange
+        ExpenseUpdateRequest request = updateRequest(new BigDecimal("100.00"),
+                List.of(new ExpenseSplitDto(userId2, new BigDecimal("100.00"))));
+
+        when(expenseRepository.findById(expenseId)).thenReturn(Optional.of(testExpense));
+        when(groupMemberRepository.findByGroupId(groupId)).thenReturn(List.of(createGroupMember(user1)));
+
+        // Act & Assert
+        assertThatThrownBy(() -> expenseService.updateExpense(UUID.randomUUID(), expenseId, request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Only group members can edit this expense");
+
+        verify(expenseRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("updateExpense - Should throw exception when a participant appears twice")
+    void updateExpense_WhenDuplicateParticipant_ShouldThrowException() {
+        // Arrange
+        ExpenseUpdateRequest request = updateRequest(new BigDecimal("100.00"), List.of(
+                new ExpenseSplitDto(userId2, new BigDecimal("50.00")),
+                new ExpenseSplitDto(userId2, new BigDecimal("50.00"))));
+
+        when(expenseRepository.findById(expenseId)).thenReturn(Optional.of(testExpense));
+        when(groupMemberRepository.findByGroupId(groupId)).thenReturn(List.of(
+                createGroupMember(user1), createGroupMember(user2)));
+
+        // Act & Assert
+        assertThatThrownBy(() -> expenseService.updateExpense(userId1, expenseId, request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Each participant can only appear once in the splits");
     }
 
     // ==================== Helper Methods ====================
@@ -610,4 +795,22 @@ class ExpenseServiceTest {
                 .isSettled(false)
                 .build();
     }
-}
\ No newline at end of file
+
+    private ExpenseUpdateRequest updateRequest(BigDecimal totalAmount, List<ExpenseSplitDto> splits) {
+        return new ExpenseUpdateRequest("Updated Dinner", totalAmount, "SGD", userId1, "food",
+                LocalDate.now(), splits, null);
+    }
+
+    private ExpenseResponse expenseOn(LocalDate expenseDate) {
+        return ExpenseResponse.from(Expense.builder()
+                .id(UUID.randomUUID())
+                .group(testGroup)
+                .description("Expense on " + expenseDate)
+                .totalAmount(new BigDecimal("10.00"))
+                .currency("SGD")
+                .paidBy(user1)
+                .category("food")
+                .expenseDate(expenseDate)
+                .build());
+    }
+}
@@ -0,0 +1,407 @@
+package com.jlgs.howmuchah.service;
+
+import com.jlgs.howmuchah.dto.projection.UnsettledSplitRow;
+import com.jlgs.howmuchah.dto.projection.UserGroupBalanceRow;
+import com.jlgs.howmuchah.dto.response.GroupBalanceResponse;
+import com.jlgs.howmuchah.dto.response.UserBalancesResponse;
+import com.jlgs.howmuchah.entity.*;
+import com.jlgs.howmuchah.repository.ExpenseSplitRepository;
+import com.jlgs.howmuchah.repository.GroupBalanceJdbcRepository;
+import com.jlgs.howmuchah.repository.GroupBalanceRepository;
+import com.jlgs.howmuchah.settlement.BalanceSheet;
+import com.jlgs.howmuchah.settlement.SettlementSelection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GroupBalanceService Unit Tests")
+class GroupBalanceServiceTest {
+
+    @Mock
+    private GroupBalanceRepository groupBalanceRepository;
+
+    @Mock
+    private GroupBalanceJdbcRepository groupBalanceJdbcRepository;
+
+    @Mock
+    private ExpenseSplitRepository expenseSplitRepository;
+
+    @Captor
+    private ArgumentCaptor<Map<String, Map<UUID, BigDecimal>>> deltasCaptor;
+
+    @InjectMocks
+    private GroupBalanceService groupBalanceService;
+
+    private UUID groupId;
+    private User userA;
+    private User userB;
+    private User userC;
+    private Group testGroup;
+
+    @BeforeEach
+    void setUp() {
+        groupId = UUID.randomUUID();
+
+        userA = createUser("User A");
+        userB = createUser("User B");
+        userC = createUser("User C");
+
+        testGroup = Group.builder()
+                .id(groupId)
+                .name("Test Group")
+                .build();
+    }
+
+    // ==================== calculateDeltas Tests ====================
+
+    @Test
+    @DisplayName("calculateDeltas - Should credit payer and debit each participant")
+    void calculateDeltas_PayerNotInSplit_ShouldCreditPayer() {
+        // Arrange
+        Expense expense = createExpense(userA, "100.00");
+        List<ExpenseSplit> splits = List.of(
+                createSplit(expense, userB, "50.00"),
+                createSplit(expense, userC, "50.00")
+        );
+
+        // Act
+        Map<UUID, BigDecimal> deltas = GroupBalanceService.calculateDeltas(expense, splits);
+
+        // Assert
+        assertThat(deltas).hasSize(3);
+        assertThat(deltas.get(userA.getId())).isEqualByComparingTo("100.00");
+        assertThat(deltas.get(userB.getId())).isEqualByComparingTo("-50.00");
+        assertThat(deltas.get(userC.getId())).isEqualByComparingTo("-50.00");
+    }
+
+    @Test
+    @DisplayName("calculateDeltas - Should credit payer the sum of splits (Phantom Penny)")
+    void calculateDeltas_PhantomPenny_ShouldCreditSumOfSplits() {
+        // Arrange
+        Expense expense = createExpense(userA, "100.00");
+        List<ExpenseSplit> splits = List.of(
+                createSplit(expense, userA, "33.33"),
+                createSplit(expense, userB, "33.33"),
+                createSplit(expense, userC, "33.33")
+        );
+
+        // Act
+        Map<UUID, BigDecimal> deltas = GroupBalanceService.calculateDeltas(expense, splits);
+
+        // Assert
+        assertThat(deltas.get(userA.getId())).isEqualByComparingTo("66.66");
+        assertThat(deltas.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add))
+                .isEqualByComparingTo("0.00");
+    }
+
+    // ==================== applyExpense / revertExpense Tests ====================
+
+    @Test
+    @DisplayName("applyExpense - Should upsert one delta per affected member")
+    void applyExpense_ShouldUpsertDeltas() {
+        // Arrange
+        Expense expense = createExpense(userA, "100.00");
+        List<ExpenseSplit> splits = List.of(
+                createSplit(expense, userB, "60.00"),
+                createSplit(expense, userC, "40.00")
+        );
+
+        // Act
+        groupBalanceService.applyExpense(expense, splits);
+
+        // Assert
+        Map<String, Map<UUID, BigDecimal>> deltas = upsertedDeltas();
+        assertThat(deltas).containsOnlyKeys("SGD");
+        assertThat(deltas.get("SGD")).containsOnlyKeys(userA.getId(), userB.getId(), userC.getId());
+        assertThat(deltas.get("SGD").get(userA.getId())).isEqualByComparingTo("100.00");
+        assertThat(deltas.get("SGD").get(userB.getId())).isEqualByComparingTo("-60.00");
+        assertThat(deltas.get("SGD").get(userC.getId())).isEqualByComparingTo("-40.00");
+    }
+
+    @Test
+    @DisplayName("applyExpense - Should skip payer paying only for themselves")
+    void applyExpense_WhenPayerIsOnlyParticipant_ShouldNotTouchLedger() {
+        // Arrange
+        Expense expense = createExpense(userA, "25.00");
+        List<ExpenseSplit> splits = List.of(createSplit(expense, userA, "25.00"));
+
+        // Act
+        groupBalanceService.applyExpense(expense, splits);
+
+        // Assert
+        verifyNoInteractions(groupBalanceJdbcRepository);
+    }
+
+    @Test
+    @DisplayName("revertExpense - Should apply the negated deltas")
+    void revertExpense_ShouldNegateDeltas() {
+        // Arrange
+        Expense expense = createExpense(userA, "30.00");
+        List<ExpenseSplit> splits = List.of(createSplit(expense, userB, "30.00"));
+
+        // Act
+        groupBalanceService.revertExpense(expense, splits);
+
+        // Assert
+        Map<String, Map<UUID, BigDecimal>> deltas = upsertedDeltas();
+        assertThat(deltas).containsOnlyKeys("SGD");
+        assertThat(deltas.get("SGD")).containsOnlyKeys(userA.getId(), userB.getId());
+        assertThat(deltas.get("SGD").get(userA.getId())).isEqualByComparingTo("-30.00");
+        assertThat(deltas.get("SGD").get(userB.getId())).isEqualByComparingTo("30.00");
+    }
+
+    @Test
+    @DisplayName("applyExpenses - Should sum deltas across expenses into one row per member and currency")
+    void applyExpenses_ShouldUpsertOncePerMember() {
+        // Arrange
+        // A pays 30 for B, then B pays 10 for A, then A pays 20 for C - B nets to -20
+        Expense first = createExpense(userA, "30.00");
+        Expense second = createExpense(userB, "10.00");
+        Expense third = createExpense(userA, "20.00");
+        Map<Expense, List<ExpenseSplit>> splitsByExpense = new LinkedHashMap<>();
+        splitsByExpense.put(first, List.of(createSplit(first, userB, "30.00")));
+        splitsByExpense.put(second, List.of(createSplit(second, userA, "10.00")));
+        splitsByExpense.put(third, List.of(createSplit(third, userC, "20.00")));
+
+        // Act
+        groupBalanceService.applyExpenses(groupId, splitsByExpense);
+
+        // Assert
+        Map<String, Map<UUID, BigDecimal>> deltas = upsertedDeltas();
+        assertThat(deltas).containsOnlyKeys("SGD");
+        assertThat(deltas.get("SGD")).containsOnlyKeys(userA.getId(), userB.getId(), userC.getId());
+        assertThat(deltas.get("SGD").get(userA.getId())).isEqualByComparingTo("40.00");
+        assertThat(deltas.get("SGD").get(userB.getId())).isEqualByComparingTo("-20.00");
+        assertThat(deltas.get("SGD").get(userC.getId())).isEqualByComparingTo("-20.00");
+    }
+
+    @Test
+    @DisplayName("replaceExpense - Should only upsert members whose net share changed")
+    void replaceExpense_ShouldUpsertOnlyDifferences() {
+        // Arrange
+        // Before: A paid 30, B owed 20, C owed 10. After: A paid 30, B owed 20, A owes 10 instead of C
+        Expense expense = createExpense(userA, "30.00");
+        Map<UUID, BigDecimal> previousDeltas = GroupBalanceService.calculateDeltas(expense, List.of(
+                createSplit(expense, userB, "20.00"), createSplit(expense, userC, "10.00")));
+        List<ExpenseSplit> splits = List.of(createSplit(expense, userB, "20.00"), createSplit(expense, userA, "10.00"));
+
+        // Act
+        groupBalanceService.replaceExpense("SGD", previousDeltas, expense, splits);
+
+        // Assert
+        Map<String, Map<UUID, BigDecimal>> deltas = upsertedDeltas();
+        assertThat(deltas).containsOnlyKeys("SGD");
+        assertThat(deltas.get("SGD")).containsOnlyKeys(userA.getId(), userC.getId());
+        assertThat(deltas.get("SGD").get(userA.getId())).isEqualByComparingTo("-10.00");
+        assertThat(deltas.get("SGD").get(userC.getId())).isEqualByComparingTo("10.00");
+    }
+
+    @Test
+    @DisplayName("replaceExpense - Should move the whole effect when the currency changed")
+    void replaceExpense_WhenCurrencyChanged_ShouldRevertOldAndApplyNew() {
+        // Arrange
+        Expense expense = createExpense(userA, "30.00");
+        Map<UUID, BigDecimal> previousDeltas = GroupBalanceService.calculateDeltas(expense,
+                List.of(createSplit(expense, userB, "30.00")));
+        expense.setCurrency("MYR");
+
+        // Act
+        groupBalanceService.replaceExpense("SGD", previousDeltas, expense,
+                List.of(createSplit(expense, userB, "30.00")));
+
+        // Assert
+        Map<String, Map<UUID, BigDecimal>> deltas = upsertedDeltas();
+        assertThat(deltas).containsOnlyKeys("SGD", "MYR");
+        assertThat(deltas.get("SGD")).containsOnlyKeys(userA.getId(), userB.getId());
+        assertThat(deltas.get("SGD").get(userA.getId())).isEqualByComparingTo("-30.00");
+        assertThat(deltas.get("SGD").get(userB.getId())).isEqualByComparingTo("30.00");
+        assertThat(deltas.get("MYR")).containsOnlyKeys(userA.getId(), userB.getId());
+        assertThat(deltas.get("MYR").get(userA.getId())).isEqualByComparingTo("30.00");
+        assertThat(deltas.get("MYR").get(userB.getId())).isEqualByComparingTo("-30.00");
+    }
+
+    // ==================== getBalancesForUser Tests ====================
+
+    @Test
+    @DisplayName("getBalancesForUser - Should group ledger rows by group and total them per currency")
+    void getBalancesForUser_ShouldGroupRowsAndTotalPerCurrency() {
+        // Arrange
+        UUID otherGroupId = UUID.randomUUID();
+        when(groupBalanceRepository.findOutstandingByUserId(userA.getId())).thenReturn(List.of(
+                new UserGroupBalanceRow(otherGroupId, "Flat", "SGD", new BigDecimal("40.00")),
+                new UserGroupBalanceRow(groupId, "Test Group", "SGD", new BigDecimal("-15.00")),
+                new UserGroupBalanceRow(groupId, "Test Group", "USD", new BigDecimal("7.25"))
+        ));
+
+        // Act
+        UserBalancesResponse result = groupBalanceService.getBalancesForUser(userA.getId());
+
+        // Assert
+        assertThat(result.getGroups()).extracting(GroupBalanceResponse::getGroupId)
+                .containsExactly(otherGroupId, groupId);
+        assertThat(result.getGroups().get(1).getBalances())
+                .containsEntry("SGD", new BigDecimal("-15.00"))
+                .containsEntry("USD", new BigDecimal("7.25"));
+        assertThat(result.getTotalsByCurrency().get("SGD")).isEqualByComparingTo("25.00");
+        assertThat(result.getTotalsByCurrency().get("USD")).isEqualByComparingTo("7.25");
+    }
+
+    @Test
+    @DisplayName("getBalancesForUser - Should return empty balances when the user is settled up everywhere")
+    void getBalancesForUser_WhenSettledUp_ShouldReturnEmpty() {
+        // Arrange
+        when(groupBalanceRepository.findOutstandingByUserId(userA.getId())).thenReturn(List.of());
+
+        // Act
+        UserBalancesResponse result = groupBalanceService.getBalancesForUser(userA.getId());
+
+        // Assert
+        assertThat(result.getGroups()).isEmpty();
+        assertThat(result.getTotalsByCurrency()).isEmpty();
+    }
+
+    // ==================== replayUnsettledSplits Tests ====================
+
+    @Test
+    @DisplayName("replayUnsettledSplits - Should accumulate streamed rows per currency and close the stream")
+    void replayUnsettledSplits_ShouldAccumulateRowsPerCurrency() {
+        // Arrange
+        UUID expense1 = UUID.randomUUID();
+        UUID expense2 = UUID.randomUUID();
+        AtomicBoolean closed = new AtomicBoolean();
+
+        Stream<UnsettledSplitRow> rows = Stream.of(
+                new UnsettledSplitRow(expense1, userA.getId(), userA.getId(), "SGD", new BigDecimal("33.33")),
+                new UnsettledSplitRow(expense1, userA.getId(), userB.getId(), "SGD", new BigDecimal("33.33")),
+                new UnsettledSplitRow(expense1, userA.getId(), userC.getId(), "SGD", new BigDecimal("33.33")),
+                new UnsettledSplitRow(expense2, userB.getId(), userC.getId(), "USD", new BigDecimal("10.00"))
+        ).onClose(() -> closed.set(true));
+
+        when(expenseSplitRepository.streamUnsettledByGroupId(groupId)).thenReturn(rows);
+
+        // Act
+        Map<String, BalanceSheet> sheets = groupBalanceService.replayUnsettledSplits(groupId);
+
+        // Assert
+        assertThat(sheets).containsOnlyKeys("SGD", "USD");
+
+        BalanceSheet sgd = sheets.get("SGD");
+        assertThat(sgd.userIds()).containsExactly(userA.getId(), userB.getId(), userC.getId());
+        assertThat(sgd.cents(0)).isEqualTo(6666);
+        assertThat(sgd.cents(1)).isEqualTo(-3333);
+        assertThat(sgd.cents(2)).isEqualTo(-3333);
+
+        BalanceSheet usd = sheets.get("USD");
+        assertThat(usd.userIds()).containsExactly(userC.getId(), userB.getId());
+        assertThat(usd.total()).isZero();
+
+        assertThat(closed).isTrue();
+    }
+
+    // ==================== selectUnsettled / subtractSettled Tests ====================
+
+    @Test
+    @DisplayName("selectUnsettledUpTo - Should return balances and expense ids of the selected rows only")
+    void selectUnsettledUpTo_ShouldCollectExpenseIds() {
+        // Arrange
+        LocalDate cutoff = LocalDate.of(2026, 1, 31);
+        UUID expense1 = UUID.randomUUID();
+        UUID expense2 = UUID.randomUUID();
+        AtomicBoolean closed = new AtomicBoolean();
+
+        Stream<UnsettledSplitRow> rows = Stream.of(
+                new UnsettledSplitRow(expense1, userA.getId(), userB.getId(), "SGD", new BigDecimal("20.00")),
+                new UnsettledSplitRow(expense2, userB.getId(), userC.getId(), "SGD", new BigDecimal("5.00"))
+        ).onClose(() -> closed.set(true));
+
+        when(expenseSplitRepository.streamUnsettledByGroupIdUpTo(groupId, cutoff)).thenReturn(rows);
+
+        // Act
+        SettlementSelection selection = groupBalanceService.selectUnsettledUpTo(groupId, cutoff);
+
+        // Assert
+        assertThat(selection.expenseIds()).containsExactlyInAnyOrder(expense1, expense2);
+        BalanceSheet sgd = selection.sheets().get("SGD");
+        assertThat(sgd.userIds()).containsExactly(userB.getId(), userA.getId(), userC.getId());
+        assertThat(sgd.cents(0)).isEqualTo(-1500);
+        assertThat(sgd.cents(1)).isEqualTo(2000);
+        assertThat(sgd.cents(2)).isEqualTo(-500);
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    @DisplayName("subtractSettled - Should apply the negated settled balances to the ledger")
+    void subtractSettled_ShouldNegateSettledBalances() {
+        // Arrange
+        BalanceSheet sheet = BalanceSheet.builder()
+                .add(userA.getId(), 2500)
+                .add(userB.getId(), -2500)
+                .build();
+
+        // Act
+        groupBalanceService.subtractSettled(groupId, Map.of("SGD", sheet));
+
+        // Assert
+        Map<String, Map<UUID, BigDecimal>> deltas = upsertedDeltas();
+        assertThat(deltas).containsOnlyKeys("SGD");
+        assertThat(deltas.get("SGD")).containsOnlyKeys(userA.getId(), userB.getId());
+        assertThat(deltas.get("SGD").get(userA.getId())).isEqualByComparingTo("-25.00");
+        assertThat(deltas.get("SGD").get(userB.getId())).isEqualByComparingTo("25.00");
+    }
+
+    // ==================== Helper Methods ====================
+
+    // Deltas handed to the single ledger upsert
+    private Map<String, Map<UUID, BigDecimal>> upsertedDeltas() {
+        verify(groupBalanceJdbcRepository).addToBalances(eq(groupId), deltasCaptor.capture());
+        return deltasCaptor.getValue();
+    }
+
+    private User createUser(String name) {
+        User u = new User();
+        u.setId(UUID.randomUUID());
+        u.setName(name);
+        u.setEmail(name.replace(" ", "").toLowerCase() + "@example.com");
+        return u;
+    }
+
+    private Expense createExpense(User paidBy, String totalAmount) {
+        return Expense.builder()
+                .id(UUID.randomUUID())
+                .group(testGroup)
+                .currency("SGD")
+                .paidBy(paidBy)
+                .totalAmount(new BigDecimal(totalAmount))
+                .build();
+    }
+
+    private ExpenseSplit createSplit(Expense expense, User debtor, String amount) {
+        return ExpenseSplit.builder()
+                .id(UUID.randomUUID())
+                .expense(expense)
+                .user(debtor)
+                .amountOwed(new BigDecimal(amount))
+                .build();
+    }
+}
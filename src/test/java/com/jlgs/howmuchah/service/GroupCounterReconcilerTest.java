@@ -0,0 +1,73 @@
+package com.jlgs.howmuchah.service;
+
+import com.jlgs.howmuchah.repository.GroupCounterJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GroupCounterReconciler Unit Tests")
+class GroupCounterReconcilerTest {
+
+    @Mock
+    private GroupCounterJdbcRepository groupCounterJdbcRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private GroupCounterReconciler groupCounterReconciler;
+
+    @BeforeEach
+    void setUp() {
+        groupCounterReconciler = new GroupCounterReconciler(groupCounterJdbcRepository, transactionManager);
+    }
+
+    // ==================== reconcile Tests ====================
+
+    @Test
+    @DisplayName("reconcile - Should recount each drifted group in its own transaction")
+    void reconcile_WhenGroupsDrifted_ShouldRecountEachInOwnTransaction() {
+        // Arrange
+        UUID firstGroupId = UUID.randomUUID();
+        UUID secondGroupId = UUID.randomUUID();
+        when(groupCounterJdbcRepository.findGroupsWithCounterDrift()).thenReturn(List.of(firstGroupId, secondGroupId));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        // Act
+        int repaired = groupCounterReconciler.reconcile();
+
+        // Assert
+        assertThat(repaired).isEqualTo(2);
+        verify(groupCounterJdbcRepository, times(1)).recountGroup(firstGroupId);
+        verify(groupCounterJdbcRepository, times(1)).recountGroup(secondGroupId);
+        verify(transactionManager, times(2)).getTransaction(any());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    @DisplayName("reconcile - Should not open a transaction when every counter matches")
+    void reconcile_WhenNoDrift_ShouldDoNothing() {
+        // Arrange
+        when(groupCounterJdbcRepository.findGroupsWithCounterDrift()).thenReturn(List.of());
+
+        // Act
+        int repaired = groupCounterReconciler.reconcile();
+
+        // Assert
+        assertThat(repaired).isZero();
+        verify(groupCounterJdbcRepository, never()).recountGroup(any());
+        verifyNoInteractions(transactionManager);
+    }
+}
@@ -0,0 +1,117 @@
+package com.jlgs.howmuchah.service;
+
+import com.jlgs.howmuchah.config.GroupMembershipCacheProperties;
+import com.jlgs.howmuchah.repository.GroupMemberRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("GroupMembershipCache Unit Tests")
+class GroupMembershipCacheTest {
+
+    @Mock
+    private GroupMemberRepository groupMemberRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private GroupMembershipCache membershipCache;
+    private UUID userId;
+    private UUID groupId;
+    private UUID otherGroupId;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        membershipCache = new GroupMembershipCache(groupMemberRepository,
+                new GroupMembershipCacheProperties(), meterRegistry);
+        userId = UUID.randomUUID();
+        groupId = UUID.randomUUID();
+        otherGroupId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("isMember - Should load all of a user's groups once and answer later checks from memory")
+    void isMember_ShouldLoadMembershipsOnce() {
+        // Arrange
+        when(groupMemberRepository.findGroupIdsByUserId(userId)).thenReturn(List.of(groupId));
+
+        // Act & Assert
+        assertThat(membershipCache.isMember(groupId, userId)).isTrue();
+        assertThat(membershipCache.isMember(otherGroupId, userId)).isFalse();
+        assertThat(membershipCache.isMember(groupId, userId)).isTrue();
+
+        verify(groupMemberRepository, times(1)).findGroupIdsByUserId(userId);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "groupMembership").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "groupMembership").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("isMember - Should return false without a query when an id is missing")
+    void isMember_WhenIdMissing_ShouldReturnFalse() {
+        // Act & Assert
+        assertThat(membershipCache.isMember(groupId, null)).isFalse();
+        assertThat(membershipCache.isMember(null, userId)).isFalse();
+
+        verifyNoInteractions(groupMemberRepository);
+    }
+
+    @Test
+    @DisplayName("invalidate - Should reload memberships immediately outside a transaction")
+    void invalidate_WithoutTransaction_ShouldEvictImmediately() {
+        // Arrange
+        when(groupMemberRepository.findGroupIdsByUserId(userId))
+                .thenReturn(List.of())
+                .thenReturn(List.of(groupId));
+        assertThat(membershipCache.isMember(groupId, userId)).isFalse();
+
+        // Act
+        membershipCache.invalidate(userId);
+
+        // Assert
+        assertThat(membershipCache.isMember(groupId, userId)).isTrue();
+    }
+
+    @Test
+    @DisplayName("invalidate - Should evict again on commit so a check during the transaction cannot keep stale memberships")
+    void invalidate_InTransaction_ShouldEvictAgainOnCommit() {
+        // Arrange
+        when(groupMemberRepository.findGroupIdsByUserId(userId))
+                .thenReturn(List.of(groupId))
+                .thenReturn(List.of(groupId))
+                .thenReturn(List.of());
+        assertThat(membershipCache.isMember(groupId, userId)).isTrue();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        membershipCache.invalidate(userId);
+        // A concurrent check before commit still sees the uncommitted-away membership
+        assertThat(membershipCache.isMember(groupId, userId)).isTrue();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // Assert
+        assertThat(membershipCache.isMember(groupId, userId)).isFalse();
+        verify(groupMemberRepository, times(3)).findGroupIdsByUserId(userId);
+    }
+}
@@ -99,8 +99,6 @@ class InvitationLinkServiceTest {
     void getCurrentOrGenerateLink_WhenLinkValid_ShouldReturnExisting() {
         // Arrange
         stubBaseUrl();
-        when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, requesterId)).thenReturn(true);
         when(invitationLinkRepository.findFirstByGroup_IdAndStatusOrderByCreatedAtDesc(
                 groupId, InvitationLinkStatus.ACTIVE))
                 .thenReturn(Optional.of(validLink));
@@ -147,7 +145,6 @@ class InvitationLinkServiceTest {
                 .build();
 
         when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, requesterId)).thenReturn(true);
         when(invitationLinkRepository.findFirstByGroup_IdAndStatusOrderByCreatedAtDesc(
                 groupId, InvitationLinkStatus.ACTIVE))
                 .thenReturn(Optional.of(expiredLink));
@@ -197,7 +194,6 @@ class InvitationLinkServiceTest {
                 .build();
 
         when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, requesterId)).thenReturn(true);
         when(invitationLinkRepository.findFirstByGroup_IdAndStatusOrderByCreatedAtDesc(
                 groupId, InvitationLinkStatus.ACTIVE))
                 .thenReturn(Optional.of(exhaustedLink));
@@ -217,37 +213,6 @@ class InvitationLinkServiceTest {
         verify(invitationLinkRepository).saveAndFlush(any());
     }
 
-    @Test
-    @DisplayName("getCurrentOrGenerateLink - Should throw when requester is not a group member")
-    void getCurrentOrGenerateLink_WhenNotMember_ShouldThrow() {
-        // Arrange
-        when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, requesterId)).thenReturn(false);
-
-        // Act & Assert
-        assertThatThrownBy(() -> invitationLinkService.getCurrentOrGenerateLink(
-                requesterId, groupId, userId))
-                .isInstanceOf(IllegalArgumentException.class)
-                .hasMessage("Only group members can generate invitation links");
-
-        verify(invitationLinkRepository, never()).findFirstByGroup_IdAndStatusOrderByCreatedAtDesc(any(), any());
-    }
-
-    @Test
-    @DisplayName("getCurrentOrGenerateLink - Should throw when group not found")
-    void getCurrentOrGenerateLink_WhenGroupNotFound_ShouldThrow() {
-        // Arrange
-        when(groupRepository.findById(groupId)).thenReturn(Optional.empty());
-
-        // Act & Assert
-        assertThatThrownBy(() -> invitationLinkService.getCurrentOrGenerateLink(
-                requesterId, groupId, userId))
-                .isInstanceOf(RuntimeException.class)
-                .hasMessage("Group not found");
-
-        verify(groupMemberRepository, never()).existsByGroupIdAndUserId(any(), any());
-    }
-
     @Test
     @DisplayName("getCurrentOrGenerateLink - Should generate new link when no active link exists")
     void getCurrentOrGenerateLink_WhenNoActiveLink_ShouldGenerateNew() {
@@ -266,7 +231,6 @@ class InvitationLinkServiceTest {
                 .build();
 
         when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, requesterId)).thenReturn(true);
         when(invitationLinkRepository.findFirstByGroup_IdAndStatusOrderByCreatedAtDesc(
                 groupId, InvitationLinkStatus.ACTIVE))
                 .thenReturn(Optional.empty());
@@ -289,8 +253,6 @@ class InvitationLinkServiceTest {
     @DisplayName("getCurrentOrGenerateLink - Should throw when monthly rate limit exceeded")
     void getCurrentOrGenerateLink_WhenRateLimitExceeded_ShouldThrow() {
         // Arrange
-        when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, requesterId)).thenReturn(true);
         when(invitationLinkRepository.findFirstByGroup_IdAndStatusOrderByCreatedAtDesc(
                 groupId, InvitationLinkStatus.ACTIVE))
                 .thenReturn(Optional.empty());
@@ -326,7 +288,6 @@ class InvitationLinkServiceTest {
                 .build();
 
         when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, requesterId)).thenReturn(true);
         when(invitationLinkRepository.findFirstByGroup_IdAndStatusOrderByCreatedAtDesc(
                 groupId, InvitationLinkStatus.ACTIVE))
                 .thenReturn(Optional.of(validLink));
@@ -364,7 +325,6 @@ class InvitationLinkServiceTest {
                 .build();
 
         when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, requesterId)).thenReturn(true);
         when(invitationLinkRepository.findFirstByGroup_IdAndStatusOrderByCreatedAtDesc(
                 groupId, InvitationLinkStatus.ACTIVE))
                 .thenReturn(Optional.empty());
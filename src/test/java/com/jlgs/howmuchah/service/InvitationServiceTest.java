@@ -45,6 +45,9 @@ class InvitationServiceTest {
     @Mock
     private GroupMemberRepository groupMemberRepository;
 
+    @Mock
+    private GroupMembershipCache groupMembershipCache;
+
     @Mock
     private NotificationService notificationService;
 
@@ -98,7 +101,7 @@ class InvitationServiceTest {
         // Arrange
         InvitationRequest request = new InvitationRequest("newuser@example.com");
 
-        when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
+        when(groupRepository.getReferenceById(groupId)).thenReturn(group);
         when(userRepository.findById(userId)).thenReturn(Optional.of(owner));
         when(invitationRepository.findByGroupId(groupId)).thenReturn(List.of());
         when(invitationRepository.save(any(Invitation.class))).thenReturn(invitation);
@@ -111,7 +114,7 @@ class InvitationServiceTest {
         assertThat(result.getStatus()).isEqualTo(InvitationStatus.PENDING);
 
         // Verify interactions
-        verify(groupRepository, times(1)).findById(groupId);
+        verify(groupRepository, never()).findById(any());
         verify(userRepository, times(1)).findById(userId);
         verify(invitationRepository, times(1)).findByGroupId(groupId);
         verify(invitationRepository, times(1)).save(any(Invitation.class));
@@ -126,47 +129,12 @@ class InvitationServiceTest {
         assertThat(capturedInvitation.getStatus()).isEqualTo(InvitationStatus.PENDING);
     }
 
-    @Test
-    @DisplayName("sendInvitation - Should throw exception when group not found")
-    void sendInvitation_WhenGroupNotFound_ShouldThrowException() {
-        // Arrange
-        InvitationRequest request = new InvitationRequest("newuser@example.com");
-        when(groupRepository.findById(groupId)).thenReturn(Optional.empty());
-
-        // Act & Assert
-        assertThatThrownBy(() -> invitationService.sendInvitation(groupId, userId, request))
-                .isInstanceOf(IllegalArgumentException.class)
-                .hasMessage("Group not found");
-
-        verify(groupRepository, times(1)).findById(groupId);
-        verify(invitationRepository, never()).save(any(Invitation.class));
-    }
-
-    @Test
-    @DisplayName("sendInvitation - Should throw exception when user is not group owner")
-    void sendInvitation_WhenUserIsNotOwner_ShouldThrowException() {
-        // Arrange
-        UUID nonOwnerId = UUID.randomUUID();
-        InvitationRequest request = new InvitationRequest("newuser@example.com");
-
-        when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
-
-        // Act & Assert
-        assertThatThrownBy(() -> invitationService.sendInvitation(groupId, nonOwnerId, request))
-                .isInstanceOf(IllegalArgumentException.class)
-                .hasMessage("Only the group owner can send invitations");
-
-        verify(groupRepository, times(1)).findById(groupId);
-        verify(invitationRepository, never()).save(any(Invitation.class));
-    }
-
     @Test
     @DisplayName("sendInvitation - Should throw exception when user not found")
     void sendInvitation_WhenUserNotFound_ShouldThrowException() {
         // Arrange
         InvitationRequest request = new InvitationRequest("newuser@example.com");
 
-        when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
         when(userRepository.findById(userId)).thenReturn(Optional.empty());
 
         // Act & Assert
@@ -189,7 +157,6 @@ class InvitationServiceTest {
                 .status(InvitationStatus.PENDING)
                 .build();
 
-        when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
         when(userRepository.findById(userId)).thenReturn(Optional.of(owner));
         when(invitationRepository.findByGroupId(groupId)).thenReturn(List.of(existingInvitation));
 
@@ -208,7 +175,7 @@ class InvitationServiceTest {
         String existingUserEmail = "existing@example.com";
         InvitationRequest request = new InvitationRequest(existingUserEmail);
 
-        when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
+        when(groupRepository.getReferenceById(groupId)).thenReturn(group);
         when(userRepository.findById(userId)).thenReturn(Optional.of(owner));
         when(invitationRepository.findByGroupId(groupId)).thenReturn(List.of());
         when(invitationRepository.save(any(Invitation.class))).thenReturn(invitation);
@@ -229,7 +196,7 @@ class InvitationServiceTest {
         String nonExistentEmail = "nonexistent@example.com";
         InvitationRequest request = new InvitationRequest(nonExistentEmail);
 
-        when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
+        when(groupRepository.getReferenceById(groupId)).thenReturn(group);
         when(userRepository.findById(userId)).thenReturn(Optional.of(owner));
         when(invitationRepository.findByGroupId(groupId)).thenReturn(List.of());
         when(invitationRepository.save(any(Invitation.class))).thenReturn(invitation);
@@ -253,7 +220,6 @@ class InvitationServiceTest {
         Invitation inv2 = Invitation.builder().invitedEmail("user2@example.com").build();
         List<Invitation> expectedInvitations = Arrays.asList(inv1, inv2);
 
-        when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
         when(invitationRepository.findByGroupIdWithDetails(groupId)).thenReturn(expectedInvitations);
 
         // Act
@@ -263,46 +229,15 @@ class InvitationServiceTest {
         assertThat(result).hasSize(2);
         assertThat(result).containsExactly(inv1, inv2);
 
-        verify(groupRepository, times(1)).findById(groupId);
         verify(invitationRepository, times(1)).findByGroupIdWithDetails(groupId);
     }
 
-    @Test
-    @DisplayName("getAllInvitationsForGroup - Should throw exception when group not found")
-    void getAllInvitationsForGroup_WhenGroupNotFound_ShouldThrowException() {
-        // Arrange
-        when(groupRepository.findById(groupId)).thenReturn(Optional.empty());
-
-        // Act & Assert
-        assertThatThrownBy(() -> invitationService.getAllInvitationsForGroup(groupId, userId))
-                .isInstanceOf(IllegalArgumentException.class)
-                .hasMessage("Group not found");
-
-        verify(invitationRepository, never()).findByGroupIdWithDetails(any());
-    }
-
-    @Test
-    @DisplayName("getAllInvitationsForGroup - Should throw exception when user is not owner")
-    void getAllInvitationsForGroup_WhenUserIsNotOwner_ShouldThrowException() {
-        // Arrange
-        UUID nonOwnerId = UUID.randomUUID();
-        when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
-
-        // Act & Assert
-        assertThatThrownBy(() -> invitationService.getAllInvitationsForGroup(groupId, nonOwnerId))
-                .isInstanceOf(IllegalArgumentException.class)
-                .hasMessage("Only the group owner can view invitations");
-
-        verify(invitationRepository, never()).findByGroupIdWithDetails(any());
-    }
-
     // ==================== revokeInvitation Tests ====================
 
     @Test
     @DisplayName("revokeInvitation - Should revoke invitation successfully when valid")
     void revokeInvitation_WhenValid_ShouldRevokeInvitation() {
         // Arrange
-        when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
         when(invitationRepository.findById(invitationId)).thenReturn(Optional.of(invitation));
         when(invitationRepository.save(any(Invitation.class))).thenReturn(invitation);
 
@@ -310,46 +245,15 @@ class InvitationServiceTest {
         invitationService.revokeInvitation(groupId, invitationId, userId);
 
         // Assert
-        verify(groupRepository, times(1)).findById(groupId);
         verify(invitationRepository, times(1)).findById(invitationId);
         verify(invitationRepository, times(1)).save(invitation);
         assertThat(invitation.getStatus()).isEqualTo(InvitationStatus.REVOKED);
     }
 
-    @Test
-    @DisplayName("revokeInvitation - Should throw exception when group not found")
-    void revokeInvitation_WhenGroupNotFound_ShouldThrowException() {
-        // Arrange
-        when(groupRepository.findById(groupId)).thenReturn(Optional.empty());
-
-        // Act & Assert
-        assertThatThrownBy(() -> invitationService.revokeInvitation(groupId, invitationId, userId))
-                .isInstanceOf(IllegalArgumentException.class)
-                .hasMessage("Group not found");
-
-        verify(invitationRepository, never()).save(any());
-    }
-
-    @Test
-    @DisplayName("revokeInvitation - Should throw exception when user is not owner")
-    void revokeInvitation_WhenUserIsNotOwner_ShouldThrowException() {
-        // Arrange
-        UUID nonOwnerId = UUID.randomUUID();
-        when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
-
-        // Act & Assert
-        assertThatThrownBy(() -> invitationService.revokeInvitation(groupId, invitationId, nonOwnerId))
-                .isInstanceOf(IllegalArgumentException.class)
-                .hasMessage("Only the group owner can revoke invitations");
-
-        verify(invitationRepository, never()).save(any());
-    }
-
     @Test
     @DisplayName("revokeInvitation - Should throw exception when invitation not found")
     void revokeInvitation_WhenInvitationNotFound_ShouldThrowException() {
         // Arrange
-        when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
         when(invitationRepository.findById(invitationId)).thenReturn(Optional.empty());
 
         // Act & Assert
@@ -372,7 +276,6 @@ class InvitationServiceTest {
                 .status(InvitationStatus.PENDING)
                 .build();
 
-        when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
         when(invitationRepository.findById(invitationId)).thenReturn(Optional.of(invitationFromDifferentGroup));
 
         // Act & Assert
@@ -389,7 +292,6 @@ class InvitationServiceTest {
         // Arrange
         invitation.setStatus(InvitationStatus.ACCEPTED);
 
-        when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
         when(invitationRepository.findById(invitationId)).thenReturn(Optional.of(invitation));
 
         // Act & Assert
@@ -467,6 +369,8 @@ class InvitationServiceTest {
         verify(userRepository, times(1)).findById(invitedUserId);
         verify(groupMemberRepository, times(1)).existsByGroupIdAndUserId(groupId, invitedUserId);
         verify(groupMemberRepository, times(1)).save(any(GroupMember.class));
+        verify(groupRepository, times(1)).adjustMemberCount(groupId, 1);
+        verify(groupMembershipCache, times(1)).invalidate(invitedUserId);
         verify(invitationRepository, times(1)).save(invitation);
 
         // Verify group member was created correctly
@@ -0,0 +1,261 @@
+package com.jlgs.howmuchah.service;
+
+import com.jlgs.howmuchah.config.SettlementProperties;
+import com.jlgs.howmuchah.dto.request.ExpenseCreationRequest;
+import com.jlgs.howmuchah.dto.request.ExpenseSplitDto;
+import com.jlgs.howmuchah.dto.response.SettlementDetailResponse;
+import com.jlgs.howmuchah.repository.GroupBalanceJdbcRepository;
+import com.jlgs.howmuchah.repository.SeededPostgres;
+import com.jlgs.howmuchah.repository.SettlementJdbcRepository;
+import com.jlgs.howmuchah.settlement.BalanceSheet;
+import com.jlgs.howmuchah.settlement.GreedySettlementSolver;
+import com.jlgs.howmuchah.settlement.SettlementDetailCache;
+import com.jlgs.howmuchah.settlement.SettlementPreviewCache;
+import com.jlgs.howmuchah.settlement.SettlementStrategyRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statements that actually reach the database when expenses and settlements update the balance ledger
+ *
+ * Every statement executed through the DataSource is counted, whether Hibernate or JdbcTemplate sent it,
+ * and a JDBC batch counts once. A whole settlement is counted from its first lock to its ledger update.
+ * Skipped unless QUERY_PLAN_DB_URL is set.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfEnvironmentVariable(named = SeededPostgres.URL_VARIABLE, matches = "jdbc:postgresql:.+")
+@Import({ExpenseService.class, GroupBalanceService.class, GroupBalanceJdbcRepository.class,
+        SettlementService.class, SettlementJdbcRepository.class, SettlementStrategyRegistry.class,
+        GreedySettlementSolver.class, SettlementProperties.class, LedgerStatementCountTest.StatementCountingConfig.class})
+@DisplayName("Ledger Statement Count Tests")
+class LedgerStatementCountTest {
+
+    private static final AtomicInteger executedStatements = new AtomicInteger();
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private GroupBalanceService groupBalanceService;
+
+    @Autowired
+    private SettlementService settlementService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private GroupMembershipCache groupMembershipCache;
+
+    @MockitoBean
+    private SettlementPreviewCache settlementPreviewCache;
+
+    @MockitoBean
+    private SettlementDetailCache settlementDetailCache;
+
+    private final UUID groupId = SeededPostgres.seededId("group1");
+
+    @DynamicPropertySource
+    static void databaseProperties(DynamicPropertyRegistry registry) {
+        SeededPostgres.registerDataSource(registry);
+    }
+
+    @BeforeAll
+    static void loadSchemaAndSeed() throws IOException, SQLException {
+        SeededPostgres.load();
+    }
+
+    // ==================== createExpense Tests ====================
+
+    @ParameterizedTest(name = "{0} splits")
+    @ValueSource(ints = {1, 4, 7})
+    @DisplayName("createExpense - Should send the same statements regardless of split count")
+    void createExpense_AnySplitCount_ShouldSendConstantStatements(int splitCount) {
+        // Arrange
+        UUID payerId = SeededPostgres.seededId("user1");
+        List<ExpenseSplitDto> splits = new ArrayList<>();
+        for (int i = 2; i < splitCount + 2; i++) {
+            splits.add(new ExpenseSplitDto(SeededPostgres.seededId("user" + i), BigDecimal.ONE));
+        }
+        ExpenseCreationRequest request = new ExpenseCreationRequest(groupId, "Team dinner",
+                BigDecimal.valueOf(splitCount), "SGD", payerId, "food", LocalDate.now(), splits);
+        executedStatements.set(0);
+
+        // Act
+        expenseService.createExpense(payerId, request);
+        entityManager.flush();
+
+        // Assert
+        // Group and member lookups, ledger lock, expense insert, counter update, one split batch and one ledger upsert
+        assertThat(executedStatements.get()).isEqualTo(7);
+        assertThat(balance(payerId, "SGD")).isEqualByComparingTo(BigDecimal.valueOf(splitCount));
+    }
+
+    // ==================== subtractSettled Tests ====================
+
+    @Test
+    @DisplayName("subtractSettled - Should update every member and currency in one statement")
+    void subtractSettled_SeveralCurrencies_ShouldSendOneStatement() {
+        // Arrange
+        // Seeded SGD balances: user1 0.00, user2 10.00, user3 0.00 - nobody has an MYR row yet
+        UUID user1 = SeededPostgres.seededId("user1");
+        UUID user2 = SeededPostgres.seededId("user2");
+        UUID user3 = SeededPostgres.seededId("user3");
+        Map<String, BalanceSheet> settled = Map.of(
+                "SGD", BalanceSheet.builder().add(user1, 1000).add(user2, -1000).build(),
+                "MYR", BalanceSheet.builder().add(user1, -500).add(user3, 500).build());
+        executedStatements.set(0);
+
+        // Act
+        groupBalanceService.subtractSettled(groupId, settled);
+
+        // Assert
+        assertThat(executedStatements.get()).isEqualTo(1);
+        assertThat(balance(user1, "SGD")).isEqualByComparingTo("-10.00");
+        assertThat(balance(user2, "SGD")).isEqualByComparingTo("20.00");
+        assertThat(balance(user1, "MYR")).isEqualByComparingTo("5.00");
+        assertThat(balance(user3, "MYR")).isEqualByComparingTo("-5.00");
+    }
+
+    // ==================== executeSettlement Tests ====================
+
+    @ParameterizedTest(name = "{0} members owing")
+    @ValueSource(ints = {1, 3, 7})
+    @DisplayName("executeSettlement - Should send the same statements regardless of transfer count")
+    void executeSettlement_AnyTransferCount_ShouldSendConstantStatements(int debtorCount) {
+        // Arrange
+        // user1 is owed 10.00 by each debtor, so greedy settles with one transfer per debtor
+        UUID creditor = SeededPostgres.seededId("user1");
+        jdbcTemplate.update("DELETE FROM public.group_balances WHERE group_id = ?", groupId);
+        jdbcTemplate.update("INSERT INTO public.group_balances (group_id, user_id, currency, net_amount) " +
+                "VALUES (?, ?, 'SGD', ?)", groupId, creditor, BigDecimal.TEN.multiply(BigDecimal.valueOf(debtorCount)));
+        for (int i = 2; i < debtorCount + 2; i++) {
+            jdbcTemplate.update("INSERT INTO public.group_balances (group_id, user_id, currency, net_amount) " +
+                    "VALUES (?, ?, 'SGD', -10.00)", groupId, SeededPostgres.seededId("user" + i));
+        }
+        executedStatements.set(0);
+
+        // Act
+        SettlementDetailResponse response = settlementService.executeSettlement(creditor, groupId);
+
+        // Assert
+        // Settlement and ledger locks, settings, unsettled check, ledger read, settlement group insert,
+        // user lookup, one settlement batch, the combined mark statement and one ledger upsert
+        assertThat(response.getTransactions()).hasSize(debtorCount);
+        assertThat(executedStatements.get()).isEqualTo(10);
+        assertThat(balance(creditor, "SGD")).isEqualByComparingTo("0.00");
+    }
+
+    // ==================== Helper Methods ====================
+
+    private BigDecimal balance(UUID userId, String currency) {
+        return jdbcTemplate.queryForObject("SELECT net_amount FROM public.group_balances " +
+                "WHERE group_id = ? AND user_id = ? AND currency = ?", BigDecimal.class, groupId, userId, currency);
+    }
+
+    @TestConfiguration
+    static class StatementCountingConfig {
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? new StatementCountingDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Hands out connections whose statements count each execution, batches included
+     */
+    static class StatementCountingDataSource extends DelegatingDataSource {
+
+        StatementCountingDataSource(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return countStatements(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return countStatements(super.getConnection(username, password));
+        }
+
+        private static Connection countStatements(Connection connection) {
+            return proxy(Connection.class, connection, (proxy, method, args) -> {
+                Object result = invoke(connection, method, args);
+                // createStatement, prepareStatement and prepareCall
+                return result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())
+                        ? countExecutions(method.getReturnType(), statement)
+                        : result;
+            });
+        }
+
+        private static Object countExecutions(Class<?> type, Statement statement) {
+            return proxy(type, statement, (proxy, method, args) -> {
+                if (method.getName().startsWith("execute")) {
+                    executedStatements.incrementAndGet();
+                }
+                return invoke(statement, method, args);
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+            return (T) Proxy.newProxyInstance(target.getClass().getClassLoader(), new Class<?>[]{type}, handler);
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
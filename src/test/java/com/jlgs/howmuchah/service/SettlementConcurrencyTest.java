@@ -0,0 +1,192 @@
+package com.jlgs.howmuchah.service;
+
+import com.jlgs.howmuchah.config.SettlementProperties;
+import com.jlgs.howmuchah.dto.request.ExpenseCreationRequest;
+import com.jlgs.howmuchah.dto.request.ExpenseSplitDto;
+import com.jlgs.howmuchah.dto.response.ExpenseDetailResponse;
+import com.jlgs.howmuchah.enums.SettlementSolverMode;
+import com.jlgs.howmuchah.repository.GroupBalanceJdbcRepository;
+import com.jlgs.howmuchah.repository.SeededPostgres;
+import com.jlgs.howmuchah.repository.SettlementJdbcRepository;
+import com.jlgs.howmuchah.settlement.BalanceSheet;
+import com.jlgs.howmuchah.settlement.GreedySettlementSolver;
+import com.jlgs.howmuchah.settlement.SettlementContext;
+import com.jlgs.howmuchah.settlement.SettlementDetailCache;
+import com.jlgs.howmuchah.settlement.SettlementPreviewCache;
+import com.jlgs.howmuchah.settlement.SettlementStrategy;
+import com.jlgs.howmuchah.settlement.SettlementStrategyRegistry;
+import com.jlgs.howmuchah.settlement.Transfer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Settlements racing expense writes on the real database
+ *
+ * Every step commits, so the test runs outside the usual rollback-only test transaction and works
+ * on a group of its own. Skipped unless QUERY_PLAN_DB_URL is set.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfEnvironmentVariable(named = SeededPostgres.URL_VARIABLE, matches = "jdbc:postgresql:.+")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ExpenseService.class, SettlementService.class, GroupBalanceService.class, GroupBalanceJdbcRepository.class,
+        SettlementJdbcRepository.class, SettlementStrategyRegistry.class, SettlementProperties.class,
+        SettlementConcurrencyTest.PausingStrategyConfig.class})
+@DisplayName("Settlement Concurrency Tests")
+class SettlementConcurrencyTest {
+
+    // How long the concurrent expense gets to commit while the settlement is between its ledger read and mark
+    private static final long CONCURRENT_WRITE_WAIT_MS = 1_000;
+
+    private static Runnable whileSettling = () -> { };
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private SettlementService settlementService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private GroupMembershipCache groupMembershipCache;
+
+    @MockitoBean
+    private SettlementPreviewCache settlementPreviewCache;
+
+    @MockitoBean
+    private SettlementDetailCache settlementDetailCache;
+
+    // Seeded group2 has user9 to user16 as members
+    private final UUID groupId = SeededPostgres.seededId("group2");
+    private final UUID alice = SeededPostgres.seededId("user9");
+    private final UUID bob = SeededPostgres.seededId("user10");
+
+    @DynamicPropertySource
+    static void databaseProperties(DynamicPropertyRegistry registry) {
+        SeededPostgres.registerDataSource(registry);
+    }
+
+    @BeforeAll
+    static void loadSchemaAndSeed() throws IOException, SQLException {
+        SeededPostgres.load();
+    }
+
+    // ==================== executeSettlement Tests ====================
+
+    @Test
+    @DisplayName("executeSettlement - Should leave an expense written during the settlement unsettled and on the ledger")
+    void executeSettlement_ExpenseWrittenDuringSettlement_ShouldStayOwed() throws Exception {
+        // Arrange
+        jdbcTemplate.update("DELETE FROM public.expenses WHERE group_id = ?", groupId);
+        jdbcTemplate.update("DELETE FROM public.group_balances WHERE group_id = ?", groupId);
+        jdbcTemplate.update("UPDATE public.groups SET unsettled_expense_count = 0 WHERE id = ?", groupId);
+        inTransaction(() -> expenseService.createExpense(alice, expense(alice, bob, "20.00")));
+
+        // Bob's expense is written after the settlement has read the ledger and before it marks expenses
+        CompletableFuture<ExpenseDetailResponse> concurrentExpense = new CompletableFuture<>();
+        whileSettling = () -> {
+            CompletableFuture.runAsync(() -> {
+                try {
+                    concurrentExpense.complete(
+                            inTransaction(() -> expenseService.createExpense(bob, expense(bob, alice, "30.00"))));
+                } catch (RuntimeException e) {
+                    concurrentExpense.completeExceptionally(e);
+                }
+            });
+            try {
+                concurrentExpense.get(CONCURRENT_WRITE_WAIT_MS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Held off by the settlement until it commits
+            } catch (InterruptedException | ExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+
+        // Act
+        try {
+            inTransaction(() -> settlementService.executeSettlement(alice, groupId));
+        } finally {
+            whileSettling = () -> { };
+        }
+        UUID concurrentExpenseId = concurrentExpense.get(10, TimeUnit.SECONDS).getId();
+
+        // Assert
+        assertThat(jdbcTemplate.queryForObject("SELECT is_settled FROM public.expenses WHERE id = ?",
+                Boolean.class, concurrentExpenseId)).isFalse();
+        assertThat(balance(alice)).isEqualByComparingTo("-30.00");
+        assertThat(balance(bob)).isEqualByComparingTo("30.00");
+    }
+
+    // ==================== Helper Methods ====================
+
+    private ExpenseCreationRequest expense(UUID payerId, UUID owerId, String amount) {
+        return new ExpenseCreationRequest(groupId, "Groceries", new BigDecimal(amount), "SGD", payerId, "food",
+                LocalDate.now(), List.of(new ExpenseSplitDto(owerId, new BigDecimal(amount))));
+    }
+
+    private <T> T inTransaction(Supplier<T> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> action.get());
+    }
+
+    private BigDecimal balance(UUID userId) {
+        return jdbcTemplate.queryForObject("SELECT net_amount FROM public.group_balances " +
+                "WHERE group_id = ? AND user_id = ? AND currency = 'SGD'", BigDecimal.class, groupId, userId);
+    }
+
+    @TestConfiguration
+    static class PausingStrategyConfig {
+
+        // Greedy transfers, with the test's hook run first, i.e. after the ledger read and before the mark
+        @Bean
+        SettlementStrategy pausingGreedyStrategy() {
+            GreedySettlementSolver greedySettlementSolver = new GreedySettlementSolver();
+            return new SettlementStrategy() {
+                @Override
+                public SettlementSolverMode mode() {
+                    return SettlementSolverMode.GREEDY;
+                }
+
+                @Override
+                public List<Transfer> settle(BalanceSheet sheet, SettlementContext context) {
+                    whileSettling.run();
+                    return greedySettlementSolver.solve(sheet);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.jlgs.howmuchah.service;
+
+import com.jlgs.howmuchah.config.SettlementProperties;
+import com.jlgs.howmuchah.dto.response.SettlementDetailResponse;
+import com.jlgs.howmuchah.dto.response.SettlementJobResponse;
+import com.jlgs.howmuchah.enums.SettlementJobStatus;
+import com.jlgs.howmuchah.exception.SettlementInProgressException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SettlementJobService Unit Tests")
+class SettlementJobServiceTest {
+
+    @Mock
+    private SettlementService settlementService;
+    @Mock
+    private NotificationService notificationService;
+    @Mock
+    private GroupMembershipCache groupMembershipCache;
+
+    private SettlementJobService settlementJobService;
+
+    private UUID requesterId;
+    private UUID groupId;
+
+    @BeforeEach
+    void setUp() {
+        requesterId = UUID.randomUUID();
+        groupId = UUID.randomUUID();
+        settlementJobService = createService(new SyncTaskExecutor());
+    }
+
+    // ==================== submitSettlement Tests ====================
+
+    @Test
+    @DisplayName("submitSettlement - Should run settlement, store the result and notify the requester")
+    void submitSettlement_ShouldCompleteAndNotify() {
+        // Arrange
+        SettlementDetailResponse result = new SettlementDetailResponse(UUID.randomUUID(), LocalDateTime.now(), List.of());
+        stubMembership(true);
+        when(settlementService.executeSettlement(requesterId, groupId, null)).thenReturn(result);
+
+        // Act
+        SettlementJobResponse submitted = settlementJobService.submitSettlement(requesterId, groupId, null);
+
+        // Assert
+        assertThat(submitted.getStatus()).isEqualTo(SettlementJobStatus.PENDING);
+
+        SettlementJobResponse polled = settlementJobService.getJob(requesterId, submitted.getJobId());
+        assertThat(polled.getStatus()).isEqualTo(SettlementJobStatus.COMPLETED);
+        assertThat(polled.getResult()).isSameAs(result);
+        assertThat(polled.getCompletedAt()).isNotNull();
+
+        ArgumentCaptor<SettlementJobResponse> captor = ArgumentCaptor.forClass(SettlementJobResponse.class);
+        verify(notificationService).notifySettlementJobUpdate(eq(requesterId), captor.capture());
+        assertThat(captor.getValue().getStatus()).isEqualTo(SettlementJobStatus.COMPLETED);
+    }
+
+    @Test
+    @DisplayName("submitSettlement - Should record a failed job with the validation message")
+    void submitSettlement_WhenSettlementFails_ShouldMarkFailed() {
+        // Arrange
+        stubMembership(true);
+        when(settlementService.executeSettlement(requesterId, groupId, null))
+                .thenThrow(new IllegalArgumentException("No unsettled expenses to settle"));
+
+        // Act
+        SettlementJobResponse submitted = settlementJobService.submitSettlement(requesterId, groupId, null);
+
+        // Assert
+        SettlementJobResponse polled = settlementJobService.getJob(requesterId, submitted.getJobId());
+        assertThat(polled.getStatus()).isEqualTo(SettlementJobStatus.FAILED);
+        assertThat(polled.getError()).isEqualTo("No unsettled expenses to settle");
+        verify(notificationService).notifySettlementJobUpdate(eq(requesterId), any());
+    }
+
+    @Test
+    @DisplayName("submitSettlement - Should report a concurrent settlement to the requester")
+    void submitSettlement_WhenSettlementInProgress_ShouldMarkFailed() {
+        // Arrange
+        stubMembership(true);
+        when(settlementService.executeSettlement(requesterId, groupId, null))
+                .thenThrow(new SettlementInProgressException());
+
+        // Act
+        SettlementJobResponse submitted = settlementJobService.submitSettlement(requesterId, groupId, null);
+
+        // Assert
+        SettlementJobResponse polled = settlementJobService.getJob(requesterId, submitted.getJobId());
+        assertThat(polled.getStatus()).isEqualTo(SettlementJobStatus.FAILED);
+        assertThat(polled.getError()).startsWith("A settlement is already in progress");
+    }
+
+    @Test
+    @DisplayName("submitSettlement - Should hide unexpected error details")
+    void submitSettlement_WhenUnexpectedError_ShouldUseGenericMessage() {
+        // Arrange
+        stubMembership(true);
+        when(settlementService.executeSettlement(requesterId, groupId, null))
+                .thenThrow(new RuntimeException("connection reset"));
+
+        // Act
+        SettlementJobResponse submitted = settlementJobService.submitSettlement(requesterId, groupId, null);
+
+        // Assert
+        SettlementJobResponse polled = settlementJobService.getJob(requesterId, submitted.getJobId());
+        assertThat(polled.getStatus()).isEqualTo(SettlementJobStatus.FAILED);
+        assertThat(polled.getError()).isEqualTo("Settlement failed, please try again");
+    }
+
+    @Test
+    @DisplayName("submitSettlement - Should propagate rejection when the executor queue is full")
+    void submitSettlement_WhenQueueFull_ShouldThrow() {
+        // Arrange
+        settlementJobService = createService(task -> {
+            throw new TaskRejectedException("Queue full");
+        });
+
+        // Act & Assert
+        assertThatThrownBy(() -> settlementJobService.submitSettlement(requesterId, groupId, null))
+                .isInstanceOf(TaskRejectedException.class);
+
+        verify(settlementService, never()).executeSettlement(any(), any(), any());
+    }
+
+    // ==================== getJob Tests ====================
+
+    @Test
+    @DisplayName("getJob - Should throw exception when job does not exist")
+    void getJob_WhenNotFound_ShouldThrow() {
+        // Act & Assert
+        assertThatThrownBy(() -> settlementJobService.getJob(requesterId, UUID.randomUUID()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Settlement job not found");
+    }
+
+    @Test
+    @DisplayName("getJob - Should throw exception when requester is not a group member")
+    void getJob_WhenRequesterNotMember_ShouldThrow() {
+        // Arrange
+        when(settlementService.executeSettlement(requesterId, groupId, null))
+                .thenReturn(new SettlementDetailResponse(UUID.randomUUID(), LocalDateTime.now(), List.of()));
+        SettlementJobResponse submitted = settlementJobService.submitSettlement(requesterId, groupId, null);
+
+        UUID outsider = UUID.randomUUID();
+        when(groupMembershipCache.isMember(groupId, outsider)).thenReturn(false);
+
+        // Act & Assert
+        assertThatThrownBy(() -> settlementJobService.getJob(outsider, submitted.getJobId()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Only group members can view this settlement job");
+    }
+
+    // ==================== Helper Methods ====================
+
+    private SettlementJobService createService(TaskExecutor executor) {
+        return new SettlementJobService(settlementService, notificationService, groupMembershipCache,
+                executor, new SettlementProperties());
+    }
+
+    private void stubMembership(boolean isMember) {
+        when(groupMembershipCache.isMember(groupId, requesterId)).thenReturn(isMember);
+    }
+}
@@ -1,26 +1,62 @@
 package com.jlgs.howmuchah.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jlgs.howmuchah.config.SettlementProperties;
+import com.jlgs.howmuchah.dto.projection.GroupSettlementSettingsRow;
+import com.jlgs.howmuchah.dto.projection.SettlementCurrencyTotalRow;
+import com.jlgs.howmuchah.dto.projection.SettlementExportRow;
+import com.jlgs.howmuchah.dto.projection.SettlementGroupRow;
+import com.jlgs.howmuchah.dto.request.SettlementRequest;
+import com.jlgs.howmuchah.dto.response.CursorPage;
 import com.jlgs.howmuchah.dto.response.SettlementDetailResponse;
+import com.jlgs.howmuchah.dto.response.SettlementPreviewResponse;
+import com.jlgs.howmuchah.dto.response.SettlementTransaction;
 import com.jlgs.howmuchah.dto.response.SettlementSummaryResponse;
 import com.jlgs.howmuchah.entity.*;
+import com.jlgs.howmuchah.enums.SettlementSolverMode;
+import com.jlgs.howmuchah.exception.SettlementInProgressException;
 import com.jlgs.howmuchah.repository.*;
+import com.jlgs.howmuchah.settlement.BalanceSheet;
+import com.jlgs.howmuchah.settlement.ExactSettlementSolver;
+import com.jlgs.howmuchah.settlement.SettlementDetailCache;
+import com.jlgs.howmuchah.settlement.GreedySettlementSolver;
+import com.jlgs.howmuchah.settlement.HubSettlementStrategy;
+import com.jlgs.howmuchah.settlement.SettlementPreviewCache;
+import com.jlgs.howmuchah.settlement.SettlementSelection;
+import com.jlgs.howmuchah.settlement.SettlementStrategy;
+import com.jlgs.howmuchah.settlement.SettlementStrategyRegistry;
+import com.jlgs.howmuchah.util.CursorCodec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,7 +68,7 @@ class SettlementServiceTest {
     @Mock
     private SettlementRepository settlementRepository;
     @Mock
-    private ExpenseSplitRepository expenseSplitRepository;
+    private SettlementJdbcRepository settlementJdbcRepository;
     @Mock
     private ExpenseRepository expenseRepository;
     @Mock
@@ -40,7 +76,30 @@ class SettlementServiceTest {
     @Mock
     private UserRepository userRepository;
     @Mock
-    private GroupMemberRepository groupMemberRepository;
+    private GroupMembershipCache groupMembershipCache;
+    @Mock
+    private GroupBalanceService groupBalanceService;
+    @Mock
+    private SettlementPreviewCache settlementPreviewCache;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Spy
+    private SettlementProperties settlementProperties = new SettlementProperties();
+    @Spy
+    private GreedySettlementSolver greedySettlementSolver = new GreedySettlementSolver();
+    @Spy
+    private ExactSettlementSolver exactSettlementSolver =
+            new ExactSettlementSolver(settlementProperties, greedySettlementSolver);
+    @Spy
+    private HubSettlementStrategy hubSettlementStrategy = new HubSettlementStrategy();
+    @Mock
+    private SettlementStrategyRegistry settlementStrategyRegistry;
+    @Spy
+    private SettlementDetailCache settlementDetailCache =
+            new SettlementDetailCache(settlementProperties, objectMapper);
+    @Mock
+    private PlatformTransactionManager transactionManager;
 
     @InjectMocks
     private SettlementService settlementService;
@@ -48,6 +107,9 @@ class SettlementServiceTest {
     @Captor
     private ArgumentCaptor<List<Settlement>> settlementListCaptor;
 
+    @Captor
+    private ArgumentCaptor<Map<String, BalanceSheet>> sheetsCaptor;
+
     private UUID requesterId;
     private UUID groupId;
     private User userA;
@@ -75,6 +137,14 @@ class SettlementServiceTest {
                 .group(testGroup)
                 .settlements(new ArrayList<>())
                 .build();
+
+        // Resolve to the spies so tests can verify which strategy ran
+        Map<SettlementSolverMode, SettlementStrategy> strategies = Map.of(
+                SettlementSolverMode.GREEDY, greedySettlementSolver,
+                SettlementSolverMode.EXACT, exactSettlementSolver,
+                SettlementSolverMode.HUB, hubSettlementStrategy);
+        lenient().when(settlementStrategyRegistry.get(any()))
+                .thenAnswer(invocation -> strategies.get(invocation.<SettlementSolverMode>getArgument(0)));
     }
 
     // ==================== executeSettlement Tests ====================
@@ -83,26 +153,17 @@ class SettlementServiceTest {
     @DisplayName("executeSettlement - Should optimize Cyclic Debt (A->B->C->A) to zero transactions")
     void executeSettlement_CyclicDebt_ShouldResultInNoTransactions() {
         // Arrange
-        Expense exp1 = createExpense(userA, "30.00");
-        ExpenseSplit split1 = createSplit(exp1, userB, "30.00");
-
-        Expense exp2 = createExpense(userB, "30.00");
-        ExpenseSplit split2 = createSplit(exp2, userC, "30.00");
-
-        Expense exp3 = createExpense(userC, "30.00");
-        ExpenseSplit split3 = createSplit(exp3, userA, "30.00");
-
-        List<ExpenseSplit> allSplits = List.of(split1, split2, split3);
-
-        setupMocksForSettlement(allSplits);
+        // A paid 30 for B, B paid 30 for C, C paid 30 for A - every balance nets to zero
+        setupMocksForSettlement(Collections.emptyList());
 
         // Act
         SettlementDetailResponse response = settlementService.executeSettlement(requesterId, groupId);
 
         // Assert
-        verify(settlementRepository, never()).saveAll(any());
-        verify(expenseSplitRepository).markAllAsSettledByGroupId(groupId);
-        verify(expenseRepository).markAllAsSettledByGroupId(groupId);
+        verify(settlementJdbcRepository, never()).insertSettlements(any());
+        verify(settlementJdbcRepository).markGroupSettled(groupId);
+        verify(groupBalanceService).subtractSettled(groupId, Map.of());
+        verify(settlementPreviewCache).evictAfterCommit(groupId);
         assertThat(response).isNotNull();
         assertThat(response.getTransactions()).isEmpty();
     }
@@ -111,20 +172,18 @@ class SettlementServiceTest {
     @DisplayName("executeSettlement - Should handle Phantom Penny (Total 100 vs Splits 99.99)")
     void executeSettlement_PhantomPenny_ShouldHandleRoundingCorrectly() {
         // Arrange
-        Expense expense = createExpense(userA, "100.00");
-        ExpenseSplit splitA = createSplit(expense, userA, "33.33");
-        ExpenseSplit splitB = createSplit(expense, userB, "33.33");
-        ExpenseSplit splitC = createSplit(expense, userC, "33.33");
-
-        List<ExpenseSplit> allSplits = List.of(splitA, splitB, splitC);
-
-        setupMocksForSettlement(allSplits);
+        // A paid 100.00 split 33.33 three ways - A is credited 99.99 minus own share
+        setupMocksForSettlement(List.of(
+                createBalance(userA, "SGD", "66.66"),
+                createBalance(userB, "SGD", "-33.33"),
+                createBalance(userC, "SGD", "-33.33")
+        ));
 
         // Act
         settlementService.executeSettlement(requesterId, groupId);
 
         // Assert
-        verify(settlementRepository).saveAll(settlementListCaptor.capture());
+        verify(settlementJdbcRepository).insertSettlements(settlementListCaptor.capture());
         List<Settlement> savedSettlements = settlementListCaptor.getValue();
 
         assertThat(savedSettlements).hasSize(2);
@@ -138,21 +197,18 @@ class SettlementServiceTest {
     @DisplayName("executeSettlement - Should simplify complex debts correctly (Greedy Algorithm)")
     void executeSettlement_ComplexScenario_ShouldMinimizeTransactions() {
         // Arrange
-        Expense exp1 = createExpense(userA, "100.00");
-        ExpenseSplit split1 = createSplit(exp1, userB, "100.00");
-
-        Expense exp2 = createExpense(userB, "50.00");
-        ExpenseSplit split2 = createSplit(exp2, userC, "50.00");
-
-        List<ExpenseSplit> allSplits = List.of(split1, split2);
-
-        setupMocksForSettlement(allSplits);
+        // A paid 100 for B, B paid 50 for C
+        setupMocksForSettlement(List.of(
+                createBalance(userA, "SGD", "100.00"),
+                createBalance(userB, "SGD", "-50.00"),
+                createBalance(userC, "SGD", "-50.00")
+        ));
 
         // Act
         settlementService.executeSettlement(requesterId, groupId);
 
         // Assert
-        verify(settlementRepository).saveAll(settlementListCaptor.capture());
+        verify(settlementJdbcRepository).insertSettlements(settlementListCaptor.capture());
         List<Settlement> results = settlementListCaptor.getValue();
 
         assertThat(results).hasSize(2);
@@ -166,44 +222,39 @@ class SettlementServiceTest {
     }
 
     @Test
-    @DisplayName("executeSettlement - Should ignore splits smaller than threshold")
+    @DisplayName("executeSettlement - Should ignore balances smaller than threshold")
     void executeSettlement_MicroBalances_ShouldBeIgnored() {
         // Arrange
-        Expense exp1 = createExpense(userA, "0.001");
-        ExpenseSplit split1 = createSplit(exp1, userB, "0.001");
-
-        setupMocksForSettlement(List.of(split1));
+        setupMocksForSettlement(List.of(
+                createBalance(userA, "SGD", "0.001"),
+                createBalance(userB, "SGD", "-0.001")
+        ));
 
         // Act
         settlementService.executeSettlement(requesterId, groupId);
 
         // Assert
-        verify(settlementRepository, never()).saveAll(any());
-        verify(expenseSplitRepository).markAllAsSettledByGroupId(groupId);
-        verify(expenseRepository).markAllAsSettledByGroupId(groupId);
+        verify(settlementJdbcRepository, never()).insertSettlements(any());
+        verify(settlementJdbcRepository).markGroupSettled(groupId);
     }
 
     @Test
     @DisplayName("executeSettlement - Should handle multiple currencies separately")
     void executeSettlement_MultiCurrency_ShouldSettlePerCurrency() {
         // Arrange
-        Expense expUSD = createExpense(userA, "100.00");
-        expUSD.setCurrency("USD");
-        ExpenseSplit splitUSD = createSplit(expUSD, userB, "100.00");
-
-        Expense expEUR = createExpense(userB, "50.00");
-        expEUR.setCurrency("EUR");
-        ExpenseSplit splitEUR = createSplit(expEUR, userC, "50.00");
-
-        List<ExpenseSplit> allSplits = List.of(splitUSD, splitEUR);
-
-        setupMocksForSettlement(allSplits);
+        // A paid 100 USD for B, B paid 50 EUR for C
+        setupMocksForSettlement(List.of(
+                createBalance(userA, "USD", "100.00"),
+                createBalance(userB, "USD", "-100.00"),
+                createBalance(userB, "EUR", "50.00"),
+                createBalance(userC, "EUR", "-50.00")
+        ));
 
         // Act
         settlementService.executeSettlement(requesterId, groupId);
 
         // Assert
-        verify(settlementRepository).saveAll(settlementListCaptor.capture());
+        verify(settlementJdbcRepository).insertSettlements(settlementListCaptor.capture());
         List<Settlement> results = settlementListCaptor.getValue();
 
         assertThat(results).hasSize(2);
@@ -230,48 +281,91 @@ class SettlementServiceTest {
     }
 
     @Test
-    @DisplayName("executeSettlement - Should throw exception when Group not found")
-    void executeSettlement_WhenGroupNotFound_ShouldThrowException() {
+    @DisplayName("executeSettlement - Should load users once and order results by currency")
+    void executeSettlement_ManyCurrencies_ShouldBeDeterministic() {
         // Arrange
-        when(groupRepository.findByIdWithLock(groupId)).thenReturn(Optional.empty());
+        setupMocksForSettlement(List.of(
+                createBalance(userA, "USD", "30.00"),
+                createBalance(userB, "USD", "-30.00"),
+                createBalance(userC, "JPY", "500.00"),
+                createBalance(userA, "JPY", "-500.00"),
+                createBalance(userB, "EUR", "12.50"),
+                createBalance(userC, "EUR", "-12.50"),
+                createBalance(userA, "AUD", "7.00"),
+                createBalance(userC, "AUD", "-7.00")
+        ));
 
-        // Act & Assert
-        assertThatThrownBy(() -> settlementService.executeSettlement(requesterId, groupId))
-                .isInstanceOf(IllegalArgumentException.class)
-                .hasMessage("Group not found");
+        // Act
+        settlementService.executeSettlement(requesterId, groupId);
+
+        // Assert
+        verify(settlementJdbcRepository).insertSettlements(settlementListCaptor.capture());
+        assertThat(settlementListCaptor.getValue())
+                .extracting(Settlement::getCurrency)
+                .containsExactly("AUD", "EUR", "JPY", "USD");
+        verify(userRepository, times(1)).findAllById(any());
+    }
 
-        verify(expenseSplitRepository, never()).findUnsettledByGroupId(any());
+    @Test
+    @DisplayName("executeSettlement - Should write with pre-generated ids in a fixed number of calls")
+    void executeSettlement_ShouldBatchWritesWithPregeneratedIds() {
+        // Arrange
+        setupMocksForSettlement(List.of(
+                createBalance(userA, "SGD", "100.00"),
+                createBalance(userB, "SGD", "-60.00"),
+                createBalance(userC, "SGD", "-40.00")
+        ));
+
+        // Act
+        SettlementDetailResponse response = settlementService.executeSettlement(requesterId, groupId);
+
+        // Assert
+        ArgumentCaptor<SettlementGroup> groupCaptor = ArgumentCaptor.forClass(SettlementGroup.class);
+        verify(settlementJdbcRepository, times(1)).insertSettlementGroup(groupCaptor.capture());
+        verify(settlementJdbcRepository, times(1)).insertSettlements(settlementListCaptor.capture());
+        verify(settlementJdbcRepository, times(1)).markGroupSettled(groupId);
+
+        SettlementGroup settlementGroup = groupCaptor.getValue();
+        assertThat(settlementGroup.getId()).isNotNull();
+        assertThat(response.getId()).isEqualTo(settlementGroup.getId());
+        assertThat(response.getSettledAt()).isEqualTo(settlementGroup.getSettledAt());
+        assertThat(settlementListCaptor.getValue())
+                .hasSize(2)
+                .allSatisfy(s -> {
+                    assertThat(s.getId()).isNotNull();
+                    assertThat(s.getSettlementGroup()).isSameAs(settlementGroup);
+                });
     }
 
     @Test
     @DisplayName("executeSettlement - Should throw exception when No Unsettled Expenses")
     void executeSettlement_WhenNoExpenses_ShouldThrowException() {
         // Arrange
-        when(groupRepository.findByIdWithLock(groupId)).thenReturn(Optional.of(testGroup));
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, requesterId)).thenReturn(true);
-        when(expenseSplitRepository.findUnsettledByGroupId(groupId)).thenReturn(Collections.emptyList());
+        when(groupRepository.tryLockForSettlement(groupId)).thenReturn(true);
+        when(expenseRepository.existsByGroupIdAndIsSettledFalse(groupId)).thenReturn(false);
 
         // Act & Assert
         assertThatThrownBy(() -> settlementService.executeSettlement(requesterId, groupId))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("No unsettled expenses to settle");
 
-        verify(settlementGroupRepository, never()).save(any());
+        verify(settlementJdbcRepository, never()).insertSettlementGroup(any());
+        verify(groupBalanceService, never()).subtractSettled(any(), any());
     }
 
     @Test
-    @DisplayName("executeSettlement - Should throw exception when requester is not a group member")
-    void executeSettlement_WhenRequesterNotMember_ShouldThrowException() {
+    @DisplayName("executeSettlement - Should fail fast when another settlement holds the group lock")
+    void executeSettlement_WhenSettlementInProgress_ShouldThrowConflict() {
         // Arrange
-        when(groupRepository.findByIdWithLock(groupId)).thenReturn(Optional.of(testGroup));
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, requesterId)).thenReturn(false);
+        when(groupRepository.tryLockForSettlement(groupId)).thenReturn(false);
 
         // Act & Assert
         assertThatThrownBy(() -> settlementService.executeSettlement(requesterId, groupId))
-                .isInstanceOf(IllegalArgumentException.class)
-                .hasMessage("Only group members can settle expenses");
+                .isInstanceOf(SettlementInProgressException.class);
 
-        verify(expenseSplitRepository, never()).findUnsettledByGroupId(any());
+        verify(expenseRepository, never()).existsByGroupIdAndIsSettledFalse(any());
+        verify(settlementJdbcRepository, never()).insertSettlementGroup(any());
+        verify(groupBalanceService, never()).getOutstandingBalances(any());
     }
 
     @Test
@@ -281,20 +375,17 @@ class SettlementServiceTest {
         // Scenario: A pays $100 for B & C (A didn't participate, just paid)
         // Split: B owes $50, C owes $50
         // Result: B pays A $50, C pays A $50
-
-        Expense expense = createExpense(userA, "100.00");
-        ExpenseSplit splitB = createSplit(expense, userB, "50.00");
-        ExpenseSplit splitC = createSplit(expense, userC, "50.00");
-
-        List<ExpenseSplit> allSplits = List.of(splitB, splitC);
-
-        setupMocksForSettlement(allSplits);
+        setupMocksForSettlement(List.of(
+                createBalance(userA, "SGD", "100.00"),
+                createBalance(userB, "SGD", "-50.00"),
+                createBalance(userC, "SGD", "-50.00")
+        ));
 
         // Act
         settlementService.executeSettlement(requesterId, groupId);
 
         // Assert
-        verify(settlementRepository).saveAll(settlementListCaptor.capture());
+        verify(settlementJdbcRepository).insertSettlements(settlementListCaptor.capture());
         List<Settlement> results = settlementListCaptor.getValue();
 
         assertThat(results).hasSize(2);
@@ -312,58 +403,415 @@ class SettlementServiceTest {
         assertThat(payers).containsExactlyInAnyOrder(userB.getId(), userC.getId());
     }
 
-    // ==================== getSettlementHistory Tests ====================
+    @Test
+    @DisplayName("executeSettlement - Should find zero-sum subgroups when exact solver is enabled")
+    void executeSettlement_ExactSolver_ShouldUseFewerTransactionsThanGreedy() {
+        // Arrange
+        // {A +8, B -6, C -2} and {D +3, E -3} settle in 3 transfers, greedy needs 4
+        User userD = createUser("User D");
+        User userE = createUser("User E");
+        settlementProperties.setSolver(SettlementSolverMode.EXACT);
+
+        setupMocksForSettlement(List.of(
+                createBalance(userA, "SGD", "8.00"),
+                createBalance(userD, "SGD", "3.00"),
+                createBalance(userB, "SGD", "-6.00"),
+                createBalance(userE, "SGD", "-3.00"),
+                createBalance(userC, "SGD", "-2.00")
+        ));
+        when(userRepository.findAllById(any())).thenReturn(List.of(userA, userB, userC, userD, userE));
+
+        // Act
+        settlementService.executeSettlement(requesterId, groupId);
+
+        // Assert
+        verify(settlementJdbcRepository).insertSettlements(settlementListCaptor.capture());
+        List<Settlement> results = settlementListCaptor.getValue();
+
+        assertThat(results).hasSize(3);
+        assertThat(results)
+                .filteredOn(s -> s.getPayee().getId().equals(userD.getId()))
+                .singleElement()
+                .satisfies(s -> {
+                    assertThat(s.getPayer().getId()).isEqualTo(userE.getId());
+                    assertThat(s.getAmount()).isEqualByComparingTo("3.00");
+                });
+        verify(exactSettlementSolver).settle(any(), any());
+        verify(greedySettlementSolver, never()).settle(any(), any());
+    }
 
     @Test
-    @DisplayName("getSettlementHistory - Should return settlements ordered by date")
-    void getSettlementHistory_ShouldReturnOrderedList() {
+    @DisplayName("executeSettlement - Should fall back to greedy when exact solver gives up")
+    void executeSettlement_ExactSolverGivesUp_ShouldFallBackToGreedy() {
         // Arrange
-        SettlementGroup sg1 = SettlementGroup.builder()
-                .id(UUID.randomUUID())
-                .group(testGroup)
-                .settlements(new ArrayList<>())
+        settlementProperties.setSolver(SettlementSolverMode.EXACT);
+        doReturn(Optional.empty()).when(exactSettlementSolver).solve(any());
+
+        setupMocksForSettlement(List.of(
+                createBalance(userA, "SGD", "100.00"),
+                createBalance(userB, "SGD", "-50.00"),
+                createBalance(userC, "SGD", "-50.00")
+        ));
+
+        // Act
+        settlementService.executeSettlement(requesterId, groupId);
+
+        // Assert
+        verify(settlementJdbcRepository).insertSettlements(settlementListCaptor.capture());
+        assertThat(settlementListCaptor.getValue()).hasSize(2);
+        verify(exactSettlementSolver).solve(any());
+    }
+
+    @Test
+    @DisplayName("executeSettlement - Should route every payment through the hub requested for this settlement")
+    void executeSettlement_HubStrategyRequested_ShouldPayThroughHub() {
+        // Arrange
+        // A is owed 60 by B and C between them, but C collects for the group
+        setupMocksForSettlement(List.of(
+                createBalance(userA, "SGD", "60.00"),
+                createBalance(userB, "SGD", "-40.00"),
+                createBalance(userC, "SGD", "-20.00")
+        ));
+        when(groupMembershipCache.isMember(groupId, userC.getId())).thenReturn(true);
+        SettlementRequest request = new SettlementRequest(null, null, SettlementSolverMode.HUB, userC.getId());
+
+        // Act
+        settlementService.executeSettlement(requesterId, groupId, request);
+
+        // Assert
+        verify(settlementJdbcRepository).insertSettlements(settlementListCaptor.capture());
+        List<Settlement> results = settlementListCaptor.getValue();
+
+        assertThat(results).hasSize(2);
+        assertThat(results).allSatisfy(s -> assertThat(
+                List.of(s.getPayer().getId(), s.getPayee().getId())).contains(userC.getId()));
+        assertThat(results)
+                .filteredOn(s -> s.getPayer().getId().equals(userB.getId()))
+                .singleElement()
+                .satisfies(s -> assertThat(s.getAmount()).isEqualByComparingTo("40.00"));
+        assertThat(results)
+                .filteredOn(s -> s.getPayee().getId().equals(userA.getId()))
+                .singleElement()
+                .satisfies(s -> assertThat(s.getAmount()).isEqualByComparingTo("60.00"));
+        verify(greedySettlementSolver, never()).settle(any(), any());
+    }
+
+    @Test
+    @DisplayName("executeSettlement - Should use the group's strategy and fall back to the owner as hub")
+    void executeSettlement_GroupHubStrategy_ShouldUseOwnerAsHub() {
+        // Arrange
+        setupMocksForSettlement(List.of(
+                createBalance(userB, "SGD", "30.00"),
+                createBalance(userC, "SGD", "-30.00")
+        ));
+        when(groupRepository.findSettlementSettingsById(groupId)).thenReturn(Optional.of(
+                new GroupSettlementSettingsRow(SettlementSolverMode.HUB, null, userA.getId())));
+        when(groupMembershipCache.isMember(groupId, userA.getId())).thenReturn(true);
+
+        // Act
+        settlementService.executeSettlement(requesterId, groupId);
+
+        // Assert
+        // The owner has no balance of their own but still relays the payment
+        verify(settlementJdbcRepository).insertSettlements(settlementListCaptor.capture());
+        assertThat(settlementListCaptor.getValue())
+                .extracting(s -> s.getPayer().getId(), s -> s.getPayee().getId())
+                .containsExactlyInAnyOrder(
+                        tuple(userC.getId(), userA.getId()),
+                        tuple(userA.getId(), userB.getId()));
+    }
+
+    @Test
+    @DisplayName("executeSettlement - Should fall back to the owner when the group's hub has left")
+    void executeSettlement_GroupHubNoLongerMember_ShouldUseOwnerAsHub() {
+        // Arrange
+        UUID formerHub = UUID.randomUUID();
+        setupMocksForSettlement(List.of(
+                createBalance(userB, "SGD", "30.00"),
+                createBalance(userC, "SGD", "-30.00")
+        ));
+        when(groupRepository.findSettlementSettingsById(groupId)).thenReturn(Optional.of(
+                new GroupSettlementSettingsRow(SettlementSolverMode.HUB, formerHub, userA.getId())));
+        when(groupMembershipCache.isMember(groupId, formerHub)).thenReturn(false);
+        when(groupMembershipCache.isMember(groupId, userA.getId())).thenReturn(true);
+
+        // Act
+        settlementService.executeSettlement(requesterId, groupId);
+
+        // Assert
+        verify(settlementJdbcRepository).insertSettlements(settlementListCaptor.capture());
+        assertThat(settlementListCaptor.getValue())
+                .extracting(s -> s.getPayer().getId(), s -> s.getPayee().getId())
+                .containsExactlyInAnyOrder(
+                        tuple(userC.getId(), userA.getId()),
+                        tuple(userA.getId(), userB.getId()));
+    }
+
+    @Test
+    @DisplayName("executeSettlement - Should let the request override the group's strategy")
+    void executeSettlement_RequestStrategy_ShouldOverrideGroupStrategy() {
+        // Arrange
+        setupMocksForSettlement(List.of(
+                createBalance(userA, "SGD", "100.00"),
+                createBalance(userB, "SGD", "-50.00"),
+                createBalance(userC, "SGD", "-50.00")
+        ));
+        lenient().when(groupRepository.findSettlementSettingsById(groupId)).thenReturn(Optional.of(
+                new GroupSettlementSettingsRow(SettlementSolverMode.HUB, userB.getId(), userA.getId())));
+        SettlementRequest request = new SettlementRequest(null, null, SettlementSolverMode.GREEDY, null);
+
+        // Act
+        settlementService.executeSettlement(requesterId, groupId, request);
+
+        // Assert
+        verify(greedySettlementSolver).settle(any(), any());
+        verify(hubSettlementStrategy, never()).settle(any(), any());
+    }
+
+    @Test
+    @DisplayName("executeSettlement - Should reject a hub that is not a group member")
+    void executeSettlement_HubNotMember_ShouldThrowException() {
+        // Arrange
+        UUID outsider = UUID.randomUUID();
+        when(groupRepository.tryLockForSettlement(groupId)).thenReturn(true);
+        SettlementRequest request = new SettlementRequest(null, null, SettlementSolverMode.HUB, outsider);
+
+        // Act & Assert
+        assertThatThrownBy(() -> settlementService.executeSettlement(requesterId, groupId, request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The settlement hub must be a member of the group");
+
+        verify(settlementJdbcRepository, never()).insertSettlementGroup(any());
+    }
+
+    @Test
+    @DisplayName("executeSettlement - Should reject a hub member without the hub strategy")
+    void executeSettlement_HubWithoutHubStrategy_ShouldThrowException() {
+        // Arrange
+        when(groupRepository.tryLockForSettlement(groupId)).thenReturn(true);
+        SettlementRequest request = new SettlementRequest(null, null, SettlementSolverMode.GREEDY, userA.getId());
+
+        // Act & Assert
+        assertThatThrownBy(() -> settlementService.executeSettlement(requesterId, groupId, request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("A hub member can only be given with the HUB strategy");
+    }
+
+    @Test
+    @DisplayName("executeSettlement - Should replay unsettled splits when the ledger does not net to zero")
+    void executeSettlement_LedgerOutOfSync_ShouldReplaySplits() {
+        // Arrange
+        setupMocksForSettlement(List.of(
+                createBalance(userA, "SGD", "100.00"),
+                createBalance(userB, "SGD", "-50.00")
+        ));
+
+        BalanceSheet replayed = BalanceSheet.builder()
+                .add(userA.getId(), 10000)
+                .add(userB.getId(), -5000)
+                .add(userC.getId(), -5000)
                 .build();
+        when(groupBalanceService.replayUnsettledSplits(groupId)).thenReturn(Map.of("SGD", replayed));
 
-        SettlementGroup sg2 = SettlementGroup.builder()
-                .id(UUID.randomUUID())
-                .group(testGroup)
-                .settlements(new ArrayList<>())
+        // Act
+        settlementService.executeSettlement(requesterId, groupId);
+
+        // Assert
+        verify(settlementJdbcRepository).insertSettlements(settlementListCaptor.capture());
+        List<Settlement> results = settlementListCaptor.getValue();
+
+        assertThat(results).hasSize(2);
+        assertThat(results)
+                .extracting(s -> s.getPayer().getId())
+                .containsExactlyInAnyOrder(userB.getId(), userC.getId());
+
+        // The drifted rows as read are what comes off the ledger, leaving it at zero
+        verify(groupBalanceService).subtractSettled(eq(groupId), sheetsCaptor.capture());
+        BalanceSheet subtracted = sheetsCaptor.getValue().get("SGD");
+        assertThat(subtracted.userIds()).containsExactly(userA.getId(), userB.getId());
+        assertThat(subtracted.cents(0)).isEqualTo(10000);
+        assertThat(subtracted.cents(1)).isEqualTo(-5000);
+    }
+
+    @Test
+    @DisplayName("executeSettlement - Should subtract the settled balances instead of clearing the ledger")
+    void executeSettlement_FullSettle_ShouldSubtractLedgerAsRead() {
+        // Arrange
+        setupMocksForSettlement(List.of(
+                createBalance(userA, "SGD", "30.00"),
+                createBalance(userB, "SGD", "-30.00")
+        ));
+
+        // Act
+        settlementService.executeSettlement(requesterId, groupId);
+
+        // Assert
+        InOrder inOrder = inOrder(groupRepository, groupBalanceService, settlementJdbcRepository);
+        inOrder.verify(groupRepository).lockLedgerExclusive(groupId);
+        inOrder.verify(groupBalanceService).getOutstandingBalances(groupId);
+        inOrder.verify(settlementJdbcRepository).markGroupSettled(groupId);
+        verify(groupRepository, never()).findUnsettledExpenseCountById(any());
+        verify(groupBalanceService).subtractSettled(eq(groupId), sheetsCaptor.capture());
+        BalanceSheet subtracted = sheetsCaptor.getValue().get("SGD");
+        assertThat(subtracted.userIds()).containsExactly(userA.getId(), userB.getId());
+        assertThat(subtracted.cents(0)).isEqualTo(3000);
+        assertThat(subtracted.cents(1)).isEqualTo(-3000);
+    }
+
+    @Test
+    @DisplayName("executeSettlement - Should settle only expenses up to the cutoff and subtract them from the ledger")
+    void executeSettlement_WithDateCutoff_ShouldSettleSelectionOnly() {
+        // Arrange
+        LocalDate cutoff = LocalDate.of(2026, 1, 31);
+        UUID expenseId = UUID.randomUUID();
+        BalanceSheet selected = BalanceSheet.builder()
+                .add(userA.getId(), 3000)
+                .add(userB.getId(), -3000)
                 .build();
+        SettlementSelection selection = new SettlementSelection(Map.of("SGD", selected), Set.of(expenseId));
 
-        when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, requesterId)).thenReturn(true);
-        when(settlementGroupRepository.findByGroupIdOrderBySettledAtDesc(groupId))
-                .thenReturn(List.of(sg1, sg2));
+        setupMocksForPartialSettlement();
+        when(groupBalanceService.selectUnsettledUpTo(groupId, cutoff)).thenReturn(selection);
 
         // Act
-        List<SettlementSummaryResponse> result = settlementService.getSettlementHistory(requesterId, groupId);
+        SettlementDetailResponse response = settlementService.executeSettlement(
+                requesterId, groupId, new SettlementRequest(cutoff, null));
 
         // Assert
-        assertThat(result).hasSize(2);
-        verify(settlementGroupRepository).findByGroupIdOrderBySettledAtDesc(groupId);
+        assertThat(response.getTransactions()).hasSize(1);
+        assertThat(response.getTransactions().get(0).getAmount()).isEqualByComparingTo("30.00");
+
+        verify(settlementJdbcRepository).markExpensesSettled(groupId, Set.of(expenseId));
+        verify(groupBalanceService).subtractSettled(groupId, selection.sheets());
+        verify(settlementJdbcRepository, never()).markGroupSettled(any());
+        verify(groupBalanceService, never()).getOutstandingBalances(any());
+        verify(expenseRepository, never()).existsByGroupIdAndIsSettledFalse(any());
     }
 
     @Test
-    @DisplayName("getSettlementHistory - Should throw exception when group not found")
-    void getSettlementHistory_WhenGroupNotFound_ShouldThrow() {
+    @DisplayName("executeSettlement - Should reject a date cutoff with no unsettled expenses")
+    void executeSettlement_WithDateCutoffAndNothingSelected_ShouldThrow() {
         // Arrange
-        when(groupRepository.findById(groupId)).thenReturn(Optional.empty());
+        LocalDate cutoff = LocalDate.of(2026, 1, 31);
+        when(groupRepository.tryLockForSettlement(groupId)).thenReturn(true);
+        when(groupBalanceService.selectUnsettledUpTo(groupId, cutoff))
+                .thenReturn(new SettlementSelection(Map.of(), Set.of()));
 
         // Act & Assert
-        assertThatThrownBy(() -> settlementService.getSettlementHistory(requesterId, groupId))
-                .isInstanceOf(RuntimeException.class)
-                .hasMessage("Group not found");
+        assertThatThrownBy(() -> settlementService.executeSettlement(
+                requesterId, groupId, new SettlementRequest(cutoff, null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("No unsettled expenses to settle");
 
-        verify(settlementGroupRepository, never()).findByGroupIdOrderBySettledAtDesc(any());
+        verify(settlementJdbcRepository, never()).insertSettlementGroup(any());
+    }
+
+    @Test
+    @DisplayName("executeSettlement - Should reject expense ids that are settled or outside the group")
+    void executeSettlement_WithUnknownExpenseIds_ShouldThrow() {
+        // Arrange
+        UUID unsettled = UUID.randomUUID();
+        UUID foreign = UUID.randomUUID();
+        when(groupRepository.tryLockForSettlement(groupId)).thenReturn(true);
+        when(groupBalanceService.selectUnsettled(groupId, Set.of(unsettled, foreign)))
+                .thenReturn(new SettlementSelection(Map.of(), Set.of(unsettled)));
+
+        // Act & Assert
+        assertThatThrownBy(() -> settlementService.executeSettlement(
+                requesterId, groupId, new SettlementRequest(null, List.of(unsettled, foreign))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Some expenses are already settled or do not belong to this group");
+
+        verify(settlementJdbcRepository, never()).markExpensesSettled(any(), any());
+    }
+
+    @Test
+    @DisplayName("executeSettlement - Should reject a request with both a cutoff and expense ids")
+    void executeSettlement_WithCutoffAndExpenseIds_ShouldThrow() {
+        // Arrange
+        SettlementRequest request = new SettlementRequest(LocalDate.now(), List.of(UUID.randomUUID()));
+
+        // Act & Assert
+        assertThatThrownBy(() -> settlementService.executeSettlement(requesterId, groupId, request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Specify either an expense date cutoff or expense ids, not both");
+
+        verifyNoInteractions(groupRepository, groupBalanceService, settlementJdbcRepository);
+    }
+
+    // ==================== getSettlementPreview Tests ====================
+
+    @Test
+    @DisplayName("getSettlementPreview - Should compute transfers without locking or writing")
+    void getSettlementPreview_ShouldComputeWithoutWriting() {
+        // Arrange
+        when(groupBalanceService.getOutstandingBalances(groupId)).thenReturn(List.of(
+                createBalance(userA, "SGD", "100.00"),
+                createBalance(userB, "SGD", "-60.00"),
+                createBalance(userC, "SGD", "-40.00")
+        ));
+        when(userRepository.findAllById(any())).thenReturn(List.of(userA, userB, userC));
+        when(settlementPreviewCache.get(eq(groupId), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<List<SettlementTransaction>>>getArgument(1).get());
+
+        // Act
+        SettlementPreviewResponse response = settlementService.getSettlementPreview(requesterId, groupId);
+
+        // Assert
+        assertThat(response.getGroupId()).isEqualTo(groupId);
+        assertThat(response.getTransactions()).hasSize(2);
+        assertThat(response.getTransactions())
+                .allMatch(t -> t.getPayee().getId().equals(userA.getId()));
+
+        verify(groupRepository, never()).tryLockForSettlement(any());
+        verify(settlementJdbcRepository, never()).insertSettlementGroup(any());
+        verify(settlementJdbcRepository, never()).insertSettlements(any());
+        verify(settlementJdbcRepository, never()).markGroupSettled(any());
+        verify(groupBalanceService, never()).subtractSettled(any(), any());
+    }
+
+    @Test
+    @DisplayName("getSettlementPreview - Should serve cached transfers without reading the ledger")
+    void getSettlementPreview_WhenCached_ShouldNotRecompute() {
+        // Arrange
+        List<SettlementTransaction> cached = List.of();
+        when(settlementPreviewCache.get(eq(groupId), any())).thenReturn(cached);
+
+        // Act
+        SettlementPreviewResponse response = settlementService.getSettlementPreview(requesterId, groupId);
+
+        // Assert
+        assertThat(response.getTransactions()).isSameAs(cached);
+        verify(groupBalanceService, never()).getOutstandingBalances(any());
+    }
+
+    // ==================== getSettlementHistory Tests ====================
+
+    @Test
+    @DisplayName("getSettlementHistory - Should return settlements ordered by date")
+    void getSettlementHistory_ShouldReturnOrderedList() {
+        // Arrange
+        SettlementGroupRow sg1 = new SettlementGroupRow(UUID.randomUUID(), LocalDateTime.now());
+        SettlementGroupRow sg2 = new SettlementGroupRow(UUID.randomUUID(), LocalDateTime.now().minusDays(1));
+
+        when(settlementGroupRepository.findRowsByGroupId(groupId, Limit.unlimited()))
+                .thenReturn(List.of(sg1, sg2));
+        when(settlementRepository.sumBySettlementGroupIds(List.of(sg1.id(), sg2.id())))
+                .thenReturn(Collections.emptyList());
+
+        // Act
+        List<SettlementSummaryResponse> result = settlementService.getSettlementHistory(requesterId, groupId);
+
+        // Assert
+        assertThat(result).extracting(SettlementSummaryResponse::getId).containsExactly(sg1.id(), sg2.id());
+        verify(settlementGroupRepository).findRowsByGroupId(groupId, Limit.unlimited());
     }
 
     @Test
     @DisplayName("getSettlementHistory - Should return empty list when no settlements exist")
     void getSettlementHistory_WhenNoSettlements_ShouldReturnEmptyList() {
         // Arrange
-        when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, requesterId)).thenReturn(true);
-        when(settlementGroupRepository.findByGroupIdOrderBySettledAtDesc(groupId))
+        when(settlementGroupRepository.findRowsByGroupId(groupId, Limit.unlimited()))
                 .thenReturn(Collections.emptyList());
 
         // Act
@@ -371,75 +819,144 @@ class SettlementServiceTest {
 
         // Assert
         assertThat(result).isEmpty();
+        verify(settlementRepository, never()).sumBySettlementGroupIds(any());
     }
 
     @Test
-    @DisplayName("getSettlementHistory - Should throw exception when requester is not a group member")
-    void getSettlementHistory_WhenRequesterNotMember_ShouldThrow() {
+    @DisplayName("getSettlementHistory - Should return correct transaction count and totals per settlement")
+    void getSettlementHistory_ShouldReturnCorrectTransactionCount() {
         // Arrange
-        when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, requesterId)).thenReturn(false);
+        SettlementGroupRow sg1 = new SettlementGroupRow(UUID.randomUUID(), LocalDateTime.now());
+        SettlementGroupRow sg2 = new SettlementGroupRow(UUID.randomUUID(), LocalDateTime.now().minusDays(1));
 
-        // Act & Assert
-        assertThatThrownBy(() -> settlementService.getSettlementHistory(requesterId, groupId))
-                .isInstanceOf(IllegalArgumentException.class)
-                .hasMessage("Only group members can view the settlement history");
+        when(settlementGroupRepository.findRowsByGroupId(groupId, Limit.unlimited()))
+                .thenReturn(List.of(sg1, sg2));
+        when(settlementRepository.sumBySettlementGroupIds(List.of(sg1.id(), sg2.id())))
+                .thenReturn(List.of(
+                        new SettlementCurrencyTotalRow(sg1.id(), "USD", 2L, new BigDecimal("80.00")),
+                        new SettlementCurrencyTotalRow(sg1.id(), "SGD", 1L, new BigDecimal("12.50"))
+                ));  // sg2 was a perfect wash, no rows
 
-        verify(settlementGroupRepository, never()).findByGroupIdOrderBySettledAtDesc(any());
+        // Act
+        List<SettlementSummaryResponse> result = settlementService.getSettlementHistory(requesterId, groupId);
+
+        // Assert
+        assertThat(result).hasSize(2);
+        assertThat(result.get(0).getTransactionCount()).isEqualTo(3);
+        assertThat(result.get(0).getTotalsByCurrency())
+                .containsOnlyKeys("SGD", "USD")
+                .containsEntry("USD", new BigDecimal("80.00"))
+                .containsEntry("SGD", new BigDecimal("12.50"));
+        assertThat(result.get(1).getTransactionCount()).isEqualTo(0);
+        assertThat(result.get(1).getTotalsByCurrency()).isEmpty();
     }
 
+    // ==================== getSettlementHistoryPage Tests ====================
+
     @Test
-    @DisplayName("getSettlementHistory - Should return correct transaction count per settlement")
-    void getSettlementHistory_ShouldReturnCorrectTransactionCount() {
+    @DisplayName("getSettlementHistoryPage - Should return first page with cursor when more rows exist")
+    void getSettlementHistoryPage_FirstPage_ShouldReturnNextCursor() {
         // Arrange
-        Settlement s1 = Settlement.builder()
-                .id(UUID.randomUUID())
-                .payer(userA)
-                .payee(userB)
-                .amount(new BigDecimal("50.00"))
-                .currency("USD")
-                .build();
+        LocalDateTime now = LocalDateTime.of(2026, 1, 10, 12, 0);
+        SettlementGroupRow sg1 = new SettlementGroupRow(UUID.randomUUID(), now);
+        SettlementGroupRow sg2 = new SettlementGroupRow(UUID.randomUUID(), now.minusDays(1));
+        SettlementGroupRow sg3 = new SettlementGroupRow(UUID.randomUUID(), now.minusDays(2));
+
+        when(settlementGroupRepository.findRowsByGroupId(groupId, Limit.of(3)))
+                .thenReturn(List.of(sg1, sg2, sg3));
+        when(settlementRepository.sumBySettlementGroupIds(List.of(sg1.id(), sg2.id())))
+                .thenReturn(Collections.emptyList());
 
-        Settlement s2 = Settlement.builder()
-                .id(UUID.randomUUID())
-                .payer(userC)
-                .payee(userA)
-                .amount(new BigDecimal("30.00"))
-                .currency("USD")
-                .build();
+        // Act
+        CursorPage<SettlementSummaryResponse> page =
+                settlementService.getSettlementHistoryPage(requesterId, groupId, null, 2);
 
-        SettlementGroup sg1 = SettlementGroup.builder()
-                .id(UUID.randomUUID())
-                .group(testGroup)
-                .settlements(new ArrayList<>(List.of(s1, s2)))  // 2 settlements
-                .build();
+        // Assert
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(page.getItems()).extracting(SettlementSummaryResponse::getId)
+                .containsExactly(sg1.id(), sg2.id());
 
-        SettlementGroup sg2 = SettlementGroup.builder()
-                .id(UUID.randomUUID())
-                .group(testGroup)
-                .settlements(new ArrayList<>())  // 0 settlements
-                .build();
+        CursorCodec.Cursor next = CursorCodec.decode(page.getNextCursor());
+        assertThat(next.id()).isEqualTo(sg2.id());
+        assertThat(LocalDateTime.parse(next.sortValue())).isEqualTo(sg2.settledAt());
+    }
 
-        when(groupRepository.findById(groupId)).thenReturn(Optional.of(testGroup));
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, requesterId)).thenReturn(true);
-        when(settlementGroupRepository.findByGroupIdOrderBySettledAtDesc(groupId))
-                .thenReturn(List.of(sg1, sg2));
+    @Test
+    @DisplayName("getSettlementHistoryPage - Should seek past the cursor and end without next cursor")
+    void getSettlementHistoryPage_WithCursor_ShouldSeekPastPosition() {
+        // Arrange
+        LocalDateTime settledAt = LocalDateTime.of(2026, 1, 9, 12, 0);
+        UUID lastSeenId = UUID.randomUUID();
+        String cursor = CursorCodec.encode(settledAt.toString(), lastSeenId);
+        SettlementGroupRow sg3 = new SettlementGroupRow(UUID.randomUUID(), settledAt.minusDays(1));
+
+        when(settlementGroupRepository.findRowsByGroupIdBefore(groupId, settledAt, lastSeenId, Limit.of(3)))
+                .thenReturn(List.of(sg3));
+        when(settlementRepository.sumBySettlementGroupIds(List.of(sg3.id())))
+                .thenReturn(Collections.emptyList());
 
         // Act
-        List<SettlementSummaryResponse> result = settlementService.getSettlementHistory(requesterId, groupId);
+        CursorPage<SettlementSummaryResponse> page =
+                settlementService.getSettlementHistoryPage(requesterId, groupId, cursor, 2);
 
         // Assert
-        assertThat(result).hasSize(2);
-        assertThat(result.get(0).getTransactionCount()).isEqualTo(2);  // sg1 has 2 settlements
-        assertThat(result.get(1).getTransactionCount()).isEqualTo(0);  // sg2 has 0 settlements
-        verify(settlementGroupRepository).findByGroupIdOrderBySettledAtDesc(groupId);
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+        assertThat(page.getItems()).extracting(SettlementSummaryResponse::getId).containsExactly(sg3.id());
+        verify(settlementGroupRepository, never()).findRowsByGroupId(any(), any());
+    }
+
+    @Test
+    @DisplayName("getSettlementHistoryPage - Should reject malformed cursor")
+    void getSettlementHistoryPage_WithInvalidCursor_ShouldThrow() {
+        // Act & Assert
+        assertThatThrownBy(() -> settlementService.getSettlementHistoryPage(requesterId, groupId, "not-a-cursor", 20))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @Test
+    @DisplayName("getSettlementHistoryPage - Should reject page size out of range")
+    void getSettlementHistoryPage_WithInvalidSize_ShouldThrow() {
+        // Act & Assert
+        assertThatThrownBy(() -> settlementService.getSettlementHistoryPage(requesterId, groupId, null, 101))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Page size must be between 1 and 100");
+
+        verifyNoInteractions(groupRepository, settlementGroupRepository);
+    }
+
+    // ==================== export Tests ====================
+
+    @Test
+    @DisplayName("writeSettlementsCsv - Should write a header and one escaped line per streamed row")
+    void writeSettlementsCsv_ShouldWriteRows() throws Exception {
+        // Arrange
+        LocalDateTime settledAt = LocalDateTime.of(2026, 1, 10, 12, 30);
+        Duration queryTimeout = settlementProperties.getExportQueryTimeout();
+        doAnswer(invocation -> {
+            Consumer<SettlementExportRow> consumer = invocation.getArgument(2);
+            consumer.accept(new SettlementExportRow(settledAt, "Tan, Bob", "bob@example.com",
+                    "=cmd", "alice@example.com", "SGD", new BigDecimal("12.50")));
+            return null;
+        }).when(settlementJdbcRepository).streamSettlementsForExport(eq(groupId), eq(queryTimeout), any());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        settlementService.writeSettlementsCsv(requesterId, groupId, out);
+
+        // Assert
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "settled_at,payer_name,payer_email,payee_name,payee_email,currency,amount\r\n" +
+                "2026-01-10T12:30,\"Tan, Bob\",bob@example.com,'=cmd,alice@example.com,SGD,12.50\r\n");
     }
 
     // ==================== getSettlementDetail Tests ====================
 
     @Test
     @DisplayName("getSettlementDetail - Should return settlement details")
-    void getSettlementDetail_ShouldReturnDetails() {
+    void getSettlementDetail_ShouldReturnDetails() throws Exception {
         // Arrange
         UUID settlementGroupId = UUID.randomUUID();
 
@@ -454,17 +971,19 @@ class SettlementServiceTest {
 
         testSettlementGroup.setSettlements(List.of(settlement1));
 
-        when(settlementGroupRepository.findById(settlementGroupId))
+        when(settlementGroupRepository.findDetailById(settlementGroupId))
                 .thenReturn(Optional.of(testSettlementGroup));
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, requesterId)).thenReturn(true);
+        when(groupMembershipCache.isMember(groupId, requesterId)).thenReturn(true);
 
         // Act
-        SettlementDetailResponse result = settlementService.getSettlementDetail(requesterId, settlementGroupId);
+        SettlementDetailCache.Entry result = settlementService.getSettlementDetail(requesterId, settlementGroupId);
 
         // Assert
-        assertThat(result).isNotNull();
-        assertThat(result.getId()).isEqualTo(testSettlementGroup.getId());
-        assertThat(result.getTransactions()).hasSize(1);
+        SettlementDetailResponse body = objectMapper.readValue(result.body(), SettlementDetailResponse.class);
+        assertThat(result.groupId()).isEqualTo(groupId);
+        assertThat(result.etag()).startsWith("\"").endsWith("\"");
+        assertThat(body.getId()).isEqualTo(testSettlementGroup.getId());
+        assertThat(body.getTransactions()).hasSize(1);
     }
 
     @Test
@@ -472,7 +991,7 @@ class SettlementServiceTest {
     void getSettlementDetail_WhenNotFound_ShouldThrow() {
         // Arrange
         UUID settlementGroupId = UUID.randomUUID();
-        when(settlementGroupRepository.findById(settlementGroupId))
+        when(settlementGroupRepository.findDetailById(settlementGroupId))
                 .thenReturn(Optional.empty());
 
         // Act & Assert
@@ -483,21 +1002,21 @@ class SettlementServiceTest {
 
     @Test
     @DisplayName("getSettlementDetail - Should handle empty settlement (perfect wash)")
-    void getSettlementDetail_WhenPerfectWash_ShouldReturnEmptyTransactions() {
+    void getSettlementDetail_WhenPerfectWash_ShouldReturnEmptyTransactions() throws Exception {
         // Arrange
         UUID settlementGroupId = UUID.randomUUID();
         testSettlementGroup.setSettlements(Collections.emptyList());
 
-        when(settlementGroupRepository.findById(settlementGroupId))
+        when(settlementGroupRepository.findDetailById(settlementGroupId))
                 .thenReturn(Optional.of(testSettlementGroup));
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, requesterId)).thenReturn(true);
+        when(groupMembershipCache.isMember(groupId, requesterId)).thenReturn(true);
 
         // Act
-        SettlementDetailResponse result = settlementService.getSettlementDetail(requesterId, settlementGroupId);
+        SettlementDetailCache.Entry result = settlementService.getSettlementDetail(requesterId, settlementGroupId);
 
         // Assert
-        assertThat(result).isNotNull();
-        assertThat(result.getTransactions()).isEmpty();
+        SettlementDetailResponse body = objectMapper.readValue(result.body(), SettlementDetailResponse.class);
+        assertThat(body.getTransactions()).isEmpty();
     }
 
     @Test
@@ -506,9 +1025,9 @@ class SettlementServiceTest {
         // Arrange
         UUID settlementGroupId = UUID.randomUUID();
 
-        when(settlementGroupRepository.findById(settlementGroupId))
+        when(settlementGroupRepository.findDetailById(settlementGroupId))
                 .thenReturn(Optional.of(testSettlementGroup));
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, requesterId)).thenReturn(false);
+        when(groupMembershipCache.isMember(groupId, requesterId)).thenReturn(false);
 
         // Act & Assert
         assertThatThrownBy(() -> settlementService.getSettlementDetail(requesterId, settlementGroupId))
@@ -516,40 +1035,61 @@ class SettlementServiceTest {
                 .hasMessage("Only group members can view the settlement details");
     }
 
+    @Test
+    @DisplayName("getSettlementDetail - Should serve repeat reads from cache but still check membership")
+    void getSettlementDetail_RepeatRead_ShouldNotReloadSettlement() {
+        // Arrange
+        UUID settlementGroupId = UUID.randomUUID();
+
+        when(settlementGroupRepository.findDetailById(settlementGroupId))
+                .thenReturn(Optional.of(testSettlementGroup));
+        when(groupMembershipCache.isMember(groupId, requesterId)).thenReturn(true);
+
+        // Act
+        SettlementDetailCache.Entry first = settlementService.getSettlementDetail(requesterId, settlementGroupId);
+        SettlementDetailCache.Entry second = settlementService.getSettlementDetail(requesterId, settlementGroupId);
+
+        // Assert
+        assertThat(second).isSameAs(first);
+        verify(settlementGroupRepository, times(1)).findDetailById(settlementGroupId);
+        verify(groupMembershipCache, times(2)).isMember(groupId, requesterId);
+    }
+
+    @Test
+    @DisplayName("getSettlementDetail - Should load a cache miss in a read-only transaction and a hit without one")
+    void getSettlementDetail_ShouldOnlyOpenTransactionOnCacheMiss() {
+        // Arrange
+        UUID settlementGroupId = UUID.randomUUID();
+
+        when(settlementGroupRepository.findDetailById(settlementGroupId))
+                .thenReturn(Optional.of(testSettlementGroup));
+        when(groupMembershipCache.isMember(groupId, requesterId)).thenReturn(true);
+
+        // Act
+        settlementService.getSettlementDetail(requesterId, settlementGroupId);
+        settlementService.getSettlementDetail(requesterId, settlementGroupId);
+
+        // Assert
+        verify(transactionManager, times(1)).getTransaction(argThat(TransactionDefinition::isReadOnly));
+        verify(transactionManager, times(1)).commit(any());
+    }
+
     // ==================== Helper Methods ====================
 
-    private void setupMocksForSettlement(List<ExpenseSplit> splits) {
-        when(groupRepository.findByIdWithLock(groupId)).thenReturn(Optional.of(testGroup));
-        when(groupMemberRepository.existsByGroupIdAndUserId(groupId, requesterId)).thenReturn(true);
-        when(expenseSplitRepository.findUnsettledByGroupId(groupId)).thenReturn(splits);
-
-        when(settlementGroupRepository.save(any(SettlementGroup.class)))
-                .thenAnswer(invocation -> {
-                    SettlementGroup sg = invocation.getArgument(0);
-                    if (sg.getId() == null) {
-                        sg.setId(UUID.randomUUID());
-                    }
-                    return sg;
-                });
+    private void setupMocksForSettlement(List<GroupBalance> balances) {
+        when(groupRepository.tryLockForSettlement(groupId)).thenReturn(true);
+        when(groupRepository.getReferenceById(groupId)).thenReturn(testGroup);
+        when(expenseRepository.existsByGroupIdAndIsSettledFalse(groupId)).thenReturn(true);
+        when(groupBalanceService.getOutstandingBalances(groupId)).thenReturn(balances);
 
-        when(userRepository.findAllById(any())).thenReturn(List.of(userA, userB, userC));
+        lenient().when(userRepository.findAllById(any())).thenReturn(List.of(userA, userB, userC));
+    }
 
-        when(settlementGroupRepository.findById(any(UUID.class)))
-                .thenAnswer(invocation -> {
-                    SettlementGroup sg = SettlementGroup.builder()
-                            .id(invocation.getArgument(0))
-                            .group(testGroup)
-                            .build();
-
-                    try {
-                        List<Settlement> savedSettlements = settlementListCaptor.getValue();
-                        sg.setSettlements(savedSettlements);
-                    } catch (Exception e) {
-                        sg.setSettlements(new ArrayList<>());
-                    }
-
-                    return Optional.of(sg);
-                });
+    private void setupMocksForPartialSettlement() {
+        when(groupRepository.tryLockForSettlement(groupId)).thenReturn(true);
+        when(groupRepository.getReferenceById(groupId)).thenReturn(testGroup);
+
+        lenient().when(userRepository.findAllById(any())).thenReturn(List.of(userA, userB, userC));
     }
 
     private User createUser(String name) {
@@ -560,37 +1100,12 @@ class SettlementServiceTest {
         return u;
     }
 
-    private Expense createExpense(User paidBy, String totalAmount) {
-        Expense expense = new Expense() {
-            @Override
-            public boolean equals(Object o) {
-                if (this == o) return true;
-                if (!(o instanceof Expense)) return false;
-                Expense other = (Expense) o;
-                return getId() != null && getId().equals(other.getId());
-            }
-
-            @Override
-            public int hashCode() {
-                return getClass().hashCode();
-            }
-        };
-
-        expense.setId(UUID.randomUUID());
-        expense.setGroup(testGroup);
-        expense.setCurrency("SGD");
-        expense.setPaidBy(paidBy);
-        expense.setTotalAmount(new BigDecimal(totalAmount));
-
-        return expense;
-    }
-
-    private ExpenseSplit createSplit(Expense expense, User debtor, String amount) {
-        return ExpenseSplit.builder()
-                .id(UUID.randomUUID())
-                .expense(expense)
-                .user(debtor)
-                .amountOwed(new BigDecimal(amount))
+    private GroupBalance createBalance(User user, String currency, String netAmount) {
+        return GroupBalance.builder()
+                .group(testGroup)
+                .user(user)
+                .currency(currency)
+                .netAmount(new BigDecimal(netAmount))
                 .build();
     }
-}
\ No newline at end of file
+}
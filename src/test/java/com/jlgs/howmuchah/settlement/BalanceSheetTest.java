@@ -0,0 +1,79 @@
+package com.jlgs.howmuchah.settlement;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("BalanceSheet Unit Tests")
+class BalanceSheetTest {
+
+    // ==================== builder Tests ====================
+
+    @Test
+    @DisplayName("build - Should accumulate repeated members into one dense index")
+    void build_RepeatedMembers_ShouldAccumulate() {
+        // Arrange
+        UUID userA = UUID.randomUUID();
+        UUID userB = UUID.randomUUID();
+
+        // Act
+        BalanceSheet sheet = BalanceSheet.builder()
+                .add(userA, 1000)
+                .add(userB, -400)
+                .add(userA, -250)
+                .add(userB, -350)
+                .build();
+
+        // Assert
+        assertThat(sheet.size()).isEqualTo(2);
+        assertThat(sheet.userId(0)).isEqualTo(userA);
+        assertThat(sheet.cents(0)).isEqualTo(750);
+        assertThat(sheet.cents(1)).isEqualTo(-750);
+        assertThat(sheet.total()).isZero();
+    }
+
+    @Test
+    @DisplayName("build - Should drop members who net to exactly zero")
+    void build_ZeroBalances_ShouldBeDropped() {
+        // Arrange
+        UUID userA = UUID.randomUUID();
+        UUID userB = UUID.randomUUID();
+        UUID userC = UUID.randomUUID();
+
+        // Act
+        BalanceSheet sheet = BalanceSheet.builder()
+                .add(userA, 500)
+                .add(userB, 0)
+                .add(userC, -500)
+                .build();
+
+        // Assert
+        assertThat(sheet.userIds()).containsExactly(userA, userC);
+    }
+
+    // ==================== conversion Tests ====================
+
+    @Test
+    @DisplayName("of - Should round sub-cent dust to zero and keep exact cents")
+    void of_SubCentAmounts_ShouldRoundToCents() {
+        // Arrange
+        Map<UUID, BigDecimal> balances = new LinkedHashMap<>();
+        balances.put(UUID.randomUUID(), new BigDecimal("0.004"));
+        balances.put(UUID.randomUUID(), new BigDecimal("66.66"));
+        balances.put(UUID.randomUUID(), new BigDecimal("-66.66"));
+
+        // Act
+        BalanceSheet sheet = BalanceSheet.of(balances);
+
+        // Assert
+        assertThat(sheet.size()).isEqualTo(2);
+        assertThat(sheet.cents(0)).isEqualTo(6666);
+        assertThat(BalanceSheet.fromCents(sheet.cents(1))).isEqualByComparingTo("-66.66");
+    }
+}
@@ -0,0 +1,149 @@
+package com.jlgs.howmuchah.settlement;
+
+import com.jlgs.howmuchah.config.SettlementProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ExactSettlementSolver Unit Tests")
+class ExactSettlementSolverTest {
+
+    private SettlementProperties settlementProperties;
+    private ExactSettlementSolver exactSolver;
+    private GreedySettlementSolver greedySolver;
+
+    @BeforeEach
+    void setUp() {
+        settlementProperties = new SettlementProperties();
+        greedySolver = new GreedySettlementSolver();
+        exactSolver = new ExactSettlementSolver(settlementProperties, greedySolver);
+    }
+
+    // ==================== solve Tests ====================
+
+    @Test
+    @DisplayName("solve - Should settle hidden zero-sum subgroups with fewer transfers than greedy")
+    void solve_HiddenSubgroups_ShouldBeatGreedy() {
+        // Arrange
+        // {+8, -6, -2} and {+3, -3} -> 5 members, 2 subsets, 3 transfers
+        BalanceSheet balances = balances("8.00", "3.00", "-6.00", "-3.00", "-2.00");
+
+        // Act
+        List<Transfer> exact = exactSolver.solve(balances).orElseThrow();
+        List<Transfer> greedy = greedySolver.solve(balances);
+
+        // Assert
+        assertThat(exact).hasSize(3);
+        assertThat(greedy).hasSize(4);
+        assertSettlesExactly(balances, exact);
+    }
+
+    @Test
+    @DisplayName("solve - Should return no transfers when every balance is zero")
+    void solve_AllZero_ShouldReturnEmpty() {
+        // Act
+        Optional<List<Transfer>> result = exactSolver.solve(balances("0.00", "0.001", "-0.001"));
+
+        // Assert
+        assertThat(result).contains(List.of());
+    }
+
+    @Test
+    @DisplayName("solve - Should never use more transfers than greedy on random groups")
+    void solve_RandomGroups_ShouldBeOptimalAndConsistent() {
+        Random random = new Random(42);
+
+        for (int run = 0; run < 200; run++) {
+            // Arrange
+            BalanceSheet balances = randomBalances(random, 2 + random.nextInt(11));
+
+            // Act
+            List<Transfer> exact = exactSolver.solve(balances).orElseThrow();
+            List<Transfer> greedy = greedySolver.solve(balances);
+
+            // Assert
+            assertThat(exact.size()).isLessThanOrEqualTo(greedy.size());
+            assertSettlesExactly(balances, exact);
+        }
+    }
+
+    @Test
+    @DisplayName("solve - Should give up when non-zero balances exceed the member limit")
+    void solve_OverMemberLimit_ShouldReturnEmpty() {
+        // Arrange
+        settlementProperties.setExactMaxMembers(3);
+
+        // Act
+        Optional<List<Transfer>> result = exactSolver.solve(balances("5.00", "5.00", "-5.00", "-5.00"));
+
+        // Assert
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    @DisplayName("solve - Should give up when the time budget is exhausted")
+    void solve_BudgetExhausted_ShouldReturnEmpty() {
+        // Arrange
+        settlementProperties.setExactTimeBudgetMs(0);
+        BalanceSheet balances = randomBalances(new Random(7), 20);
+
+        // Act
+        Optional<List<Transfer>> result = exactSolver.solve(balances);
+
+        // Assert
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    @DisplayName("solve - Should give up when balances do not net to zero")
+    void solve_UnbalancedLedger_ShouldReturnEmpty() {
+        // Act
+        Optional<List<Transfer>> result = exactSolver.solve(balances("10.00", "-9.99"));
+
+        // Assert
+        assertThat(result).isEmpty();
+    }
+
+    // ==================== Helper Methods ====================
+
+    private BalanceSheet balances(String... amounts) {
+        Map<UUID, BigDecimal> balances = new LinkedHashMap<>();
+        for (String amount : amounts) {
+            balances.put(UUID.randomUUID(), new BigDecimal(amount));
+        }
+        return BalanceSheet.of(balances);
+    }
+
+    /**
+     * Random zero-sum balances, small amounts so that zero-sum subgroups actually occur
+     */
+    private BalanceSheet randomBalances(Random random, int members) {
+        BalanceSheet.Builder builder = BalanceSheet.builder();
+        long total = 0;
+        for (int i = 0; i < members - 1; i++) {
+            long cents = (random.nextInt(41) - 20) * 100L + random.nextInt(2) * 50L;
+            builder.add(UUID.randomUUID(), cents);
+            total += cents;
+        }
+        builder.add(UUID.randomUUID(), -total);
+        return builder.build();
+    }
+
+    private void assertSettlesExactly(BalanceSheet balances, List<Transfer> transfers) {
+        Map<UUID, Long> remaining = new HashMap<>();
+        for (int i = 0; i < balances.size(); i++) {
+            remaining.put(balances.userId(i), balances.cents(i));
+        }
+        for (Transfer transfer : transfers) {
+            assertThat(transfer.amountCents()).isPositive();
+            remaining.merge(transfer.payerId(), transfer.amountCents(), Long::sum);
+            remaining.merge(transfer.payeeId(), -transfer.amountCents(), Long::sum);
+        }
+        assertThat(remaining.values()).allSatisfy(cents -> assertThat(cents).isZero());
+    }
+}
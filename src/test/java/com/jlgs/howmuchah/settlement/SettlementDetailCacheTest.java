@@ -0,0 +1,68 @@
+package com.jlgs.howmuchah.settlement;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jlgs.howmuchah.config.SettlementProperties;
+import com.jlgs.howmuchah.entity.Group;
+import com.jlgs.howmuchah.entity.SettlementGroup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SettlementDetailCache Unit Tests")
+class SettlementDetailCacheTest {
+
+    private SettlementDetailCache detailCache;
+    private SettlementGroup settlementGroup;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        detailCache = new SettlementDetailCache(new SettlementProperties(), new ObjectMapper().findAndRegisterModules());
+        settlementGroup = SettlementGroup.builder()
+                .id(UUID.randomUUID())
+                .group(Group.builder().id(UUID.randomUUID()).build())
+                .settledAt(LocalDateTime.of(2026, 1, 10, 12, 0))
+                .settlements(new ArrayList<>())
+                .build();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("get - Should serialize once and serve the same bytes and ETag afterwards")
+    void get_ShouldCacheSerializedDetail() {
+        // Act
+        SettlementDetailCache.Entry first = detailCache.get(settlementGroup.getId(), this::load);
+        SettlementDetailCache.Entry second = detailCache.get(settlementGroup.getId(), this::load);
+
+        // Assert
+        assertThat(loads).hasValue(1);
+        assertThat(second).isSameAs(first);
+        assertThat(first.groupId()).isEqualTo(settlementGroup.getGroup().getId());
+        assertThat(first.etag()).matches("\"[0-9a-f]{32}\"");
+    }
+
+    @Test
+    @DisplayName("get - Should not cache a failed load")
+    void get_WhenLoaderThrows_ShouldNotCache() {
+        // Act & Assert
+        assertThatThrownBy(() -> detailCache.get(settlementGroup.getId(), () -> {
+            throw new IllegalArgumentException("Settlement not found");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        detailCache.get(settlementGroup.getId(), this::load);
+        assertThat(loads).hasValue(1);
+    }
+
+    private SettlementGroup load() {
+        loads.incrementAndGet();
+        return settlementGroup;
+    }
+}
@@ -0,0 +1,67 @@
+package com.jlgs.howmuchah.settlement;
+
+import com.jlgs.howmuchah.config.SettlementProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SettlementExportLimiter Unit Tests")
+class SettlementExportLimiterTest {
+
+    private SettlementExportLimiter exportLimiter;
+
+    @BeforeEach
+    void setUp() {
+        SettlementProperties settlementProperties = new SettlementProperties();
+        settlementProperties.setExportConcurrency(2);
+        exportLimiter = new SettlementExportLimiter(settlementProperties);
+    }
+
+    @Test
+    @DisplayName("acquire - Should reject exports beyond the configured concurrency")
+    void acquire_WhenAllSlotsTaken_ShouldReject() {
+        // Arrange
+        exportLimiter.acquire();
+        exportLimiter.acquire();
+
+        // Act & Assert
+        assertThatThrownBy(() -> exportLimiter.acquire())
+                .isInstanceOf(TaskRejectedException.class)
+                .hasMessage("Settlement export limit reached");
+    }
+
+    @Test
+    @DisplayName("release - Should let the next export start")
+    void release_ShouldFreeSlot() {
+        // Arrange
+        SettlementExportLimiter.Permit permit = exportLimiter.acquire();
+        exportLimiter.acquire();
+
+        // Act
+        permit.release();
+
+        // Assert
+        assertThatCode(() -> exportLimiter.acquire()).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("release - Should only free the slot once when several paths release the same permit")
+    void release_Twice_ShouldFreeOneSlot() {
+        // Arrange
+        SettlementExportLimiter.Permit permit = exportLimiter.acquire();
+        exportLimiter.acquire();
+
+        // Act
+        permit.release();
+        permit.release();
+
+        // Assert
+        exportLimiter.acquire();
+        assertThatThrownBy(() -> exportLimiter.acquire())
+                .isInstanceOf(TaskRejectedException.class);
+    }
+}
@@ -0,0 +1,88 @@
+package com.jlgs.howmuchah.settlement;
+
+import com.jlgs.howmuchah.config.SettlementProperties;
+import com.jlgs.howmuchah.dto.response.SettlementTransaction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SettlementPreviewCache Unit Tests")
+class SettlementPreviewCacheTest {
+
+    private SettlementPreviewCache previewCache;
+    private UUID groupId;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        previewCache = new SettlementPreviewCache(new SettlementProperties());
+        groupId = UUID.randomUUID();
+        loads = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("get - Should compute once and serve later reads from cache")
+    void get_ShouldCacheResult() {
+        // Act
+        previewCache.get(groupId, this::load);
+        previewCache.get(groupId, this::load);
+
+        // Assert
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("evictAfterCommit - Should evict immediately outside a transaction")
+    void evictAfterCommit_WithoutTransaction_ShouldEvictImmediately() {
+        // Arrange
+        previewCache.get(groupId, this::load);
+
+        // Act
+        previewCache.evictAfterCommit(groupId);
+        previewCache.get(groupId, this::load);
+
+        // Assert
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("evictAfterCommit - Should keep the entry until the transaction commits")
+    void evictAfterCommit_InTransaction_ShouldEvictOnCommit() {
+        // Arrange
+        previewCache.get(groupId, this::load);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        previewCache.evictAfterCommit(groupId);
+        previewCache.get(groupId, this::load);
+        assertThat(loads).hasValue(1);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        previewCache.get(groupId, this::load);
+
+        // Assert
+        assertThat(loads).hasValue(2);
+    }
+
+    private List<SettlementTransaction> load() {
+        loads.incrementAndGet();
+        return new ArrayList<>();
+    }
+}
@@ -0,0 +1,79 @@
+package com.jlgs.howmuchah.settlement;
+
+import com.jlgs.howmuchah.config.SettlementProperties;
+import com.jlgs.howmuchah.enums.SettlementSolverMode;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH comparison of every settlement strategy on the same ledgers
+ *
+ * Not part of the unit test run. To run:
+ * mvn test-compile
+ * java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+ *     com.jlgs.howmuchah.settlement.SettlementSolverBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SettlementSolverBenchmark {
+
+    @Param({"GREEDY", "EXACT", "HUB"})
+    private SettlementSolverMode strategy;
+
+    @Param({"5", "10", "15", "20"})
+    private int members;
+
+    private BalanceSheet balances;
+    private SettlementStrategy settlementStrategy;
+    private SettlementContext context;
+
+    @Setup
+    public void setUp() {
+        SettlementProperties settlementProperties = new SettlementProperties();
+        settlementProperties.setExactTimeBudgetMs(60_000);
+
+        GreedySettlementSolver greedySolver = new GreedySettlementSolver();
+        SettlementStrategyRegistry registry = new SettlementStrategyRegistry(List.of(
+                greedySolver,
+                new ExactSettlementSolver(settlementProperties, greedySolver),
+                new HubSettlementStrategy()));
+        settlementStrategy = registry.get(strategy);
+
+        // Whole-dollar amounts in a narrow range so zero-sum subgroups are common
+        Random random = new Random(members);
+        BalanceSheet.Builder builder = BalanceSheet.builder();
+        long total = 0;
+        for (int i = 0; i < members - 1; i++) {
+            long cents = (random.nextInt(41) - 20) * 100L;
+            builder.add(UUID.randomUUID(), cents);
+            total += cents;
+        }
+        builder.add(UUID.randomUUID(), -total);
+        balances = builder.build();
+        context = new SettlementContext(strategy, balances.userId(0));
+    }
+
+    @Benchmark
+    public List<Transfer> settle() {
+        return settlementStrategy.settle(balances, context);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SettlementSolverBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,132 @@
+package com.jlgs.howmuchah.settlement;
+
+import com.jlgs.howmuchah.config.SettlementProperties;
+import com.jlgs.howmuchah.enums.SettlementSolverMode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Invariants every settlement strategy must hold, checked on seeded random ledgers
+ * A failing case can be replayed from the strategy and seed in the test name.
+ */
+@DisplayName("SettlementStrategy Property Tests")
+class SettlementStrategyPropertyTest {
+
+    private static final int RUNS_PER_SEED = 50;
+
+    private GreedySettlementSolver greedySolver;
+    private SettlementStrategyRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        greedySolver = new GreedySettlementSolver();
+        registry = new SettlementStrategyRegistry(List.of(
+                greedySolver,
+                new ExactSettlementSolver(new SettlementProperties(), greedySolver),
+                new HubSettlementStrategy()));
+    }
+
+    static Stream<Arguments> strategiesAndSeeds() {
+        return Arrays.stream(SettlementSolverMode.values())
+                .flatMap(mode -> Stream.of(1L, 7L, 42L, 2024L).map(seed -> Arguments.of(mode, seed)));
+    }
+
+    // ==================== settle Tests ====================
+
+    @ParameterizedTest(name = "{0} seed={1}")
+    @MethodSource("strategiesAndSeeds")
+    @DisplayName("settle - Should zero every balance with positive transfers between distinct users")
+    void settle_RandomLedgers_ShouldSettleExactly(SettlementSolverMode mode, long seed) {
+        Random random = new Random(seed);
+        SettlementStrategy strategy = registry.get(mode);
+
+        for (int run = 0; run < RUNS_PER_SEED; run++) {
+            // Arrange
+            BalanceSheet balances = randomBalances(random, 1 + random.nextInt(14));
+            SettlementContext context = contextFor(mode, balances, random);
+
+            // Act
+            List<Transfer> transfers = strategy.settle(balances, context);
+
+            // Assert
+            assertSettlesExactly(balances, transfers);
+            int limit = mode == SettlementSolverMode.HUB && !balances.userIds().contains(context.hubUserId())
+                    ? balances.size()
+                    : Math.max(balances.size() - 1, 0);
+            assertThat(transfers.size()).isLessThanOrEqualTo(limit);
+        }
+    }
+
+    @ParameterizedTest(name = "seed={0}")
+    @MethodSource("seeds")
+    @DisplayName("settle - Should never use more transfers with EXACT than with GREEDY")
+    void settle_Exact_ShouldNeverExceedGreedy(long seed) {
+        Random random = new Random(seed);
+        SettlementStrategy exact = registry.get(SettlementSolverMode.EXACT);
+        SettlementStrategy greedy = registry.get(SettlementSolverMode.GREEDY);
+
+        for (int run = 0; run < RUNS_PER_SEED; run++) {
+            // Arrange
+            BalanceSheet balances = randomBalances(random, 2 + random.nextInt(11));
+            SettlementContext context = SettlementContext.of(SettlementSolverMode.EXACT);
+
+            // Act & Assert
+            assertThat(exact.settle(balances, context).size())
+                    .isLessThanOrEqualTo(greedy.settle(balances, context).size());
+        }
+    }
+
+    static Stream<Long> seeds() {
+        return Stream.of(1L, 7L, 42L, 2024L);
+    }
+
+    // ==================== Helper Methods ====================
+
+    /**
+     * Hub is a member with a balance most of the time, otherwise someone who breaks even
+     */
+    private SettlementContext contextFor(SettlementSolverMode mode, BalanceSheet balances, Random random) {
+        if (mode != SettlementSolverMode.HUB) {
+            return SettlementContext.of(mode);
+        }
+        UUID hub = balances.size() == 0 || random.nextInt(4) == 0 ? UUID.randomUUID() : balances.userId(random.nextInt(balances.size()));
+        return new SettlementContext(mode, hub);
+    }
+
+    /**
+     * Random zero-sum balances, small amounts so that zero-sum subgroups actually occur
+     */
+    private BalanceSheet randomBalances(Random random, int members) {
+        BalanceSheet.Builder builder = BalanceSheet.builder();
+        long total = 0;
+        for (int i = 0; i < members - 1; i++) {
+            long cents = (random.nextInt(41) - 20) * 100L + random.nextInt(2) * 50L;
+            builder.add(UUID.randomUUID(), cents);
+            total += cents;
+        }
+        builder.add(UUID.randomUUID(), -total);
+        return builder.build();
+    }
+
+    private void assertSettlesExactly(BalanceSheet balances, List<Transfer> transfers) {
+        Map<UUID, Long> remaining = new HashMap<>();
+        for (int i = 0; i < balances.size(); i++) {
+            remaining.put(balances.userId(i), balances.cents(i));
+        }
+        for (Transfer transfer : transfers) {
+            assertThat(transfer.amountCents()).isPositive();
+            assertThat(transfer.payerId()).isNotEqualTo(transfer.payeeId());
+            remaining.merge(transfer.payerId(), transfer.amountCents(), Long::sum);
+            remaining.merge(transfer.payeeId(), -transfer.amountCents(), Long::sum);
+        }
+        assertThat(remaining.values()).allSatisfy(cents -> assertThat(cents).isZero());
+    }
+}
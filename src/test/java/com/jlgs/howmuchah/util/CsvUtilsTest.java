@@ -0,0 +1,105 @@
+package com.jlgs.howmuchah.util;
+
+import com.jlgs.howmuchah.exception.CsvTooLargeException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("CsvUtils Unit Tests")
+class CsvUtilsTest {
+
+    @Test
+    @DisplayName("escape - Should leave plain values untouched")
+    void escape_PlainValue_ShouldNotQuote() {
+        assertThat(CsvUtils.escape("Alice")).isEqualTo("Alice");
+        assertThat(CsvUtils.escape("alice@example.com")).isEqualTo("alice@example.com");
+    }
+
+    @Test
+    @DisplayName("escape - Should write null as an empty field")
+    void escape_Null_ShouldBeEmpty() {
+        assertThat(CsvUtils.escape(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("escape - Should quote separators and double embedded quotes")
+    void escape_SpecialCharacters_ShouldQuote() {
+        assertThat(CsvUtils.escape("Tan, Alice")).isEqualTo("\"Tan, Alice\"");
+        assertThat(CsvUtils.escape("Al \"The Payer\"")).isEqualTo("\"Al \"\"The Payer\"\"\"");
+        assertThat(CsvUtils.escape("line\nbreak")).isEqualTo("\"line\nbreak\"");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"=HYPERLINK(\"x\")", "+1", "-2", "@SUM(A1)", "\tcmd"})
+    @DisplayName("escape - Should prefix values a spreadsheet would evaluate as a formula")
+    void escape_FormulaPrefix_ShouldNeutralize(String value) {
+        assertThat(CsvUtils.escape(value)).contains("'" + value.charAt(0));
+    }
+
+    @Test
+    @DisplayName("parse - Should split records on LF and CRLF and skip blank lines")
+    void parse_LineEndings_ShouldSplitRecords() {
+        assertThat(CsvUtils.parse("a,b\r\n1,2\n\n3,\n"))
+                .containsExactly(List.of("a", "b"), List.of("1", "2"), List.of("3", ""));
+    }
+
+    @Test
+    @DisplayName("parse - Should read quoted fields with separators, quotes and line breaks")
+    void parse_QuotedFields_ShouldUnescape() {
+        assertThat(CsvUtils.parse("\"Tan, Alice\",\"Al \"\"The Payer\"\"\",\"line\nbreak\""))
+                .containsExactly(List.of("Tan, Alice", "Al \"The Payer\"", "line\nbreak"));
+    }
+
+    @Test
+    @DisplayName("parse - Should round-trip values written with escape")
+    void parse_EscapedValues_ShouldRoundTrip() {
+        String line = String.join(",", CsvUtils.escape("a,b"), CsvUtils.escape("c\"d"), CsvUtils.escape("plain"));
+
+        assertThat(CsvUtils.parse(line)).containsExactly(List.of("a,b", "c\"d", "plain"));
+    }
+
+    @Test
+    @DisplayName("parse - Should drop a leading byte order mark from the first cell")
+    void parse_ByteOrderMark_ShouldBeStripped() {
+        assertThat(CsvUtils.parse("\uFEFFdescription,amount\r\n\uFEFFx,1\r\n"))
+                .containsExactly(List.of("description", "amount"), List.of("\uFEFFx", "1"));
+        assertThat(CsvUtils.parse("\uFEFF\"description\",amount"))
+                .containsExactly(List.of("description", "amount"));
+    }
+
+    @Test
+    @DisplayName("parse - Should reject an unterminated quoted field")
+    void parse_UnterminatedQuote_ShouldThrow() {
+        assertThatThrownBy(() -> CsvUtils.parse("a,\"b\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unterminated quoted field in CSV");
+    }
+
+    @Test
+    @DisplayName("read - Should decode a body within the limit as UTF-8")
+    void read_WithinLimit_ShouldDecode() throws Exception {
+        byte[] bytes = "café,1".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(CsvUtils.read(new ByteArrayInputStream(bytes), bytes.length)).isEqualTo("café,1");
+    }
+
+    @Test
+    @DisplayName("read - Should reject a body over the limit after reading one byte past it")
+    void read_OverLimit_ShouldThrow() throws Exception {
+        InputStream in = new ByteArrayInputStream(new byte[100]);
+
+        assertThatThrownBy(() -> CsvUtils.read(in, 10))
+                .isInstanceOf(CsvTooLargeException.class)
+                .hasMessage("CSV must be at most 10 bytes");
+        assertThat(in.available()).isEqualTo(89);
+    }
+}
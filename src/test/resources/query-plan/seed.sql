@@ -0,0 +1,79 @@
+--
+-- Seed data for QueryPlanRegressionTest
+--
+-- Shaped like production rather than sized like it: many groups of a few members,
+-- each with a long expense history of which the older half is settled. Large enough
+-- that a sequential scan costs clearly more than the matching index.
+--
+
+-- 4000 users, each a member of two groups
+INSERT INTO public.whitelist (email)
+SELECT 'user' || n || '@example.com' FROM generate_series(1, 4000) n;
+
+INSERT INTO auth.users (id)
+SELECT md5('user' || n)::uuid FROM generate_series(1, 4000) n;
+
+INSERT INTO public.users (id, email, name)
+SELECT md5('user' || n)::uuid, 'user' || n || '@example.com', 'User ' || n FROM generate_series(1, 4000) n;
+
+-- 1000 groups of 8 members, the first member owns the group
+INSERT INTO public.groups (id, name, owner_id, created_at)
+SELECT md5('group' || g)::uuid, 'Group ' || g, md5('user' || ((g - 1) * 8 % 4000 + 1))::uuid,
+       now() - g * interval '1 hour'
+FROM generate_series(1, 1000) g;
+
+INSERT INTO public.group_members (group_id, user_id)
+SELECT md5('group' || g)::uuid, md5('user' || (((g - 1) * 8 + k) % 4000 + 1))::uuid
+FROM generate_series(1, 1000) g, generate_series(0, 7) k;
+
+-- 40 expenses per group, split between four members, the older half settled
+INSERT INTO public.expenses (id, group_id, description, total_amount, currency, paid_by_user_id, category,
+                             expense_date, created_at, updated_at, is_settled)
+SELECT md5('expense' || g || '-' || x)::uuid, md5('group' || g)::uuid, 'Expense ' || x, 40.00,
+       CASE WHEN x % 3 = 0 THEN 'USD' ELSE 'SGD' END,
+       md5('user' || (((g - 1) * 8 + x % 8) % 4000 + 1))::uuid, 'food',
+       current_date - (40 - x), now() - (40 - x) * interval '1 day', now() - (40 - x) * interval '1 day',
+       x <= 20
+FROM generate_series(1, 1000) g, generate_series(1, 40) x;
+
+INSERT INTO public.expense_splits (expense_id, user_id, amount_owed, is_settled)
+SELECT md5('expense' || g || '-' || x)::uuid, md5('user' || (((g - 1) * 8 + k) % 4000 + 1))::uuid, 10.00,
+       x <= 20
+FROM generate_series(1, 1000) g, generate_series(1, 40) x, generate_series(0, 3) k;
+
+-- 5 settlements per group with 4 transactions each
+INSERT INTO public.settlement_groups (id, group_id, settled_at)
+SELECT md5('settlement' || g || '-' || s)::uuid, md5('group' || g)::uuid, now() - (6 - s) * interval '1 week'
+FROM generate_series(1, 1000) g, generate_series(1, 5) s;
+
+INSERT INTO public.settlements (settlement_group_id, payer_user_id, payee_user_id, amount, currency)
+SELECT md5('settlement' || g || '-' || s)::uuid,
+       md5('user' || (((g - 1) * 8 + t + 1) % 4000 + 1))::uuid,
+       md5('user' || ((g - 1) * 8 % 4000 + 1))::uuid,
+       5.00, CASE WHEN t % 2 = 0 THEN 'SGD' ELSE 'USD' END
+FROM generate_series(1, 1000) g, generate_series(1, 5) s, generate_series(0, 3) t;
+
+-- Running balances of every member, half of them already zero
+INSERT INTO public.group_balances (group_id, user_id, currency, net_amount)
+SELECT md5('group' || g)::uuid, md5('user' || (((g - 1) * 8 + k) % 4000 + 1))::uuid, 'SGD',
+       CASE WHEN k % 2 = 0 THEN 0 ELSE 10.00 * k END
+FROM generate_series(1, 1000) g, generate_series(0, 7) k;
+
+-- 5 invitations per group to users of other groups, one still pending
+INSERT INTO public.invitations (group_id, invited_email, invited_by_user_id, status)
+SELECT md5('group' || g)::uuid, 'user' || (((g + 499) * 8 + i) % 4000 + 1) || '@example.com',
+       md5('user' || ((g - 1) * 8 % 4000 + 1))::uuid,
+       CASE WHEN i = 0 THEN 'PENDING' WHEN i = 1 THEN 'DECLINED' ELSE 'ACCEPTED' END
+FROM generate_series(1, 1000) g, generate_series(0, 4) i;
+
+-- 5 links per group, only the newest still active
+INSERT INTO public.invitation_links (group_id, created_by_user_id, status, created_at)
+SELECT md5('group' || g)::uuid, md5('user' || ((g - 1) * 8 % 4000 + 1))::uuid,
+       CASE WHEN l = 5 THEN 'ACTIVE' ELSE 'EXPIRED' END, now() - (6 - l) * interval '8 days'
+FROM generate_series(1, 1000) g, generate_series(1, 5) l;
+
+UPDATE public.groups g
+SET member_count = (SELECT count(*) FROM public.group_members gm WHERE gm.group_id = g.id),
+    unsettled_expense_count = (SELECT count(*) FROM public.expenses e WHERE e.group_id = g.id AND e.is_settled = false);
+
+ANALYZE;
@@ -0,0 +1,16 @@
+--
+-- Stand-ins for the Supabase objects the schema dump refers to, so it loads into a plain PostgreSQL
+--
+
+DROP SCHEMA IF EXISTS public CASCADE;
+DROP SCHEMA IF EXISTS auth CASCADE;
+
+CREATE SCHEMA auth;
+
+CREATE TABLE auth.users (
+    id uuid PRIMARY KEY
+);
+
+CREATE FUNCTION auth.uid() RETURNS uuid
+    LANGUAGE sql STABLE
+    AS $$SELECT NULL::uuid$$;